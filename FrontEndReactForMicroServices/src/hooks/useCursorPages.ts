@@ -0,0 +1,65 @@
+import { useCallback, useEffect, useRef, useState } from 'react';
+import { AxiosResponse } from 'axios';
+import toast from 'react-hot-toast';
+import { CursorPage } from '../types';
+
+type FetchPage<T> = (cursor?: string) => Promise<AxiosResponse<CursorPage<T>>>;
+
+// Keyset-paginated list: the first page is loaded whenever fetchPage changes (new filters),
+// further pages are appended with loadMore(). Responses for outdated filters are dropped.
+export function useCursorPages<T>(fetchPage: FetchPage<T>, errorMessage: string) {
+  const [items, setItems] = useState<T[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const requestId = useRef(0);
+
+  const reload = useCallback(async () => {
+    const id = ++requestId.current;
+    try {
+      setLoading(true);
+      const { data } = await fetchPage();
+      if (id !== requestId.current) return;
+      setItems(data.items);
+      setNextCursor(data.hasMore ? data.nextCursor : null);
+    } catch {
+      if (id === requestId.current) toast.error(errorMessage);
+    } finally {
+      if (id === requestId.current) setLoading(false);
+    }
+  }, [fetchPage, errorMessage]);
+
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return;
+    const id = requestId.current;
+    try {
+      setLoadingMore(true);
+      const { data } = await fetchPage(nextCursor);
+      if (id !== requestId.current) return;
+      setItems((previous) => [...previous, ...data.items]);
+      setNextCursor(data.hasMore ? data.nextCursor : null);
+    } catch {
+      toast.error(errorMessage);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  useEffect(() => {
+    reload();
+  }, [reload]);
+
+  return { items, loading, loadingMore, hasMore: nextCursor !== null, reload, loadMore };
+}
+
+// Value that follows `value` once it has stopped changing for `delay` ms (search inputs)
+export function useDebounced<T>(value: T, delay = 300) {
+  const [debounced, setDebounced] = useState(value);
+
+  useEffect(() => {
+    const timer = setTimeout(() => setDebounced(value), delay);
+    return () => clearTimeout(timer);
+  }, [value, delay]);
+
+  return debounced;
+}
@@ -1,16 +1,14 @@
-import { useEffect, useState } from 'react';
+import { useCallback, useState } from 'react';
 import { motion, AnimatePresence } from 'framer-motion';
 import { Plus, Search } from 'lucide-react';
 import { absencesApi } from '../services/api';
 import { StudentAbsence } from '../types';
+import { useCursorPages, useDebounced } from '../hooks/useCursorPages';
 import toast from 'react-hot-toast';
 
 export default function Absences() {
-  const [absences, setAbsences] = useState<StudentAbsence[]>([]);
-  const [filteredAbsences, setFilteredAbsences] = useState<StudentAbsence[]>([]);
   const [searchTerm, setSearchTerm] = useState('');
   const [showModal, setShowModal] = useState(false);
-  const [loading, setLoading] = useState(true);
 
   const [formData, setFormData] = useState({
     nom: '',
@@ -21,33 +19,20 @@ export default function Absences() {
     heuresTotal: 0,
   });
 
-  useEffect(() => {
-    loadAbsences();
-  }, []);
-
-  useEffect(() => {
-    const filtered = absences.filter(
-      (a) =>
-        a.nom.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        a.prenom.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        a.cne.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        a.niveau.toLowerCase().includes(searchTerm.toLowerCase())
-    );
-    setFilteredAbsences(filtered);
-  }, [searchTerm, absences]);
-
-  const loadAbsences = async () => {
-    try {
-      setLoading(true);
-      const response = await absencesApi.getAllAbsences();
-      setAbsences(response.data);
-      setFilteredAbsences(response.data);
-    } catch (error) {
-      toast.error('Failed to load absences');
-    } finally {
-      setLoading(false);
-    }
-  };
+  // Filtered and paginated by the absence service (name prefix), one page at a time
+  const nom = useDebounced(searchTerm.trim());
+  const fetchPage = useCallback(
+    (cursor?: string) => absencesApi.getAbsencesPage({ cursor, nom: nom || undefined }),
+    [nom]
+  );
+  const {
+    items: absences,
+    loading,
+    loadingMore,
+    hasMore,
+    reload: loadAbsences,
+    loadMore,
+  } = useCursorPages<StudentAbsence>(fetchPage, 'Failed to load absences');
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
@@ -109,7 +94,7 @@ export default function Absences() {
         <Search className="absolute left-4 top-1/2 transform -translate-y-1/2 text-slate-400 w-5 h-5" />
         <input
           type="text"
-          placeholder="Search by name, CNE, or level..."
+          placeholder="Search by last name..."
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
           className="w-full pl-12 pr-4 py-3 bg-white rounded-xl shadow-lg border border-slate-200 focus:outline-none focus:ring-2 focus:ring-orange-500"
@@ -147,14 +132,14 @@ export default function Absences() {
                     <td className="px-6 py-4"><div className="h-4 bg-slate-200 rounded w-20"></div></td>
                   </tr>
                 ))
-              ) : filteredAbsences.length === 0 ? (
+              ) : absences.length === 0 ? (
                 <tr>
                   <td colSpan={7} className="px-6 py-12 text-center text-slate-500">
                     No absence records found
                   </td>
                 </tr>
               ) : (
-                filteredAbsences.map((absence, index) => {
+                absences.map((absence, index) => {
                   const rate = parseFloat(getAbsenceRate(absence.heuresAbsence, absence.heuresTotal));
                   const blacklisted = isBlacklisted(absence.heuresAbsence, absence.heuresTotal);
 
@@ -204,6 +189,18 @@ export default function Absences() {
             </tbody>
           </table>
         </div>
+        {hasMore && !loading && (
+          <div className="flex justify-center p-4 border-t border-slate-200">
+            <button
+              type="button"
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-6 py-2 text-sm font-medium text-orange-600 border border-orange-200 rounded-lg hover:bg-orange-50 disabled:opacity-50 transition-colors"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </motion.div>
 
       <AnimatePresence>
@@ -1,30 +1,32 @@
-import { useEffect, useState } from 'react';
+import { useCallback, useEffect, useState } from 'react';
 import { motion } from 'framer-motion';
 import { AlertTriangle, Filter } from 'lucide-react';
 import { absencesApi } from '../services/api';
-import { StudentAbsence } from '../types';
-import toast from 'react-hot-toast';
+import { useCursorPages, useDebounced } from '../hooks/useCursorPages';
 
 export default function Blacklist() {
-  const [blacklistedStudents, setBlacklistedStudents] = useState<StudentAbsence[]>([]);
   const [threshold, setThreshold] = useState(0.5);
-  const [loading, setLoading] = useState(true);
+  const [total, setTotal] = useState<number | null>(null);
 
-  useEffect(() => {
-    loadBlacklist();
-  }, [threshold]);
+  // Paginated by the absence service (highest absence hours first); the slider is debounced
+  const seuil = useDebounced(threshold);
+  const fetchPage = useCallback(
+    (cursor?: string) => absencesApi.getBlacklistPage(seuil, { cursor }),
+    [seuil]
+  );
+  const {
+    items: blacklistedStudents,
+    loading,
+    loadingMore,
+    hasMore,
+    loadMore,
+  } = useCursorPages(fetchPage, 'Failed to load blacklist');
 
-  const loadBlacklist = async () => {
-    try {
-      setLoading(true);
-      const response = await absencesApi.getBlacklist(threshold);
-      setBlacklistedStudents(response.data);
-    } catch (error) {
-      toast.error('Failed to load blacklist');
-    } finally {
-      setLoading(false);
-    }
-  };
+  useEffect(() => {
+    absencesApi.getBlacklistCount(seuil)
+      .then((response) => setTotal(response.data))
+      .catch(() => setTotal(null));
+  }, [seuil]);
 
   const getAbsenceRate = (heuresAbsence: number, heuresTotal: number) => {
     return ((heuresAbsence / heuresTotal) * 100).toFixed(1);
@@ -115,7 +117,7 @@ export default function Blacklist() {
           <div className="flex items-center justify-between">
             <h2 className="text-xl font-bold text-white">Blacklisted Students</h2>
             <span className="bg-white/20 backdrop-blur-sm px-4 py-2 rounded-lg text-white font-bold">
-              {blacklistedStudents.length} students
+              {total ?? blacklistedStudents.length} students
             </span>
           </div>
         </div>
@@ -219,6 +221,18 @@ export default function Blacklist() {
             </tbody>
           </table>
         </div>
+        {hasMore && !loading && (
+          <div className="flex justify-center p-4 border-t border-red-100">
+            <button
+              type="button"
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-6 py-2 text-sm font-medium text-red-600 border border-red-200 rounded-lg hover:bg-red-50 disabled:opacity-50 transition-colors"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </motion.div>
 
       {!loading && blacklistedStudents.length > 0 && (
@@ -1,14 +1,13 @@
-import { useEffect, useState } from 'react';
+import { useCallback, useState } from 'react';
 import { motion, useMotionValue, animate, useMotionValueEvent } from 'framer-motion';
 import { Calculator as CalcIcon, Minus, Equal } from 'lucide-react';
 import { gradesApi, absencesApi } from '../services/api';
-import { Student, StudentAbsence } from '../types';
+import { useCursorPages, useDebounced } from '../hooks/useCursorPages';
 import toast from 'react-hot-toast';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, Legend } from 'recharts';
 
 export default function Calculator() {
-  const [students, setStudents] = useState<Student[]>([]);
-  const [absences, setAbsences] = useState<StudentAbsence[]>([]);
+  const [searchTerm, setSearchTerm] = useState('');
   const [selectedStudent, setSelectedStudent] = useState<string>('');
   const [result, setResult] = useState({
     moyenne: 0,
@@ -42,22 +41,13 @@ export default function Calculator() {
     setDisplayFinale(latest.toFixed(2));
   });
 
-  useEffect(() => {
-    loadData();
-  }, []);
-
-  const loadData = async () => {
-    try {
-      const [studentsRes, absencesRes] = await Promise.all([
-        gradesApi.getAllStudents(),
-        absencesApi.getAllAbsences(),
-      ]);
-      setStudents(studentsRes.data);
-      setAbsences(absencesRes.data);
-    } catch {
-      toast.error('Failed to load data');
-    }
-  };
+  // Students offered in the select: one page, filtered by last name prefix
+  const nom = useDebounced(searchTerm.trim());
+  const fetchPage = useCallback(
+    (cursor?: string) => gradesApi.getStudentsPage({ cursor, nom: nom || undefined }),
+    [nom]
+  );
+  const { items: students } = useCursorPages(fetchPage, 'Failed to load data');
 
   const handleCalculate = async () => {
     if (!selectedStudent) {
@@ -66,7 +56,9 @@ export default function Calculator() {
     }
 
     const student = students.find((s) => s.id?.toString() === selectedStudent);
-    const absence = absences.find((a) => a.cne === student?.cne);
+    const absence = student
+      ? await absencesApi.getAbsenceByCne(student.cne).then((response) => response.data).catch(() => null)
+      : null;
 
     if (!student || !absence) {
       toast.error('Student data not found');
@@ -224,6 +216,13 @@ export default function Calculator() {
         <div className="space-y-6">
           <div>
             <label className="block text-sm font-medium text-slate-700 mb-2">Select Student</label>
+            <input
+              type="text"
+              placeholder="Filter by last name..."
+              value={searchTerm}
+              onChange={(e) => setSearchTerm(e.target.value)}
+              className="w-full px-4 py-2 mb-3 border border-slate-300 rounded-xl focus:outline-none focus:ring-2 focus:ring-blue-500"
+            />
             <select
               value={selectedStudent}
               onChange={(e) => setSelectedStudent(e.target.value)}
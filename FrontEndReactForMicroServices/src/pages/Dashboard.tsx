@@ -2,7 +2,7 @@ import { useEffect, useState } from 'react';
 import { motion } from 'framer-motion';
 import { Users, CheckCircle, AlertTriangle, TrendingUp } from 'lucide-react';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, PieChart, Pie, Cell } from 'recharts';
-import { gradesApi, absencesApi } from '../services/api';
+import { gatewayApi } from '../services/api';
 import StatCard from '../components/Dashboard/StatCard';
 import toast from 'react-hot-toast';
 
@@ -22,44 +22,21 @@ export default function Dashboard() {
 
   const loadData = async () => {
     try {
-      const [studentsRes, passingRes, blacklistRes] = await Promise.all([
-        gradesApi.getAllStudents(),
-        gradesApi.getPassingStudents(),
-        absencesApi.getBlacklist(0.5),
-      ]);
-
-      const students = studentsRes.data;
-      const total = students.length;
-      const passing = passingRes.data.length;
-      const blacklisted = blacklistRes.data.length;
-
-      const totalAvg = students.reduce((sum, s) => sum + (s.note1 + s.note2) / 2, 0) / (total || 1);
+      // One aggregated request: the gateway fans out to the services and returns only the summary
+      const { data } = await gatewayApi.getDashboard(0.5);
 
       setStats({
-        total,
-        passing,
-        blacklisted,
-        average: Math.round(totalAvg * 10) / 10,
+        total: data.total ?? 0,
+        passing: data.validants ?? 0,
+        blacklisted: data.listeNoire ?? 0,
+        average: data.moyenne ?? 0,
       });
 
-      const ranges = [
-        { range: '0-5', count: 0 },
-        { range: '6-9', count: 0 },
-        { range: '10-11', count: 0 },
-        { range: '12-15', count: 0 },
-        { range: '16-20', count: 0 },
-      ];
-
-      students.forEach((s) => {
-        const avg = (s.note1 + s.note2) / 2;
-        if (avg < 6) ranges[0].count++;
-        else if (avg < 10) ranges[1].count++;
-        else if (avg < 12) ranges[2].count++;
-        else if (avg < 16) ranges[3].count++;
-        else ranges[4].count++;
-      });
+      setGradeDistribution(data.distribution.map((d) => ({ range: d.tranche, count: d.effectif })));
 
-      setGradeDistribution(ranges);
+      if (data.partiel) {
+        toast.error(`Dashboard partially loaded (unavailable: ${data.manquants.join(', ')})`);
+      }
     } catch (error) {
       toast.error('Failed to load dashboard data');
     }
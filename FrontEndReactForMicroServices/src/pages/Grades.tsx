@@ -1,17 +1,15 @@
-import { useEffect, useState } from 'react';
+import { useCallback, useState } from 'react';
 import { motion, AnimatePresence } from 'framer-motion';
 import { Plus, Edit2, Trash2, Search } from 'lucide-react';
 import { gradesApi } from '../services/api';
 import { Student } from '../types';
+import { useCursorPages, useDebounced } from '../hooks/useCursorPages';
 import toast from 'react-hot-toast';
 
 export default function Grades() {
-  const [students, setStudents] = useState<Student[]>([]);
-  const [filteredStudents, setFilteredStudents] = useState<Student[]>([]);
   const [searchTerm, setSearchTerm] = useState('');
   const [showModal, setShowModal] = useState(false);
   const [editingStudent, setEditingStudent] = useState<Student | null>(null);
-  const [loading, setLoading] = useState(true);
 
   const [formData, setFormData] = useState({
     nom: '',
@@ -22,32 +20,20 @@ export default function Grades() {
     module: '',
   });
 
-  useEffect(() => {
-    loadStudents();
-  }, []);
-
-  useEffect(() => {
-    const filtered = students.filter(
-      (s) =>
-        s.nom.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        s.prenom.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        s.cne.toLowerCase().includes(searchTerm.toLowerCase())
-    );
-    setFilteredStudents(filtered);
-  }, [searchTerm, students]);
-
-  const loadStudents = async () => {
-    try {
-      setLoading(true);
-      const response = await gradesApi.getAllStudents();
-      setStudents(response.data);
-      setFilteredStudents(response.data);
-    } catch (error) {
-      toast.error('Failed to load students');
-    } finally {
-      setLoading(false);
-    }
-  };
+  // Filtered and paginated by the notes service (name prefix), one page at a time
+  const nom = useDebounced(searchTerm.trim());
+  const fetchPage = useCallback(
+    (cursor?: string) => gradesApi.getStudentsPage({ cursor, nom: nom || undefined }),
+    [nom]
+  );
+  const {
+    items: students,
+    loading,
+    loadingMore,
+    hasMore,
+    reload: loadStudents,
+    loadMore,
+  } = useCursorPages(fetchPage, 'Failed to load students');
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
@@ -110,7 +96,7 @@ export default function Grades() {
         <Search className="absolute left-4 top-1/2 transform -translate-y-1/2 text-slate-400 w-5 h-5" />
         <input
           type="text"
-          placeholder="Search by name or CNE..."
+          placeholder="Search by last name..."
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
           className="w-full pl-12 pr-4 py-3 bg-white rounded-xl shadow-lg border border-slate-200 focus:outline-none focus:ring-2 focus:ring-blue-500"
@@ -150,14 +136,14 @@ export default function Grades() {
                     <td className="px-6 py-4"><div className="h-4 bg-slate-200 rounded w-20"></div></td>
                   </tr>
                 ))
-              ) : filteredStudents.length === 0 ? (
+              ) : students.length === 0 ? (
                 <tr>
                   <td colSpan={8} className="px-6 py-12 text-center text-slate-500">
                     No students found
                   </td>
                 </tr>
               ) : (
-                filteredStudents.map((student, index) => (
+                students.map((student, index) => (
                   <motion.tr
                     key={student.id}
                     initial={{ opacity: 0, x: -20 }}
@@ -208,6 +194,18 @@ export default function Grades() {
             </tbody>
           </table>
         </div>
+        {hasMore && !loading && (
+          <div className="flex justify-center p-4 border-t border-slate-200">
+            <button
+              type="button"
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-6 py-2 text-sm font-medium text-blue-600 border border-blue-200 rounded-lg hover:bg-blue-50 disabled:opacity-50 transition-colors"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </motion.div>
 
       <AnimatePresence>
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { Student, StudentAbsence, FinalGrade } from '../types';
+import { Student, StudentAbsence, FinalGrade, CursorPage, PageQuery, Bulletin, DashboardSummary } from '../types';
 
 // Use environment variable or default to localhost for development
 // In Docker, nginx will proxy /notes and /absence to the API gateway
@@ -13,19 +13,34 @@ const api = axios.create({
 });
 
 export const gradesApi = {
-  getAllStudents: () => api.get<Student[]>('/notes/api/notes/etudiants'),
   addStudent: (student: Student) => api.post('/notes/api/notes/etudiant', student),
   getPassingStudents: () => api.get<Student[]>('/notes/api/notes/validant'),
   getTopStudents: () => api.get<Student[]>('/notes/api/notes/majorants'),
-  getSortedStudents: () => api.get<Student[]>('/notes/api/notes/tries'),
   getFinalGrade: (id: number) => api.get<FinalGrade>(`/notes/api/notes/etudiant/${id}/note-finale`),
+  getStudentsPage: (query: PageQuery = {}) =>
+    api.get<CursorPage<Student>>('/notes/api/notes/etudiants/page', { params: query }),
+  getSortedStudentsPage: (query: PageQuery = {}) =>
+    api.get<CursorPage<Student>>('/notes/api/notes/tries/page', { params: query }),
+  getBulletinsPage: (query: Omit<PageQuery, 'nom'> & { listeNoire?: boolean } = {}) =>
+    api.get<CursorPage<Bulletin>>('/notes/api/notes/bulletins', { params: query }),
+  getBulletinByCne: (cne: string) => api.get<Bulletin>(`/notes/api/notes/bulletins/cne/${cne}`),
 };
 
 export const absencesApi = {
-  getAllAbsences: () => api.get<StudentAbsence[]>('/absence/api/absences/etudiants'),
   addAbsence: (absence: StudentAbsence) => api.post('/absence/api/absences/etudiant', absence),
-  getBlacklist: (threshold = 0.5) => api.get<StudentAbsence[]>(`/absence/api/absences/liste-noire?seuil=${threshold}`),
+  getAbsenceByCne: (cne: string) => api.get<StudentAbsence>(`/absence/api/absences/etudiant/cne/${cne}`),
+  getBlacklistCount: (threshold = 0.5) =>
+    api.get<number>('/absence/api/absences/liste-noire/count', { params: { seuil: threshold } }),
   getAbsenceRate: (id: number) => api.get<{ tauxAbsence: number }>(`/absence/api/absences/etudiant/${id}/taux`),
+  getAbsencesPage: (query: PageQuery = {}) =>
+    api.get<CursorPage<StudentAbsence>>('/absence/api/absences/etudiants/page', { params: query }),
+  getBlacklistPage: (threshold = 0.5, query: PageQuery = {}) =>
+    api.get<CursorPage<StudentAbsence>>('/absence/api/absences/liste-noire/page', { params: { seuil: threshold, ...query } }),
+};
+
+export const gatewayApi = {
+  getDashboard: (threshold = 0.5, top = 5) =>
+    api.get<DashboardSummary>('/api/dashboard', { params: { seuil: threshold, top } }),
 };
 
 export default api;
@@ -25,6 +25,49 @@ export interface FinalGrade {
   penalite: number;
 }
 
+export interface CursorPage<T> {
+  items: T[];
+  size: number;
+  hasMore: boolean;
+  nextCursor: string | null;
+}
+
+export interface PageQuery {
+  cursor?: string;
+  size?: number;
+  module?: string;
+  niveau?: string;
+  nom?: string;
+}
+
+export interface Bulletin {
+  etudiantId: number;
+  cne: string;
+  nom: string;
+  prenom: string;
+  module: string;
+  niveau: string;
+  moyenne: number;
+  tauxAbsence: number | null;
+  noteFinale: number;
+  valide: boolean;
+  listeNoire: boolean;
+  majLe: number;
+}
+
+export interface DashboardSummary {
+  total: number | null;
+  validants: number | null;
+  nonValidants: number | null;
+  moyenne: number | null;
+  distribution: { tranche: string; effectif: number }[];
+  seuil: number;
+  listeNoire: number | null;
+  top: { etudiantId: number; nom: string; prenom: string; module: string; moyenne: number; rang: number }[];
+  partiel: boolean;
+  manquants: string[];
+}
+
 export interface StatCard {
   title: string;
   value: number;
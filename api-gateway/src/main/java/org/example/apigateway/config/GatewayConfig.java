@@ -1,5 +1,7 @@
 package org.example.apigateway.config;
 
+import org.example.apigateway.filter.ResponseCacheFilters;
+import org.example.apigateway.filter.SingleFlightFilters;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -14,17 +16,39 @@ import java.util.Collections;
 @Configuration
 public class GatewayConfig {
 
+    /**
+     * Les filtres de cache puis de single-flight passent avant stripPrefix: leurs clés et
+     * préfixes d'invalidation portent le chemin complet (/notes/..., /absence/...).
+     * Ils portent leur propre ordre (Ordered), inférieur à celui de NettyWriteResponseFilter:
+     * sinon leurs réponses décorées ne voient pas passer le corps du service.
+     * Un succès de cache ne rejoint pas le single-flight; un échec le rejoint avant d'aller au service.
+     *
+     * Les points d'entrée de réplication entre services (/api/.../replication/**), l'invalidation
+     * du cache des taux d'absence (/api/notes/cache/**) et les outils internes (/api/notes/interne/**)
+     * ne sont pas routés: ils ne sont appelés que de service à service, via Eureka, ou directement
+     * sur le service.
+     */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, ResponseCacheFilters cacheFilters,
+                                           SingleFlightFilters singleFlightFilters) {
         return builder.routes()
                 .route("gestion-absence-route", r -> r
                         .path("/absence/**")
-                        .filters(f -> f.stripPrefix(1))
+                        .and().not(p -> p.path("/absence/api/absences/replication/**"))
+                        .filters(f -> f
+                                .filter(cacheFilters.pour("absence"))
+                                .filter(singleFlightFilters.pour("absence"))
+                                .stripPrefix(1))
                         .uri("lb://gestion-absence-service"))
 
                 .route("gestion-notes-route", r -> r
                         .path("/notes/**")
-                        .filters(f -> f.stripPrefix(1))
+                        .and().not(p -> p.path("/notes/api/notes/replication/**", "/notes/api/notes/cache/**",
+                                "/notes/api/notes/interne/**"))
+                        .filters(f -> f
+                                .filter(cacheFilters.pour("notes"))
+                                .filter(singleFlightFilters.pour("notes"))
+                                .stripPrefix(1))
                         .uri("lb://gestion-notes-service"))
                 .build();
     }
@@ -0,0 +1,163 @@
+package org.example.apigateway.controller;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Résumé du tableau de bord, agrégé par la gateway
+ *
+ * Trois appels en parallèle (WebClient non bloquant, services résolus via Eureka):
+ * - notes: statistiques agrégées en base (effectifs, validants, moyenne, tranches), avec la
+ *   règle de validation du service notes: aucune liste d'étudiants ne transite
+ * - notes: top-N de l'index de classement
+ * - absence: nombre d'étudiants en liste noire
+ *
+ * Chaque appel a son délai (gateway.dashboard.timeout-ms). Un appel en échec laisse
+ * sa partie à null: la réponse porte alors partiel=true et la liste des parties manquantes.
+ * Les parties manquantes sont comptées (gateway.dashboard.partial, tag partie); le journal n'en
+ * garde qu'une ligne par partie et par gateway.dashboard.log-interval-seconds.
+ */
+@RestController
+public class DashboardController {
+
+    private static final int TOP_MAX = 100;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.dashboard.notes-uri:http://gestion-notes-service}")
+    private String notesUri;
+
+    @Value("${gateway.dashboard.absence-uri:http://gestion-absence-service}")
+    private String absenceUri;
+
+    @Value("${gateway.dashboard.timeout-ms:3000}")
+    private long timeoutMillis;
+
+    @Value("${gateway.dashboard.log-interval-seconds:60}")
+    private long intervalleJournalSecondes;
+
+    // Prochain instant (nanoTime) où l'échec d'une partie sera journalisé
+    private final Map<String, AtomicLong> prochainJournal = new ConcurrentHashMap<>();
+
+    /**
+     * GET /api/dashboard?seuil=0.5&top=5
+     */
+    @GetMapping("/api/dashboard")
+    public Mono<Map<String, Object>> dashboard(@RequestParam(defaultValue = "0.5") double seuil,
+                                               @RequestParam(defaultValue = "5") int top) {
+        WebClient client = webClientBuilder.build();
+        Duration timeout = Duration.ofMillis(timeoutMillis);
+
+        Mono<Optional<Statistiques>> statistiques = client.get()
+                .uri(notesUri + "/api/notes/statistiques")
+                .retrieve()
+                .bodyToMono(Statistiques.class)
+                .timeout(timeout)
+                .map(Optional::of)
+                .onErrorResume(e -> echec("notes", e));
+
+        Mono<Optional<List<Map<String, Object>>>> meilleurs = client.get()
+                .uri(notesUri + "/api/notes/classement/top?k={k}", Math.max(0, Math.min(top, TOP_MAX)))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                .timeout(timeout)
+                .map(Optional::of)
+                .onErrorResume(e -> echec("classement", e));
+
+        Mono<Optional<Long>> listeNoire = client.get()
+                .uri(absenceUri + "/api/absences/liste-noire/count?seuil={seuil}", seuil)
+                .retrieve()
+                .bodyToMono(Long.class)
+                .timeout(timeout)
+                .map(Optional::of)
+                .onErrorResume(e -> echec("absence", e));
+
+        return Mono.zip(statistiques, meilleurs, listeNoire)
+                .map(t -> resume(t.getT1(), t.getT2(), t.getT3(), seuil));
+    }
+
+    private Map<String, Object> resume(Optional<Statistiques> statistiques,
+                                       Optional<List<Map<String, Object>>> meilleurs,
+                                       Optional<Long> listeNoire, double seuil) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        List<String> manquants = new ArrayList<>();
+
+        if (statistiques.isPresent()) {
+            Statistiques s = statistiques.get();
+            response.put("total", s.total);
+            response.put("validants", s.validants);
+            response.put("nonValidants", s.nonValidants);
+            response.put("moyenne", s.moyenne);
+            response.put("distribution", s.distribution != null ? s.distribution : Collections.emptyList());
+        } else {
+            manquants.add("notes");
+            response.put("total", null);
+            response.put("validants", null);
+            response.put("nonValidants", null);
+            response.put("moyenne", null);
+            response.put("distribution", Collections.emptyList());
+        }
+
+        response.put("seuil", seuil);
+        response.put("listeNoire", listeNoire.orElse(null));
+        if (listeNoire.isEmpty()) {
+            manquants.add("absence");
+        }
+
+        response.put("top", meilleurs.orElse(Collections.emptyList()));
+        if (meilleurs.isEmpty()) {
+            manquants.add("classement");
+        }
+
+        response.put("partiel", !manquants.isEmpty());
+        response.put("manquants", manquants);
+        return response;
+    }
+
+    private <T> Mono<Optional<T>> echec(String partie, Throwable e) {
+        meterRegistry.counter("gateway.dashboard.partial", "partie", partie).increment();
+        AtomicLong prochain = prochainJournal.computeIfAbsent(partie, p -> new AtomicLong(System.nanoTime()));
+        long maintenant = System.nanoTime();
+        long echeance = prochain.get();
+        if (maintenant - echeance >= 0 && prochain.compareAndSet(echeance,
+                maintenant + TimeUnit.SECONDS.toNanos(intervalleJournalSecondes))) {
+            System.err.println("Dashboard: partie " + partie + " indisponible: " + e.getMessage());
+        }
+        return Mono.just(Optional.empty());
+    }
+
+    /**
+     * Statistiques calculées par le service notes (GET /api/notes/statistiques)
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Statistiques {
+        public long total;
+        public long validants;
+        public long nonValidants;
+        public double moyenne;
+        public List<Map<String, Object>> distribution;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.apigateway.controller;
 
+import org.example.commons.loadbalancer.LatencyStats;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
@@ -17,6 +18,9 @@ public class GatewayInfoController {
     @Autowired
     private DiscoveryClient discoveryClient;
 
+    @Autowired
+    private LatencyStats latencyStats;
+
     @GetMapping("/")
     public Map<String, Object> home() {
         Map<String, Object> response = new HashMap<>();
@@ -44,6 +48,8 @@ public class GatewayInfoController {
         response.put("services", services);
         response.put("serviceDetails", serviceDetails);
         response.put("totalServices", services.size());
+        // Latence EWMA, requêtes en cours, score et éjection de chaque instance (LatencyAwareLoadBalancer)
+        response.put("loadBalancer", latencyStats.snapshot());
 
         return response;
     }
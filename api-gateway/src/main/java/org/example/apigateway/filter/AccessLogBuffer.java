@@ -0,0 +1,222 @@
+package org.example.apigateway.filter;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Tampon circulaire préalloué des entrées du journal d'accès, écrit par un thread de fond
+ *
+ * Plusieurs producteurs (boucles d'événements Netty), un seul consommateur.
+ * Chaque case a un numéro de séquence (file bornée de Vyukov): un producteur réserve une case
+ * par CAS sur la position d'écriture, remplit l'entrée préallouée puis la publie.
+ * Aucun verrou, aucune allocation, aucune attente: si le tampon est plein, l'entrée est
+ * abandonnée et comptée (getDropped()).
+ *
+ * Le thread de fond vide le tampon par lots de batchSize lignes JSON, écrites en un seul appel
+ * au puits (sink), puis dort flushIntervalMillis quand le tampon est vide.
+ */
+public class AccessLogBuffer {
+
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Consumer<CharSequence> sink;
+    private final StringBuilder lot = new StringBuilder(16 * 1024);
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AccessLogBuffer(int capacity, int batchSize, long flushIntervalMillis, Consumer<CharSequence> sink) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.entries = new Entry[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.sink = sink;
+    }
+
+    /**
+     * Dépose une entrée sans jamais bloquer
+     * @return false si le tampon est plein (entrée abandonnée et comptée)
+     */
+    public boolean offer(long timestampMillis, String method, String path, String route,
+                         int status, String upstream, long latencyNanos) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Entry entry = entries[index];
+                    entry.timestampMillis = timestampMillis;
+                    entry.method = method;
+                    entry.path = path;
+                    entry.route = route;
+                    entry.status = status;
+                    entry.upstream = upstream;
+                    entry.latencyNanos = latencyNanos;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getPending() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public synchronized void start(String threadName) {
+        if (writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, threadName);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Arrête le thread de fond après avoir écrit les entrées restantes
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        writer = null;
+    }
+
+    private void run() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        while (drain() > 0) {
+            // dernières entrées avant l'arrêt
+        }
+    }
+
+    /**
+     * Écrit au plus batchSize entrées publiées (thread de fond uniquement)
+     * @return nombre d'entrées écrites
+     */
+    int drain() {
+        int count = 0;
+        lot.setLength(0);
+        while (count < batchSize) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            Entry entry = entries[index];
+            entry.appendJson(lot);
+            entry.clear();
+            sequences.lazySet(index, head + entries.length);
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            try {
+                sink.accept(lot);
+            } catch (RuntimeException e) {
+                System.err.println("Écriture du journal d'accès impossible: " + e.getMessage());
+            }
+            written.addAndGet(count);
+        }
+        return count;
+    }
+
+    private static final class Entry {
+        private long timestampMillis;
+        private String method;
+        private String path;
+        private String route;
+        private int status;
+        private String upstream;
+        private long latencyNanos;
+
+        private void appendJson(StringBuilder out) {
+            out.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestampMillis)).append('"');
+            appendField(out, "method", method);
+            appendField(out, "path", path);
+            appendField(out, "route", route);
+            out.append(",\"status\":").append(status);
+            appendField(out, "upstream", upstream);
+            out.append(",\"latencyMs\":").append(latencyNanos / 1_000_000).append('.');
+            long micros = (latencyNanos / 1_000) % 1_000;
+            if (micros < 100) {
+                out.append('0');
+            }
+            if (micros < 10) {
+                out.append('0');
+            }
+            out.append(micros).append("}\n");
+        }
+
+        private static void appendField(StringBuilder out, String name, String value) {
+            out.append(",\"").append(name).append("\":");
+            if (value == null) {
+                out.append("null");
+                return;
+            }
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    out.append(' ');
+                } else {
+                    out.append(c);
+                }
+            }
+            out.append('"');
+        }
+
+        private void clear() {
+            method = null;
+            path = null;
+            route = null;
+            upstream = null;
+        }
+    }
+}
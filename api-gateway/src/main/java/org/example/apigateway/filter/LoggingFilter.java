@@ -1,33 +1,130 @@
 package org.example.apigateway.filter;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Journal d'accès de la gateway, sans jamais bloquer la boucle d'événements
+ *
+ * Une ligne JSON par requête (méthode, chemin, route, statut, instance appelée, latence),
+ * déposée dans AccessLogBuffer et écrite par lots sur la sortie standard par un thread de fond.
+ * Échantillonnage: seule une fraction sample-rate des requêtes est journalisée,
+ * les réponses 5xx le sont toujours. Tampon plein: l'entrée est abandonnée et comptée.
+ *
+ * Métriques: gateway.access-log.dropped, gateway.access-log.written, gateway.access-log.pending
+ */
 @Component
 public class LoggingFilter implements GlobalFilter, Ordered {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.access-log.capacity:8192}")
+    private int capacity;
+
+    @Value("${gateway.access-log.batch-size:256}")
+    private int batchSize;
+
+    @Value("${gateway.access-log.flush-interval-ms:50}")
+    private long flushIntervalMillis;
+
+    @Value("${gateway.access-log.sample-rate:1.0}")
+    private double sampleRate;
+
+    private AccessLogBuffer buffer;
+    private Writer out;
+
+    @PostConstruct
+    public void demarrer() {
+        if (!enabled) {
+            return;
+        }
+        // Écriture directe sur le descripteur 1: pas de verrou de System.out, une écriture par lot
+        out = new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8);
+        buffer = new AccessLogBuffer(capacity, batchSize, flushIntervalMillis, this::ecrire);
+
+        FunctionCounter.builder("gateway.access-log.dropped", buffer, AccessLogBuffer::getDropped)
+                .description("Entrées abandonnées (tampon plein)")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.access-log.written", buffer, AccessLogBuffer::getWritten)
+                .description("Entrées écrites")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access-log.pending", buffer, AccessLogBuffer::getPending)
+                .description("Entrées en attente d'écriture")
+                .register(meterRegistry);
+
+        buffer.start("gateway-access-log");
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String path = exchange.getRequest().getPath().value();
-        String method = exchange.getRequest().getMethod().toString();
-
-        System.out.println("========================================");
-        System.out.println("Gateway Request:");
-        System.out.println("Time: " + LocalDateTime.now());
-        System.out.println("Method: " + method);
-        System.out.println("Path: " + path);
-        System.out.println("========================================");
-
-        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            System.out.println("Response Status: " + exchange.getResponse().getStatusCode());
-        }));
+        if (buffer == null) {
+            return chain.filter(exchange);
+        }
+        long debut = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> journaliser(exchange, debut));
+    }
+
+    private void journaliser(ServerWebExchange exchange, long debut) {
+        long latence = System.nanoTime() - debut;
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : 0;
+        if (status < 500 && sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI upstream = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        buffer.offer(System.currentTimeMillis(),
+                exchange.getRequest().getMethod().name(),
+                exchange.getRequest().getPath().value(),
+                route != null ? route.getId() : null,
+                status,
+                upstream != null ? upstream.getScheme() + "://" + upstream.getAuthority() : null,
+                latence);
+    }
+
+    // Thread de fond uniquement
+    private void ecrire(CharSequence lignes) {
+        try {
+            out.append(lignes);
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        if (buffer != null) {
+            buffer.stop();
+        }
     }
 
     @Override
@@ -35,4 +132,3 @@ public class LoggingFilter implements GlobalFilter, Ordered {
         return -1; // Exécuté en premier
     }
 }
-
@@ -0,0 +1,188 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des réponses GET d'une route de la gateway
+ *
+ * LRU borné en nombre d'entrées et en octets, avec une durée de vie par entrée.
+ * Les sections critiques ne font que des opérations de map (jamais d'E/S): appelable
+ * depuis la boucle d'événements.
+ *
+ * Invalidation par préfixe de ressource; chaque invalidation incrémente une génération:
+ * une réponse commencée avant une écriture n'est pas mise en cache (voir generation()).
+ *
+ * Métriques (tag route): gateway.cache.requests (tag result: hit, miss, not-modified),
+ * gateway.cache.hit.ratio, gateway.cache.entries, gateway.cache.size.bytes,
+ * gateway.cache.evictions, gateway.cache.invalidations
+ */
+public class ResponseCache {
+
+    private final List<String> paths;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+    private final Counter evictions;
+    private final Counter invalidations;
+
+    public ResponseCache(String route, List<String> paths, long ttlSeconds, int maxEntries, long maxBytes,
+                         MeterRegistry meterRegistry) {
+        this.paths = paths;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytes = Math.max(1, maxBytes);
+
+        this.hits = requests(meterRegistry, route, "hit");
+        this.misses = requests(meterRegistry, route, "miss");
+        this.notModified = requests(meterRegistry, route, "not-modified");
+        this.evictions = meterRegistry.counter("gateway.cache.evictions", "route", route);
+        this.invalidations = meterRegistry.counter("gateway.cache.invalidations", "route", route);
+        Gauge.builder("gateway.cache.hit.ratio", this, ResponseCache::hitRatio)
+                .tag("route", route).register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", this, ResponseCache::size)
+                .tag("route", route).register(meterRegistry);
+        Gauge.builder("gateway.cache.size.bytes", this, ResponseCache::sizeInBytes)
+                .tag("route", route).baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Indique si le chemin (avec le préfixe de la route) fait partie des GET mis en cache
+     */
+    public boolean isCacheable(String path) {
+        for (String prefix : paths) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresAt > 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    public void recordHit(boolean notModifiedResponse) {
+        (notModifiedResponse ? notModified : hits).increment();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Enregistre une réponse, sauf si une invalidation a eu lieu depuis le début de la requête
+     */
+    public synchronized void put(String key, Entry entry, long generationAtStart) {
+        if (generation.get() != generationAtStart || entry.body.length > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        bytes += entry.body.length;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            bytes -= evicted.body.length;
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Supprime les entrées dont le chemin commence par le préfixe de ressource
+     */
+    public synchronized void invalidate(String resourcePrefix) {
+        generation.incrementAndGet();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        int removed = 0;
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.path.startsWith(resourcePrefix)) {
+                it.remove();
+                bytes -= entry.body.length;
+                removed++;
+            }
+        }
+        invalidations.increment(removed);
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized long sizeInBytes() {
+        return bytes;
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + notModified.count();
+        double total = served + misses.count();
+        return total == 0 ? 0.0 : served / total;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String route, String result) {
+        return Counter.builder("gateway.cache.requests")
+                .description("Requêtes GET cachables, par résultat")
+                .tag("route", route)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public Entry newEntry(String path, int status, HttpHeaders headers, byte[] body, String etag) {
+        return new Entry(path, status, headers, body, etag, System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Réponse en cache: statut, en-têtes utiles, corps et ETag
+     */
+    public static final class Entry {
+        final String path;
+        final int status;
+        final HttpHeaders headers;
+        final byte[] body;
+        final String etag;
+        final long expiresAt;
+
+        private Entry(String path, int status, HttpHeaders headers, byte[] body, String etag, long expiresAt) {
+            this.path = path;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
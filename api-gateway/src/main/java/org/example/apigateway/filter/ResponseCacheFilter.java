@@ -0,0 +1,239 @@
+package org.example.apigateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Filtre de cache des GET d'une route (à placer avant stripPrefix: les clés portent le chemin complet)
+ *
+ * - GET cachable: clé = chemin + requête + en-têtes listés dans vary-headers.
+ *   Succès: réponse servie depuis ResponseCache (X-Cache: HIT), sans appeler le service.
+ *   Échec: la réponse 200 du service est mise en cache au passage (X-Cache: MISS).
+ *   Chaque réponse porte un ETag (celui du service, sinon MD5 du corps); If-None-Match
+ *   correspondant donne 304 sans corps.
+ * - POST/PUT/PATCH/DELETE: les entrées sous le préfixe de ressource de la requête
+ *   (ses invalidation-segments premiers segments) sont invalidées avant et après l'écriture.
+ *
+ * Non mis en cache: statut différent de 200, Set-Cookie, Cache-Control no-store/no-cache/private,
+ * requête avec Cache-Control: no-cache, réponse sans Content-Length ou plus grande que
+ * max-response-bytes (transmise en flux: la gateway ne garde pas en mémoire un corps non borné).
+ *
+ * Ordre: avant NettyWriteResponseFilter, qui écrit le corps du service dans la réponse de l'échange
+ * qu'il reçoit. Un filtre de route ordinaire (ordre 0) passe après lui: la réponse décorée ne
+ * verrait jamais le corps et rien ne serait mis en cache.
+ */
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private static final Set<String> EN_TETES_EXCLUS = Set.of(
+            "content-length", "transfer-encoding", "connection", "keep-alive", "date", "set-cookie", "x-cache");
+
+    private final ResponseCache cache;
+    private final List<String> varyHeaders;
+    private final int invalidationSegments;
+    private final int maxResponseBytes;
+
+    public ResponseCacheFilter(ResponseCache cache, List<String> varyHeaders, int invalidationSegments,
+                               int maxResponseBytes) {
+        this.cache = cache;
+        this.varyHeaders = varyHeaders;
+        this.invalidationSegments = Math.max(1, invalidationSegments);
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        HttpMethod method = request.getMethod();
+
+        if (method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+            String prefixe = prefixeRessource(path);
+            cache.invalidate(prefixe);
+            return chain.filter(exchange).doFinally(signal -> cache.invalidate(prefixe));
+        }
+        if (method != HttpMethod.GET || !cache.isCacheable(path) || contient(request.getHeaders(), "no-cache")) {
+            return chain.filter(exchange);
+        }
+
+        String cle = cle(request, varyHeaders);
+        ResponseCache.Entry entree = cache.get(cle);
+        if (entree != null) {
+            return servir(exchange, entree);
+        }
+        long generation = cache.generation();
+        ServerHttpResponse reponse = new ReponseMiseEnCache(exchange, path, cle, generation);
+        return chain.filter(exchange.mutate().response(reponse).build());
+    }
+
+    private Mono<Void> servir(ServerWebExchange exchange, ResponseCache.Entry entree) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (correspond(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), entree.etag)) {
+            cache.recordHit(true);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().set(HttpHeaders.ETAG, entree.etag);
+            return response.setComplete();
+        }
+        cache.recordHit(false);
+        response.setStatusCode(HttpStatusCode.valueOf(entree.status));
+        response.getHeaders().addAll(entree.headers);
+        response.getHeaders().set("X-Cache", "HIT");
+        response.getHeaders().setContentLength(entree.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entree.body)));
+    }
+
+    /**
+     * Clé d'une requête GET: chemin + requête + valeurs des en-têtes varyHeaders (partagée avec SingleFlightFilter)
+     */
+    static String cle(ServerHttpRequest request, List<String> varyHeaders) {
+        StringBuilder cle = new StringBuilder(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            cle.append('?').append(query);
+        }
+        for (String header : varyHeaders) {
+            cle.append('|').append(header).append('=').append(request.getHeaders().getFirst(header));
+        }
+        return cle.toString();
+    }
+
+    // "/notes/api/notes/etudiant/5" avec 1 segment -> "/notes/", avec 3 -> "/notes/api/notes/"
+    private String prefixeRessource(String path) {
+        int fin = 0;
+        for (int i = 0; i < invalidationSegments; i++) {
+            int suivant = path.indexOf('/', fin + 1);
+            if (suivant < 0) {
+                return path.endsWith("/") ? path : path + "/";
+            }
+            fin = suivant;
+        }
+        return path.substring(0, fin + 1);
+    }
+
+    private static boolean correspond(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidat : ifNoneMatch.split(",")) {
+            String valeur = candidat.trim();
+            if (valeur.equals("*") || valeur.equals(etag) || valeur.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contient(HttpHeaders headers, String... directives) {
+        for (String cacheControl : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            String valeur = cacheControl.toLowerCase(Locale.ROOT);
+            for (String directive : directives) {
+                if (valeur.contains(directive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Corps lisible en mémoire: Content-Length connu et au plus maxBytes (partagée avec SingleFlightFilter)
+     */
+    static boolean bornee(HttpHeaders headers, int maxBytes) {
+        long longueur = headers.getContentLength();
+        return longueur >= 0 && longueur <= maxBytes;
+    }
+
+    static HttpHeaders copieUtile(HttpHeaders source) {
+        HttpHeaders copie = new HttpHeaders();
+        source.forEach((nom, valeurs) -> {
+            String minuscule = nom.toLowerCase(Locale.ROOT);
+            if (!EN_TETES_EXCLUS.contains(minuscule) && !minuscule.startsWith("access-control-")) {
+                copie.addAll(nom, valeurs);
+            }
+        });
+        return copie;
+    }
+
+    /**
+     * Réponse du service interceptée au passage: le corps complet est mis en cache puis écrit
+     */
+    private class ReponseMiseEnCache extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String path;
+        private final String cle;
+        private final long generation;
+
+        ReponseMiseEnCache(ServerWebExchange exchange, String path, String cle, long generation) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.path = path;
+            this.cle = cle;
+            this.generation = generation;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            if (status == null || status.value() != HttpStatus.OK.value()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || contient(headers, "no-store", "no-cache", "private")
+                    || !bornee(headers, maxResponseBytes)) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body, maxResponseBytes)
+                    .map(joint -> {
+                        byte[] octets = new byte[joint.readableByteCount()];
+                        joint.read(octets);
+                        DataBufferUtils.release(joint);
+                        return octets;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(octets -> {
+                        String etag = headers.getETag();
+                        if (etag == null) {
+                            etag = "\"" + DigestUtils.md5DigestAsHex(octets) + "\"";
+                            headers.setETag(etag);
+                        }
+                        cache.put(cle, cache.newEntry(path, status.value(), copieUtile(headers), octets, etag), generation);
+                        headers.set("X-Cache", "MISS");
+
+                        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+                        if (correspond(ifNoneMatch, etag)) {
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            headers.remove(HttpHeaders.CONTENT_LENGTH);
+                            return setComplete();
+                        }
+                        headers.setContentLength(octets.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(octets)));
+                    });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Construit le filtre de cache d'une route à partir des propriétés gateway.cache.<route>.*
+ *
+ * paths: préfixes des GET mis en cache (chemin vu par la gateway, préfixe de route compris),
+ * ttl-seconds, max-entries, max-bytes: bornes propres à la route.
+ * max-response-bytes: au-delà, ou sans Content-Length, la réponse est transmise sans être mise en cache.
+ * Sans paths, la route garde quand même l'invalidation (filtre sans effet sur les GET).
+ */
+@Component
+public class ResponseCacheFilters {
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.cache.vary-headers:Accept,Accept-Encoding}")
+    private List<String> varyHeaders;
+
+    @Value("${gateway.cache.invalidation-segments:1}")
+    private int invalidationSegments;
+
+    public GatewayFilter pour(String route) {
+        if (!enabled) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        String prefixe = "gateway.cache." + route + ".";
+        List<String> paths = Arrays.stream(env.getProperty(prefixe + "paths", String[].class, new String[0]))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .toList();
+        ResponseCache cache = new ResponseCache(route, paths,
+                env.getProperty(prefixe + "ttl-seconds", Long.class, 30L),
+                env.getProperty(prefixe + "max-entries", Integer.class, 500),
+                env.getProperty(prefixe + "max-bytes", Long.class, 16L * 1024 * 1024),
+                meterRegistry);
+        return new ResponseCacheFilter(cache, varyHeaders, invalidationSegments,
+                env.getProperty(prefixe + "max-response-bytes", Integer.class, 1024 * 1024));
+    }
+}
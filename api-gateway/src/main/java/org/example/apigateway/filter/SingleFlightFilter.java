@@ -0,0 +1,211 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Regroupement des GET identiques simultanés d'une route (single-flight)
+ *
+ * La première requête d'une clé (même clé que ResponseCacheFilter) part vers le service;
+ * les requêtes identiques qui arrivent pendant ce temps attendent sa réponse au lieu d'être
+ * transmises. La réponse 200 est lue une fois puis écrite à chaque client en enveloppant le même
+ * tableau d'octets (bufferFactory().wrap: aucune copie du corps par client).
+ *
+ * Au-delà de max-waiters attentes sur une même clé, ou après wait-timeout, ou si la réponse
+ * n'est pas partageable (statut différent de 200, Set-Cookie, pas de Content-Length ou plus de
+ * max-response-bytes), la requête est transmise normalement.
+ *
+ * Métriques (tag route): gateway.single-flight.requests (tag result: leader, shared, overflow,
+ * fallback), gateway.single-flight.in-flight
+ *
+ * Ordre: juste après ResponseCacheFilter (un succès de cache ne rejoint pas le single-flight) et
+ * avant NettyWriteResponseFilter, sans quoi la réponse du premier appel n'est jamais lue.
+ */
+public class SingleFlightFilter implements GatewayFilter, Ordered {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER + 1;
+
+    private final List<String> paths;
+    private final List<String> varyHeaders;
+    private final int maxWaiters;
+    private final Duration waitTimeout;
+    private final int maxResponseBytes;
+
+    private final ConcurrentHashMap<String, Vol> enVol = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter overflow;
+    private final Counter fallback;
+
+    public SingleFlightFilter(String route, List<String> paths, List<String> varyHeaders, int maxWaiters,
+                              Duration waitTimeout, int maxResponseBytes, MeterRegistry meterRegistry) {
+        this.paths = paths;
+        this.varyHeaders = varyHeaders;
+        this.maxWaiters = Math.max(1, maxWaiters);
+        this.waitTimeout = waitTimeout;
+        this.maxResponseBytes = maxResponseBytes;
+
+        this.leaders = requests(meterRegistry, route, "leader");
+        this.shared = requests(meterRegistry, route, "shared");
+        this.overflow = requests(meterRegistry, route, "overflow");
+        this.fallback = requests(meterRegistry, route, "fallback");
+        Gauge.builder("gateway.single-flight.in-flight", enVol, ConcurrentHashMap::size)
+                .description("Requêtes en cours vers le service, partageables")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || !concerne(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        String cle = ResponseCacheFilter.cle(request, varyHeaders);
+        Vol vol = new Vol();
+        Vol enCours = enVol.putIfAbsent(cle, vol);
+        if (enCours == null) {
+            leaders.increment();
+            ServerHttpResponse reponse = new ReponsePartagee(exchange.getResponse(), cle, vol);
+            return chain.filter(exchange.mutate().response(reponse).build())
+                    .doFinally(signal -> terminer(cle, vol, null));
+        }
+        if (enCours.attentes.incrementAndGet() > maxWaiters) {
+            enCours.attentes.decrementAndGet();
+            overflow.increment();
+            return chain.filter(exchange);
+        }
+        // suppressCancel: une requête en attente qui abandonne n'annule pas le résultat partagé
+        return Mono.fromFuture(enCours.resultat, true)
+                .timeout(waitTimeout)
+                .map(Optional::of)
+                .onErrorResume(e -> Mono.just(Optional.empty()))
+                .defaultIfEmpty(Optional.empty())
+                .doFinally(signal -> enCours.attentes.decrementAndGet())
+                .flatMap(resultat -> {
+                    if (resultat.isPresent()) {
+                        return ecrire(exchange.getResponse(), resultat.get());
+                    }
+                    fallback.increment();
+                    return chain.filter(exchange);
+                });
+    }
+
+    private Mono<Void> ecrire(ServerHttpResponse response, Resultat resultat) {
+        shared.increment();
+        response.setStatusCode(HttpStatusCode.valueOf(resultat.status));
+        response.getHeaders().addAll(resultat.headers);
+        response.getHeaders().setContentLength(resultat.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(resultat.body)));
+    }
+
+    // Retire le vol avant de libérer les attentes: une requête arrivée ensuite repart vers le service
+    private void terminer(String cle, Vol vol, Resultat resultat) {
+        enVol.remove(cle, vol);
+        vol.resultat.complete(resultat);
+    }
+
+    private boolean concerne(String path) {
+        for (String prefix : paths) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String route, String result) {
+        return Counter.builder("gateway.single-flight.requests")
+                .description("GET regroupables, par rôle")
+                .tag("route", route)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Vol {
+        // null: réponse non partageable, chaque requête en attente repart vers le service
+        private final CompletableFuture<Resultat> resultat = new CompletableFuture<>();
+        private final AtomicInteger attentes = new AtomicInteger();
+    }
+
+    private static final class Resultat {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private Resultat(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Réponse de la première requête: lue une fois, publiée aux requêtes en attente puis écrite
+     */
+    private class ReponsePartagee extends ServerHttpResponseDecorator {
+
+        private final String cle;
+        private final Vol vol;
+
+        ReponsePartagee(ServerHttpResponse delegate, String cle, Vol vol) {
+            super(delegate);
+            this.cle = cle;
+            this.vol = vol;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value()
+                    || getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    || !ResponseCacheFilter.bornee(getHeaders(), maxResponseBytes)) {
+                terminer(cle, vol, null);
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body, maxResponseBytes)
+                    .map(joint -> {
+                        byte[] octets = new byte[joint.readableByteCount()];
+                        joint.read(octets);
+                        DataBufferUtils.release(joint);
+                        return octets;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(octets -> {
+                        terminer(cle, vol, new Resultat(status.value(), ResponseCacheFilter.copieUtile(getHeaders()), octets));
+                        getHeaders().setContentLength(octets.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(octets)));
+                    });
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Construit le filtre single-flight d'une route à partir des propriétés gateway.single-flight.<route>.*
+ *
+ * Activation par route: sans paths, le filtre laisse tout passer.
+ * La clé reprend les en-têtes gateway.cache.vary-headers, comme le cache.
+ * max-response-bytes: au-delà, ou sans Content-Length, la réponse n'est pas partagée.
+ */
+@Component
+public class SingleFlightFilters {
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.cache.vary-headers:Accept,Accept-Encoding}")
+    private List<String> varyHeaders;
+
+    public GatewayFilter pour(String route) {
+        String prefixe = "gateway.single-flight." + route + ".";
+        List<String> paths = Arrays.stream(env.getProperty(prefixe + "paths", String[].class, new String[0]))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .toList();
+        if (!enabled || paths.isEmpty()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        return new SingleFlightFilter(route, paths, varyHeaders,
+                env.getProperty(prefixe + "max-waiters", Integer.class, 1000),
+                Duration.ofMillis(env.getProperty(prefixe + "wait-timeout-ms", Long.class, 10_000L)),
+                env.getProperty(prefixe + "max-response-bytes", Integer.class, 1024 * 1024),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.apigateway.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tableau de bord: statistiques agrégées par le service notes, parties manquantes comptées
+ */
+class DashboardControllerTest {
+
+    private static final String STATISTIQUES = "{\"total\":4,\"validants\":2,\"nonValidants\":2,\"moyenne\":11.3,"
+            + "\"distribution\":[{\"tranche\":\"0-5\",\"effectif\":1},{\"tranche\":\"6-9\",\"effectif\":0},"
+            + "{\"tranche\":\"10-11\",\"effectif\":1},{\"tranche\":\"12-15\",\"effectif\":1},"
+            + "{\"tranche\":\"16-20\",\"effectif\":1}]}";
+
+    private final List<String> appels = new CopyOnWriteArrayList<>();
+    private final ByteArrayOutputStream journal = new ByteArrayOutputStream();
+    private PrintStream sortieErreur;
+    private MeterRegistry meterRegistry;
+    private volatile boolean absenceEnPanne;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sortieErreur = System.err;
+        System.setErr(new PrintStream(journal, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setErr(sortieErreur);
+    }
+
+    @Test
+    void statistiquesLuesSurLEndpointAgregeDuServiceNotes() {
+        Map<String, Object> resume = controleur().dashboard(0.5, 3).block(Duration.ofSeconds(5));
+
+        assertTrue(appels.contains("/api/notes/statistiques"));
+        assertFalse(appels.contains("/api/notes/etudiants"));
+        assertEquals(4L, resume.get("total"));
+        assertEquals(2L, resume.get("validants"));
+        assertEquals(2L, resume.get("nonValidants"));
+        assertEquals(11.3, resume.get("moyenne"));
+        List<?> distribution = (List<?>) resume.get("distribution");
+        assertEquals(5, distribution.size());
+        assertEquals(Map.of("tranche", "16-20", "effectif", 1), distribution.get(4));
+        assertEquals(7L, resume.get("listeNoire"));
+        assertEquals(false, resume.get("partiel"));
+    }
+
+    @Test
+    void partieEnEchecCompteeEtJournaliseeUneFoisParIntervalle() {
+        absenceEnPanne = true;
+        DashboardController controleur = controleur();
+
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> resume = controleur.dashboard(0.5, 3).block(Duration.ofSeconds(5));
+            assertEquals(true, resume.get("partiel"));
+            assertEquals(List.of("absence"), resume.get("manquants"));
+            assertNull(resume.get("listeNoire"));
+        }
+
+        assertEquals(5.0, meterRegistry.get("gateway.dashboard.partial").tag("partie", "absence").counter().count());
+        String lignes = journal.toString(StandardCharsets.UTF_8);
+        assertEquals(1, lignes.lines().filter(l -> l.contains("partie absence indisponible")).count());
+    }
+
+    private DashboardController controleur() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(requete -> {
+            String chemin = requete.url().getPath();
+            appels.add(chemin);
+            if (chemin.equals("/api/notes/statistiques")) {
+                return json(STATISTIQUES);
+            }
+            if (chemin.equals("/api/notes/classement/top")) {
+                return json("[{\"id\":1,\"moyenne\":17.25}]");
+            }
+            if (chemin.equals("/api/absences/liste-noire/count") && !absenceEnPanne) {
+                return json("7");
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        });
+        DashboardController controleur = new DashboardController();
+        ReflectionTestUtils.setField(controleur, "webClientBuilder", builder);
+        ReflectionTestUtils.setField(controleur, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(controleur, "notesUri", "http://gestion-notes-service");
+        ReflectionTestUtils.setField(controleur, "absenceUri", "http://gestion-absence-service");
+        ReflectionTestUtils.setField(controleur, "timeoutMillis", 3000L);
+        ReflectionTestUtils.setField(controleur, "intervalleJournalSecondes", 60L);
+        return controleur;
+    }
+
+    private static Mono<ClientResponse> json(String corps) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(corps)
+                .build());
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogBufferTest {
+
+    private final StringBuilder sortie = new StringBuilder();
+
+    @Test
+    void capaciteArrondieAUnePuissanceDeDeux() {
+        assertEquals(1024, new AccessLogBuffer(1000, 10, 10, sortie::append).getCapacity());
+        assertEquals(1024, new AccessLogBuffer(1024, 10, 10, sortie::append).getCapacity());
+    }
+
+    @Test
+    void tamponPleinAbandonneEtCompte() {
+        AccessLogBuffer buffer = new AccessLogBuffer(4, 10, 10, sortie::append);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offrir(buffer, "/p" + i, 200));
+        }
+
+        assertFalse(offrir(buffer, "/perdu", 200));
+        assertEquals(1, buffer.getDropped());
+        assertEquals(4, buffer.getPending());
+
+        assertEquals(4, buffer.drain());
+        assertEquals(0, buffer.getPending());
+        assertEquals(List.of("/p0", "/p1", "/p2", "/p3"), chemins());
+        // Les cases libérées sont réutilisées au tour suivant
+        assertTrue(offrir(buffer, "/p4", 200));
+        assertEquals(1, buffer.drain());
+        assertEquals(5, buffer.getWritten());
+    }
+
+    @Test
+    void vidageParLotsDeBatchSize() {
+        List<String> appels = new ArrayList<>();
+        AccessLogBuffer buffer = new AccessLogBuffer(8, 2, 10, lot -> appels.add(lot.toString()));
+        for (int i = 0; i < 3; i++) {
+            offrir(buffer, "/p" + i, 200);
+        }
+
+        assertEquals(2, buffer.drain());
+        assertEquals(1, buffer.drain());
+        assertEquals(0, buffer.drain());
+        // Un appel au puits par lot
+        assertEquals(2, appels.size());
+        assertEquals(2, appels.get(0).lines().count());
+    }
+
+    @Test
+    void ligneJsonEchappee() {
+        AccessLogBuffer buffer = new AccessLogBuffer(4, 10, 10, sortie::append);
+        buffer.offer(0L, "GET", "/a\"b\\c\nd", "route", 503, null, 1_234_567L);
+        buffer.offer(0L, "POST", "/x", "route", 200, "10.0.0.1:8080", 5_000L);
+        buffer.drain();
+
+        assertEquals("{\"ts\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\",\"path\":\"/a\\\"b\\\\c d\","
+                        + "\"route\":\"route\",\"status\":503,\"upstream\":null,\"latencyMs\":1.234}\n"
+                        + "{\"ts\":\"1970-01-01T00:00:00Z\",\"method\":\"POST\",\"path\":\"/x\","
+                        + "\"route\":\"route\",\"status\":200,\"upstream\":\"10.0.0.1:8080\",\"latencyMs\":0.005}\n",
+                sortie.toString());
+    }
+
+    @Test
+    void arretEcritLesEntreesRestantes() throws InterruptedException {
+        AccessLogBuffer buffer = new AccessLogBuffer(16, 4, 60_000, sortie::append);
+        buffer.start("access-log-test");
+        for (int i = 0; i < 10; i++) {
+            offrir(buffer, "/p" + i, 200);
+        }
+
+        buffer.stop();
+
+        assertEquals(10, buffer.getWritten());
+        assertEquals(10, chemins().size());
+    }
+
+    @Test
+    void producteursConcurrentsSansEntreePerdueNiMelangee() throws InterruptedException {
+        int producteurs = 4;
+        int parProducteur = 20_000;
+        AccessLogBuffer buffer = new AccessLogBuffer(1024, 64, 1, sortie::append);
+        buffer.start("access-log-test");
+
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producteurs; p++) {
+            int producteur = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    depart.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < parProducteur; i++) {
+                    // Le statut est dérivé du chemin: une entrée mélangée entre deux producteurs se voit
+                    offrir(buffer, "/" + producteur + "/" + i, 200 + (producteur * parProducteur + i) % 300);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        depart.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        buffer.stop();
+
+        long total = (long) producteurs * parProducteur;
+        assertEquals(total, buffer.getWritten() + buffer.getDropped());
+        Matcher ligne = Pattern.compile("\"path\":\"/(\\d+)/(\\d+)\",\"route\":\"r\",\"status\":(\\d+)")
+                .matcher(sortie);
+        Set<String> vus = new HashSet<>();
+        int[] dernier = new int[producteurs];
+        Arrays.fill(dernier, -1);
+        while (ligne.find()) {
+            int producteur = Integer.parseInt(ligne.group(1));
+            int i = Integer.parseInt(ligne.group(2));
+            assertEquals(200 + (producteur * parProducteur + i) % 300, Integer.parseInt(ligne.group(3)));
+            assertTrue(vus.add(producteur + "/" + i));
+            // Ordre de publication conservé pour un même producteur
+            assertTrue(i > dernier[producteur]);
+            dernier[producteur] = i;
+        }
+        assertEquals(buffer.getWritten(), vus.size());
+    }
+
+    private static boolean offrir(AccessLogBuffer buffer, String path, int status) {
+        return buffer.offer(System.currentTimeMillis(), "GET", path, "r", status, "hote:80", 1_000_000L);
+    }
+
+    private List<String> chemins() {
+        List<String> chemins = new ArrayList<>();
+        Matcher path = Pattern.compile("\"path\":\"([^\"]*)\"").matcher(sortie);
+        while (path.find()) {
+            chemins.add(path.group(1));
+        }
+        return chemins;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Chaîne de filtres d'une route, triée comme celle du Gateway (FilteringWebHandler)
+ *
+ * Le service amont est simulé en fin de chaîne: il fixe le statut et les en-têtes puis laisse
+ * le corps à un écrivain placé à l'ordre de NettyWriteResponseFilter, qui l'écrit dans la réponse
+ * de l'échange qu'il a reçu, au retour de la chaîne (comme le vrai filtre).
+ * Comme un service qui répond d'un bloc, il annonce Content-Length, sauf après sansContentLength()
+ * (réponse en chunked).
+ */
+class PasserelleDeTest {
+
+    private static final String CORPS_AMONT = PasserelleDeTest.class.getName() + ".corps";
+
+    private final AtomicInteger appelsAmont = new AtomicInteger();
+    private final FilteringWebHandler handler;
+    private final Route route;
+    private final String corps;
+    private final Duration latenceAmont;
+    private volatile boolean contentLength = true;
+
+    PasserelleDeTest(String corps, Duration latenceAmont, GatewayFilter... filtres) {
+        this.corps = corps;
+        this.latenceAmont = latenceAmont;
+        this.handler = new FilteringWebHandler(List.of(new EcrivainReponse(), new ServiceAmont()));
+        this.route = Route.async()
+                .id("notes")
+                .uri("http://localhost")
+                .asyncPredicate(exchange -> Mono.just(true))
+                .filters(filtres)
+                .build();
+    }
+
+    MockServerWebExchange executer(MockServerHttpRequest.BaseBuilder<?> requete) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(requete);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        handler.handle(exchange).block(Duration.ofSeconds(10));
+        return exchange;
+    }
+
+    Mono<MockServerWebExchange> executerAsync(MockServerHttpRequest.BaseBuilder<?> requete) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(requete);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return handler.handle(exchange).thenReturn(exchange);
+    }
+
+    PasserelleDeTest sansContentLength() {
+        contentLength = false;
+        return this;
+    }
+
+    int getAppelsAmont() {
+        return appelsAmont.get();
+    }
+
+    private class ServiceAmont implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            return Mono.delay(latenceAmont)
+                    .doOnNext(tick -> {
+                        appelsAmont.incrementAndGet();
+                        ServerHttpResponse reponse = exchange.getResponse();
+                        reponse.setStatusCode(HttpStatus.OK);
+                        reponse.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        byte[] octets = corps.getBytes(StandardCharsets.UTF_8);
+                        if (contentLength) {
+                            reponse.getHeaders().setContentLength(octets.length);
+                        }
+                        exchange.getAttributes().put(CORPS_AMONT, octets);
+                    })
+                    .then();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static class EcrivainReponse implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            return chain.filter(exchange).then(Mono.defer(() -> {
+                byte[] octets = exchange.getAttribute(CORPS_AMONT);
+                if (octets == null) {
+                    return Mono.empty();
+                }
+                ServerHttpResponse reponse = exchange.getResponse();
+                return reponse.writeWith(Mono.just(reponse.bufferFactory().wrap(octets)));
+            }));
+        }
+
+        @Override
+        public int getOrder() {
+            return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER;
+        }
+    }
+}
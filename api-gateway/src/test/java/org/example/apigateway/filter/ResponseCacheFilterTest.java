@@ -0,0 +1,116 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de route dans une chaîne de filtres ordonnée comme celle du Gateway
+ */
+class ResponseCacheFilterTest {
+
+    private static final String CHEMIN = "/notes/api/notes/etudiants";
+
+    private ResponseCacheFilter filtre;
+    private PasserelleDeTest passerelle;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCache cache = new ResponseCache("notes", List.of("/notes/api/notes/etudiants"),
+                30, 100, 1024 * 1024, new SimpleMeterRegistry());
+        filtre = new ResponseCacheFilter(cache, List.of("Accept"), 3, 1024);
+        passerelle = new PasserelleDeTest("[{\"id\":1}]", Duration.ZERO, filtre);
+    }
+
+    @Test
+    void ordreAvantLEcritureDeLaReponse() {
+        assertTrue(filtre.getOrder() < NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER);
+    }
+
+    @Test
+    void deuxiemeGetServiDepuisLeCache() {
+        MockServerWebExchange premier = passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+        MockServerWebExchange second = passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+
+        assertEquals("MISS", premier.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("[{\"id\":1}]", second.getResponse().getBodyAsString().block());
+        assertEquals(premier.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+        assertEquals(1, passerelle.getAppelsAmont());
+    }
+
+    @Test
+    void reponsePlusGrandeQueLaLimiteTransmiseSansCache() {
+        ResponseCache cache = new ResponseCache("notes", List.of("/notes/api/notes/etudiants"),
+                30, 100, 1024 * 1024, new SimpleMeterRegistry());
+        PasserelleDeTest petiteLimite = new PasserelleDeTest("[{\"id\":1}]", Duration.ZERO,
+                new ResponseCacheFilter(cache, List.of("Accept"), 3, 4));
+
+        petiteLimite.executer(MockServerHttpRequest.get(CHEMIN));
+        MockServerWebExchange seconde = petiteLimite.executer(MockServerHttpRequest.get(CHEMIN));
+
+        assertEquals(2, petiteLimite.getAppelsAmont());
+        assertEquals("[{\"id\":1}]", seconde.getResponse().getBodyAsString().block());
+        assertNull(seconde.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    @Test
+    void reponseSansContentLengthTransmiseSansCache() {
+        passerelle.sansContentLength();
+
+        passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+        MockServerWebExchange seconde = passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+
+        assertEquals(2, passerelle.getAppelsAmont());
+        assertEquals("[{\"id\":1}]", seconde.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void ifNoneMatchDonne304SansCorps() {
+        MockServerWebExchange premier = passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+        String etag = premier.getResponse().getHeaders().getETag();
+        assertNotNull(etag);
+
+        MockServerWebExchange revalidation = passerelle.executer(MockServerHttpRequest.get(CHEMIN)
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals("", revalidation.getResponse().getBodyAsString().defaultIfEmpty("").block());
+        assertEquals(1, passerelle.getAppelsAmont());
+    }
+
+    @Test
+    void ecritureInvalideLaRessource() {
+        passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+        passerelle.executer(MockServerHttpRequest.post(CHEMIN));
+
+        MockServerWebExchange apres = passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+
+        assertEquals("MISS", apres.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(3, passerelle.getAppelsAmont());
+    }
+
+    @Test
+    void enTeteVaryDistingueLesEntrees() {
+        passerelle.executer(MockServerHttpRequest.get(CHEMIN).header(HttpHeaders.ACCEPT, "application/json"));
+
+        MockServerWebExchange autre = passerelle.executer(MockServerHttpRequest.get(CHEMIN)
+                .header(HttpHeaders.ACCEPT, "text/csv"));
+
+        assertEquals("MISS", autre.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(2, passerelle.getAppelsAmont());
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regroupement des GET identiques simultanés dans une chaîne ordonnée comme celle du Gateway
+ */
+class SingleFlightFilterTest {
+
+    private static final String CHEMIN = "/notes/api/notes/etudiants";
+    private static final String CORPS = "[{\"id\":1}]";
+    private static final int REQUETES = 20;
+
+    private MeterRegistry meterRegistry;
+    private SingleFlightFilter filtre;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtre = new SingleFlightFilter("notes", List.of("/notes/api/notes/"), List.of("Accept"),
+                1000, Duration.ofSeconds(5), 1024, meterRegistry);
+    }
+
+    @Test
+    void ordreApresLeCacheEtAvantLEcritureDeLaReponse() {
+        assertTrue(filtre.getOrder() > ResponseCacheFilter.ORDER);
+        assertTrue(filtre.getOrder() < NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER);
+    }
+
+    @Test
+    void getsIdentiquesSimultanesUnSeulAppelAmont() {
+        PasserelleDeTest passerelle = new PasserelleDeTest(CORPS, Duration.ofMillis(300), filtre);
+
+        List<MockServerWebExchange> reponses = simultanes(passerelle, CHEMIN);
+
+        assertEquals(1, passerelle.getAppelsAmont());
+        for (MockServerWebExchange reponse : reponses) {
+            assertEquals(CORPS, reponse.getResponse().getBodyAsString().block());
+        }
+        assertEquals(1.0, compteur("leader"));
+        assertEquals(REQUETES - 1.0, compteur("shared"));
+    }
+
+    @Test
+    void reponseSansContentLengthNonPartagee() {
+        PasserelleDeTest passerelle = new PasserelleDeTest(CORPS, Duration.ofMillis(300), filtre)
+                .sansContentLength();
+
+        List<MockServerWebExchange> reponses = simultanes(passerelle, CHEMIN);
+
+        // Chaque requête en attente repart vers le service et reçoit le corps complet
+        assertEquals(REQUETES, passerelle.getAppelsAmont());
+        for (MockServerWebExchange reponse : reponses) {
+            assertEquals(CORPS, reponse.getResponse().getBodyAsString().block());
+        }
+        assertEquals(0.0, compteur("shared"));
+    }
+
+    @Test
+    void requeteSuivanteRepartVersLeService() {
+        PasserelleDeTest passerelle = new PasserelleDeTest(CORPS, Duration.ofMillis(10), filtre);
+
+        passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+        passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+
+        assertEquals(2, passerelle.getAppelsAmont());
+    }
+
+    @Test
+    void clesDifferentesNeSontPasRegroupees() {
+        PasserelleDeTest passerelle = new PasserelleDeTest(CORPS, Duration.ofMillis(300), filtre);
+
+        Flux.merge(
+                        passerelle.executerAsync(MockServerHttpRequest.get(CHEMIN + "?page=1")),
+                        passerelle.executerAsync(MockServerHttpRequest.get(CHEMIN + "?page=2")))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(2, passerelle.getAppelsAmont());
+    }
+
+    @Test
+    void avecLeCacheUnSeulAppelPuisDesHits() {
+        ResponseCache cache = new ResponseCache("notes", List.of("/notes/api/notes/"),
+                30, 100, 1024 * 1024, meterRegistry);
+        // Ordre de déclaration inversé: la chaîne trie les filtres selon getOrder()
+        PasserelleDeTest passerelle = new PasserelleDeTest(CORPS, Duration.ofMillis(300),
+                filtre, new ResponseCacheFilter(cache, List.of("Accept"), 3, 1024));
+
+        simultanes(passerelle, CHEMIN);
+        MockServerWebExchange ensuite = passerelle.executer(MockServerHttpRequest.get(CHEMIN));
+
+        assertEquals(1, passerelle.getAppelsAmont());
+        assertEquals("HIT", ensuite.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    private static List<MockServerWebExchange> simultanes(PasserelleDeTest passerelle, String chemin) {
+        return Flux.range(0, REQUETES)
+                .flatMap(i -> passerelle.executerAsync(MockServerHttpRequest.get(chemin)), REQUETES)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private double compteur(String resultat) {
+        return meterRegistry.get("gateway.single-flight.requests")
+                .tag("route", "notes").tag("result", resultat).counter().count();
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.commons.client;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Portée d'appels distants indépendants exécutés en parallèle, un thread virtuel par appel
+ *
+ * Même contrat que StructuredTaskScope.ShutdownOnFailure (encore en preview en Java 21):
+ * attendre() rend la main quand tous les appels ont réussi; au premier échec ou à l'échéance,
+ * les appels restants sont annulés et l'erreur est levée. close() annule tout appel non terminé.
+ * Les attributs de la requête HTTP en cours sont transmis à chaque appel.
+ *
+ * <pre>
+ * try (AppelsParalleles appels = new AppelsParalleles(Duration.ofSeconds(3))) {
+ *     Supplier&lt;A&gt; a = appels.lancer(() -&gt; client.a());
+ *     Supplier&lt;B&gt; b = appels.lancer(() -&gt; client.b());
+ *     appels.attendre();
+ *     ... a.get(), b.get()
+ * }
+ * </pre>
+ */
+public class AppelsParalleles implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorCompletionService<Object> termines = new ExecutorCompletionService<>(executor);
+    private final List<Future<Object>> appels = new ArrayList<>();
+    private final long echeanceNanos;
+
+    public AppelsParalleles(Duration delai) {
+        this.echeanceNanos = System.nanoTime() + delai.toNanos();
+    }
+
+    /**
+     * Lance un appel; le résultat n'est lisible qu'après attendre()
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> lancer(Callable<T> appel) {
+        RequestAttributes requete = RequestContextHolder.getRequestAttributes();
+        Future<Object> future = termines.submit(() -> {
+            RequestContextHolder.setRequestAttributes(requete);
+            try {
+                return appel.call();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        appels.add(future);
+        return () -> {
+            if (!future.isDone()) {
+                throw new IllegalStateException("attendre() doit être appelé avant de lire le résultat");
+            }
+            return (T) future.resultNow();
+        };
+    }
+
+    /**
+     * Attend tous les appels lancés, jusqu'à l'échéance
+     * @throws RuntimeException au premier appel en erreur, ou si l'échéance est dépassée
+     */
+    public void attendre() {
+        try {
+            for (int restants = appels.size(); restants > 0; restants--) {
+                long reste = echeanceNanos - System.nanoTime();
+                Future<Object> termine = reste > 0 ? termines.poll(reste, TimeUnit.NANOSECONDS) : null;
+                if (termine == null) {
+                    annulerTout();
+                    throw new RuntimeException("Délai dépassé pour les appels distants");
+                }
+                termine.get();
+            }
+        } catch (ExecutionException e) {
+            annulerTout();
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        } catch (CancellationException e) {
+            annulerTout();
+            throw e;
+        } catch (InterruptedException e) {
+            annulerTout();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Appels distants interrompus", e);
+        }
+    }
+
+    private void annulerTout() {
+        for (Future<Object> appel : appels) {
+            appel.cancel(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        annulerTout();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.commons.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transport des clients Feign: pool de connexions Apache HttpClient 5 instrumenté
+ *
+ * Spring Cloud OpenFeign construit le client HTTP (délais, redirections) autour de ce
+ * gestionnaire de connexions, qui remplace le sien. Les connexions restent ouvertes entre
+ * deux appels (keep-alive) et sont fermées après keep-alive-seconds d'inactivité, avant
+ * que le serveur ne les coupe de son côté.
+ *
+ * Transport HTTP/2 multiplexé (java.net.http) à la place du pool:
+ * spring.cloud.openfeign.httpclient.hc5.enabled=false et spring.cloud.openfeign.http2client.enabled=true
+ * (pas de métriques de pool ni de décompression gzip automatique dans ce mode).
+ *
+ * Métriques:
+ * - httpcomponents.httpclient.pool.* (tag client) : connexions louées / disponibles, demandes en attente
+ * - feign.http.pool.lease.wait : temps d'attente d'une connexion du pool
+ * - feign.http.pool.connections.created : connexions ouvertes (renouvellement du pool)
+ *
+ * Hors du package scanné des applications: à enregistrer par @Import (voir les classes Application).
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", matchIfMissing = true)
+public class FeignTransportConfig {
+
+    // Service appelé par les clients Feign, tag "client" des métriques du pool
+    @Value("${feign.http.pool.client:feign}")
+    private String client;
+
+    @Value("${spring.cloud.openfeign.httpclient.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${spring.cloud.openfeign.httpclient.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${spring.cloud.openfeign.httpclient.time-to-live:900}")
+    private long timeToLiveSeconds;
+
+    @Value("${spring.cloud.openfeign.httpclient.hc5.socket-timeout:5}")
+    private int socketTimeoutSeconds;
+
+    @Value("${feign.http.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    private final ScheduledExecutorService evicteur = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feign-pool-evicteur");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Bean(destroyMethod = "close")
+    public HttpClientConnectionManager feignConnectionManager(MeterRegistry meterRegistry) {
+        InstrumentedConnectionManager manager = new InstrumentedConnectionManager(
+                TimeValue.ofSeconds(timeToLiveSeconds), client, meterRegistry);
+        manager.setMaxTotal(maxConnections);
+        manager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        manager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(Timeout.ofSeconds(socketTimeoutSeconds))
+                .setSoKeepAlive(true)
+                .setTcpNoDelay(true)
+                .build());
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(manager, "feign", "client", client)
+                .bindTo(meterRegistry);
+
+        long periode = Math.max(1, keepAliveSeconds / 2);
+        evicteur.scheduleWithFixedDelay(() -> {
+            manager.closeExpired();
+            manager.closeIdle(TimeValue.ofSeconds(keepAliveSeconds));
+        }, periode, periode, TimeUnit.SECONDS);
+        return manager;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evicteur.shutdownNow();
+    }
+
+    /**
+     * Pool standard, mesuré à la location (attente) et à l'ouverture (renouvellement) des connexions
+     */
+    static class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final Timer attente;
+        private final Counter creees;
+
+        InstrumentedConnectionManager(TimeValue timeToLive, String client, MeterRegistry meterRegistry) {
+            super(RegistryBuilder.<ConnectionSocketFactory>create()
+                            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                            .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                            .build(),
+                    PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, timeToLive);
+            this.attente = Timer.builder("feign.http.pool.lease.wait")
+                    .description("Temps d'attente d'une connexion du pool Feign")
+                    .tag("client", client)
+                    .register(meterRegistry);
+            this.creees = Counter.builder("feign.http.pool.connections.created")
+                    .description("Connexions ouvertes par le pool Feign")
+                    .tag("client", client)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest demande = super.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout)
+                        throws InterruptedException, ExecutionException, TimeoutException {
+                    long debut = System.nanoTime();
+                    try {
+                        return demande.get(timeout);
+                    } finally {
+                        attente.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return demande.cancel();
+                }
+            };
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+            super.connect(endpoint, timeout, context);
+            creees.increment();
+        }
+    }
+}
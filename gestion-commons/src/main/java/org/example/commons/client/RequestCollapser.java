@@ -0,0 +1,150 @@
+package org.example.commons.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Regroupe les appels unitaires concurrents (par clé) en un seul appel en lot
+ *
+ * Les appels reçus pendant une courte fenêtre (windowMillis) sont envoyés ensemble
+ * au chargeur en lot, puis chaque appelant reçoit la valeur de sa clé.
+ * Une clé absente du résultat donne null. Une erreur du lot est propagée à tous les appelants.
+ *
+ * Métriques (tag client):
+ * - feign.collapser.batch.size : nombre de clés distinctes par lot
+ * - feign.collapser.queue.wait : temps passé en file avant l'envoi du lot
+ */
+public class RequestCollapser<K, V> {
+
+    private final String name;
+    private final Function<List<K>, Map<K, V>> batchLoader;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    private final Queue<PendingRequest<K, V>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    private final DistributionSummary batchSize;
+    private final Timer queueWait;
+
+    public RequestCollapser(String name, Function<List<K>, Map<K, V>> batchLoader,
+                            long windowMillis, int maxBatchSize, int threads, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.batchLoader = batchLoader;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "collapser-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = DistributionSummary.builder("feign.collapser.batch.size")
+                .description("Nombre de clés distinctes par appel en lot")
+                .tag("client", name)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("feign.collapser.queue.wait")
+                .description("Attente en file avant l'envoi du lot")
+                .tag("client", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Récupère la valeur d'une clé en la regroupant avec les appels concurrents
+     */
+    public V get(K key) {
+        PendingRequest<K, V> request = new PendingRequest<>(key);
+        pending.add(request);
+
+        if (pendingCount.incrementAndGet() >= maxBatchSize) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return request.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Appel interrompu (" + name + ")", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        while (true) {
+            List<PendingRequest<K, V>> lot = new ArrayList<>();
+            PendingRequest<K, V> request;
+            while (lot.size() < maxBatchSize && (request = pending.poll()) != null) {
+                lot.add(request);
+            }
+            if (lot.isEmpty()) {
+                return;
+            }
+            pendingCount.addAndGet(-lot.size());
+            executer(lot);
+        }
+    }
+
+    private void executer(List<PendingRequest<K, V>> lot) {
+        long maintenant = System.nanoTime();
+        Set<K> cles = new LinkedHashSet<>();
+        for (PendingRequest<K, V> request : lot) {
+            cles.add(request.key);
+            queueWait.record(maintenant - request.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(cles.size());
+
+        try {
+            Map<K, V> resultats = batchLoader.apply(new ArrayList<>(cles));
+            for (PendingRequest<K, V> request : lot) {
+                request.future.complete(resultats != null ? resultats.get(request.key) : null);
+            }
+        } catch (RuntimeException e) {
+            for (PendingRequest<K, V> request : lot) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static final class PendingRequest<K, V> {
+        private final K key;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        private PendingRequest(K key) {
+            this.key = key;
+        }
+    }
+}
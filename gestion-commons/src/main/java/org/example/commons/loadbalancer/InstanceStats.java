@@ -0,0 +1,128 @@
+package org.example.commons.loadbalancer;
+
+import io.micrometer.core.instrument.Meter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mesures d'une instance: latence, requêtes en cours, échecs et réponses lentes consécutifs, éjection
+ *
+ * Deux moyennes de latence:
+ * - EWMA "de crête", pour le score du choix: une latence plus haute que la moyenne la remplace
+ *   aussitôt, une plus basse n'y entre que progressivement (constante de temps decayNanos).
+ *   Sans nouvelle mesure, la valeur lue décroît avec le temps: une instance écartée du choix
+ *   parce que lente finit par être de nouveau essayée.
+ * - moyenne glissante sur les dernières mesures, référence de latence de l'instance pour la
+ *   détection des instances aberrantes: une réponse lente isolée ne la déplace que d'une fraction.
+ */
+final class InstanceStats {
+
+    // Plancher du score: sans mesure, le nombre de requêtes en cours départage quand même
+    private static final double LATENCE_MIN_NANOS = 1_000_000;
+
+    final String service;
+    final String instance;
+    final List<Meter> meters = new ArrayList<>();
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private double ewmaNanos;
+    private double moyenneNanos;
+    private long derniereMesure;
+    private long requests;
+    private int echecsConsecutifs;
+    private int lentesConsecutives;
+    // nanoTime peut être négatif: l'échéance seule ne dit pas si l'instance a été écartée
+    private volatile boolean ejectee;
+    private volatile long ejecteeJusqua;
+
+    InstanceStats(String service, String instance) {
+        this.service = service;
+        this.instance = instance;
+    }
+
+    void debut() {
+        outstanding.incrementAndGet();
+    }
+
+    void fin() {
+        outstanding.updateAndGet(n -> Math.max(0, n - 1));
+    }
+
+    /**
+     * @param fenetre nombre de mesures couvertes par la moyenne glissante
+     */
+    synchronized void mesurer(long latenceNanos, boolean echec, long now, long decayNanos, long fenetre) {
+        if (requests == 0 || latenceNanos > ewmaNanos) {
+            ewmaNanos = latenceNanos;
+        } else {
+            double poids = Math.exp(-(double) (now - derniereMesure) / decayNanos);
+            ewmaNanos = ewmaNanos * poids + latenceNanos * (1 - poids);
+        }
+        // Moyenne exacte tant que la fenêtre n'est pas remplie, puis poids 1/fenetre par mesure
+        moyenneNanos += (latenceNanos - moyenneNanos) / Math.min(requests + 1, Math.max(1, fenetre));
+        derniereMesure = now;
+        requests++;
+        echecsConsecutifs = echec ? echecsConsecutifs + 1 : 0;
+    }
+
+    /**
+     * EWMA de crête amortie depuis la dernière mesure
+     */
+    synchronized double ewma(long now, long decayNanos) {
+        if (requests == 0) {
+            return 0.0;
+        }
+        return ewmaNanos * Math.exp(-(double) Math.max(0, now - derniereMesure) / decayNanos);
+    }
+
+    /**
+     * Moyenne glissante des dernières latences
+     */
+    synchronized double moyenne() {
+        return moyenneNanos;
+    }
+
+    /**
+     * Coût estimé d'une requête de plus sur cette instance (plus bas = préférable)
+     */
+    double score(long now, long decayNanos) {
+        return (Math.max(ewma(now, decayNanos), 0.0) + LATENCE_MIN_NANOS) * (outstanding.get() + 1);
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    synchronized long requests() {
+        return requests;
+    }
+
+    synchronized int echecsConsecutifs() {
+        return echecsConsecutifs;
+    }
+
+    /**
+     * Compte la dernière réponse comme lente ou non, rend le nombre de réponses lentes de suite
+     */
+    synchronized int lente(boolean lente) {
+        lentesConsecutives = lente ? lentesConsecutives + 1 : 0;
+        return lentesConsecutives;
+    }
+
+    boolean ejectee(long now) {
+        return ejectee && now - ejecteeJusqua < 0;
+    }
+
+    long ejecteeJusqua() {
+        return ejecteeJusqua;
+    }
+
+    synchronized void ejecter(long jusqua) {
+        ejecteeJusqua = jusqua;
+        ejectee = true;
+        echecsConsecutifs = 0;
+        lentesConsecutives = 0;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.commons.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Choix d'instance par "puissance de deux choix" sur le score de LatencyStats
+ *
+ * Deux instances non écartées sont tirées au hasard, la moins coûteuse
+ * (EWMA de latence × requêtes en cours) est retenue. Le hasard évite que toutes les gateways
+ * et clients se ruent sur la même instance "la plus rapide"; le score écarte progressivement
+ * une instance en pause GC ou sur un hôte chargé, au lieu de lui laisser sa part du tourniquet.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final LatencyStats latencyStats;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId, LatencyStats latencyStats) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.latencyStats = latencyStats;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choisir(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> choisir(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            System.err.println("Aucune instance disponible pour " + serviceId);
+            return new EmptyResponse();
+        }
+        long now = System.nanoTime();
+        List<ServiceInstance> candidats = latencyStats.disponibles(serviceId, instances, now);
+        if (candidats.size() == 1) {
+            return new DefaultResponse(candidats.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(candidats.size());
+        int j = random.nextInt(candidats.size() - 1);
+        if (j >= i) {
+            j++;
+        }
+        ServiceInstance a = candidats.get(i);
+        ServiceInstance b = candidats.get(j);
+        return new DefaultResponse(latencyStats.score(a, now) <= latencyStats.score(b, now) ? a : b);
+    }
+}
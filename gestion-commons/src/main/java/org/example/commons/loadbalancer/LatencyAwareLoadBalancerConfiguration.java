@@ -0,0 +1,29 @@
+package org.example.commons.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration de chaque client équilibré (contexte enfant par service, voir LoadBalancerConfig)
+ *
+ * Volontairement sans @Configuration: hors du scan, elle n'est chargée que dans les contextes enfants.
+ * Désactivée (loadbalancer.latency-aware.enabled=false), le tourniquet par défaut s'applique.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(value = "loadbalancer.latency-aware.enabled", havingValue = "true", matchIfMissing = true)
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment env,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         LatencyStats latencyStats) {
+        String serviceId = env.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, latencyStats);
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.commons.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence et charge de chaque instance, mesurées sur toutes les requêtes équilibrées
+ *
+ * Cycle de vie Spring Cloud LoadBalancer: appelé pour chaque requête lb:// (routes de la gateway,
+ * WebClient @LoadBalanced, clients Feign), il compte les requêtes en cours par instance et
+ * alimente leurs moyennes de latence. LatencyAwareLoadBalancer lit ces mesures pour choisir.
+ * Hors du package scanné des applications: à enregistrer par @Import (voir LoadBalancerConfig).
+ *
+ * Détection des instances aberrantes, après chaque réponse:
+ * - consecutive-failures échecs de suite (erreur d'appel ou statut 5xx)
+ * - ou consecutive-slow réponses de suite plus lentes que latency-factor fois la médiane des
+ *   latences moyennes (min-requests dernières mesures) des autres instances, au-delà de min-latency-ms.
+ *   L'EWMA de crête ne sert qu'au score du choix: une réponse lente isolée n'écarte pas une instance.
+ * L'instance est alors écartée ejection-ms, sans jamais écarter plus de max-ejection-percent
+ * des instances d'un service.
+ *
+ * Métriques (tags service, instance): loadbalancer.instance.score, loadbalancer.instance.latency.ewma,
+ * loadbalancer.instance.latency.mean, loadbalancer.instance.outstanding, loadbalancer.instance.ejected,
+ * loadbalancer.instance.ejections (tag motif)
+ */
+@Component
+public class LatencyStats implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final long RETENUE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loadbalancer.latency-aware.decay-ms:10000}")
+    private long decayMillis;
+
+    @Value("${loadbalancer.latency-aware.ejection-ms:30000}")
+    private long ejectionMillis;
+
+    @Value("${loadbalancer.latency-aware.consecutive-failures:5}")
+    private int consecutiveFailures;
+
+    @Value("${loadbalancer.latency-aware.consecutive-slow:5}")
+    private int consecutiveSlow;
+
+    @Value("${loadbalancer.latency-aware.latency-factor:3.0}")
+    private double latencyFactor;
+
+    @Value("${loadbalancer.latency-aware.min-latency-ms:50}")
+    private long minLatencyMillis;
+
+    @Value("${loadbalancer.latency-aware.min-requests:20}")
+    private long minRequests;
+
+    @Value("${loadbalancer.latency-aware.max-ejection-percent:50}")
+    private int maxEjectionPercent;
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, InstanceStats>> services = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> dernieresRetenues = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request != null && request.getContext() != null) {
+            request.getContext().setRequestStartTime(System.nanoTime());
+        }
+        stats(lbResponse.getServer()).debut();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats stats = stats(lbResponse.getServer());
+        stats.fin();
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+
+        Request<RequestDataContext> request = completionContext.getLoadBalancerRequest();
+        long debut = request != null && request.getContext() != null ? request.getContext().getRequestStartTime() : 0L;
+        if (debut == 0L) {
+            return;
+        }
+        long now = System.nanoTime();
+        ResponseData reponse = completionContext.getClientResponse();
+        boolean echec = completionContext.status() == CompletionContext.Status.FAILED
+                || (reponse != null && reponse.getHttpStatus() != null && reponse.getHttpStatus().is5xxServerError());
+        mesurer(stats, now - debut, echec, now);
+    }
+
+    /**
+     * Enregistre une réponse de l'instance puis vérifie si elle doit être écartée
+     */
+    void mesurer(ServiceInstance instance, long latenceNanos, boolean echec, long now) {
+        mesurer(stats(instance), latenceNanos, echec, now);
+    }
+
+    private void mesurer(InstanceStats stats, long latenceNanos, boolean echec, long now) {
+        stats.mesurer(latenceNanos, echec, now, decayNanos(), minRequests);
+        detecter(stats, latenceNanos, now);
+    }
+
+    /**
+     * Instances non écartées parmi celles découvertes (toutes si aucune ne l'est plus)
+     */
+    List<ServiceInstance> disponibles(String service, List<ServiceInstance> instances, long now) {
+        retenir(service, instances, now);
+        List<ServiceInstance> disponibles = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!stats(instance).ejectee(now)) {
+                disponibles.add(instance);
+            }
+        }
+        return disponibles.isEmpty() ? instances : disponibles;
+    }
+
+    double score(ServiceInstance instance, long now) {
+        return stats(instance).score(now, decayNanos());
+    }
+
+    /**
+     * État courant de chaque instance, par service
+     */
+    public Map<String, List<Map<String, Object>>> snapshot() {
+        return snapshot(System.nanoTime());
+    }
+
+    Map<String, List<Map<String, Object>>> snapshot(long now) {
+        Map<String, List<Map<String, Object>>> snapshot = new TreeMap<>();
+        services.forEach((service, instances) -> {
+            List<Map<String, Object>> lignes = new ArrayList<>();
+            for (InstanceStats stats : instances.values()) {
+                Map<String, Object> ligne = new LinkedHashMap<>();
+                ligne.put("instance", stats.instance);
+                ligne.put("latenceEwmaMs", arrondi(stats.ewma(now, decayNanos()) / 1_000_000));
+                ligne.put("latenceMoyenneMs", arrondi(stats.moyenne() / 1_000_000));
+                ligne.put("enCours", stats.outstanding());
+                ligne.put("score", arrondi(stats.score(now, decayNanos()) / 1_000_000));
+                ligne.put("requetes", stats.requests());
+                ligne.put("echecsConsecutifs", stats.echecsConsecutifs());
+                ligne.put("ejectee", stats.ejectee(now));
+                ligne.put("ejecteeEncoreMs", stats.ejectee(now)
+                        ? TimeUnit.NANOSECONDS.toMillis(stats.ejecteeJusqua() - now) : 0L);
+                lignes.add(ligne);
+            }
+            snapshot.put(service, lignes);
+        });
+        return snapshot;
+    }
+
+    private void detecter(InstanceStats stats, long latenceNanos, long now) {
+        if (stats.ejectee(now)) {
+            return;
+        }
+        if (stats.echecsConsecutifs() >= consecutiveFailures) {
+            ejecter(stats, now, "erreurs");
+            return;
+        }
+        if (stats.requests() < minRequests || latenceNanos < TimeUnit.MILLISECONDS.toNanos(minLatencyMillis)) {
+            stats.lente(false);
+            return;
+        }
+        List<Double> autres = new ArrayList<>();
+        for (InstanceStats autre : services.get(stats.service).values()) {
+            if (autre != stats && !autre.ejectee(now) && autre.requests() >= minRequests) {
+                autres.add(autre.moyenne());
+            }
+        }
+        boolean lente = !autres.isEmpty() && latenceNanos > latencyFactor * mediane(autres);
+        if (stats.lente(lente) >= consecutiveSlow) {
+            ejecter(stats, now, "latence");
+        }
+    }
+
+    private void ejecter(InstanceStats stats, long now, String motif) {
+        Collection<InstanceStats> instances = services.get(stats.service).values();
+        long ejectees = instances.stream().filter(s -> s.ejectee(now)).count();
+        if ((ejectees + 1) * 100 > (long) maxEjectionPercent * instances.size()) {
+            return;
+        }
+        stats.ejecter(now + TimeUnit.MILLISECONDS.toNanos(ejectionMillis));
+        meterRegistry.counter("loadbalancer.instance.ejections",
+                "service", stats.service, "instance", stats.instance, "motif", motif).increment();
+        System.out.println("Instance " + stats.instance + " de " + stats.service
+                + " écartée " + ejectionMillis + " ms (" + motif + ")");
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        String service = instance.getServiceId().toLowerCase();
+        String cle = instance.getHost() + ":" + instance.getPort();
+        return services.computeIfAbsent(service, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cle, c -> enregistrer(new InstanceStats(service, c)));
+    }
+
+    private InstanceStats enregistrer(InstanceStats stats) {
+        String[] tags = {"service", stats.service, "instance", stats.instance};
+        stats.meters.add(Gauge.builder("loadbalancer.instance.score", stats, s -> s.score(System.nanoTime(), decayNanos()) / 1_000_000)
+                .description("Coût estimé d'une requête de plus (ms)").tags(tags).register(meterRegistry));
+        stats.meters.add(Gauge.builder("loadbalancer.instance.latency.ewma", stats, s -> s.ewma(System.nanoTime(), decayNanos()) / 1_000_000)
+                .description("Latence EWMA de crête (ms)").tags(tags).register(meterRegistry));
+        stats.meters.add(Gauge.builder("loadbalancer.instance.latency.mean", stats, s -> s.moyenne() / 1_000_000)
+                .description("Latence moyenne des dernières mesures (ms)").tags(tags).register(meterRegistry));
+        stats.meters.add(Gauge.builder("loadbalancer.instance.outstanding", stats, InstanceStats::outstanding)
+                .description("Requêtes en cours").tags(tags).register(meterRegistry));
+        stats.meters.add(Gauge.builder("loadbalancer.instance.ejected", stats, s -> s.ejectee(System.nanoTime()) ? 1 : 0)
+                .description("1 si l'instance est écartée").tags(tags).register(meterRegistry));
+        return stats;
+    }
+
+    // Oublie les instances disparues de la découverte (au plus toutes les 30 s par service)
+    private void retenir(String service, List<ServiceInstance> instances, long now) {
+        String cle = service.toLowerCase();
+        Long derniere = dernieresRetenues.get(cle);
+        if (derniere != null && now - derniere < RETENUE_NANOS) {
+            return;
+        }
+        dernieresRetenues.put(cle, now);
+        Map<String, InstanceStats> connues = services.get(cle);
+        if (connues == null) {
+            return;
+        }
+        Set<String> presentes = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            presentes.add(instance.getHost() + ":" + instance.getPort());
+        }
+        connues.values().removeIf(stats -> {
+            if (presentes.contains(stats.instance)) {
+                return false;
+            }
+            for (Meter meter : stats.meters) {
+                meterRegistry.remove(meter);
+            }
+            return true;
+        });
+    }
+
+    private long decayNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(1, decayMillis));
+    }
+
+    private static double mediane(List<Double> valeurs) {
+        valeurs.sort(null);
+        int milieu = valeurs.size() / 2;
+        return valeurs.size() % 2 == 1 ? valeurs.get(milieu) : (valeurs.get(milieu - 1) + valeurs.get(milieu)) / 2;
+    }
+
+    private static double arrondi(double valeur) {
+        return Math.round(valeur * 100) / 100.0;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.commons.pagination;
+
+/**
+ * Curseur de pagination illisible ou altéré par le client (réponse 400)
+ */
+public class CurseurInvalideException extends RuntimeException {
+
+    public CurseurInvalideException(String cursor) {
+        super("Curseur de pagination invalide: " + cursor);
+    }
+}
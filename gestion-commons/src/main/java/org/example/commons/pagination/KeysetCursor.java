@@ -0,0 +1,50 @@
+package org.example.commons.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseur opaque (clé de tri, id) du dernier élément d'une page
+ * Encodé en base64 URL-safe: "cleDeTri:id"
+ */
+public class KeysetCursor {
+
+    private final String sortKey;
+    private final Long id;
+
+    public KeysetCursor(String sortKey, Long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String brut = (sortKey != null ? sortKey : "") + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Double getSortKeyAsDouble() {
+        try {
+            return Double.valueOf(sortKey);
+        } catch (RuntimeException e) {
+            throw new CurseurInvalideException(encode());
+        }
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separateur = brut.lastIndexOf(':');
+            return new KeysetCursor(brut.substring(0, separateur), Long.valueOf(brut.substring(separateur + 1)));
+        } catch (RuntimeException e) {
+            throw new CurseurInvalideException(cursor);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.commons.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjoncteur à fenêtre glissante sur les derniers appels
+ *
+ * FERME: les appels passent; dès que la fenêtre contient au moins minimumAppels résultats
+ * et que le taux d'échec atteint seuilEchecPourcent, le disjoncteur s'ouvre.
+ * OUVERT: les appels sont refusés sans toucher le réseau pendant dureeOuverture.
+ * DEMI_OUVERT: appelsDemiOuvert appels d'essai passent; tous réussis -> FERME, un échec -> OUVERT.
+ *
+ * Les sections critiques ne font que mettre à jour des compteurs (aucun appel bloquant sous le verrou).
+ */
+public class CircuitBreaker {
+
+    public enum Etat { FERME, OUVERT, DEMI_OUVERT }
+
+    private final int seuilEchecPourcent;
+    private final int minimumAppels;
+    private final long dureeOuvertureNanos;
+    private final int appelsDemiOuvert;
+    private final Consumer<Etat> surTransition;
+    // Horloge en nanosecondes (System.nanoTime, remplaçable dans les tests)
+    private final LongSupplier horloge;
+
+    // Fenêtre circulaire des derniers résultats (true = échec)
+    private final boolean[] fenetre;
+    private int position;
+    private int remplis;
+    private int echecs;
+
+    private volatile Etat etat = Etat.FERME;
+    private long ouvertJusqua;
+    private int essaisLances;
+    private int essaisReussis;
+
+    public CircuitBreaker(int tailleFenetre, int minimumAppels, int seuilEchecPourcent,
+                          long dureeOuvertureMillis, int appelsDemiOuvert, Consumer<Etat> surTransition) {
+        this(tailleFenetre, minimumAppels, seuilEchecPourcent, dureeOuvertureMillis, appelsDemiOuvert,
+                surTransition, System::nanoTime);
+    }
+
+    CircuitBreaker(int tailleFenetre, int minimumAppels, int seuilEchecPourcent, long dureeOuvertureMillis,
+                   int appelsDemiOuvert, Consumer<Etat> surTransition, LongSupplier horloge) {
+        this.fenetre = new boolean[Math.max(1, tailleFenetre)];
+        this.minimumAppels = Math.max(1, Math.min(minimumAppels, fenetre.length));
+        this.seuilEchecPourcent = seuilEchecPourcent;
+        this.dureeOuvertureNanos = TimeUnit.MILLISECONDS.toNanos(dureeOuvertureMillis);
+        this.appelsDemiOuvert = Math.max(1, appelsDemiOuvert);
+        this.surTransition = surTransition;
+        this.horloge = horloge;
+    }
+
+    public Etat getEtat() {
+        return etat;
+    }
+
+    /**
+     * Indique si un appel peut partir; en DEMI_OUVERT, réserve un des appels d'essai
+     */
+    public synchronized boolean autoriser() {
+        if (etat == Etat.OUVERT) {
+            if (horloge.getAsLong() - ouvertJusqua < 0) {
+                return false;
+            }
+            essaisLances = 0;
+            essaisReussis = 0;
+            changer(Etat.DEMI_OUVERT);
+        }
+        if (etat == Etat.DEMI_OUVERT) {
+            if (essaisLances >= appelsDemiOuvert) {
+                return false;
+            }
+            essaisLances++;
+        }
+        return true;
+    }
+
+    /**
+     * L'appel autorisé n'a pas eu lieu (refusé plus loin): rend l'appel d'essai réservé
+     */
+    public synchronized void annuler() {
+        if (etat == Etat.DEMI_OUVERT && essaisLances > 0) {
+            essaisLances--;
+        }
+    }
+
+    public synchronized void succes() {
+        switch (etat) {
+            case FERME -> enregistrer(false);
+            case DEMI_OUVERT -> {
+                if (++essaisReussis >= appelsDemiOuvert) {
+                    viderFenetre();
+                    changer(Etat.FERME);
+                }
+            }
+            case OUVERT -> { }
+        }
+    }
+
+    public synchronized void echec() {
+        switch (etat) {
+            case FERME -> {
+                enregistrer(true);
+                if (remplis >= minimumAppels && echecs * 100 >= seuilEchecPourcent * remplis) {
+                    ouvrir();
+                }
+            }
+            case DEMI_OUVERT -> ouvrir();
+            case OUVERT -> { }
+        }
+    }
+
+    private void enregistrer(boolean echec) {
+        if (remplis == fenetre.length) {
+            if (fenetre[position]) {
+                echecs--;
+            }
+        } else {
+            remplis++;
+        }
+        fenetre[position] = echec;
+        if (echec) {
+            echecs++;
+        }
+        position = (position + 1) % fenetre.length;
+    }
+
+    private void ouvrir() {
+        ouvertJusqua = horloge.getAsLong() + dureeOuvertureNanos;
+        viderFenetre();
+        changer(Etat.OUVERT);
+    }
+
+    private void viderFenetre() {
+        position = 0;
+        remplis = 0;
+        echecs = 0;
+    }
+
+    private void changer(Etat nouvelEtat) {
+        etat = nouvelEtat;
+        surTransition.accept(nouvelEtat);
+    }
+}
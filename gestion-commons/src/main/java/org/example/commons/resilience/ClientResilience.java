@@ -0,0 +1,282 @@
+package org.example.commons.resilience;
+
+import feign.FeignException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Résilience d'un client Feign: disjoncteur, cloison (bulkhead) et repli sur la dernière valeur connue
+ *
+ * - proteger(): l'appel passe par le disjoncteur puis par une cloison de max-concurrent-calls
+ *   appels simultanés; refusé immédiatement si le disjoncteur est ouvert ou la cloison pleine.
+ *   Les erreurs 4xx (NOT_FOUND / INVALID_ARGUMENT en gRPC) sont des réponses valides du service
+ *   distant: elles ne comptent pas comme échecs.
+ * - avecRepli(): chaque valeur obtenue est mémorisée localement; si l'appel échoue (5xx, délai,
+ *   refus), la dernière valeur connue est servie et la réponse HTTP en cours est marquée périmée
+ *   (voir DonneesPerimees). Les valeurs mémorisées sont évincées de la moins récemment utilisée
+ *   à la plus récente au-delà de stale.max-entries; une seule ligne de journal est écrite par
+ *   stale.log-interval-seconds, avec le nombre de replis depuis la précédente.
+ *
+ * Configuration: feign.resilience.*
+ * Métriques (tag client):
+ * - feign.circuit-breaker.state : 0 fermé, 1 ouvert, 2 demi-ouvert
+ * - feign.circuit-breaker.transitions (tag etat) : changements d'état
+ * - feign.resilience.rejections (tag motif: circuit-ouvert, bulkhead) : appels refusés
+ * - feign.bulkhead.active : appels en cours
+ * - feign.resilience.stale : réponses servies depuis la dernière valeur connue
+ */
+public class ClientResilience {
+
+    private static final String PREFIXE = "feign.resilience.";
+
+    private final String client;
+    private final boolean enabled;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore cloison;
+    private final int maxConcurrents;
+    private final long attenteCloisonMillis;
+    private final int maxValeurs;
+    private final long ageMaxNanos;
+    private final long intervalleJournalNanos;
+    // Ordre d'accès (LRU), protégé par son propre verrou
+    private final Map<String, ValeurConnue> dernieresValeurs;
+    private final AtomicLong prochainJournal = new AtomicLong(System.nanoTime());
+    private final AtomicLong replisNonJournalises = new AtomicLong();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rejetsCircuit;
+    private final Counter rejetsCloison;
+    private final Counter repliPerime;
+
+    public ClientResilience(String client, Environment env, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.enabled = env.getProperty(PREFIXE + "enabled", Boolean.class, true);
+        this.maxConcurrents = Math.max(1, env.getProperty(PREFIXE + "max-concurrent-calls", Integer.class, 50));
+        this.cloison = new Semaphore(maxConcurrents);
+        this.attenteCloisonMillis = env.getProperty(PREFIXE + "bulkhead-wait-ms", Long.class, 0L);
+        this.maxValeurs = env.getProperty(PREFIXE + "stale.max-entries", Integer.class, 10000);
+        this.ageMaxNanos = TimeUnit.SECONDS.toNanos(env.getProperty(PREFIXE + "stale.max-age-seconds", Long.class, 86400L));
+        this.intervalleJournalNanos = TimeUnit.SECONDS.toNanos(
+                env.getProperty(PREFIXE + "stale.log-interval-seconds", Long.class, 60L));
+        this.dernieresValeurs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ValeurConnue> plusAncienne) {
+                return size() > maxValeurs;
+            }
+        };
+        this.circuitBreaker = new CircuitBreaker(
+                env.getProperty(PREFIXE + "window-size", Integer.class, 20),
+                env.getProperty(PREFIXE + "minimum-calls", Integer.class, 10),
+                env.getProperty(PREFIXE + "failure-rate-threshold", Integer.class, 50),
+                env.getProperty(PREFIXE + "open-duration-ms", Long.class, 10000L),
+                env.getProperty(PREFIXE + "half-open-calls", Integer.class, 3),
+                this::surTransition);
+
+        Gauge.builder("feign.circuit-breaker.state", circuitBreaker, cb -> cb.getEtat().ordinal())
+                .description("État du disjoncteur (0 fermé, 1 ouvert, 2 demi-ouvert)")
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("feign.bulkhead.active", cloison, c -> maxConcurrents - c.availablePermits())
+                .description("Appels en cours dans la cloison")
+                .tag("client", client)
+                .register(meterRegistry);
+        this.rejetsCircuit = rejets("circuit-ouvert");
+        this.rejetsCloison = rejets("bulkhead");
+        this.repliPerime = Counter.builder("feign.resilience.stale")
+                .description("Réponses servies depuis la dernière valeur connue")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appel protégé par le disjoncteur et la cloison, sans repli
+     */
+    public <T> T proteger(Supplier<T> appel) {
+        if (!enabled) {
+            return appel.get();
+        }
+        if (!circuitBreaker.autoriser()) {
+            rejetsCircuit.increment();
+            throw new RuntimeException("Service " + client + " indisponible (disjoncteur ouvert)");
+        }
+        if (!entrerCloison()) {
+            circuitBreaker.annuler();
+            rejetsCloison.increment();
+            throw new RuntimeException("Trop d'appels simultanés vers le service " + client);
+        }
+        try {
+            T resultat = appel.get();
+            circuitBreaker.succes();
+            return resultat;
+        } catch (RuntimeException e) {
+            if (estErreurClient(e)) {
+                circuitBreaker.succes();
+            } else {
+                circuitBreaker.echec();
+            }
+            throw e;
+        } finally {
+            cloison.release();
+        }
+    }
+
+    /**
+     * Mémorise la valeur obtenue sous la clé; en cas d'échec, sert la dernière valeur connue
+     */
+    public <T> T avecRepli(String cle, Supplier<T> appel) {
+        if (!enabled) {
+            return appel.get();
+        }
+        try {
+            T resultat = appel.get();
+            memoriser(cle, resultat);
+            return resultat;
+        } catch (RuntimeException e) {
+            T connue = lire(cle);
+            if (connue == null || estErreurClient(e)) {
+                throw e;
+            }
+            servirPerime(cle, e);
+            return connue;
+        }
+    }
+
+    /**
+     * Appel protégé avec repli sur la dernière valeur connue
+     */
+    public <T> T appeler(String cle, Supplier<T> appel) {
+        return avecRepli(cle, () -> proteger(appel));
+    }
+
+    /**
+     * Variante pour les appels en lot: chaque entrée du résultat est mémorisée sous prefixe:clé.
+     * Le repli n'a lieu que si la dernière valeur de chacune des clés demandées est connue.
+     */
+    public <K, V> Map<K, V> appelerLot(String prefixe, Collection<K> cles, Supplier<Map<K, V>> appel) {
+        if (!enabled) {
+            return appel.get();
+        }
+        try {
+            Map<K, V> resultats = proteger(appel);
+            if (resultats != null) {
+                resultats.forEach((cle, valeur) -> memoriser(prefixe + ":" + cle, valeur));
+            }
+            return resultats;
+        } catch (RuntimeException e) {
+            if (estErreurClient(e)) {
+                throw e;
+            }
+            Map<K, V> connues = new LinkedHashMap<>();
+            for (K cle : cles) {
+                V valeur = lire(prefixe + ":" + cle);
+                if (valeur == null) {
+                    throw e;
+                }
+                connues.put(cle, valeur);
+            }
+            servirPerime(prefixe + ":" + cles.size() + " clés", e);
+            return connues;
+        }
+    }
+
+    private boolean entrerCloison() {
+        try {
+            return attenteCloisonMillis <= 0
+                    ? cloison.tryAcquire()
+                    : cloison.tryAcquire(attenteCloisonMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 4xx: le service a répondu, la requête était invalide (ou la ressource n'existe pas)
+    private static boolean estErreurClient(Throwable erreur) {
+        for (Throwable t = erreur; t != null; t = t.getCause()) {
+            if (t instanceof FeignException feign && feign.status() >= 400 && feign.status() < 500) {
+                return true;
+            }
+            if (t instanceof StatusRuntimeException grpc
+                    && (grpc.getStatus().getCode() == Status.Code.NOT_FOUND
+                    || grpc.getStatus().getCode() == Status.Code.INVALID_ARGUMENT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void memoriser(String cle, Object valeur) {
+        if (valeur == null) {
+            return;
+        }
+        ValeurConnue connue = new ValeurConnue(valeur, System.nanoTime());
+        synchronized (dernieresValeurs) {
+            dernieresValeurs.put(cle, connue);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lire(String cle) {
+        ValeurConnue connue;
+        synchronized (dernieresValeurs) {
+            connue = dernieresValeurs.get(cle);
+        }
+        if (connue == null || System.nanoTime() - connue.instant > ageMaxNanos) {
+            return null;
+        }
+        return (T) connue.valeur;
+    }
+
+    private void servirPerime(String cle, RuntimeException cause) {
+        repliPerime.increment();
+        DonneesPerimees.marquer();
+        replisNonJournalises.incrementAndGet();
+        long maintenant = System.nanoTime();
+        long prochain = prochainJournal.get();
+        // Un seul thread gagne le CAS et écrit la ligne de l'intervalle
+        if (maintenant - prochain >= 0
+                && prochainJournal.compareAndSet(prochain, maintenant + intervalleJournalNanos)) {
+            long replis = replisNonJournalises.getAndSet(0);
+            System.err.println("Service " + client + " en échec (" + cause.getMessage()
+                    + "), dernière valeur connue servie pour " + cle
+                    + " (" + replis + " réponses périmées depuis le dernier message)");
+        }
+    }
+
+    private Counter rejets(String motif) {
+        return Counter.builder("feign.resilience.rejections")
+                .description("Appels refusés sans toucher le réseau")
+                .tag("client", client)
+                .tag("motif", motif)
+                .register(meterRegistry);
+    }
+
+    private void surTransition(CircuitBreaker.Etat etat) {
+        meterRegistry.counter("feign.circuit-breaker.transitions",
+                "client", client, "etat", etat.name().toLowerCase()).increment();
+        System.out.println("Disjoncteur " + client + " -> " + etat);
+    }
+
+    private static final class ValeurConnue {
+        private final Object valeur;
+        private final long instant;
+
+        private ValeurConnue(Object valeur, long instant) {
+            this.valeur = valeur;
+            this.instant = instant;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.commons.resilience;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Marque la requête HTTP en cours comme servie (en partie) avec des données périmées
+ *
+ * Posé par ClientResilience quand un appel distant en échec est remplacé par la dernière
+ * valeur connue; DonneesPerimeesAdvice ajoute alors l'en-tête standard
+ * "Warning: 110 - Response is Stale" à la réponse.
+ * Hors requête HTTP (tâches de fond), le marquage est sans effet.
+ */
+public final class DonneesPerimees {
+
+    public static final String ATTRIBUT = DonneesPerimees.class.getName();
+
+    private DonneesPerimees() {
+    }
+
+    public static void marquer() {
+        RequestAttributes requete = RequestContextHolder.getRequestAttributes();
+        if (requete != null) {
+            requete.setAttribute(ATTRIBUT, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static boolean estMarquee(RequestAttributes requete) {
+        return requete != null
+                && Boolean.TRUE.equals(requete.getAttribute(ATTRIBUT, RequestAttributes.SCOPE_REQUEST));
+    }
+}
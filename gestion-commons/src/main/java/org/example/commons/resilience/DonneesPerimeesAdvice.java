@@ -0,0 +1,36 @@
+package org.example.commons.resilience;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ajoute "Warning: 110 - Response is Stale" aux réponses construites avec la dernière valeur
+ * connue d'un service distant indisponible (voir DonneesPerimees)
+ */
+@RestControllerAdvice
+public class DonneesPerimeesAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String AVERTISSEMENT = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (DonneesPerimees.estMarquee(RequestContextHolder.getRequestAttributes())) {
+            response.getHeaders().set(HttpHeaders.WARNING, AVERTISSEMENT);
+        }
+        return body;
+    }
+}
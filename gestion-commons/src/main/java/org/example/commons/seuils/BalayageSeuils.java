@@ -0,0 +1,106 @@
+package org.example.commons.seuils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Calcule la liste noire de nombreux seuils en une passe
+ *
+ * Les taux sont lus une fois, triés par ordre croissant; pour chaque seuil une recherche
+ * dichotomique donne la première position >= seuil, d'où le nombre de membres (n - position)
+ * et, si demandé, leurs CNE (taux décroissant).
+ *
+ * Avec les membres, le nombre total de CNE renvoyés (tous seuils confondus) est borné par
+ * MAX_MEMBRES: au-delà la requête est refusée, à restreindre par niveau/module ou par seuils.
+ */
+public final class BalayageSeuils {
+
+    private static final int MAX_SEUILS = 1000;
+    static final long MAX_MEMBRES = 10_000;
+
+    private BalayageSeuils() {
+    }
+
+    /**
+     * Liste explicite de seuils, ou plage [min, max] parcourue par pas
+     */
+    public static List<Double> seuils(List<Double> seuils, Double min, Double max, Double pas) {
+        if (seuils != null && !seuils.isEmpty()) {
+            if (seuils.size() > MAX_SEUILS) {
+                throw new SeuilsInvalidesException("Trop de seuils (maximum " + MAX_SEUILS + ")");
+            }
+            if (seuils.stream().anyMatch(Objects::isNull)) {
+                throw new SeuilsInvalidesException("Seuil manquant dans la liste: " + seuils);
+            }
+            return seuils;
+        }
+        if (min == null || max == null || pas == null || pas <= 0 || max < min) {
+            throw new SeuilsInvalidesException("Fournir seuils, ou min, max et pas (pas > 0, max >= min)");
+        }
+        long nombre = (long) Math.floor((max - min) / pas + 1e-9) + 1;
+        if (nombre > MAX_SEUILS) {
+            throw new SeuilsInvalidesException("Trop de seuils (maximum " + MAX_SEUILS + ")");
+        }
+        List<Double> resultat = new ArrayList<>((int) nombre);
+        for (long i = 0; i < nombre; i++) {
+            // Arrondi pour éviter 0.30000000000000004
+            resultat.add(Math.round((min + i * pas) * 1e9) / 1e9);
+        }
+        return resultat;
+    }
+
+    /**
+     * @param lignes couples [cne, taux] triés par taux croissant
+     */
+    public static List<SeuilResultat> balayer(List<Object[]> lignes, List<Double> seuils, boolean avecMembres) {
+        int n = lignes.size();
+        double[] taux = new double[n];
+        String[] cnes = new String[n];
+        for (int i = 0; i < n; i++) {
+            Object[] ligne = lignes.get(i);
+            cnes[i] = (String) ligne[0];
+            taux[i] = ligne[1] != null ? ((Number) ligne[1]).doubleValue() : 0.0;
+        }
+
+        int[] positions = new int[seuils.size()];
+        long totalMembres = 0;
+        for (int s = 0; s < positions.length; s++) {
+            positions[s] = premierSuperieurOuEgal(taux, seuils.get(s));
+            totalMembres += n - positions[s];
+        }
+        // Vérifié avant de construire les listes: la réponse ne peut pas dépasser MAX_MEMBRES CNE
+        if (avecMembres && totalMembres > MAX_MEMBRES) {
+            throw new SeuilsInvalidesException("Trop de membres à renvoyer (" + totalMembres + ", maximum " + MAX_MEMBRES
+                    + "): réduire les seuils, filtrer par niveau/module ou demander membres=false");
+        }
+
+        List<SeuilResultat> resultats = new ArrayList<>(seuils.size());
+        for (int s = 0; s < positions.length; s++) {
+            int position = positions[s];
+            List<String> membres = null;
+            if (avecMembres) {
+                membres = new ArrayList<>(n - position);
+                for (int i = n - 1; i >= position; i--) {
+                    membres.add(cnes[i]);
+                }
+            }
+            resultats.add(new SeuilResultat(seuils.get(s), n - position, membres));
+        }
+        return resultats;
+    }
+
+    private static int premierSuperieurOuEgal(double[] taux, double seuil) {
+        int bas = 0;
+        int haut = taux.length;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (taux[milieu] < seuil) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+}
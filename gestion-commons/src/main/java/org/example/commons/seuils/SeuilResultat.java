@@ -0,0 +1,45 @@
+package org.example.commons.seuils;
+
+import java.util.List;
+
+/**
+ * Résultat d'un seuil lors d'un balayage: taille de la liste noire et, si demandé, ses CNE
+ */
+public class SeuilResultat {
+    private Double seuil;
+    private long total;
+    private List<String> membres; // null si les membres n'ont pas été demandés
+
+    public SeuilResultat() {
+    }
+
+    public SeuilResultat(Double seuil, long total, List<String> membres) {
+        this.seuil = seuil;
+        this.total = total;
+        this.membres = membres;
+    }
+
+    public Double getSeuil() {
+        return seuil;
+    }
+
+    public void setSeuil(Double seuil) {
+        this.seuil = seuil;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<String> getMembres() {
+        return membres;
+    }
+
+    public void setMembres(List<String> membres) {
+        this.membres = membres;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.commons.seuils;
+
+/**
+ * Paramètres de balayage de seuils refusés: seuil manquant, plage invalide, réponse trop volumineuse (réponse 400)
+ */
+public class SeuilsInvalidesException extends RuntimeException {
+
+    public SeuilsInvalidesException(String message) {
+        super(message);
+    }
+}
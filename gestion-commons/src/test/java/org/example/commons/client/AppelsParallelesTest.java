@@ -0,0 +1,92 @@
+package org.example.commons.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppelsParallelesTest {
+
+    @Test
+    void appelsExecutesEnParallele() {
+        long debut = System.nanoTime();
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofSeconds(5))) {
+            Supplier<String> a = appels.lancer(() -> {
+                Thread.sleep(300);
+                return "a";
+            });
+            Supplier<Integer> b = appels.lancer(() -> {
+                Thread.sleep(300);
+                return 2;
+            });
+            appels.attendre();
+
+            assertEquals("a", a.get());
+            assertEquals(Integer.valueOf(2), b.get());
+        }
+        // Durée du plus lent, pas la somme
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut) < 550);
+    }
+
+    @Test
+    void premierEchecAnnuleLesAutresAppels() throws InterruptedException {
+        CountDownLatch interrompu = new CountDownLatch(1);
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofSeconds(5))) {
+            appels.lancer(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrompu.countDown();
+                }
+                return null;
+            });
+            appels.lancer(() -> {
+                throw new IllegalStateException("service indisponible");
+            });
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, appels::attendre);
+            assertEquals("service indisponible", e.getMessage());
+        }
+        assertTrue(interrompu.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void echeanceDepasseeLeveUneErreur() {
+        AtomicBoolean termine = new AtomicBoolean();
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofMillis(100))) {
+            appels.lancer(() -> {
+                Thread.sleep(5_000);
+                termine.set(true);
+                return null;
+            });
+
+            RuntimeException e = assertThrows(RuntimeException.class, appels::attendre);
+            assertEquals("Délai dépassé pour les appels distants", e.getMessage());
+        }
+        assertFalse(termine.get());
+    }
+
+    @Test
+    void resultatIllisibleAvantAttendre() throws InterruptedException {
+        CountDownLatch libere = new CountDownLatch(1);
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofSeconds(5))) {
+            Supplier<String> a = appels.lancer(() -> {
+                libere.await();
+                return "a";
+            });
+
+            assertThrows(IllegalStateException.class, a::get);
+            libere.countDown();
+            appels.attendre();
+            assertEquals("a", a.get());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.commons.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pool de connexions Feign contre un serveur HTTP local (keep-alive, évicteur, métriques)
+ */
+class FeignTransportConfigTest {
+
+    private HttpServer serveur;
+    private String url;
+    private MeterRegistry meterRegistry;
+    private FeignTransportConfig config;
+    private PoolingHttpClientConnectionManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        serveur = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serveur.createContext("/api", echange -> {
+            byte[] corps = "ok".getBytes(StandardCharsets.UTF_8);
+            echange.sendResponseHeaders(200, corps.length);
+            try (OutputStream sortie = echange.getResponseBody()) {
+                sortie.write(corps);
+            }
+        });
+        serveur.start();
+        url = "http://127.0.0.1:" + serveur.getAddress().getPort() + "/api";
+
+        meterRegistry = new SimpleMeterRegistry();
+        config = new FeignTransportConfig();
+        ReflectionTestUtils.setField(config, "client", "gestion-test-service");
+        ReflectionTestUtils.setField(config, "maxConnections", 10);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 4);
+        ReflectionTestUtils.setField(config, "timeToLiveSeconds", 900L);
+        ReflectionTestUtils.setField(config, "socketTimeoutSeconds", 5);
+        ReflectionTestUtils.setField(config, "keepAliveSeconds", 30L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.close();
+        }
+        config.shutdown();
+        serveur.stop(0);
+    }
+
+    @Test
+    void poolDimensionneSelonLesProprietes() {
+        manager = creerManager();
+
+        assertEquals(10, manager.getMaxTotal());
+        assertEquals(4, manager.getDefaultMaxPerRoute());
+        assertEquals(10.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("client", "gestion-test-service").gauge().value());
+    }
+
+    @Test
+    void connexionReutiliseeEntreLesAppels() throws Exception {
+        manager = creerManager();
+
+        appeler(5);
+
+        // Une seule connexion ouverte (keep-alive), louée cinq fois
+        assertEquals(1.0, meterRegistry.get("feign.http.pool.connections.created").counter().count());
+        assertEquals(5, meterRegistry.get("feign.http.pool.lease.wait").timer().count());
+        assertEquals(1.0, disponibles());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+    }
+
+    @Test
+    void connexionInactiveFermeeParLEvicteur() throws Exception {
+        ReflectionTestUtils.setField(config, "keepAliveSeconds", 1L);
+        manager = creerManager();
+        appeler(1);
+        assertEquals(1.0, disponibles());
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (disponibles() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(0.0, disponibles());
+        appeler(1);
+        assertEquals(2.0, meterRegistry.get("feign.http.pool.connections.created").counter().count());
+        assertTrue(meterRegistry.get("feign.http.pool.lease.wait").timer().count() >= 2);
+    }
+
+    private PoolingHttpClientConnectionManager creerManager() {
+        return (PoolingHttpClientConnectionManager) config.feignConnectionManager(meterRegistry);
+    }
+
+    // Client construit comme celui de Spring Cloud OpenFeign: il partage le gestionnaire de connexions
+    private void appeler(int fois) throws Exception {
+        try (CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setConnectionManagerShared(true)
+                .build()) {
+            for (int i = 0; i < fois; i++) {
+                String corps = client.execute(new HttpGet(url), reponse -> EntityUtils.toString(reponse.getEntity()));
+                assertEquals("ok", corps);
+            }
+        }
+    }
+
+    private double disponibles() {
+        return meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value();
+    }
+}
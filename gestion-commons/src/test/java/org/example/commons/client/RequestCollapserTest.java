@@ -0,0 +1,124 @@
+package org.example.commons.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCollapserTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Long>> lots = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService appelants = Executors.newFixedThreadPool(8);
+    private RequestCollapser<Long, String> collapser;
+
+    @AfterEach
+    void tearDown() {
+        appelants.shutdownNow();
+        if (collapser != null) {
+            collapser.shutdown();
+        }
+    }
+
+    @Test
+    void appelsConcurrentsRegroupesEnUnSeulLot() throws Exception {
+        collapser = new RequestCollapser<>("test", enregistrant(this::valeurs), 200, 100, 1, meterRegistry);
+
+        List<Future<String>> resultats = appeler(1L, 2L, 3L, 2L);
+
+        assertEquals("v1", resultats.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals("v2", resultats.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals("v3", resultats.get(2).get(5, TimeUnit.SECONDS));
+        assertEquals("v2", resultats.get(3).get(5, TimeUnit.SECONDS));
+        assertEquals(1, lots.size());
+        // Clé répétée envoyée une seule fois
+        assertEquals(new HashSet<>(List.of(1L, 2L, 3L)), new HashSet<>(lots.get(0)));
+        assertEquals(3, lots.get(0).size());
+        assertEquals(1, meterRegistry.get("feign.collapser.batch.size").tag("client", "test").summary().count());
+    }
+
+    @Test
+    void lotsLimitesAMaxBatchSize() throws Exception {
+        collapser = new RequestCollapser<>("test", enregistrant(this::valeurs), 200, 2, 1, meterRegistry);
+
+        List<Future<String>> resultats = appeler(1L, 2L, 3L, 4L, 5L);
+
+        for (int i = 0; i < resultats.size(); i++) {
+            assertEquals("v" + (i + 1), resultats.get(i).get(5, TimeUnit.SECONDS));
+        }
+        int total = 0;
+        for (List<Long> lot : lots) {
+            assertTrue(lot.size() <= 2);
+            total += lot.size();
+        }
+        assertEquals(5, total);
+    }
+
+    @Test
+    void cleAbsenteDuLotDonneNull() {
+        collapser = new RequestCollapser<>("test", cles -> Map.of(), 1, 10, 1, meterRegistry);
+
+        assertNull(collapser.get(42L));
+    }
+
+    @Test
+    void erreurDuLotPropageeATousLesAppelants() throws Exception {
+        IllegalStateException panne = new IllegalStateException("service indisponible");
+        collapser = new RequestCollapser<>("test", cles -> {
+            throw panne;
+        }, 100, 100, 1, meterRegistry);
+
+        List<Future<String>> resultats = appeler(1L, 2L);
+
+        for (Future<String> resultat : resultats) {
+            Exception e = assertThrows(Exception.class, () -> resultat.get(5, TimeUnit.SECONDS));
+            assertSame(panne, e.getCause());
+        }
+    }
+
+    private List<Future<String>> appeler(Long... cles) throws InterruptedException {
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<String>> resultats = new ArrayList<>();
+        for (Long cle : cles) {
+            resultats.add(appelants.submit(() -> {
+                depart.await();
+                return collapser.get(cle);
+            }));
+        }
+        depart.countDown();
+        return resultats;
+    }
+
+    private Function<List<Long>, Map<Long, String>> enregistrant(Function<List<Long>, Map<Long, String>> chargeur) {
+        return cles -> {
+            lots.add(List.copyOf(cles));
+            return chargeur.apply(cles);
+        };
+    }
+
+    private Map<Long, String> valeurs(List<Long> cles) {
+        Map<Long, String> valeurs = new HashMap<>();
+        for (Long cle : cles) {
+            valeurs.put(cle, "v" + cle);
+        }
+        return valeurs;
+    }
+}
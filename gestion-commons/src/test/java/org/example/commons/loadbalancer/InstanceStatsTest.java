@@ -0,0 +1,80 @@
+package org.example.commons.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Moyennes de latence et éjection d'une instance
+ */
+class InstanceStatsTest {
+
+    private static final long DECAY = TimeUnit.SECONDS.toNanos(10);
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    // nanoTime n'a pas d'origine fixe: il peut être négatif
+    private static final long T0 = -5_000_000_000_000L;
+
+    @Test
+    void reponseLenteIsoleeRemplaceLEwmaDeCreteMaisPasLaMoyenne() {
+        InstanceStats stats = new InstanceStats("notes", "h:1");
+        long now = T0;
+        for (int i = 0; i < 20; i++) {
+            stats.mesurer(10 * MS, false, now += MS, DECAY, 20);
+        }
+        assertEquals(10 * MS, stats.moyenne(), 1);
+
+        stats.mesurer(1000 * MS, false, now += MS, DECAY, 20);
+
+        assertEquals(1000 * MS, stats.ewma(now, DECAY), 1);
+        // 10 + 990 / 20
+        assertEquals(59.5 * MS, stats.moyenne(), 1);
+    }
+
+    @Test
+    void moyenneExacteTantQueLaFenetreNEstPasRemplie() {
+        InstanceStats stats = new InstanceStats("notes", "h:1");
+        stats.mesurer(10 * MS, false, T0, DECAY, 20);
+        stats.mesurer(20 * MS, false, T0 + MS, DECAY, 20);
+        stats.mesurer(60 * MS, false, T0 + 2 * MS, DECAY, 20);
+
+        assertEquals(30 * MS, stats.moyenne(), 1);
+    }
+
+    @Test
+    void jamaisEjecteeMemeAvecUnNanoTimeNegatif() {
+        InstanceStats stats = new InstanceStats("notes", "h:1");
+
+        assertFalse(stats.ejectee(T0));
+        assertFalse(stats.ejectee(-1));
+        assertFalse(stats.ejectee(0));
+    }
+
+    @Test
+    void ejectionJusquALEcheance() {
+        InstanceStats stats = new InstanceStats("notes", "h:1");
+        stats.mesurer(10 * MS, true, T0, DECAY, 20);
+        stats.lente(true);
+
+        stats.ejecter(T0 + 1000 * MS);
+
+        assertTrue(stats.ejectee(T0));
+        assertTrue(stats.ejectee(T0 + 999 * MS));
+        assertFalse(stats.ejectee(T0 + 1000 * MS));
+        assertEquals(0, stats.echecsConsecutifs());
+        assertEquals(1, stats.lente(true));
+    }
+
+    @Test
+    void reponseNormaleRemetLesLentesAZero() {
+        InstanceStats stats = new InstanceStats("notes", "h:1");
+
+        assertEquals(1, stats.lente(true));
+        assertEquals(2, stats.lente(true));
+        assertEquals(0, stats.lente(false));
+        assertEquals(1, stats.lente(true));
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.commons.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Choix par "puissance de deux choix" sur le score de LatencyStats
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int CHOIX = 300;
+
+    private final ServiceInstance rapide = LatencyStatsTest.instance("rapide");
+    private final ServiceInstance moyenne = LatencyStatsTest.instance("moyenne");
+    private final ServiceInstance lente = LatencyStatsTest.instance("lente");
+
+    private LatencyStats latencyStats;
+
+    @BeforeEach
+    void setUp() {
+        latencyStats = LatencyStatsTest.latencyStats(new SimpleMeterRegistry(), 50);
+    }
+
+    @Test
+    void deuxInstancesLaMoinsCouteuseToujoursChoisie() {
+        mesurer(rapide, 5);
+        mesurer(lente, 500);
+
+        Map<ServiceInstance, Integer> choix = choisir(rapide, lente);
+
+        assertEquals(Map.of(rapide, CHOIX), choix);
+    }
+
+    @Test
+    void laPlusCouteuseDesTroisJamaisChoisie() {
+        mesurer(rapide, 5);
+        mesurer(moyenne, 10);
+        mesurer(lente, 500);
+
+        Map<ServiceInstance, Integer> choix = choisir(rapide, moyenne, lente);
+
+        // Le hasard répartit entre les deux meilleures: la paire {moyenne, lente} revient à moyenne
+        assertFalse(choix.containsKey(lente));
+        assertTrue(choix.get(rapide) > 0);
+        assertTrue(choix.get(moyenne) > 0);
+    }
+
+    @Test
+    void requetesEnCoursAlourdissentLeScore() {
+        for (int i = 0; i < 3; i++) {
+            latencyStats.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(lente));
+        }
+
+        assertEquals(Map.of(rapide, CHOIX), choisir(rapide, lente));
+    }
+
+    @Test
+    void instanceEcarteeJamaisChoisie() {
+        latencyStats.disponibles("notes", List.of(rapide, lente), System.nanoTime());
+        for (int i = 0; i < 5; i++) {
+            latencyStats.mesurer(rapide, MS, true, System.nanoTime());
+        }
+
+        assertEquals(Map.of(lente, CHOIX), choisir(rapide, lente));
+    }
+
+    @Test
+    void aucuneInstanceReponseVide() {
+        Response<ServiceInstance> reponse = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("notes"), "notes", latencyStats)
+                .choose(new DefaultRequest<>()).block();
+
+        assertFalse(reponse.hasServer());
+    }
+
+    private void mesurer(ServiceInstance instance, long latenceMs) {
+        // Moins de min-requests mesures: seul le score compte, pas de détection d'instance aberrante
+        for (int i = 0; i < 10; i++) {
+            latencyStats.mesurer(instance, latenceMs * MS, false, System.nanoTime());
+        }
+    }
+
+    private Map<ServiceInstance, Integer> choisir(ServiceInstance... instances) {
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("notes", instances), "notes", latencyStats);
+        Map<ServiceInstance, Integer> choix = new HashMap<>();
+        for (int i = 0; i < CHOIX; i++) {
+            ServiceInstance instance = loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+            choix.merge(instance, 1, Integer::sum);
+        }
+        return choix;
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.commons.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Détection des instances aberrantes et limite d'éjection, avec une horloge contrôlée par le test
+ */
+class LatencyStatsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ServiceInstance a = instance("a");
+    private final ServiceInstance b = instance("b");
+    private final ServiceInstance c = instance("c");
+    private final ServiceInstance d = instance("d");
+
+    private MeterRegistry meterRegistry;
+    private LatencyStats latencyStats;
+    // nanoTime n'a pas d'origine fixe: il peut être négatif
+    private long now = -5_000_000_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        latencyStats = latencyStats(meterRegistry, 50);
+    }
+
+    @Test
+    void nouvelleInstanceDisponible() {
+        assertEquals(List.of(a, b), latencyStats.disponibles("notes", List.of(a, b), now));
+    }
+
+    @Test
+    void reponseLenteIsoleeNEcartePas() {
+        chauffer(100, a, b, c);
+
+        latencyStats.mesurer(a, 2000 * MS, false, now += MS);
+
+        assertEquals(List.of(a, b, c), latencyStats.disponibles("notes", List.of(a, b, c), now));
+        // L'EWMA de crête pénalise quand même l'instance dans le choix
+        assertTrue(latencyStats.score(a, now) > latencyStats.score(b, now));
+    }
+
+    @Test
+    void reponsesLentesDeSuiteEcartent() {
+        chauffer(100, a, b, c);
+
+        for (int i = 0; i < 4; i++) {
+            latencyStats.mesurer(a, 400 * MS, false, now += MS);
+        }
+        assertFalse(ejectee(a));
+
+        latencyStats.mesurer(a, 400 * MS, false, now += MS);
+
+        assertTrue(ejectee(a));
+        assertEquals(1.0, ejections(a, "latence"));
+    }
+
+    @Test
+    void reponseNormaleInterrompLaSerieLente() {
+        chauffer(100, a, b, c);
+
+        for (int i = 0; i < 4; i++) {
+            latencyStats.mesurer(a, 400 * MS, false, now += MS);
+        }
+        latencyStats.mesurer(a, 100 * MS, false, now += MS);
+        for (int i = 0; i < 4; i++) {
+            latencyStats.mesurer(a, 400 * MS, false, now += MS);
+        }
+
+        assertFalse(ejectee(a));
+    }
+
+    @Test
+    void lentHorsDuMinimumDeMesuresNEcartePas() {
+        chauffer(100, b, c);
+
+        for (int i = 0; i < 10; i++) {
+            latencyStats.mesurer(a, 400 * MS, false, now += MS);
+        }
+
+        assertFalse(ejectee(a));
+    }
+
+    @Test
+    void echecsConsecutifsEcartentPuisLEjectionExpire() {
+        latencyStats.disponibles("notes", List.of(a, b), now);
+        echouer(a, 4);
+        assertFalse(ejectee(a));
+
+        echouer(a, 1);
+        assertTrue(ejectee(a));
+        assertEquals(1.0, ejections(a, "erreurs"));
+
+        now += 30_000 * MS;
+        assertFalse(ejectee(a));
+    }
+
+    @Test
+    void jamaisPlusDeMaxEjectionPercentDesInstances() {
+        latencyStats.disponibles("notes", List.of(a, b, c, d), now);
+        echouer(a, 5);
+        echouer(b, 5);
+        echouer(c, 5);
+
+        // 50 % de 4 instances: a et b écartées, c reste
+        assertTrue(ejectee(a));
+        assertTrue(ejectee(b));
+        assertFalse(ejectee(c));
+        assertEquals(List.of(c, d), latencyStats.disponibles("notes", List.of(a, b, c, d), now));
+    }
+
+    @Test
+    void instanceSeuleJamaisEcartee() {
+        echouer(a, 5);
+
+        assertFalse(ejectee(a));
+    }
+
+    @Test
+    void deuxInstancesUneSeuleEcartee() {
+        latencyStats.disponibles("notes", List.of(a, b), now);
+        echouer(a, 5);
+        echouer(b, 5);
+
+        assertTrue(ejectee(a));
+        assertFalse(ejectee(b));
+    }
+
+    @Test
+    void toutesEcarteesToutesRedeviennentCandidates() {
+        latencyStats = latencyStats(meterRegistry, 100);
+        latencyStats.disponibles("notes", List.of(a, b), now);
+        echouer(a, 5);
+        echouer(b, 5);
+
+        assertTrue(ejectee(a));
+        assertTrue(ejectee(b));
+        assertEquals(List.of(a, b), latencyStats.disponibles("notes", List.of(a, b), now));
+    }
+
+    static LatencyStats latencyStats(MeterRegistry meterRegistry, int maxEjectionPercent) {
+        LatencyStats latencyStats = new LatencyStats();
+        ReflectionTestUtils.setField(latencyStats, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(latencyStats, "decayMillis", 10_000L);
+        ReflectionTestUtils.setField(latencyStats, "ejectionMillis", 30_000L);
+        ReflectionTestUtils.setField(latencyStats, "consecutiveFailures", 5);
+        ReflectionTestUtils.setField(latencyStats, "consecutiveSlow", 5);
+        ReflectionTestUtils.setField(latencyStats, "latencyFactor", 3.0);
+        ReflectionTestUtils.setField(latencyStats, "minLatencyMillis", 50L);
+        ReflectionTestUtils.setField(latencyStats, "minRequests", 20L);
+        ReflectionTestUtils.setField(latencyStats, "maxEjectionPercent", maxEjectionPercent);
+        return latencyStats;
+    }
+
+    static ServiceInstance instance(String hote) {
+        return new DefaultServiceInstance(hote, "notes", hote, 8080, false);
+    }
+
+    private void chauffer(long latenceMs, ServiceInstance... instances) {
+        for (int i = 0; i < 20; i++) {
+            for (ServiceInstance instance : instances) {
+                latencyStats.mesurer(instance, latenceMs * MS, false, now += MS);
+            }
+        }
+    }
+
+    private void echouer(ServiceInstance instance, int fois) {
+        for (int i = 0; i < fois; i++) {
+            latencyStats.mesurer(instance, 10 * MS, true, now += MS);
+        }
+    }
+
+    // Lu dans l'état exposé: disponibles() enregistrerait l'instance et oublierait les autres
+    private boolean ejectee(ServiceInstance instance) {
+        String cle = instance.getHost() + ":" + instance.getPort();
+        return latencyStats.snapshot(now).getOrDefault("notes", List.of()).stream()
+                .filter(ligne -> cle.equals(ligne.get("instance")))
+                .anyMatch(ligne -> (Boolean) ligne.get("ejectee"));
+    }
+
+    private double ejections(ServiceInstance instance, String motif) {
+        return meterRegistry.get("loadbalancer.instance.ejections")
+                .tag("instance", instance.getHost() + ":" + instance.getPort()).tag("motif", motif)
+                .counter().count();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.commons.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void allerRetour() {
+        KeysetCursor curseur = KeysetCursor.decode(new KeysetCursor("12.5", 42L).encode());
+
+        assertEquals("12.5", curseur.getSortKey());
+        assertEquals(12.5, curseur.getSortKeyAsDouble());
+        assertEquals(Long.valueOf(42), curseur.getId());
+    }
+
+    @Test
+    void sansCleDeTri() {
+        KeysetCursor curseur = KeysetCursor.decode(new KeysetCursor(null, 7L).encode());
+
+        assertEquals("", curseur.getSortKey());
+        assertEquals(Long.valueOf(7), curseur.getId());
+    }
+
+    @Test
+    void encodageSansCaracteresAEchapperDansUneUrl() {
+        String encode = new KeysetCursor("a/b+c", 1L).encode();
+
+        assertTrue(encode.matches("[A-Za-z0-9_-]+"), encode);
+    }
+
+    @Test
+    void curseursAlteresRejetes() {
+        assertThrows(CurseurInvalideException.class, () -> KeysetCursor.decode("%%%"));
+        assertThrows(CurseurInvalideException.class, () -> KeysetCursor.decode(base64("sans-separateur")));
+        assertThrows(CurseurInvalideException.class, () -> KeysetCursor.decode(base64("12.5:abc")));
+        assertThrows(CurseurInvalideException.class, () -> KeysetCursor.decode(null));
+    }
+
+    @Test
+    void cleDeTriNonNumeriqueRejetee() {
+        KeysetCursor curseur = KeysetCursor.decode(base64("abc:3"));
+
+        CurseurInvalideException e = assertThrows(CurseurInvalideException.class, curseur::getSortKeyAsDouble);
+        assertTrue(e.getMessage().startsWith("Curseur de pagination invalide"));
+    }
+
+    @Test
+    void messageContientLeCurseurRecu() {
+        CurseurInvalideException e = assertThrows(CurseurInvalideException.class, () -> KeysetCursor.decode("xyz"));
+
+        assertEquals("Curseur de pagination invalide: xyz", e.getMessage());
+        assertNull(e.getCause());
+    }
+
+    private static String base64(String brut) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+}
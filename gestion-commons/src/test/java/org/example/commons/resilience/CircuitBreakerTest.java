@@ -0,0 +1,140 @@
+package org.example.commons.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Machine à états du disjoncteur, avec une horloge contrôlée par le test
+ */
+class CircuitBreakerTest {
+
+    private final AtomicLong horloge = new AtomicLong(-5_000_000_000L);
+    private final List<CircuitBreaker.Etat> transitions = new ArrayList<>();
+    private CircuitBreaker disjoncteur;
+
+    @BeforeEach
+    void setUp() {
+        // Fenêtre de 4 appels, au moins 4 résultats, 50 % d'échecs, 1 s d'ouverture, 2 appels d'essai
+        disjoncteur = new CircuitBreaker(4, 4, 50, 1000, 2, transitions::add, horloge::get);
+    }
+
+    @Test
+    void resteFermeAvantLeMinimumDAppels() {
+        disjoncteur.echec();
+        disjoncteur.echec();
+        disjoncteur.echec();
+
+        assertEquals(CircuitBreaker.Etat.FERME, disjoncteur.getEtat());
+        assertTrue(disjoncteur.autoriser());
+    }
+
+    @Test
+    void sOuvreAuSeuilDEchecs() {
+        disjoncteur.succes();
+        disjoncteur.succes();
+        disjoncteur.echec();
+        assertEquals(CircuitBreaker.Etat.FERME, disjoncteur.getEtat());
+
+        disjoncteur.echec();
+
+        assertEquals(CircuitBreaker.Etat.OUVERT, disjoncteur.getEtat());
+        assertEquals(List.of(CircuitBreaker.Etat.OUVERT), transitions);
+    }
+
+    @Test
+    void fenetreGlissanteOublieLesAnciensEchecs() {
+        disjoncteur.echec();
+        disjoncteur.succes();
+        disjoncteur.succes();
+        disjoncteur.succes();
+        // Le premier échec sort de la fenêtre: 1 échec sur 4
+        disjoncteur.echec();
+
+        assertEquals(CircuitBreaker.Etat.FERME, disjoncteur.getEtat());
+    }
+
+    @Test
+    void ouvertRefuseJusquaLaFinDeLaDuree() {
+        ouvrir();
+
+        horloge.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(disjoncteur.autoriser());
+
+        horloge.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(disjoncteur.autoriser());
+        assertEquals(CircuitBreaker.Etat.DEMI_OUVERT, disjoncteur.getEtat());
+    }
+
+    @Test
+    void demiOuvertLimiteLesAppelsDEssai() {
+        passerDemiOuvert();
+
+        assertTrue(disjoncteur.autoriser());
+        assertFalse(disjoncteur.autoriser());
+    }
+
+    @Test
+    void annulerRendUnAppelDEssai() {
+        passerDemiOuvert();
+        assertTrue(disjoncteur.autoriser());
+        assertFalse(disjoncteur.autoriser());
+
+        disjoncteur.annuler();
+
+        assertTrue(disjoncteur.autoriser());
+    }
+
+    @Test
+    void essaisReussisRefermentLeDisjoncteur() {
+        passerDemiOuvert();
+        assertTrue(disjoncteur.autoriser());
+        disjoncteur.succes();
+        assertEquals(CircuitBreaker.Etat.DEMI_OUVERT, disjoncteur.getEtat());
+
+        disjoncteur.succes();
+
+        assertEquals(CircuitBreaker.Etat.FERME, disjoncteur.getEtat());
+        assertEquals(List.of(CircuitBreaker.Etat.OUVERT, CircuitBreaker.Etat.DEMI_OUVERT,
+                CircuitBreaker.Etat.FERME), transitions);
+        // Fenêtre vidée: trois échecs ne suffisent pas à rouvrir
+        disjoncteur.echec();
+        disjoncteur.echec();
+        disjoncteur.echec();
+        assertEquals(CircuitBreaker.Etat.FERME, disjoncteur.getEtat());
+    }
+
+    @Test
+    void echecEnDemiOuvertRouvre() {
+        passerDemiOuvert();
+
+        disjoncteur.echec();
+
+        assertEquals(CircuitBreaker.Etat.OUVERT, disjoncteur.getEtat());
+        assertFalse(disjoncteur.autoriser());
+    }
+
+    private void ouvrir() {
+        for (int i = 0; i < 4; i++) {
+            disjoncteur.echec();
+        }
+        assertEquals(CircuitBreaker.Etat.OUVERT, disjoncteur.getEtat());
+        assertFalse(disjoncteur.autoriser());
+    }
+
+    // Ouvre le disjoncteur, attend la fin de l'ouverture et réserve le premier appel d'essai
+    private void passerDemiOuvert() {
+        ouvrir();
+        horloge.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(disjoncteur.autoriser());
+        assertEquals(CircuitBreaker.Etat.DEMI_OUVERT, disjoncteur.getEtat());
+    }
+}
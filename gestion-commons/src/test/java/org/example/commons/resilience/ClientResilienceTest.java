@@ -0,0 +1,148 @@
+package org.example.commons.resilience;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientResilienceTest {
+
+    private MockEnvironment env;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        env = new MockEnvironment();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void echecServiLaDerniereValeurConnue() {
+        ClientResilience resilience = creer();
+        assertEquals("v1", resilience.appeler("cle", () -> "v1"));
+
+        assertEquals("v1", resilience.appeler("cle", panne()));
+        assertEquals(1.0, stale());
+    }
+
+    @Test
+    void echecSansValeurConnuePropageLErreur() {
+        ClientResilience resilience = creer();
+
+        assertThrows(RuntimeException.class, () -> resilience.appeler("cle", panne()));
+        assertEquals(0.0, stale());
+    }
+
+    @Test
+    void erreurClientNiCompteeNiServiePerimee() {
+        env.setProperty("feign.resilience.window-size", "2");
+        env.setProperty("feign.resilience.minimum-calls", "2");
+        ClientResilience resilience = creer();
+        resilience.appeler("cle", () -> "v1");
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(FeignException.NotFound.class, () -> resilience.appeler("cle", () -> {
+                throw new FeignException.NotFound("absent", requete(), null, null);
+            }));
+        }
+
+        assertEquals(0.0, stale());
+        // Le disjoncteur reste fermé: l'appel suivant part
+        assertEquals("v2", resilience.appeler("cle", () -> "v2"));
+    }
+
+    @Test
+    void disjoncteurOuvertRefuseSansAppeler() {
+        env.setProperty("feign.resilience.window-size", "2");
+        env.setProperty("feign.resilience.minimum-calls", "2");
+        ClientResilience resilience = creer();
+        assertThrows(RuntimeException.class, () -> resilience.proteger(panne()));
+        assertThrows(RuntimeException.class, () -> resilience.proteger(panne()));
+
+        AtomicInteger appels = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> resilience.proteger(appels::incrementAndGet));
+
+        assertEquals(0, appels.get());
+        assertEquals(1.0, meterRegistry.get("feign.resilience.rejections")
+                .tag("motif", "circuit-ouvert").counter().count());
+    }
+
+    @Test
+    void evictionDeLaValeurLaMoinsRecemmentUtilisee() {
+        env.setProperty("feign.resilience.stale.max-entries", "2");
+        ClientResilience resilience = creer();
+        resilience.avecRepli("a", () -> "A");
+        resilience.avecRepli("b", () -> "B");
+        // Lecture de "a": "b" devient la moins récemment utilisée
+        assertEquals("A", resilience.avecRepli("a", panne()));
+
+        resilience.avecRepli("c", () -> "C");
+
+        assertThrows(RuntimeException.class, () -> resilience.avecRepli("b", panne()));
+        assertEquals("A", resilience.avecRepli("a", panne()));
+        assertEquals("C", resilience.avecRepli("c", panne()));
+    }
+
+    @Test
+    void lotServiSeulementSiToutesLesClesSontConnues() {
+        ClientResilience resilience = creer();
+        resilience.appelerLot("taux", List.of("C1"), () -> Map.of("C1", 0.1));
+
+        assertEquals(Map.of("C1", 0.1), resilience.appelerLot("taux", List.of("C1"), panne()));
+        assertThrows(RuntimeException.class,
+                () -> resilience.appelerLot("taux", List.of("C1", "C2"), panne()));
+    }
+
+    @Test
+    void journalDesReponsesPerimeesLimiteParIntervalle() {
+        env.setProperty("feign.resilience.stale.log-interval-seconds", "3600");
+        ClientResilience resilience = creer();
+        resilience.avecRepli("cle", () -> "v1");
+
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        PrintStream erreurStandard = System.err;
+        System.setErr(new PrintStream(journal, true, StandardCharsets.UTF_8));
+        try {
+            for (int i = 0; i < 5; i++) {
+                resilience.avecRepli("cle", panne());
+            }
+        } finally {
+            System.setErr(erreurStandard);
+        }
+
+        assertEquals(1, journal.toString(StandardCharsets.UTF_8).lines().count());
+        assertEquals(5.0, stale());
+    }
+
+    private ClientResilience creer() {
+        return new ClientResilience("service-test", env, meterRegistry);
+    }
+
+    private double stale() {
+        return meterRegistry.get("feign.resilience.stale").counter().count();
+    }
+
+    private static <T> Supplier<T> panne() {
+        return () -> {
+            throw new RuntimeException("service indisponible");
+        };
+    }
+
+    private static Request requete() {
+        return Request.create(Request.HttpMethod.GET, "/api", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.commons.seuils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalayageSeuilsTest {
+
+    private static List<Object[]> lignes(double... taux) {
+        List<Object[]> lignes = new ArrayList<>();
+        for (int i = 0; i < taux.length; i++) {
+            lignes.add(new Object[]{"C" + i, taux[i]});
+        }
+        return lignes;
+    }
+
+    @Test
+    void compteEtMembresParSeuil() {
+        List<SeuilResultat> resultats = BalayageSeuils.balayer(lignes(0.1, 0.3, 0.5, 0.8), List.of(0.3, 0.9), true);
+
+        assertEquals(3L, resultats.get(0).getTotal());
+        assertEquals(List.of("C3", "C2", "C1"), resultats.get(0).getMembres());
+        assertEquals(0L, resultats.get(1).getTotal());
+        assertEquals(List.of(), resultats.get(1).getMembres());
+    }
+
+    @Test
+    void sansMembresSeulementLesTotaux() {
+        List<SeuilResultat> resultats = BalayageSeuils.balayer(lignes(0.1, 0.3), List.of(0.0), false);
+
+        assertEquals(2L, resultats.get(0).getTotal());
+        assertNull(resultats.get(0).getMembres());
+    }
+
+    @Test
+    void plageParcourueParPas() {
+        assertEquals(List.of(0.1, 0.2, 0.3), BalayageSeuils.seuils(null, 0.1, 0.3, 0.1));
+    }
+
+    @Test
+    void seuilNulRefuse() {
+        assertThrows(SeuilsInvalidesException.class,
+                () -> BalayageSeuils.seuils(Arrays.asList(0.2, null), null, null, null));
+    }
+
+    @Test
+    void plageInvalideRefusee() {
+        assertThrows(SeuilsInvalidesException.class, () -> BalayageSeuils.seuils(null, 0.5, 0.1, 0.1));
+        assertThrows(SeuilsInvalidesException.class, () -> BalayageSeuils.seuils(null, 0.0, 1.0, 0.0001));
+    }
+
+    @Test
+    void membresBornesTousSeuilsConfondus() {
+        double[] taux = new double[100];
+        Arrays.fill(taux, 0.9);
+        // 100 seuils x 100 membres = 10 000: juste à la limite
+        List<Double> cent = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cent.add(0.5);
+        }
+        assertEquals(100, BalayageSeuils.balayer(lignes(taux), cent, true).size());
+
+        cent.add(0.5);
+        assertThrows(SeuilsInvalidesException.class, () -> BalayageSeuils.balayer(lignes(taux), cent, true));
+        // Sans les membres la réponse reste petite: pas de limite
+        assertEquals(101, BalayageSeuils.balayer(lignes(taux), cent, false).size());
+    }
+}
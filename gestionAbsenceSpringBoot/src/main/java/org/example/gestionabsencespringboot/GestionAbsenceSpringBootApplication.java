@@ -1,13 +1,18 @@
 package org.example.gestionabsencespringboot;
 
+import org.example.commons.client.FeignTransportConfig;
+import org.example.commons.resilience.DonneesPerimeesAdvice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+// Classes partagées (gestion-commons) hors du package scanné
+@Import({DonneesPerimeesAdvice.class, FeignTransportConfig.class})
 public class GestionAbsenceSpringBootApplication {
 
 	public static void main(String[] args) {
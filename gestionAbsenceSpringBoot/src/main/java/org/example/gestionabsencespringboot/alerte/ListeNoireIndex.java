@@ -0,0 +1,210 @@
+package org.example.gestionabsencespringboot.alerte;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.event.EtudiantAbsenceChangeEvent;
+import org.example.gestionabsencespringboot.event.ListeNoireEvent;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Listes noires maintenues en continu pour les seuils configurés
+ *
+ * Construites depuis la base au démarrage, puis mises à jour à chaque
+ * EtudiantAbsenceChangeEvent (après commit): seul l'étudiant modifié est réévalué.
+ * L'ordre d'exécution des listeners après commit n'est pas garanti: la ligne est relue
+ * en base et chaque lecture reçoit un numéro croissant; une lecture plus ancienne que celle
+ * déjà appliquée pour cet étudiant est ignorée.
+ * La relecture se fait dans une nouvelle transaction: après commit, l'EntityManager de la
+ * transaction terminée est encore lié au thread et rendrait son entité en cache, pas la
+ * dernière ligne validée.
+ * Chaque entrée ou sortie de liste noire publie un ListeNoireEvent.
+ * Lecture de la liste, comptage et appartenance se font sans requête SQL;
+ * un seuil non configuré retombe sur la requête en base (voir AbsenceService).
+ */
+@Component
+public class ListeNoireIndex {
+
+    // Même ordre que findListeNoire: heures d'absence DESC, puis nom ASC
+    private static final Comparator<EtudiantAbsence> ORDRE = Comparator
+            .comparingDouble((EtudiantAbsence e) -> e.getHeuresAbsence() != null ? e.getHeuresAbsence() : 0.0).reversed()
+            .thenComparing(e -> e.getNom() != null ? e.getNom() : "")
+            .thenComparing(EtudiantAbsence::getId);
+
+    @Autowired
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${absence.liste-noire.seuils:0.25,0.5,0.75}")
+    private List<Double> seuils;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, EtudiantAbsence> parId = new HashMap<>();
+    private final Map<Double, TreeSet<EtudiantAbsence>> listes = new TreeMap<>();
+    // Numéro de la dernière lecture appliquée par étudiant (conservé après une suppression)
+    private final Map<Long, Long> lectures = new HashMap<>();
+    private final AtomicLong numeroLecture = new AtomicLong();
+    private volatile boolean demarre;
+    private volatile boolean pret;
+    private TransactionTemplate nouvelleTransaction;
+
+    @PostConstruct
+    public void initialiser() {
+        nouvelleTransaction = new TransactionTemplate(transactionManager);
+        nouvelleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        nouvelleTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reconstruit les listes depuis la base (après l'initialisation des données)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        List<EtudiantAbsence> etudiants;
+        lock.writeLock().lock();
+        try {
+            // Les événements suivants attendent le verrou; les précédents sont couverts par la lecture
+            demarre = true;
+            long numero = numeroLecture.incrementAndGet();
+            etudiants = etudiantAbsenceRepository.findAll();
+            parId.clear();
+            listes.clear();
+            lectures.clear();
+            for (Double seuil : seuils) {
+                listes.put(seuil, new TreeSet<>(ORDRE));
+            }
+            for (EtudiantAbsence etudiant : etudiants) {
+                EtudiantAbsence copie = etudiant.copie();
+                parId.put(copie.getId(), copie);
+                lectures.put(copie.getId(), numero);
+                for (Map.Entry<Double, TreeSet<EtudiantAbsence>> liste : listes.entrySet()) {
+                    if (copie.estListeNoire(liste.getKey())) {
+                        liste.getValue().add(copie);
+                    }
+                }
+            }
+            pret = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("✅ Listes noires construites pour les seuils " + seuils + " (" + etudiants.size() + " étudiants)");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EtudiantAbsenceChangeEvent event) {
+        if (!demarre) {
+            return;
+        }
+        Long id = event.getId();
+        long numero = numeroLecture.incrementAndGet();
+        EtudiantAbsence nouveau = nouvelleTransaction.execute(status ->
+                etudiantAbsenceRepository.findById(id).map(EtudiantAbsence::copie).orElse(null));
+
+        List<ListeNoireEvent> transitions = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            Long dejaApplique = lectures.get(id);
+            if (!pret || (dejaApplique != null && dejaApplique > numero)) {
+                return;
+            }
+            lectures.put(id, numero);
+            EtudiantAbsence ancien = parId.remove(id);
+            if (nouveau != null) {
+                parId.put(id, nouveau);
+            }
+            for (Map.Entry<Double, TreeSet<EtudiantAbsence>> liste : listes.entrySet()) {
+                Double seuil = liste.getKey();
+                boolean avant = ancien != null && liste.getValue().remove(ancien);
+                boolean apres = nouveau != null && nouveau.estListeNoire(seuil);
+                if (apres) {
+                    liste.getValue().add(nouveau);
+                }
+                if (avant != apres) {
+                    EtudiantAbsence concerne = apres ? nouveau : ancien;
+                    transitions.add(new ListeNoireEvent(apres ? ListeNoireEvent.Type.ENTREE : ListeNoireEvent.Type.SORTIE,
+                            seuil, concerne.getId(), concerne.getCne(), nouveau != null ? nouveau.getTauxAbsence() : null));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Publiés hors verrou: un consommateur lent ne bloque pas les lectures
+        for (ListeNoireEvent transition : transitions) {
+            meterRegistry.counter("absence.liste-noire.transitions",
+                    "seuil", String.valueOf(transition.getSeuil()),
+                    "type", transition.getType().name()).increment();
+            eventPublisher.publishEvent(transition);
+        }
+    }
+
+    /**
+     * true si le seuil est maintenu par l'index (sinon la base doit être interrogée)
+     */
+    public boolean couvre(Double seuil) {
+        return pret && listes.containsKey(seuil);
+    }
+
+    /**
+     * Liste noire d'un seuil configuré, triée comme findListeNoire
+     */
+    public List<EtudiantAbsence> liste(Double seuil) {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(listes.get(seuil));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long compter(Double seuil) {
+        lock.readLock().lock();
+        try {
+            return listes.get(seuil).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appartenance à la liste noire d'un seuil configuré (null si l'étudiant est inconnu)
+     */
+    public Boolean contient(Long id, Double seuil) {
+        lock.readLock().lock();
+        try {
+            EtudiantAbsence etudiant = parId.get(id);
+            return etudiant != null ? listes.get(seuil).contains(etudiant) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.gestionabsencespringboot.buffer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.gestionabsencespringboot.dto.HeuresAbsenceResponse;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.service.AbsenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tampon d'écriture différée (write-behind) pour les pics d'enregistrement d'absences
+ *
+ * Les ajouts d'étudiants et les incréments d'heures sont déposés dans une file sans verrou,
+ * bornée par un sémaphore (contre-pression: l'appelant attend au plus offer-timeout-ms
+ * puis reçoit une erreur). Un thread unique vide la file dès que max-batch éléments sont
+ * en attente ou que flush-interval-ms est écoulé, regroupe les éléments par CNE
+ * (incréments additionnés, dernier ajout retenu) et les applique en une transaction par lot.
+ *
+ * Chaque dépôt retourne un CompletableFuture terminé après le commit du lot:
+ * en mode durable-before-ack le contrôleur l'attend avant de répondre.
+ * Si le lot échoue, ses éléments sont rejoués un par un pour isoler l'élément fautif.
+ *
+ * Métriques: absence.write-behind.pending (jauge), absence.write-behind.batch.size
+ */
+@Component
+public class WriteBehindBuffer {
+
+    @Autowired
+    private AbsenceService absenceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${absence.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${absence.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${absence.write-behind.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${absence.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMillis;
+
+    @Value("${absence.write-behind.offer-timeout-ms:1000}")
+    private long offerTimeoutMillis;
+
+    @Value("${absence.write-behind.durable-before-ack:true}")
+    private boolean durableBeforeAck;
+
+    private final Queue<Ecriture> file = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger enAttente = new AtomicInteger();
+    private Semaphore places;
+    private DistributionSummary tailleLots;
+    private volatile Thread flusher;
+    private volatile boolean arret;
+
+    @PostConstruct
+    public void demarrer() {
+        if (!enabled) {
+            return;
+        }
+        places = new Semaphore(Math.max(1, capacity));
+        tailleLots = DistributionSummary.builder("absence.write-behind.batch.size")
+                .description("Nombre d'écritures appliquées par transaction")
+                .register(meterRegistry);
+        meterRegistry.gauge("absence.write-behind.pending", enAttente);
+
+        flusher = new Thread(this::boucle, "absence-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isDurableBeforeAck() {
+        return durableBeforeAck;
+    }
+
+    /**
+     * Dépose l'ajout d'un étudiant; le futur donne l'entité enregistrée
+     */
+    public CompletableFuture<EtudiantAbsence> ajouter(EtudiantAbsence etudiant) {
+        Ecriture ecriture = new Ecriture(etudiant.getCne(), etudiant, null);
+        deposer(ecriture);
+        return ecriture.resultat.thenApply(EtudiantAbsence.class::cast);
+    }
+
+    /**
+     * Dépose un incrément d'heures; le futur donne le nouvel état (null si CNE inconnu)
+     */
+    public CompletableFuture<HeuresAbsenceResponse> incrementer(IncrementHeures increment) {
+        if (increment.getCne() == null || increment.getDelta() == null) {
+            throw new RuntimeException("cne et delta sont obligatoires");
+        }
+        Ecriture ecriture = new Ecriture(increment.getCne(), null, increment.getDelta());
+        deposer(ecriture);
+        return ecriture.resultat.thenApply(HeuresAbsenceResponse.class::cast);
+    }
+
+    private void deposer(Ecriture ecriture) {
+        if (arret) {
+            throw new RuntimeException("Tampon d'écriture arrêté");
+        }
+        try {
+            if (!places.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Tampon d'écriture plein, réessayez plus tard");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Dépôt interrompu", e);
+        }
+        file.add(ecriture);
+        if (enAttente.incrementAndGet() >= maxBatch) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private void boucle() {
+        while (!arret || !file.isEmpty()) {
+            if (enAttente.get() < maxBatch && !arret) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+            }
+            try {
+                vider();
+            } catch (Exception e) {
+                System.err.println("Erreur du tampon d'écriture: " + e.getMessage());
+            }
+        }
+    }
+
+    private void vider() {
+        List<Ecriture> lot = new ArrayList<>(maxBatch);
+        Ecriture ecriture;
+        while (lot.size() < maxBatch && (ecriture = file.poll()) != null) {
+            lot.add(ecriture);
+        }
+        if (lot.isEmpty()) {
+            return;
+        }
+        enAttente.addAndGet(-lot.size());
+        places.release(lot.size());
+        tailleLots.record(lot.size());
+
+        // Regroupement par CNE, dans l'ordre d'arrivée
+        List<Ecriture> lotAjouts = new ArrayList<>();
+        List<Ecriture> lotIncrements = new ArrayList<>();
+        Map<String, EtudiantAbsence> ajouts = new LinkedHashMap<>();
+        Map<String, Double> increments = new LinkedHashMap<>();
+        for (Ecriture e : lot) {
+            if (e.etudiant != null) {
+                lotAjouts.add(e);
+                ajouts.put(e.cne, e.etudiant);
+            } else {
+                lotIncrements.add(e);
+                increments.merge(e.cne, e.delta, Double::sum);
+            }
+        }
+
+        // Les ajouts passent avant les incréments: un incrément peut viser un étudiant ajouté dans le même lot.
+        // Chaque phase a sa transaction, pour ne jamais rejouer une phase déjà validée.
+        try {
+            Map<String, EtudiantAbsence> ajoutes = appliquerAjouts(ajouts);
+            lotAjouts.forEach(e -> e.resultat.complete(ajoutes.get(e.cne)));
+        } catch (Exception erreurLot) {
+            rejouerUnParUn(lotAjouts);
+        }
+        try {
+            Map<String, HeuresAbsenceResponse> incrementes = appliquerIncrements(increments);
+            lotIncrements.forEach(e -> e.resultat.complete(incrementes.get(e.cne)));
+        } catch (Exception erreurLot) {
+            rejouerUnParUn(lotIncrements);
+        }
+    }
+
+    private Map<String, EtudiantAbsence> appliquerAjouts(Map<String, EtudiantAbsence> ajouts) {
+        Map<String, EtudiantAbsence> resultats = new LinkedHashMap<>();
+        if (!ajouts.isEmpty()) {
+            for (EtudiantAbsence saved : absenceService.addAll(new ArrayList<>(ajouts.values()))) {
+                resultats.put(saved.getCne(), saved);
+            }
+        }
+        return resultats;
+    }
+
+    private Map<String, HeuresAbsenceResponse> appliquerIncrements(Map<String, Double> increments) {
+        Map<String, HeuresAbsenceResponse> resultats = new LinkedHashMap<>();
+        if (!increments.isEmpty()) {
+            List<IncrementHeures> liste = new ArrayList<>(increments.size());
+            increments.forEach((cne, delta) -> liste.add(new IncrementHeures(cne, delta)));
+            for (HeuresAbsenceResponse etat : absenceService.incrementerHeures(liste)) {
+                resultats.put(etat.getCne(), etat);
+            }
+        }
+        return resultats;
+    }
+
+    private void rejouerUnParUn(List<Ecriture> lot) {
+        for (Ecriture e : lot) {
+            try {
+                Object resultat = e.etudiant != null
+                        ? absenceService.add(e.etudiant)
+                        : absenceService.incrementerHeures(e.cne, e.delta);
+                e.resultat.complete(resultat);
+            } catch (Exception erreur) {
+                e.resultat.completeExceptionally(erreur);
+                if (!durableBeforeAck) {
+                    // Personne n'attend le résultat: l'écriture est perdue, on la trace
+                    System.err.println("Écriture différée perdue pour le CNE " + e.cne + ": " + erreur.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Applique les écritures restantes avant l'arrêt de l'application
+     */
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        arret = true;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private static final class Ecriture {
+        private final String cne;
+        private final EtudiantAbsence etudiant;
+        private final Double delta;
+        private final CompletableFuture<Object> resultat = new CompletableFuture<>();
+
+        private Ecriture(String cne, EtudiantAbsence etudiant, Double delta) {
+            this.cne = cne;
+            this.etudiant = etudiant;
+            this.delta = delta;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.gestionabsencespringboot.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.commons.client.RequestCollapser;
+import org.example.commons.resilience.ClientResilience;
+import org.example.gestionabsencespringboot.dto.NoteDTO;
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NotesClient injecté par défaut dans les services
+ *
+ * Les appels concurrents à getMoyenneEtudiant sont regroupés pendant une courte fenêtre
+ * et envoyés en un seul POST /api/notes/moyennes/batch (ou un flux gRPC).
+ * Les autres méthodes sont déléguées au proxy Feign, ou au client gRPC interne
+ * si interne.grpc.client.enabled=true.
+ *
+ * Chaque appel réseau passe par ClientResilience (disjoncteur, cloison) et les lectures
+ * sont servies depuis la dernière valeur connue quand le service Notes est en échec.
+ * Les écritures (invalidation, réplication) ne sont pas rejouées ici: l'outbox s'en charge.
+ */
+@Component
+@Primary
+public class CollapsingNotesClient implements NotesClient {
+
+    private final NotesClient delegate;
+    private final boolean enabled;
+    private final RequestCollapser<Long, Double> moyenneCollapser;
+    private final ClientResilience resilience;
+
+    public CollapsingNotesClient(@Qualifier("notesFeignClient") NotesClient feign,
+                                 GrpcNotesClient grpc,
+                                 MeterRegistry meterRegistry,
+                                 Environment env,
+                                 @Value("${interne.grpc.client.enabled:false}") boolean grpcEnabled,
+                                 @Value("${feign.collapsing.enabled:true}") boolean enabled,
+                                 @Value("${feign.collapsing.window-ms:5}") long windowMillis,
+                                 @Value("${feign.collapsing.max-batch-size:200}") int maxBatchSize,
+                                 @Value("${feign.collapsing.threads:2}") int threads) {
+        this.delegate = grpcEnabled ? grpc : feign;
+        this.enabled = enabled;
+        this.resilience = new ClientResilience("gestion-notes-service", env, meterRegistry);
+        this.moyenneCollapser = new RequestCollapser<>("notes-moyenne",
+                ids -> resilience.proteger(() -> delegate.getMoyennesEtudiants(ids)),
+                windowMillis, maxBatchSize, threads, meterRegistry);
+    }
+
+    @Override
+    public List<NoteDTO> getNotesByEtudiantId(Long etudiantId) {
+        return resilience.appeler("notes:" + etudiantId, () -> delegate.getNotesByEtudiantId(etudiantId));
+    }
+
+    @Override
+    public Double getMoyenneEtudiant(Long etudiantId) {
+        // Même clé que getMoyennesEtudiants: une moyenne lue en lot sert de repli à la lecture unitaire
+        if (!enabled) {
+            return resilience.appeler("moyenne:" + etudiantId, () -> delegate.getMoyenneEtudiant(etudiantId));
+        }
+        return resilience.avecRepli("moyenne:" + etudiantId, () -> moyenneCollapser.get(etudiantId));
+    }
+
+    @Override
+    public Map<Long, Double> getMoyennesEtudiants(List<Long> etudiantIds) {
+        return resilience.appelerLot("moyenne", etudiantIds, () -> delegate.getMoyennesEtudiants(etudiantIds));
+    }
+
+    @Override
+    public void invalidateTauxAbsence(Long id, String cne) {
+        resilience.proteger(() -> {
+            delegate.invalidateTauxAbsence(id, cne);
+            return null;
+        });
+    }
+
+    @Override
+    public void appliquerTauxAbsence(List<TauxAbsenceEvent> evenements) {
+        resilience.proteger(() -> {
+            delegate.appliquerTauxAbsence(evenements);
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        moyenneCollapser.shutdown();
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.gestionabsencespringboot.client;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.example.gestionabsencespringboot.dto.NoteDTO;
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
+import org.example.gestionabsencespringboot.grpc.EtudiantRef;
+import org.example.gestionabsencespringboot.grpc.LotRefs;
+import org.example.gestionabsencespringboot.grpc.LotValeurs;
+import org.example.gestionabsencespringboot.grpc.NotesInterneGrpc;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * NotesClient sur l'API interne gRPC du service Notes (adresse découverte via Eureka)
+ *
+ * Quand interne.grpc.client.enabled=true, CollapsingNotesClient délègue à ce client
+ * au lieu du proxy Feign. Les recherches en masse passent par un seul flux bidirectionnel,
+ * découpé en lots de interne.grpc.lot-size clés. Les méthodes sans équivalent gRPC
+ * (liste des notes, invalidation du cache, réplication) restent sur Feign.
+ */
+@Component
+public class GrpcNotesClient implements NotesClient {
+
+    @GrpcClient("gestion-notes-service")
+    private NotesInterneGrpc.NotesInterneBlockingStub bloquant;
+
+    @GrpcClient("gestion-notes-service")
+    private NotesInterneGrpc.NotesInterneStub asynchrone;
+
+    @Autowired
+    @Qualifier("notesFeignClient")
+    private NotesClient feign;
+
+    @Value("${interne.grpc.lot-size:500}")
+    private int tailleLot;
+
+    @Value("${interne.grpc.deadline-ms:3000}")
+    private long deadlineMillis;
+
+    @Override
+    public List<NoteDTO> getNotesByEtudiantId(Long etudiantId) {
+        return feign.getNotesByEtudiantId(etudiantId);
+    }
+
+    @Override
+    public Double getMoyenneEtudiant(Long etudiantId) {
+        return bloquant.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .moyenne(EtudiantRef.newBuilder().setId(etudiantId).build())
+                .getValeur();
+    }
+
+    @Override
+    public Map<Long, Double> getMoyennesEtudiants(List<Long> etudiantIds) {
+        return rechercherEnFlux(etudiantIds, LotRefs.Builder::addAllIds, LotValeurs::getIdsList);
+    }
+
+    @Override
+    public void invalidateTauxAbsence(Long id, String cne) {
+        feign.invalidateTauxAbsence(id, cne);
+    }
+
+    @Override
+    public void appliquerTauxAbsence(List<TauxAbsenceEvent> evenements) {
+        feign.appliquerTauxAbsence(evenements);
+    }
+
+    /**
+     * Envoie les clés par lots sur un flux FluxMoyennes et réunit les lots de réponse
+     * @return Map clé -> moyenne (les clés inconnues sont absentes de la map)
+     */
+    private <K> Map<K, Double> rechercherEnFlux(List<K> cles, BiConsumer<LotRefs.Builder, List<K>> remplir,
+                                                Function<LotValeurs, List<K>> clesRecues) {
+        Map<K, Double> resultats = new HashMap<>();
+        if (cles == null || cles.isEmpty()) {
+            return resultats;
+        }
+        // Les réponses d'un appel gRPC sont livrées une à une: pas d'accès concurrent à resultats
+        CompletableFuture<Map<K, Double>> fin = new CompletableFuture<>();
+        StreamObserver<LotRefs> envoi = asynchrone.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .fluxMoyennes(new StreamObserver<>() {
+                    @Override
+                    public void onNext(LotValeurs lot) {
+                        List<K> recues = clesRecues.apply(lot);
+                        for (int i = 0; i < recues.size(); i++) {
+                            resultats.put(recues.get(i), lot.getValeurs(i));
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        fin.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        fin.complete(resultats);
+                    }
+                });
+
+        int taille = Math.max(1, tailleLot);
+        for (int debut = 0; debut < cles.size(); debut += taille) {
+            LotRefs.Builder lot = LotRefs.newBuilder();
+            remplir.accept(lot, cles.subList(debut, Math.min(cles.size(), debut + taille)));
+            envoi.onNext(lot.build());
+        }
+        envoi.onCompleted();
+
+        try {
+            return fin.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ((ClientCallStreamObserver<LotRefs>) envoi).cancel("Recherche interrompue", e);
+            throw new RuntimeException("Recherche gRPC interrompue", e);
+        }
+    }
+}
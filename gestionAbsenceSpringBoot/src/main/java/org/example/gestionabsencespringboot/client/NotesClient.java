@@ -1,11 +1,17 @@
 package org.example.gestionabsencespringboot.client;
 
 import org.example.gestionabsencespringboot.dto.NoteDTO;
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Client Feign pour communiquer avec le service Gestion Notes
@@ -13,8 +19,9 @@ import java.util.List;
  * @FeignClient specifie:
  * - name: le nom du service dans Eureka (gestion-notes-service)
  * - Le client utilisera Eureka pour découvrir l'adresse du service
+ * - primary = false: les services injectent CollapsingNotesClient qui délègue à ce proxy
  */
-@FeignClient(name = "gestion-notes-service")
+@FeignClient(name = "gestion-notes-service", qualifiers = "notesFeignClient", primary = false)
 public interface NotesClient {
 
     /**
@@ -30,5 +37,26 @@ public interface NotesClient {
      */
     @GetMapping("/api/notes/etudiant/{etudiantId}/moyenne")
     Double getMoyenneEtudiant(@PathVariable("etudiantId") Long etudiantId);
-}
 
+    /**
+     * Récupère les moyennes d'un lot d'étudiants
+     * Appelle: POST http://gestion-notes-service/api/notes/moyennes/batch
+     * Utilisé par CollapsingNotesClient pour regrouper les appels getMoyenneEtudiant
+     */
+    @PostMapping("/api/notes/moyennes/batch")
+    Map<Long, Double> getMoyennesEtudiants(@RequestBody List<Long> etudiantIds);
+
+    /**
+     * Invalide le taux d'absence d'un étudiant dans le cache du service Notes
+     * Appelle: DELETE http://gestion-notes-service/api/notes/cache/taux-absence?id=..&cne=..
+     */
+    @DeleteMapping("/api/notes/cache/taux-absence")
+    void invalidateTauxAbsence(@RequestParam("id") Long id, @RequestParam("cne") String cne);
+
+    /**
+     * Pousse un lot de changements de taux d'absence vers la réplique du service Notes
+     * Appelle: POST http://gestion-notes-service/api/notes/replication/taux-absence
+     */
+    @PostMapping("/api/notes/replication/taux-absence")
+    void appliquerTauxAbsence(@RequestBody List<TauxAbsenceEvent> evenements);
+}
@@ -1,14 +1,25 @@
 package org.example.gestionabsencespringboot.controller;
 
+import org.example.commons.pagination.CursorPage;
+import org.example.commons.seuils.SeuilResultat;
+import org.example.gestionabsencespringboot.buffer.WriteBehindBuffer;
+import org.example.gestionabsencespringboot.dto.HeuresAbsenceResponse;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
 import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
 import org.example.gestionabsencespringboot.service.AbsenceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Contrôleur REST pour la gestion de l'absentéisme
@@ -22,12 +33,22 @@ public class AbsenceController {
     @Autowired
     private AbsenceService absenceService;
 
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
     /**
      * Add - Ajoute un nouvel étudiant avec ses informations d'absence
      * POST /api/absences/etudiant
      */
     @PostMapping("/etudiant")
     public ResponseEntity<EtudiantAbsence> add(@RequestBody EtudiantAbsence etudiant) {
+        if (writeBehindBuffer.isEnabled()) {
+            CompletableFuture<EtudiantAbsence> saved = writeBehindBuffer.ajouter(etudiant);
+            if (!writeBehindBuffer.isDurableBeforeAck()) {
+                return ResponseEntity.accepted().build();
+            }
+            return ResponseEntity.ok(attendre(saved));
+        }
         EtudiantAbsence saved = absenceService.add(etudiant);
         return ResponseEntity.ok(saved);
     }
@@ -58,6 +79,65 @@ public class AbsenceController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Ajoute des heures d'absence à un étudiant (incrément atomique)
+     * POST /api/absences/etudiant/{cne}/heures?delta=2
+     */
+    @PostMapping("/etudiant/{cne}/heures")
+    public ResponseEntity<HeuresAbsenceResponse> incrementerHeures(@PathVariable String cne,
+                                                                   @RequestParam Double delta) {
+        HeuresAbsenceResponse etat;
+        if (writeBehindBuffer.isEnabled()) {
+            CompletableFuture<HeuresAbsenceResponse> futur = writeBehindBuffer.incrementer(new IncrementHeures(cne, delta));
+            if (!writeBehindBuffer.isDurableBeforeAck()) {
+                return ResponseEntity.accepted().build();
+            }
+            etat = attendre(futur);
+        } else {
+            etat = absenceService.incrementerHeures(cne, delta);
+        }
+        if (etat != null) {
+            return ResponseEntity.ok(etat);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Ajoute des heures d'absence à plusieurs étudiants (ex: une séance entière)
+     * POST /api/absences/heures/batch  (body: [{"cne": "CNE001", "delta": 2}, ...])
+     */
+    @PostMapping("/heures/batch")
+    public ResponseEntity<List<HeuresAbsenceResponse>> incrementerHeuresBatch(@RequestBody List<IncrementHeures> increments) {
+        if (!writeBehindBuffer.isEnabled()) {
+            return ResponseEntity.ok(absenceService.incrementerHeures(increments));
+        }
+        List<CompletableFuture<HeuresAbsenceResponse>> futurs = new ArrayList<>(increments.size());
+        for (IncrementHeures increment : increments) {
+            futurs.add(writeBehindBuffer.incrementer(increment));
+        }
+        if (!writeBehindBuffer.isDurableBeforeAck()) {
+            return ResponseEntity.accepted().build();
+        }
+        attendre(CompletableFuture.allOf(futurs.toArray(new CompletableFuture[0])));
+        // Un même CNE peut apparaître plusieurs fois: on garde son dernier état
+        Map<String, HeuresAbsenceResponse> etats = new LinkedHashMap<>();
+        futurs.stream().map(CompletableFuture::join).filter(Objects::nonNull)
+                .forEach(etat -> etats.put(etat.getCne(), etat));
+        return ResponseEntity.ok(new ArrayList<>(etats.values()));
+    }
+
+    // Attend le commit d'une écriture différée et remonte son erreur éventuelle telle quelle
+    private <T> T attendre(CompletableFuture<T> futur) {
+        try {
+            return futur.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Delete - Supprime un étudiant de la liste
      * DELETE /api/absences/etudiant/{id}
@@ -75,21 +155,56 @@ public class AbsenceController {
      * BlackListCreate - Dresse la liste noire des étudiants
      * GET /api/absences/liste-noire?seuil=0.5
      * Seuil par défaut: 0.5 (50%)
+     *
+     * @deprecated liste non bornée, remplacée par GET /api/absences/liste-noire/page
      */
+    @Deprecated
     @GetMapping("/liste-noire")
     public ResponseEntity<List<EtudiantAbsence>> blackListCreate(@RequestParam(required = false, defaultValue = "0.5") Double seuil) {
         List<EtudiantAbsence> listeNoire = absenceService.blackListCreate(seuil);
-        return ResponseEntity.ok(listeNoire);
+        return deprecie("liste-noire/page").body(listeNoire);
     }
 
     /**
      * Récupère tous les étudiants
      * GET /api/absences/etudiants
+     *
+     * @deprecated liste non bornée, remplacée par GET /api/absences/etudiants/page
      */
+    @Deprecated
     @GetMapping("/etudiants")
     public ResponseEntity<List<EtudiantAbsence>> getAllEtudiants() {
         List<EtudiantAbsence> etudiants = absenceService.getAllEtudiants();
-        return ResponseEntity.ok(etudiants);
+        return deprecie("etudiants/page").body(etudiants);
+    }
+
+    /**
+     * Récupère une page d'étudiants triés par ID
+     * GET /api/absences/etudiants/page?size=50&cursor=...&module=...&niveau=...&nom=...
+     */
+    @GetMapping("/etudiants/page")
+    public ResponseEntity<CursorPage<EtudiantAbsence>> getEtudiantsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) String nom) {
+        return ResponseEntity.ok(absenceService.getEtudiantsPage(cursor, size, module, niveau, nom));
+    }
+
+    /**
+     * Récupère une page de la liste noire (heures d'absence décroissantes)
+     * GET /api/absences/liste-noire/page?seuil=0.5&size=50&cursor=...&module=...&niveau=...&nom=...
+     */
+    @GetMapping("/liste-noire/page")
+    public ResponseEntity<CursorPage<EtudiantAbsence>> blackListPage(
+            @RequestParam(required = false, defaultValue = "0.5") Double seuil,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) String nom) {
+        return ResponseEntity.ok(absenceService.blackListPage(seuil, cursor, size, module, niveau, nom));
     }
 
     /**
@@ -127,15 +242,37 @@ public class AbsenceController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Récupère les taux d'absence d'une liste de CNE en un seul appel
+     * POST /api/absences/taux/batch  (body: ["CNE001", "CNE002", ...])
+     * Retourne une map CNE -> taux, les CNE inconnus sont omis
+     */
+    @PostMapping("/taux/batch")
+    public ResponseEntity<Map<String, Double>> getTauxByCnes(@RequestBody List<String> cnes) {
+        return ResponseEntity.ok(absenceService.getTauxAbsenceByCnes(cnes));
+    }
+
+    /**
+     * Récupère les taux d'absence d'une liste d'ID en un seul appel
+     * POST /api/absences/taux/batch/ids  (body: [1, 2, ...])
+     * Utilisé par le regroupement des appels Feign du service Notes
+     */
+    @PostMapping("/taux/batch/ids")
+    public ResponseEntity<Map<Long, Double>> getTauxByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(absenceService.getTauxAbsenceByIds(ids));
+    }
+
     /**
      * Vérifie si un étudiant est dans la liste noire
      * GET /api/absences/etudiant/{id}/liste-noire?seuil=0.5
      */
     @GetMapping("/etudiant/{id}/liste-noire")
     public ResponseEntity<Boolean> isListeNoire(@PathVariable Long id, @RequestParam(required = false, defaultValue = "0.5") Double seuil) {
-        return absenceService.getEtudiantById(id)
-                .map(etudiant -> ResponseEntity.ok(etudiant.estListeNoire(seuil)))
-                .orElse(ResponseEntity.notFound().build());
+        Boolean listeNoire = absenceService.isListeNoire(id, seuil);
+        if (listeNoire != null) {
+            return ResponseEntity.ok(listeNoire);
+        }
+        return ResponseEntity.notFound().build();
     }
 
     /**
@@ -148,6 +285,23 @@ public class AbsenceController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * Balayage de seuils: taille (et membres) de la liste noire pour chaque seuil
+     * GET /api/absences/liste-noire/balayage?seuils=0.2,0.3,0.5
+     * GET /api/absences/liste-noire/balayage?min=0.1&max=0.9&pas=0.05&niveau=L3&membres=true
+     */
+    @GetMapping("/liste-noire/balayage")
+    public ResponseEntity<List<SeuilResultat>> balayerSeuils(
+            @RequestParam(required = false) List<Double> seuils,
+            @RequestParam(required = false) Double min,
+            @RequestParam(required = false) Double max,
+            @RequestParam(required = false) Double pas,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) String module,
+            @RequestParam(defaultValue = "false") boolean membres) {
+        return ResponseEntity.ok(absenceService.balayerSeuils(seuils, min, max, pas, niveau, module, membres));
+    }
+
     /**
      * Récupère les informations détaillées d'un étudiant
      * GET /api/absences/etudiant/{id}/info
@@ -165,5 +319,14 @@ public class AbsenceController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
 
+    /**
+     * Réponse d'une liste complète dépréciée: en-tête Deprecation et lien vers la version paginée
+     * Le lien est relatif au chemin de la requête: il reste valable derrière le préfixe du Gateway.
+     */
+    private static ResponseEntity.BodyBuilder deprecie(String successeur) {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "<" + successeur + ">; rel=\"successor-version\"");
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.gestionabsencespringboot.controller;
+
+import org.example.gestionabsencespringboot.dto.BilanPresence;
+import org.example.gestionabsencespringboot.dto.SeanceRequest;
+import org.example.gestionabsencespringboot.entity.Seance;
+import org.example.gestionabsencespringboot.service.PresenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Contrôleur REST de la présence par séance (bitmaps par étudiant, module et semestre)
+ */
+@RestController
+@RequestMapping("/api/absences/presences")
+public class PresenceController {
+
+    @Autowired
+    private PresenceService presenceService;
+
+    /**
+     * Enregistre l'appel d'une séance
+     * POST /api/absences/presences/seance
+     * (body: {"module": "Java", "semestre": "S1", "date": "2024-10-07", "duree": 2, "absents": [...], "justifies": [...]})
+     */
+    @PostMapping("/seance")
+    public ResponseEntity<Seance> enregistrerSeance(@RequestBody SeanceRequest request) {
+        return ResponseEntity.ok(presenceService.enregistrerSeance(request));
+    }
+
+    /**
+     * Justifie l'absence d'un étudiant à une séance
+     * PUT /api/absences/presences/seance/{seanceId}/justifier?cne=CNE001
+     */
+    @PutMapping("/seance/{seanceId}/justifier")
+    public ResponseEntity<Void> justifier(@PathVariable Long seanceId, @RequestParam String cne) {
+        presenceService.justifier(cne, seanceId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Étudiants absents à une date donnée
+     * GET /api/absences/presences/absents?module=Java&semestre=S1&date=2024-10-07
+     */
+    @GetMapping("/absents")
+    public ResponseEntity<List<String>> absentsLe(@RequestParam String module, @RequestParam String semestre,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(presenceService.absentsLe(module, semestre, date));
+    }
+
+    /**
+     * Étudiants ayant manqué au moins n séances consécutives
+     * GET /api/absences/presences/consecutives?module=Java&semestre=S1&n=3
+     */
+    @GetMapping("/consecutives")
+    public ResponseEntity<List<String>> absencesConsecutives(@RequestParam String module, @RequestParam String semestre,
+                                                             @RequestParam(defaultValue = "3") int n) {
+        return ResponseEntity.ok(presenceService.absencesConsecutives(module, semestre, n));
+    }
+
+    /**
+     * Heures justifiées / non justifiées d'un étudiant
+     * GET /api/absences/presences/bilan?cne=CNE001&module=Java&semestre=S1
+     */
+    @GetMapping("/bilan")
+    public ResponseEntity<BilanPresence> bilan(@RequestParam String cne, @RequestParam String module,
+                                               @RequestParam String semestre) {
+        return ResponseEntity.ok(presenceService.bilan(cne, module, semestre));
+    }
+}
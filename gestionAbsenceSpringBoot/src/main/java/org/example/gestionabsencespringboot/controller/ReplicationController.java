@@ -0,0 +1,33 @@
+package org.example.gestionabsencespringboot.controller;
+
+import org.example.gestionabsencespringboot.replication.OutboxWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contrôleur de la réplication des taux d'absence vers le service Notes
+ */
+@RestController
+@RequestMapping("/api/absences/replication")
+public class ReplicationController {
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    /**
+     * Republie l'état de tous les étudiants (amorçage ou resynchronisation de la réplique)
+     * POST /api/absences/replication/instantane
+     */
+    @PostMapping("/instantane")
+    public ResponseEntity<Map<String, Object>> ecrireInstantane() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("evenements", outboxWriter.ecrireInstantane());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.gestionabsencespringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Heures d'absence justifiées / non justifiées d'un étudiant dans un module pour un semestre
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BilanPresence {
+    private String cne;
+    private String module;
+    private String semestre;
+    private int seancesAbsentes;
+    private int seancesJustifiees;
+    private double heuresJustifiees;
+    private double heuresNonJustifiees;
+}
@@ -0,0 +1,19 @@
+package org.example.gestionabsencespringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * État d'un étudiant après un incrément d'heures d'absence
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeuresAbsenceResponse {
+    private Long id;
+    private String cne;
+    private Double heuresAbsence;
+    private Double heuresTotal;
+    private Double tauxAbsence;
+}
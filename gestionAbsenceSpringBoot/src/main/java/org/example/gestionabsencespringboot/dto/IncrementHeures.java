@@ -0,0 +1,16 @@
+package org.example.gestionabsencespringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Heures d'absence à ajouter à un étudiant (delta négatif pour une correction)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncrementHeures {
+    private String cne;
+    private Double delta;
+}
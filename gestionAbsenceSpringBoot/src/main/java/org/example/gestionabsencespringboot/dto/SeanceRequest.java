@@ -0,0 +1,24 @@
+package org.example.gestionabsencespringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appel d'une séance: CNE des absents, dont ceux dont l'absence est déjà justifiée
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeanceRequest {
+    private String module;
+    private String semestre;
+    private LocalDate date;
+    private Double duree;
+    private List<String> absents = new ArrayList<>();
+    private List<String> justifies = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package org.example.gestionabsencespringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changement du taux d'absence d'un étudiant, répliqué du service Absence vers le service Notes
+ * sequence croît à chaque changement: un événement plus ancien que la réplique est ignoré
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TauxAbsenceEvent {
+    private Long sequence;
+    private Long etudiantId;
+    private String cne;
+    private Double tauxAbsence;
+    private boolean supprime;
+    private Long horodatage; // Instant du changement dans le service Absence (epoch ms)
+}
@@ -10,7 +10,12 @@ import lombok.NoArgsConstructor;
  * Représente un étudiant et ses informations d'absence
  */
 @Entity
-@Table(name = "etudiants_absence")
+@Table(name = "etudiants_absence", indexes = {
+        @Index(name = "idx_etudiants_absence_module", columnList = "module"),
+        @Index(name = "idx_etudiants_absence_niveau", columnList = "niveau"),
+        @Index(name = "idx_etudiants_absence_nom", columnList = "nom"),
+        @Index(name = "idx_etudiants_absence_taux", columnList = "taux_absence")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,12 +46,18 @@ public class EtudiantAbsence {
     @Column
     private String module; // Module concerné
 
+    // Colonne générée par MySQL (STORED) et indexée, utilisée par les requêtes de liste noire.
+    // Même formule que getTauxAbsence().
+    @Column(name = "taux_absence", insertable = false, updatable = false,
+            columnDefinition = "DOUBLE GENERATED ALWAYS AS (COALESCE(heures_absence / NULLIF(heures_total, 0), 0)) STORED")
+    private Double tauxAbsence;
+
     /**
      * Calcule le taux d'absence (en pourcentage décimal: 0.0 à 1.0)
      * Taux = heuresAbsence / heuresTotal
      */
     public Double getTauxAbsence() {
-        if (heuresTotal == null || heuresTotal == 0) {
+        if (heuresAbsence == null || heuresTotal == null || heuresTotal == 0) {
             return 0.0;
         }
         return heuresAbsence / heuresTotal;
@@ -67,5 +78,12 @@ public class EtudiantAbsence {
     public Double getTauxAbsencePourcentage() {
         return getTauxAbsence() * 100;
     }
+
+    /**
+     * Copie détachée, pour conserver un état précédent qu'un merge JPA écraserait
+     */
+    public EtudiantAbsence copie() {
+        return new EtudiantAbsence(id, nom, prenom, cne, niveau, heuresAbsence, heuresTotal, module, tauxAbsence);
+    }
 }
 
@@ -0,0 +1,38 @@
+package org.example.gestionabsencespringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Événement en attente d'envoi vers le service Notes (transactional outbox)
+ * Écrit dans la même transaction que la modification de l'EtudiantAbsence,
+ * supprimé par OutboxRelay une fois livré.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Sert aussi de numéro de séquence
+
+    @Column
+    private Long etudiantId;
+
+    @Column(nullable = false)
+    private String cne;
+
+    @Column
+    private Double tauxAbsence; // null pour une suppression
+
+    @Column(nullable = false)
+    private boolean supprime;
+
+    @Column(nullable = false)
+    private Long horodatage; // epoch ms
+}
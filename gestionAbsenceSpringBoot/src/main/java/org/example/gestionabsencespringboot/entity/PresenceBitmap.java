@@ -0,0 +1,73 @@
+package org.example.gestionabsencespringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.BitSet;
+
+/**
+ * Absences d'un étudiant dans un module pour un semestre, sous forme de bitmaps
+ * Le bit n correspond à la séance de position n (voir Seance).
+ *
+ * absences: séances manquées; justifiees: séances dont l'absence est justifiée.
+ * Un semestre compte quelques centaines de séances au plus: un bitmap brut
+ * (BitSet.toByteArray, sans zéros de fin) tient en quelques dizaines d'octets.
+ */
+@Entity
+@Table(name = "presences",
+        uniqueConstraints = @UniqueConstraint(name = "uk_presences_etudiant", columnNames = {"cne", "module", "semestre"}),
+        indexes = @Index(name = "idx_presences_module", columnList = "module, semestre"))
+@Data
+@NoArgsConstructor
+public class PresenceBitmap {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String cne;
+
+    @Column(nullable = false)
+    private String module;
+
+    @Column(nullable = false)
+    private String semestre;
+
+    @Column(columnDefinition = "VARBINARY(512)")
+    private byte[] absences = new byte[0];
+
+    @Column(columnDefinition = "VARBINARY(512)")
+    private byte[] justifiees = new byte[0];
+
+    // Deux séances enregistrées en même temps pour le même étudiant ne s'écrasent pas
+    @Version
+    private Long version;
+
+    public PresenceBitmap(String cne, String module, String semestre) {
+        this.cne = cne;
+        this.module = module;
+        this.semestre = semestre;
+    }
+
+    public BitSet absencesBits() {
+        return BitSet.valueOf(absences);
+    }
+
+    public BitSet justifieesBits() {
+        return BitSet.valueOf(justifiees);
+    }
+
+    public void marquerAbsent(int position) {
+        BitSet bits = absencesBits();
+        bits.set(position);
+        absences = bits.toByteArray();
+    }
+
+    public void marquerJustifiee(int position) {
+        BitSet bits = justifieesBits();
+        bits.set(position);
+        justifiees = bits.toByteArray();
+    }
+}
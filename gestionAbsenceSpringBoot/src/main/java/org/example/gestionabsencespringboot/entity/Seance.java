@@ -0,0 +1,42 @@
+package org.example.gestionabsencespringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Séance de cours d'un module pour un semestre
+ * La position est le numéro du bit qui représente la séance dans les bitmaps de présence:
+ * elle est attribuée dans l'ordre d'enregistrement (0, 1, 2, ...) et ne change plus.
+ */
+@Entity
+@Table(name = "seances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_seances_position", columnNames = {"module", "semestre", "position"}),
+        indexes = @Index(name = "idx_seances_date", columnList = "module, semestre, date_seance"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Seance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String module;
+
+    @Column(nullable = false)
+    private String semestre; // Exemple: S1, S2
+
+    @Column(name = "date_seance", nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Double duree; // Durée de la séance en heures
+
+    @Column(nullable = false)
+    private Integer position;
+}
@@ -0,0 +1,42 @@
+package org.example.gestionabsencespringboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+
+/**
+ * Événement publié par AbsenceService à chaque modification d'un EtudiantAbsence
+ *
+ * avant: état précédent (null pour une création)
+ * apres: nouvel état (null pour une suppression)
+ */
+@Getter
+@AllArgsConstructor
+public class EtudiantAbsenceChangeEvent {
+
+    public enum Type {
+        CREATION,
+        MODIFICATION,
+        SUPPRESSION
+    }
+
+    private final Type type;
+    private final EtudiantAbsence avant;
+    private final EtudiantAbsence apres;
+
+    public Long getId() {
+        return apres != null ? apres.getId() : avant.getId();
+    }
+
+    public String getCne() {
+        return apres != null ? apres.getCne() : avant.getCne();
+    }
+
+    public Double getTauxAvant() {
+        return avant != null ? avant.getTauxAbsence() : null;
+    }
+
+    public Double getTauxApres() {
+        return apres != null ? apres.getTauxAbsence() : null;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.gestionabsencespringboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Événement publié par ListeNoireIndex quand un étudiant entre dans la liste noire
+ * d'un seuil configuré ou en sort
+ */
+@Getter
+@AllArgsConstructor
+public class ListeNoireEvent {
+
+    public enum Type {
+        ENTREE,
+        SORTIE
+    }
+
+    private final Type type;
+    private final Double seuil;
+    private final Long id;
+    private final String cne;
+    private final Double tauxAbsence;
+}
@@ -0,0 +1,118 @@
+package org.example.gestionabsencespringboot.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.gestionabsencespringboot.client.NotesClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Invalide le cache des taux d'absence du service Notes à chaque modification
+ * L'appel est fait en arrière-plan pour ne pas ralentir l'écriture
+ *
+ * Chaque instance du service Notes a son propre cache: l'invalidation est envoyée à toutes
+ * les instances connues d'Eureka, pas via le client Feign répartiteur (une seule instance).
+ * Sans instance connue (Eureka indisponible), le client Feign sert de repli.
+ */
+@Component
+public class NotesCacheInvalidationListener {
+
+    private static final String SERVICE_NOTES = "gestion-notes-service";
+
+    @Autowired
+    private NotesClient notesClient;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${absence.notes-cache-invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${absence.notes-cache-invalidation.timeout-ms:2000}")
+    private int timeoutMs;
+
+    private RestClient restClient;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notes-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void initialiser() {
+        // Une instance arrêtée ne doit pas bloquer le thread d'invalidation
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    // Après commit: le service Notes ne doit pas recharger une valeur pas encore validée
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EtudiantAbsenceChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            invalider(event.getId(), event.getCne());
+            // Si le CNE a changé, l'ancien CNE doit aussi être invalidé
+            if (event.getAvant() != null && event.getApres() != null
+                    && event.getAvant().getCne() != null
+                    && !event.getAvant().getCne().equals(event.getApres().getCne())) {
+                invalider(event.getId(), event.getAvant().getCne());
+            }
+        });
+    }
+
+    void invalider(Long id, String cne) {
+        List<ServiceInstance> instances;
+        try {
+            instances = discoveryClient.getInstances(SERVICE_NOTES);
+        } catch (Exception e) {
+            instances = List.of();
+        }
+        if (instances.isEmpty()) {
+            try {
+                notesClient.invalidateTauxAbsence(id, cne);
+            } catch (Exception e) {
+                // Le service Notes rechargera la valeur à l'expiration du cache
+                System.err.println("Erreur lors de l'invalidation du cache Notes: " + e.getMessage());
+            }
+            return;
+        }
+        for (ServiceInstance instance : instances) {
+            try {
+                restClient.delete()
+                        .uri(UriComponentsBuilder.fromUri(instance.getUri())
+                                .path("/api/notes/cache/taux-absence")
+                                .queryParamIfPresent("id", Optional.ofNullable(id))
+                                .queryParamIfPresent("cne", Optional.ofNullable(cne))
+                                .build().toUri())
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                // Cette instance rechargera la valeur à l'expiration de son cache
+                System.err.println("Erreur lors de l'invalidation du cache Notes sur "
+                        + instance.getUri() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
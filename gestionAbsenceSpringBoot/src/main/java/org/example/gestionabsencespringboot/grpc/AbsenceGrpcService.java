@@ -0,0 +1,89 @@
+package org.example.gestionabsencespringboot.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.example.gestionabsencespringboot.service.AbsenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+/**
+ * API interne gRPC du service Absence (voir src/main/proto/interne.proto)
+ *
+ * Mêmes lectures que GET /api/absences/etudiant/{id}/taux, /etudiant/cne/{cne}/taux,
+ * /etudiant/{id}/liste-noire et POST /api/absences/taux/batch(/ids), en protobuf:
+ * pas de JSON ni de réflexion, et un seul flux HTTP/2 pour tous les lots d'une recherche en masse.
+ */
+@GrpcService
+public class AbsenceGrpcService extends AbsenceInterneGrpc.AbsenceInterneImplBase {
+
+    @Autowired
+    private AbsenceService absenceService;
+
+    @Override
+    public void tauxAbsence(EtudiantRef request, StreamObserver<Valeur> responseObserver) {
+        Double taux = switch (request.getCleCase()) {
+            case ID -> absenceService.read(request.getId());
+            case CNE -> absenceService.getTauxAbsenceByCne(request.getCne());
+            case CLE_NOT_SET -> null;
+        };
+        if (taux == null) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Étudiant non trouvé: " + request).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(Valeur.newBuilder().setValeur(taux).build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listeNoire(ListeNoireRequete request, StreamObserver<Booleen> responseObserver) {
+        double seuil = request.getSeuil() > 0 ? request.getSeuil() : 0.5;
+        Boolean listeNoire = absenceService.isListeNoire(request.getId(), seuil);
+        if (listeNoire == null) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Étudiant non trouvé avec l'ID: " + request.getId()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(Booleen.newBuilder().setValeur(listeNoire).build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Recherche en masse: chaque lot de clés reçu est résolu en une requête SQL et renvoyé aussitôt
+     */
+    @Override
+    public StreamObserver<LotRefs> fluxTauxAbsence(StreamObserver<LotValeurs> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(LotRefs lot) {
+                LotValeurs.Builder reponse = LotValeurs.newBuilder();
+                if (lot.getIdsCount() > 0) {
+                    for (Map.Entry<Long, Double> taux : absenceService.getTauxAbsenceByIds(lot.getIdsList()).entrySet()) {
+                        if (taux.getValue() != null) {
+                            reponse.addIds(taux.getKey()).addValeurs(taux.getValue());
+                        }
+                    }
+                } else {
+                    for (Map.Entry<String, Double> taux : absenceService.getTauxAbsenceByCnes(lot.getCnesList()).entrySet()) {
+                        if (taux.getValue() != null) {
+                            reponse.addCnes(taux.getKey()).addValeurs(taux.getValue());
+                        }
+                    }
+                }
+                responseObserver.onNext(reponse.build());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                System.err.println("Flux gRPC des taux d'absence interrompu: " + t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.gestionabsencespringboot.replication;
+
+import org.example.gestionabsencespringboot.client.NotesClient;
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pousse les lots de l'outbox vers le service Notes via Feign
+ */
+@Component
+public class HttpReplicationTransport implements ReplicationTransport {
+
+    @Autowired
+    private NotesClient notesClient;
+
+    @Override
+    public void envoyer(List<TauxAbsenceEvent> evenements) {
+        notesClient.appliquerTauxAbsence(evenements);
+    }
+}
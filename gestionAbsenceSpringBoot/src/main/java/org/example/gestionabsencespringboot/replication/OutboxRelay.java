@@ -0,0 +1,104 @@
+package org.example.gestionabsencespringboot.replication;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
+import org.example.gestionabsencespringboot.entity.OutboxEvent;
+import org.example.gestionabsencespringboot.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relais de l'outbox: livre les événements par lots au service Notes, dans l'ordre
+ *
+ * Livraison au moins une fois: un lot n'est supprimé qu'après un envoi réussi,
+ * le service Notes ignore les événements déjà appliqués (numéro de séquence).
+ * En cas d'échec le lot est renvoyé à l'itération suivante.
+ *
+ * Métriques: absence.outbox.envoyes, absence.outbox.echecs
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReplicationTransport transport;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${absence.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${absence.outbox.relay-interval-ms:500}")
+    private long intervalMillis;
+
+    @Value("${absence.outbox.batch-size:500}")
+    private int batchSize;
+
+    private ScheduledExecutorService scheduler;
+    private Counter envoyes;
+    private Counter echecs;
+
+    @PostConstruct
+    public void demarrer() {
+        if (!enabled) {
+            return;
+        }
+        envoyes = meterRegistry.counter("absence.outbox.envoyes");
+        echecs = meterRegistry.counter("absence.outbox.echecs");
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::relayer, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Vide l'outbox tant que des lots complets sont disponibles
+     */
+    public void relayer() {
+        try {
+            List<OutboxEvent> lot;
+            do {
+                lot = outboxEventRepository.findLot(PageRequest.of(0, batchSize));
+                if (lot.isEmpty()) {
+                    return;
+                }
+                List<TauxAbsenceEvent> evenements = new ArrayList<>(lot.size());
+                List<Long> ids = new ArrayList<>(lot.size());
+                for (OutboxEvent o : lot) {
+                    evenements.add(new TauxAbsenceEvent(o.getId(), o.getEtudiantId(), o.getCne(),
+                            o.getTauxAbsence(), o.isSupprime(), o.getHorodatage()));
+                    ids.add(o.getId());
+                }
+                transport.envoyer(evenements);
+                outboxEventRepository.deleteAllByIdInBatch(ids);
+                envoyes.increment(lot.size());
+            } while (lot.size() == batchSize);
+        } catch (Exception e) {
+            echecs.increment();
+            System.err.println("Erreur du relais de l'outbox (nouvel essai au prochain passage): " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.gestionabsencespringboot.replication;
+
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.entity.OutboxEvent;
+import org.example.gestionabsencespringboot.event.EtudiantAbsenceChangeEvent;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.example.gestionabsencespringboot.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Écrit un OutboxEvent pour chaque modification d'un EtudiantAbsence
+ *
+ * Écouteur synchrone: il s'exécute dans la transaction de la modification,
+ * l'événement est donc validé ou annulé avec elle.
+ */
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @Value("${absence.outbox.enabled:true}")
+    private boolean enabled;
+
+    @EventListener
+    public void onChange(EtudiantAbsenceChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Les modifications en attente sont envoyées d'abord: la ligne étudiant est verrouillée
+        // avant l'attribution de l'ID (IDENTITY), qui suit donc l'ordre des changements par CNE
+        outboxEventRepository.flush();
+        long maintenant = System.currentTimeMillis();
+        if (event.getApres() == null) {
+            outboxEventRepository.save(new OutboxEvent(null, event.getId(), event.getCne(), null, true, maintenant));
+            return;
+        }
+        // Un changement de CNE retire l'ancien CNE de la réplique
+        if (event.getAvant() != null && event.getAvant().getCne() != null
+                && !event.getAvant().getCne().equals(event.getApres().getCne())) {
+            outboxEventRepository.save(new OutboxEvent(null, event.getId(), event.getAvant().getCne(), null, true, maintenant));
+        }
+        outboxEventRepository.save(versEvenement(event.getApres(), maintenant));
+    }
+
+    /**
+     * Écrit l'état courant de tous les étudiants dans l'outbox (amorçage de la réplique)
+     * @return nombre d'événements écrits
+     */
+    @Transactional
+    public int ecrireInstantane() {
+        long maintenant = System.currentTimeMillis();
+        List<OutboxEvent> evenements = new ArrayList<>();
+        for (EtudiantAbsence etudiant : etudiantAbsenceRepository.findAll()) {
+            evenements.add(versEvenement(etudiant, maintenant));
+        }
+        outboxEventRepository.saveAll(evenements);
+        return evenements.size();
+    }
+
+    private OutboxEvent versEvenement(EtudiantAbsence etudiant, long horodatage) {
+        return new OutboxEvent(null, etudiant.getId(), etudiant.getCne(), etudiant.getTauxAbsence(), false, horodatage);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.gestionabsencespringboot.replication;
+
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
+
+import java.util.List;
+
+/**
+ * Transport d'un lot d'événements de l'outbox vers le service Notes
+ * L'implémentation par défaut pousse en HTTP (HttpReplicationTransport);
+ * un test peut fournir sa propre implémentation en mémoire.
+ */
+public interface ReplicationTransport {
+
+    /**
+     * Livre le lot; une exception signifie que le lot sera renvoyé
+     */
+    void envoyer(List<TauxAbsenceEvent> evenements);
+}
@@ -1,13 +1,19 @@
 package org.example.gestionabsencespringboot.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EtudiantAbsenceRepository extends JpaRepository<EtudiantAbsence, Long> {
@@ -17,6 +23,11 @@ public interface EtudiantAbsenceRepository extends JpaRepository<EtudiantAbsence
      */
     Optional<EtudiantAbsence> findByCne(String cne);
 
+    /**
+     * Trouve les étudiants correspondant à une liste de CNE (une seule requête)
+     */
+    List<EtudiantAbsence> findByCneIn(Collection<String> cnes);
+
     /**
      * Trouve tous les étudiants d'un niveau donné
      */
@@ -26,8 +37,63 @@ public interface EtudiantAbsenceRepository extends JpaRepository<EtudiantAbsence
      * Trouve les étudiants avec un taux d'absence >= seuil
      * Triés par heuresAbsence DESC, puis par nom ASC
      */
-    @Query("SELECT e FROM EtudiantAbsence e WHERE (e.heuresAbsence / e.heuresTotal) >= :seuil " +
+    @Query("SELECT e FROM EtudiantAbsence e WHERE e.tauxAbsence >= :seuil " +
            "ORDER BY e.heuresAbsence DESC, e.nom ASC")
     List<EtudiantAbsence> findListeNoire(@Param("seuil") Double seuil);
-}
 
+    /**
+     * Compte les étudiants avec un taux d'absence >= seuil (sans charger les entités)
+     */
+    @Query("SELECT COUNT(e) FROM EtudiantAbsence e WHERE e.tauxAbsence >= :seuil")
+    long countListeNoire(@Param("seuil") Double seuil);
+
+    /**
+     * Couples [cne, taux d'absence] triés par taux croissant, avec filtres optionnels
+     * Utilisé pour balayer de nombreux seuils en une seule requête
+     */
+    @Query("SELECT e.cne, e.tauxAbsence FROM EtudiantAbsence e " +
+           "WHERE (:niveau IS NULL OR e.niveau = :niveau) AND (:module IS NULL OR e.module = :module) " +
+           "ORDER BY e.tauxAbsence ASC")
+    List<Object[]> findTauxTries(@Param("niveau") String niveau, @Param("module") String module);
+
+    /**
+     * Page d'étudiants triés par ID, à partir de l'ID afterId (exclu)
+     * Les filtres null sont ignorés, prefixe filtre sur le début du nom
+     */
+    @Query("SELECT e FROM EtudiantAbsence e WHERE e.id > :afterId " +
+           "AND (:module IS NULL OR e.module = :module) " +
+           "AND (:niveau IS NULL OR e.niveau = :niveau) " +
+           "AND (:prefixe IS NULL OR e.nom LIKE CONCAT(:prefixe, '%')) " +
+           "ORDER BY e.id ASC")
+    List<EtudiantAbsence> findPageOrderById(@Param("afterId") Long afterId,
+                                            @Param("module") String module,
+                                            @Param("niveau") String niveau,
+                                            @Param("prefixe") String prefixe,
+                                            Pageable pageable);
+
+    /**
+     * Page de la liste noire triée par heures d'absence décroissantes puis ID,
+     * à partir du couple (afterHeures, afterId) exclu
+     */
+    @Query("SELECT e FROM EtudiantAbsence e WHERE e.tauxAbsence >= :seuil " +
+           "AND (e.heuresAbsence < :afterHeures OR (e.heuresAbsence = :afterHeures AND e.id > :afterId)) " +
+           "AND (:module IS NULL OR e.module = :module) " +
+           "AND (:niveau IS NULL OR e.niveau = :niveau) " +
+           "AND (:prefixe IS NULL OR e.nom LIKE CONCAT(:prefixe, '%')) " +
+           "ORDER BY e.heuresAbsence DESC, e.id ASC")
+    List<EtudiantAbsence> findListeNoirePage(@Param("seuil") Double seuil,
+                                             @Param("afterHeures") Double afterHeures,
+                                             @Param("afterId") Long afterId,
+                                             @Param("module") String module,
+                                             @Param("niveau") String niveau,
+                                             @Param("prefixe") String prefixe,
+                                             Pageable pageable);
+
+    /**
+     * Parcourt tous les étudiants par ID via un curseur serveur (useCursorFetch)
+     * À consommer dans une transaction et à fermer après usage
+     */
+    @Query("SELECT e FROM EtudiantAbsence e ORDER BY e.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<EtudiantAbsence> streamAllOrderById();
+}
@@ -0,0 +1,19 @@
+package org.example.gestionabsencespringboot.repository;
+
+import org.example.gestionabsencespringboot.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Prochain lot d'événements à livrer, dans l'ordre d'écriture
+     */
+    @Query("SELECT o FROM OutboxEvent o ORDER BY o.id ASC")
+    List<OutboxEvent> findLot(Pageable pageable);
+}
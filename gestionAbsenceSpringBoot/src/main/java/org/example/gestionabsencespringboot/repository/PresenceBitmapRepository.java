@@ -0,0 +1,22 @@
+package org.example.gestionabsencespringboot.repository;
+
+import org.example.gestionabsencespringboot.entity.PresenceBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PresenceBitmapRepository extends JpaRepository<PresenceBitmap, Long> {
+
+    /**
+     * Bitmaps de tous les étudiants d'un module pour un semestre (une ligne par étudiant)
+     */
+    List<PresenceBitmap> findByModuleAndSemestre(String module, String semestre);
+
+    List<PresenceBitmap> findByModuleAndSemestreAndCneIn(String module, String semestre, Collection<String> cnes);
+
+    Optional<PresenceBitmap> findByCneAndModuleAndSemestre(String cne, String module, String semestre);
+}
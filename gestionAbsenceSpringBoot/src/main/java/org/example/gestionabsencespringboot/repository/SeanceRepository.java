@@ -0,0 +1,30 @@
+package org.example.gestionabsencespringboot.repository;
+
+import org.example.gestionabsencespringboot.entity.Seance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SeanceRepository extends JpaRepository<Seance, Long> {
+
+    /**
+     * Séances d'un module pour un semestre, dans l'ordre des positions
+     */
+    List<Seance> findByModuleAndSemestreOrderByPosition(String module, String semestre);
+
+    /**
+     * Séances d'un module tenues à une date donnée
+     */
+    List<Seance> findByModuleAndSemestreAndDate(String module, String semestre, LocalDate date);
+
+    /**
+     * Prochaine position libre pour un module et un semestre
+     */
+    @Query("SELECT COALESCE(MAX(s.position) + 1, 0) FROM Seance s WHERE s.module = :module AND s.semestre = :semestre")
+    Integer findProchainePosition(@Param("module") String module, @Param("semestre") String semestre);
+}
@@ -1,12 +1,30 @@
 package org.example.gestionabsencespringboot.service;
 
+import org.example.commons.pagination.CursorPage;
+import org.example.commons.pagination.KeysetCursor;
+import org.example.commons.seuils.BalayageSeuils;
+import org.example.commons.seuils.SeuilResultat;
+import org.example.gestionabsencespringboot.alerte.ListeNoireIndex;
+import org.example.gestionabsencespringboot.dto.HeuresAbsenceResponse;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
 import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.event.EtudiantAbsenceChangeEvent;
 import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 /**
  * Service de gestion de l'absentéisme
@@ -15,14 +33,52 @@ import java.util.Optional;
 @Service
 public class AbsenceService {
 
+    // Incrément atomique: la base fait le calcul, pas de lecture-modification-écriture côté application
+    private static final String INCREMENT_HEURES =
+            "UPDATE etudiants_absence SET heures_absence = GREATEST(COALESCE(heures_absence, 0) + ?, 0) " +
+            "WHERE cne = ?";
+
     @Autowired
     private EtudiantAbsenceRepository etudiantAbsenceRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ListeNoireIndex listeNoireIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Taille de page par défaut et maximale des listes paginées
+    @Value("${absence.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${absence.pagination.max-size:200}")
+    private int maxPageSize;
+
     /**
      * Add - Ajoute un nouvel étudiant avec ses informations d'absence
      */
+    @Transactional
     public EtudiantAbsence add(EtudiantAbsence etudiant) {
-        return etudiantAbsenceRepository.save(etudiant);
+        EtudiantAbsence saved = etudiantAbsenceRepository.save(etudiant);
+        eventPublisher.publishEvent(new EtudiantAbsenceChangeEvent(
+                EtudiantAbsenceChangeEvent.Type.CREATION, null, saved));
+        return saved;
+    }
+
+    /**
+     * Ajoute plusieurs étudiants en une seule transaction (un seul commit)
+     */
+    @Transactional
+    public List<EtudiantAbsence> addAll(List<EtudiantAbsence> etudiants) {
+        List<EtudiantAbsence> saved = etudiantAbsenceRepository.saveAll(etudiants);
+        for (EtudiantAbsence etudiant : saved) {
+            eventPublisher.publishEvent(new EtudiantAbsenceChangeEvent(
+                    EtudiantAbsenceChangeEvent.Type.CREATION, null, etudiant));
+        }
+        return saved;
     }
 
     /**
@@ -38,20 +94,85 @@ public class AbsenceService {
     /**
      * Update - Met à jour les informations d'un étudiant
      */
+    @Transactional
     public EtudiantAbsence update(Long id, EtudiantAbsence etudiant) {
-        if (etudiantAbsenceRepository.existsById(id)) {
+        // Copie: avec open-in-view l'entité chargée est gérée et le merge l'écraserait
+        Optional<EtudiantAbsence> avant = etudiantAbsenceRepository.findById(id).map(EtudiantAbsence::copie);
+        if (avant.isPresent()) {
             etudiant.setId(id);
-            return etudiantAbsenceRepository.save(etudiant);
+            EtudiantAbsence saved = etudiantAbsenceRepository.save(etudiant);
+            eventPublisher.publishEvent(new EtudiantAbsenceChangeEvent(
+                    EtudiantAbsenceChangeEvent.Type.MODIFICATION, avant.get(), saved));
+            return saved;
         }
         return null;
     }
 
+    /**
+     * Ajoute des heures d'absence à un étudiant par un UPDATE atomique
+     * @return le nouvel état, ou null si le CNE est inconnu
+     */
+    @Transactional
+    public HeuresAbsenceResponse incrementerHeures(String cne, Double delta) {
+        List<HeuresAbsenceResponse> resultats = incrementerHeures(List.of(new IncrementHeures(cne, delta)));
+        return resultats.isEmpty() ? null : resultats.get(0);
+    }
+
+    /**
+     * Ajoute des heures d'absence à plusieurs étudiants (ex: une séance entière)
+     * Les UPDATE atomiques sont envoyés en un seul lot JDBC, triés par CNE: des lots concurrents
+     * verrouillent les lignes dans le même ordre (pas d'interblocage). Chaque UPDATE garde le verrou
+     * de sa ligne jusqu'au commit, donc la relecture qui suit, dans la même transaction, voit
+     * exactement nos incréments: deux allers-retours quelle que soit la taille du lot.
+     * MySQL n'a pas d'UPDATE ... RETURNING et LAST_INSERT_ID(expr) ne porte qu'un entier,
+     * alors que les heures sont en DOUBLE et que la réponse porte aussi heures_total et taux_absence.
+     *
+     * L'état "avant" publié est déduit du nouvel état (heures - delta); quand GREATEST(..., 0)
+     * a borné le résultat, la valeur précédente n'est pas connue et ses heures sont laissées à null.
+     * @return le nouvel état des étudiants trouvés (les CNE inconnus sont ignorés)
+     */
+    @Transactional
+    public List<HeuresAbsenceResponse> incrementerHeures(List<IncrementHeures> increments) {
+        // Regroupe les incréments d'un même CNE
+        TreeMap<String, Double> deltas = new TreeMap<>();
+        for (IncrementHeures increment : increments) {
+            if (increment.getCne() == null || increment.getDelta() == null) {
+                throw new RuntimeException("cne et delta sont obligatoires");
+            }
+            deltas.merge(increment.getCne(), increment.getDelta(), Double::sum);
+        }
+        if (deltas.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object[]> parametres = new ArrayList<>(deltas.size());
+        deltas.forEach((cne, delta) -> parametres.add(new Object[]{delta, cne}));
+        jdbcTemplate.batchUpdate(INCREMENT_HEURES, parametres);
+
+        List<HeuresAbsenceResponse> resultats = new ArrayList<>(deltas.size());
+        for (EtudiantAbsence apres : etudiantAbsenceRepository.findByCneIn(deltas.keySet())) {
+            double delta = deltas.get(apres.getCne());
+            double heures = apres.getHeuresAbsence() != null ? apres.getHeuresAbsence() : 0.0;
+            EtudiantAbsence avant = apres.copie();
+            avant.setHeuresAbsence(heures > 0 || delta >= 0 ? heures - delta : null);
+            eventPublisher.publishEvent(new EtudiantAbsenceChangeEvent(
+                    EtudiantAbsenceChangeEvent.Type.MODIFICATION, avant, apres));
+            resultats.add(new HeuresAbsenceResponse(apres.getId(), apres.getCne(),
+                    apres.getHeuresAbsence(), apres.getHeuresTotal(), apres.getTauxAbsence()));
+        }
+        return resultats;
+    }
+
     /**
      * Delete - Supprime un étudiant de la liste des étudiants non-assidus
      */
+    @Transactional
     public boolean delete(Long id) {
-        if (etudiantAbsenceRepository.existsById(id)) {
+        Optional<EtudiantAbsence> avant = etudiantAbsenceRepository.findById(id);
+        if (avant.isPresent()) {
             etudiantAbsenceRepository.deleteById(id);
+            eventPublisher.publishEvent(new EtudiantAbsenceChangeEvent(
+                    EtudiantAbsenceChangeEvent.Type.SUPPRESSION, avant.get(), null));
             return true;
         }
         return false;
@@ -67,6 +188,9 @@ public class AbsenceService {
         if (seuil == null) {
             seuil = 0.5; // Seuil par défaut: 50%
         }
+        if (listeNoireIndex.couvre(seuil)) {
+            return listeNoireIndex.liste(seuil);
+        }
         return etudiantAbsenceRepository.findListeNoire(seuil);
     }
 
@@ -77,6 +201,69 @@ public class AbsenceService {
         return etudiantAbsenceRepository.findAll();
     }
 
+    /**
+     * Récupère une page d'étudiants triés par ID, avec filtres optionnels
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     */
+    public CursorPage<EtudiantAbsence> getEtudiantsPage(String cursor, Integer size,
+                                                        String module, String niveau, String prefixeNom) {
+        int taille = tailleDePage(size);
+        Long afterId = cursor != null ? KeysetCursor.decode(cursor).getId() : 0L;
+
+        List<EtudiantAbsence> etudiants = etudiantAbsenceRepository.findPageOrderById(
+                afterId, module, niveau, echapperPrefixe(prefixeNom), PageRequest.of(0, taille + 1));
+
+        return versPage(etudiants, taille, e -> new KeysetCursor(null, e.getId()));
+    }
+
+    /**
+     * Récupère une page de la liste noire triée par heures d'absence décroissantes
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     */
+    public CursorPage<EtudiantAbsence> blackListPage(Double seuil, String cursor, Integer size,
+                                                     String module, String niveau, String prefixeNom) {
+        if (seuil == null) {
+            seuil = 0.5;
+        }
+        int taille = tailleDePage(size);
+        Double afterHeures = Double.MAX_VALUE;
+        Long afterId = 0L;
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            afterHeures = position.getSortKeyAsDouble();
+            afterId = position.getId();
+        }
+
+        List<EtudiantAbsence> etudiants = etudiantAbsenceRepository.findListeNoirePage(
+                seuil, afterHeures, afterId, module, niveau, echapperPrefixe(prefixeNom), PageRequest.of(0, taille + 1));
+
+        return versPage(etudiants, taille, e -> new KeysetCursor(String.valueOf(e.getHeuresAbsence()), e.getId()));
+    }
+
+    private int tailleDePage(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Échappe les jokers LIKE pour que le préfixe soit pris littéralement
+    private String echapperPrefixe(String prefixe) {
+        if (prefixe == null || prefixe.isBlank()) {
+            return null;
+        }
+        return prefixe.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Une ligne de plus que la taille demandée est lue pour savoir s'il reste des résultats
+    private CursorPage<EtudiantAbsence> versPage(List<EtudiantAbsence> etudiants, int taille,
+                                                 Function<EtudiantAbsence, KeysetCursor> curseur) {
+        boolean hasMore = etudiants.size() > taille;
+        List<EtudiantAbsence> items = hasMore ? etudiants.subList(0, taille) : etudiants;
+        String nextCursor = hasMore ? curseur.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, items.size(), hasMore, nextCursor);
+    }
+
     /**
      * Récupère un étudiant par ID
      */
@@ -99,6 +286,59 @@ public class AbsenceService {
         return etudiant.map(EtudiantAbsence::getTauxAbsence).orElse(null);
     }
 
+    /**
+     * Récupère les taux d'absence de plusieurs étudiants en une seule requête
+     * @param cnes Liste des CNE recherchés
+     * @return Map CNE -> taux d'absence (les CNE inconnus sont absents de la map)
+     */
+    public Map<String, Double> getTauxAbsenceByCnes(List<String> cnes) {
+        Map<String, Double> taux = new HashMap<>();
+        if (cnes == null || cnes.isEmpty()) {
+            return taux;
+        }
+        for (EtudiantAbsence etudiant : etudiantAbsenceRepository.findByCneIn(cnes)) {
+            taux.put(etudiant.getCne(), etudiant.getTauxAbsence());
+        }
+        return taux;
+    }
+
+    /**
+     * Récupère les taux d'absence de plusieurs étudiants par ID en une seule requête
+     * @return Map ID -> taux d'absence (les ID inconnus sont absents de la map)
+     */
+    public Map<Long, Double> getTauxAbsenceByIds(List<Long> ids) {
+        Map<Long, Double> taux = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return taux;
+        }
+        for (EtudiantAbsence etudiant : etudiantAbsenceRepository.findAllById(ids)) {
+            taux.put(etudiant.getId(), etudiant.getTauxAbsence());
+        }
+        return taux;
+    }
+
+    /**
+     * Taille (et membres) de la liste noire pour de nombreux seuils, en une seule requête
+     * @param seuils liste explicite, sinon plage [min, max] parcourue par pas
+     */
+    @Transactional(readOnly = true)
+    public List<SeuilResultat> balayerSeuils(List<Double> seuils, Double min, Double max, Double pas,
+                                             String niveau, String module, boolean avecMembres) {
+        List<Double> valeurs = BalayageSeuils.seuils(seuils, min, max, pas);
+        return BalayageSeuils.balayer(etudiantAbsenceRepository.findTauxTries(niveau, module), valeurs, avecMembres);
+    }
+
+    /**
+     * Vérifie si un étudiant est dans la liste noire
+     * @return null si l'étudiant est inconnu
+     */
+    public Boolean isListeNoire(Long id, Double seuil) {
+        if (listeNoireIndex.couvre(seuil)) {
+            return listeNoireIndex.contient(id, seuil);
+        }
+        return etudiantAbsenceRepository.findById(id).map(e -> e.estListeNoire(seuil)).orElse(null);
+    }
+
     /**
      * Compte le nombre d'étudiants dans la liste noire
      */
@@ -106,7 +346,10 @@ public class AbsenceService {
         if (seuil == null) {
             seuil = 0.5;
         }
-        return (long) blackListCreate(seuil).size();
+        if (listeNoireIndex.couvre(seuil)) {
+            return listeNoireIndex.compter(seuil);
+        }
+        return etudiantAbsenceRepository.countListeNoire(seuil);
     }
 }
 
@@ -1,13 +1,17 @@
 package org.example.gestionabsencespringboot.service;
 
+import org.example.commons.client.AppelsParalleles;
 import org.example.gestionabsencespringboot.client.NotesClient;
 import org.example.gestionabsencespringboot.dto.NoteDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Service exemple pour démontrer l'utilisation du client Feign
@@ -19,6 +23,10 @@ public class EtudiantInfoService {
     @Autowired
     private NotesClient notesClient;
 
+    // Échéance commune des appels Feign lancés en parallèle par une vue composite
+    @Value("${feign.parallel.deadline-ms:3000}")
+    private long deadlineMillis;
+
     /**
      * Récupère les informations complètes d'un étudiant
      * en combinant les données locales et les notes du service distant
@@ -26,10 +34,14 @@ public class EtudiantInfoService {
     public Map<String, Object> getEtudiantCompletInfo(Long etudiantId) {
         Map<String, Object> info = new HashMap<>();
 
-        try {
-            // Récupérer les notes depuis le service Gestion Notes via Feign
-            List<NoteDTO> notes = notesClient.getNotesByEtudiantId(etudiantId);
-            Double moyenne = notesClient.getMoyenneEtudiant(etudiantId);
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofMillis(deadlineMillis))) {
+            // Les deux appels au service Gestion Notes partent en parallèle (threads virtuels)
+            Supplier<List<NoteDTO>> notesAppel = appels.lancer(() -> notesClient.getNotesByEtudiantId(etudiantId));
+            Supplier<Double> moyenneAppel = appels.lancer(() -> notesClient.getMoyenneEtudiant(etudiantId));
+            appels.attendre();
+
+            List<NoteDTO> notes = notesAppel.get();
+            Double moyenne = moyenneAppel.get();
 
             info.put("etudiantId", etudiantId);
             info.put("notes", notes);
@@ -0,0 +1,83 @@
+package org.example.gestionabsencespringboot.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service d'export en flux des étudiants et de leurs absences
+ *
+ * Les lignes sont lues par un curseur serveur et écrites une à une dans la réponse,
+ * puis détachées du contexte de persistance: la mémoire reste constante
+ * quel que soit le nombre d'étudiants.
+ */
+@Service
+public class ExportService {
+
+    // Vidage régulier pour que le client reçoive les données au fil de l'eau
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Écrit tous les étudiants dans out
+     * @param ndjson true: un objet JSON par ligne, false: un tableau JSON écrit au fil de l'eau
+     * @return nombre d'étudiants exportés
+     */
+    @Transactional(readOnly = true)
+    public long exporterEtudiants(OutputStream out, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (Stream<EtudiantAbsence> etudiants = etudiantAbsenceRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (ndjson) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+
+            Iterator<EtudiantAbsence> iterator = etudiants.iterator();
+            while (iterator.hasNext()) {
+                EtudiantAbsence etudiant = iterator.next();
+                writer.writeValue(generator, etudiant);
+                entityManager.detach(etudiant);
+                if (++count == 1 || count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+
+            if (ndjson) {
+                if (count > 0) {
+                    generator.writeRaw('\n');
+                }
+            } else {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        }
+        return count;
+    }
+}
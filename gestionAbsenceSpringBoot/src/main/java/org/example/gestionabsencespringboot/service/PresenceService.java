@@ -0,0 +1,232 @@
+package org.example.gestionabsencespringboot.service;
+
+import org.example.gestionabsencespringboot.dto.BilanPresence;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
+import org.example.gestionabsencespringboot.dto.SeanceRequest;
+import org.example.gestionabsencespringboot.entity.PresenceBitmap;
+import org.example.gestionabsencespringboot.entity.Seance;
+import org.example.gestionabsencespringboot.repository.PresenceBitmapRepository;
+import org.example.gestionabsencespringboot.repository.SeanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service de présence par séance
+ *
+ * Chaque étudiant a un bitmap par module et semestre (bit = séance): les questions
+ * "qui était absent le jour X", "qui a N absences consécutives" et "heures justifiées"
+ * se résolvent par opérations de bits (AND, décalage, cardinalité) sur une ligne
+ * par étudiant, sans parcourir une ligne par absence.
+ */
+@Service
+public class PresenceService {
+
+    // Tentatives d'enregistrement d'une séance en cas d'enregistrements concurrents
+    private static final int TENTATIVES = 3;
+
+    @Autowired
+    private SeanceRepository seanceRepository;
+
+    @Autowired
+    private PresenceBitmapRepository presenceBitmapRepository;
+
+    @Autowired
+    private AbsenceService absenceService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Enregistre une séance et marque les absents (et les absences justifiées)
+     * Les heures d'absence agrégées de chaque absent sont incrémentées de la durée de la séance.
+     *
+     * La position (MAX + 1) est lue sans verrou: deux séances du même module enregistrées
+     * en même temps peuvent prendre la même. La contrainte uk_seances_position refuse la seconde,
+     * qui est rejouée dans une nouvelle transaction et prend la position suivante (de même pour
+     * un conflit sur le bitmap d'un étudiant commun aux deux séances).
+     */
+    public Seance enregistrerSeance(SeanceRequest request) {
+        if (request.getModule() == null || request.getSemestre() == null
+                || request.getDate() == null || request.getDuree() == null) {
+            throw new RuntimeException("module, semestre, date et duree sont obligatoires");
+        }
+        for (int tentative = 1; ; tentative++) {
+            try {
+                return transactionTemplate.execute(status -> enregistrer(request));
+            } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+                if (tentative >= TENTATIVES) {
+                    throw new RuntimeException("Séance non enregistrée après " + TENTATIVES
+                            + " tentatives (enregistrements concurrents du module " + request.getModule() + ")", e);
+                }
+            }
+        }
+    }
+
+    private Seance enregistrer(SeanceRequest request) {
+        Integer position = seanceRepository.findProchainePosition(request.getModule(), request.getSemestre());
+        Seance seance = seanceRepository.save(new Seance(null, request.getModule(), request.getSemestre(),
+                request.getDate(), request.getDuree(), position));
+
+        // Listes absentes du corps JSON: aucun absent
+        List<String> justifies = request.getJustifies() != null ? request.getJustifies() : List.of();
+        Set<String> absents = new LinkedHashSet<>();
+        if (request.getAbsents() != null) {
+            absents.addAll(request.getAbsents());
+        }
+        absents.addAll(justifies);
+        if (absents.isEmpty()) {
+            return seance;
+        }
+
+        Map<String, PresenceBitmap> bitmaps = chargerOuCreer(request.getModule(), request.getSemestre(), absents);
+        for (String cne : absents) {
+            bitmaps.get(cne).marquerAbsent(position);
+        }
+        for (String cne : justifies) {
+            bitmaps.get(cne).marquerJustifiee(position);
+        }
+        presenceBitmapRepository.saveAllAndFlush(bitmaps.values());
+
+        List<IncrementHeures> increments = new ArrayList<>(absents.size());
+        for (String cne : absents) {
+            increments.add(new IncrementHeures(cne, request.getDuree()));
+        }
+        absenceService.incrementerHeures(increments);
+        return seance;
+    }
+
+    /**
+     * Justifie après coup l'absence d'un étudiant à une séance
+     */
+    @Transactional
+    public void justifier(String cne, Long seanceId) {
+        Seance seance = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new RuntimeException("Séance non trouvée avec l'ID: " + seanceId));
+        PresenceBitmap bitmap = presenceBitmapRepository
+                .findByCneAndModuleAndSemestre(cne, seance.getModule(), seance.getSemestre())
+                .orElseThrow(() -> new RuntimeException("Aucune absence enregistrée pour le CNE: " + cne));
+        if (!bitmap.absencesBits().get(seance.getPosition())) {
+            throw new RuntimeException("L'étudiant " + cne + " n'était pas absent à cette séance");
+        }
+        bitmap.marquerJustifiee(seance.getPosition());
+        presenceBitmapRepository.save(bitmap);
+    }
+
+    /**
+     * CNE des étudiants absents à au moins une séance du module à la date donnée
+     */
+    @Transactional(readOnly = true)
+    public List<String> absentsLe(String module, String semestre, LocalDate date) {
+        BitSet seancesDuJour = new BitSet();
+        for (Seance seance : seanceRepository.findByModuleAndSemestreAndDate(module, semestre, date)) {
+            seancesDuJour.set(seance.getPosition());
+        }
+        List<String> absents = new ArrayList<>();
+        if (seancesDuJour.isEmpty()) {
+            return absents;
+        }
+        for (PresenceBitmap bitmap : presenceBitmapRepository.findByModuleAndSemestre(module, semestre)) {
+            if (bitmap.absencesBits().intersects(seancesDuJour)) {
+                absents.add(bitmap.getCne());
+            }
+        }
+        return absents;
+    }
+
+    /**
+     * CNE des étudiants ayant manqué au moins n séances consécutives du module
+     */
+    @Transactional(readOnly = true)
+    public List<String> absencesConsecutives(String module, String semestre, int n) {
+        if (n <= 0) {
+            throw new RuntimeException("Le nombre de séances consécutives doit être positif");
+        }
+        List<String> resultat = new ArrayList<>();
+        for (PresenceBitmap bitmap : presenceBitmapRepository.findByModuleAndSemestre(module, semestre)) {
+            if (aUneSerie(bitmap.absencesBits(), n)) {
+                resultat.add(bitmap.getCne());
+            }
+        }
+        return resultat;
+    }
+
+    // Série de n bits à 1: absences AND (absences >> 1) AND ... AND (absences >> n-1) non vide
+    private boolean aUneSerie(BitSet absences, int n) {
+        if (absences.cardinality() < n) {
+            return false;
+        }
+        BitSet serie = (BitSet) absences.clone();
+        for (int decalage = 1; decalage < n && !serie.isEmpty(); decalage++) {
+            serie.and(absences.get(decalage, Math.max(decalage, absences.length())));
+        }
+        return !serie.isEmpty();
+    }
+
+    /**
+     * Heures justifiées / non justifiées d'un étudiant dans un module
+     */
+    @Transactional(readOnly = true)
+    public BilanPresence bilan(String cne, String module, String semestre) {
+        BilanPresence bilan = new BilanPresence(cne, module, semestre, 0, 0, 0.0, 0.0);
+        PresenceBitmap bitmap = presenceBitmapRepository
+                .findByCneAndModuleAndSemestre(cne, module, semestre).orElse(null);
+        if (bitmap == null) {
+            return bilan;
+        }
+
+        BitSet absences = bitmap.absencesBits();
+        BitSet justifiees = bitmap.justifieesBits();
+        justifiees.and(absences);
+        BitSet nonJustifiees = (BitSet) absences.clone();
+        nonJustifiees.andNot(justifiees);
+
+        double[] durees = durees(module, semestre);
+        bilan.setSeancesAbsentes(absences.cardinality());
+        bilan.setSeancesJustifiees(justifiees.cardinality());
+        bilan.setHeuresJustifiees(somme(justifiees, durees));
+        bilan.setHeuresNonJustifiees(somme(nonJustifiees, durees));
+        return bilan;
+    }
+
+    // Durée de chaque séance, indexée par position
+    private double[] durees(String module, String semestre) {
+        List<Seance> seances = seanceRepository.findByModuleAndSemestreOrderByPosition(module, semestre);
+        double[] durees = new double[seances.isEmpty() ? 0 : seances.get(seances.size() - 1).getPosition() + 1];
+        for (Seance seance : seances) {
+            durees[seance.getPosition()] = seance.getDuree();
+        }
+        return durees;
+    }
+
+    private double somme(BitSet positions, double[] durees) {
+        double total = 0;
+        for (int i = positions.nextSetBit(0); i >= 0 && i < durees.length; i = positions.nextSetBit(i + 1)) {
+            total += durees[i];
+        }
+        return total;
+    }
+
+    private Map<String, PresenceBitmap> chargerOuCreer(String module, String semestre, Set<String> cnes) {
+        Map<String, PresenceBitmap> bitmaps = new HashMap<>();
+        for (PresenceBitmap bitmap : presenceBitmapRepository.findByModuleAndSemestreAndCneIn(module, semestre, cnes)) {
+            bitmaps.put(bitmap.getCne(), bitmap);
+        }
+        for (String cne : cnes) {
+            bitmaps.computeIfAbsent(cne, c -> new PresenceBitmap(c, module, semestre));
+        }
+        return bitmaps;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.gestionabsencespringboot.alerte;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.event.EtudiantAbsenceChangeEvent;
+import org.example.gestionabsencespringboot.event.ListeNoireEvent;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Index des listes noires: la ligne relue en base fait foi, une lecture dépassée est ignorée
+ */
+@ExtendWith(MockitoExtension.class)
+class ListeNoireIndexTest {
+
+    @Mock
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ListeNoireIndex index;
+
+    // Contenu de la table, relu par findById
+    private final Map<Long, EtudiantAbsence> enBase = new HashMap<>();
+    // Transactions ouvertes par l'index pour relire
+    private int nouvellesTransactions;
+    private boolean dansNouvelleTransaction;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "seuils", List.of(0.5));
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            TransactionDefinition definition = inv.getArgument(0);
+            assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getPropagationBehavior());
+            nouvellesTransactions++;
+            dansNouvelleTransaction = true;
+            return new SimpleTransactionStatus(true);
+        });
+        lenient().doAnswer(inv -> dansNouvelleTransaction = false).when(transactionManager).commit(any());
+        lenient().when(etudiantAbsenceRepository.findById(any()))
+                .thenAnswer(inv -> Optional.ofNullable(enBase.get(inv.<Long>getArgument(0))));
+        index.initialiser();
+    }
+
+    private static EtudiantAbsence etudiant(Long id, double heures) {
+        return new EtudiantAbsence(id, "Nom" + id, "Prenom", "C" + id, "L1", heures, 100.0, "Java", null);
+    }
+
+    private void demarrer(EtudiantAbsence... etudiants) {
+        for (EtudiantAbsence etudiant : etudiants) {
+            enBase.put(etudiant.getId(), etudiant);
+        }
+        when(etudiantAbsenceRepository.findAll()).thenReturn(List.copyOf(enBase.values()));
+        index.reconstruire();
+    }
+
+    private static EtudiantAbsenceChangeEvent modification(EtudiantAbsence avant, EtudiantAbsence apres) {
+        return new EtudiantAbsenceChangeEvent(EtudiantAbsenceChangeEvent.Type.MODIFICATION, avant, apres);
+    }
+
+    @Test
+    void reconstructionClasseLesEtudiantsParSeuil() {
+        demarrer(etudiant(1L, 80.0), etudiant(2L, 10.0), etudiant(3L, 60.0));
+
+        assertTrue(index.couvre(0.5));
+        assertEquals(List.of(1L, 3L), index.liste(0.5).stream().map(EtudiantAbsence::getId).toList());
+        assertEquals(2L, index.compter(0.5));
+        assertFalse(index.contient(2L, 0.5));
+        assertNull(index.contient(99L, 0.5));
+    }
+
+    @Test
+    void entreeEtSortiePublieesDepuisLaLigneRelue() {
+        demarrer(etudiant(1L, 10.0));
+
+        enBase.put(1L, etudiant(1L, 70.0));
+        // L'état porté par l'événement est ignoré au profit de la base
+        index.onChange(modification(etudiant(1L, 10.0), etudiant(1L, 20.0)));
+        assertTrue(index.contient(1L, 0.5));
+
+        enBase.put(1L, etudiant(1L, 30.0));
+        index.onChange(modification(etudiant(1L, 70.0), etudiant(1L, 30.0)));
+        assertFalse(index.contient(1L, 0.5));
+
+        ArgumentCaptor<ListeNoireEvent> captor = ArgumentCaptor.forClass(ListeNoireEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(ListeNoireEvent.Type.ENTREE, captor.getAllValues().get(0).getType());
+        assertEquals(ListeNoireEvent.Type.SORTIE, captor.getAllValues().get(1).getType());
+        assertEquals(0.3, captor.getAllValues().get(1).getTauxAbsence());
+    }
+
+    @Test
+    void lectureDepasseeNEcrasePasUnEtatPlusRecent() {
+        demarrer(etudiant(1L, 10.0));
+
+        // Le listener du premier commit lit l'ancien état; avant qu'il applique sa lecture,
+        // un second commit passe en base et son listener s'exécute entièrement
+        when(etudiantAbsenceRepository.findById(1L))
+                .thenAnswer(inv -> {
+                    EtudiantAbsence lu = enBase.get(1L).copie();
+                    enBase.put(1L, etudiant(1L, 90.0));
+                    index.onChange(modification(etudiant(1L, 10.0), etudiant(1L, 90.0)));
+                    return Optional.of(lu);
+                })
+                .thenAnswer(inv -> Optional.of(enBase.get(1L)));
+
+        index.onChange(modification(etudiant(1L, 10.0), etudiant(1L, 10.0)));
+
+        assertTrue(index.contient(1L, 0.5));
+        assertEquals(90.0, index.liste(0.5).get(0).getHeuresAbsence());
+        verify(eventPublisher, times(1)).publishEvent(any(ListeNoireEvent.class));
+    }
+
+    @Test
+    void deuxCommitsEntrelacesLIndexGardeLaDerniereLigneValidee() {
+        demarrer(etudiant(1L, 10.0));
+        // Hors nouvelle transaction, findById rendrait l'entité en cache de la transaction qui vient de valider
+        Map<Long, EtudiantAbsence> cacheDeLaTransaction = new HashMap<>();
+        when(etudiantAbsenceRepository.findById(1L)).thenAnswer(inv -> Optional.of(dansNouvelleTransaction
+                ? enBase.get(1L) : cacheDeLaTransaction.get(1L)));
+
+        // T1 valide 70 h, puis T2 valide 30 h; le listener de T2 s'exécute avant celui de T1
+        enBase.put(1L, etudiant(1L, 70.0));
+        enBase.put(1L, etudiant(1L, 30.0));
+        cacheDeLaTransaction.put(1L, etudiant(1L, 30.0));
+        index.onChange(modification(etudiant(1L, 70.0), etudiant(1L, 30.0)));
+        cacheDeLaTransaction.put(1L, etudiant(1L, 70.0));
+        index.onChange(modification(etudiant(1L, 10.0), etudiant(1L, 70.0)));
+
+        assertEquals(2, nouvellesTransactions);
+        assertFalse(index.contient(1L, 0.5));
+        verify(transactionManager, times(2)).commit(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void ligneAbsenteEnBaseRetireLEtudiant() {
+        demarrer(etudiant(1L, 80.0));
+
+        enBase.remove(1L);
+        index.onChange(new EtudiantAbsenceChangeEvent(EtudiantAbsenceChangeEvent.Type.SUPPRESSION, etudiant(1L, 80.0), null));
+
+        assertNull(index.contient(1L, 0.5));
+        assertEquals(0L, index.compter(0.5));
+        ArgumentCaptor<ListeNoireEvent> captor = ArgumentCaptor.forClass(ListeNoireEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(ListeNoireEvent.Type.SORTIE, captor.getValue().getType());
+    }
+
+    @Test
+    void evenementsAvantLaReconstructionIgnores() {
+        index.onChange(modification(null, etudiant(1L, 80.0)));
+
+        verify(etudiantAbsenceRepository, never()).findById(any());
+        verifyNoInteractions(eventPublisher);
+        assertFalse(index.couvre(0.5));
+    }
+}
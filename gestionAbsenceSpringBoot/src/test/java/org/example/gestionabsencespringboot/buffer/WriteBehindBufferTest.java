@@ -0,0 +1,128 @@
+package org.example.gestionabsencespringboot.buffer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.gestionabsencespringboot.dto.HeuresAbsenceResponse;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.service.AbsenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindBufferTest {
+
+    @Mock
+    private AbsenceService absenceService;
+
+    @InjectMocks
+    private WriteBehindBuffer buffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        buffer.arreter();
+    }
+
+    @Test
+    void incrementsDUnMemeCneAdditionnesEnUneTransaction() throws Exception {
+        demarrer(1000, 3, 60_000);
+        when(absenceService.incrementerHeures(List.of(new IncrementHeures("C1", 3.0), new IncrementHeures("C2", 1.0))))
+                .thenReturn(List.of(etat("C1", 3.0), etat("C2", 1.0)));
+
+        CompletableFuture<HeuresAbsenceResponse> premier = buffer.incrementer(new IncrementHeures("C1", 1.0));
+        CompletableFuture<HeuresAbsenceResponse> second = buffer.incrementer(new IncrementHeures("C1", 2.0));
+        CompletableFuture<HeuresAbsenceResponse> autre = buffer.incrementer(new IncrementHeures("C2", 1.0));
+
+        // Les deux dépôts du même CNE reçoivent l'état après la somme des incréments
+        assertEquals(3.0, premier.get(5, TimeUnit.SECONDS).getHeuresAbsence());
+        assertSame(premier.get(), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, autre.get(5, TimeUnit.SECONDS).getHeuresAbsence());
+    }
+
+    @Test
+    void lotEnEchecRejoueUnParUn() throws Exception {
+        demarrer(1000, 2, 60_000);
+        when(absenceService.incrementerHeures(anyList())).thenThrow(new RuntimeException("lot refusé"));
+        when(absenceService.incrementerHeures("C1", 1.0)).thenReturn(etat("C1", 1.0));
+        when(absenceService.incrementerHeures("KO", 1.0)).thenThrow(new RuntimeException("ligne refusée"));
+
+        CompletableFuture<HeuresAbsenceResponse> bon = buffer.incrementer(new IncrementHeures("C1", 1.0));
+        CompletableFuture<HeuresAbsenceResponse> mauvais = buffer.incrementer(new IncrementHeures("KO", 1.0));
+
+        assertEquals(1.0, bon.get(5, TimeUnit.SECONDS).getHeuresAbsence());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> mauvais.get(5, TimeUnit.SECONDS));
+        assertEquals("ligne refusée", e.getCause().getMessage());
+    }
+
+    @Test
+    void ajoutsAppliquesAvantLesIncrementsDuMemeLot() throws Exception {
+        demarrer(1000, 2, 60_000);
+        EtudiantAbsence nouveau = new EtudiantAbsence(null, "Nom", "Prenom", "C1", "L3", 0.0, 100.0, "M1", null);
+        EtudiantAbsence enregistre = new EtudiantAbsence(1L, "Nom", "Prenom", "C1", "L3", 0.0, 100.0, "M1", null);
+        when(absenceService.addAll(List.of(nouveau))).thenReturn(List.of(enregistre));
+        when(absenceService.incrementerHeures(List.of(new IncrementHeures("C1", 2.0))))
+                .thenReturn(List.of(etat("C1", 2.0)));
+
+        CompletableFuture<HeuresAbsenceResponse> increment = buffer.incrementer(new IncrementHeures("C1", 2.0));
+        CompletableFuture<EtudiantAbsence> ajout = buffer.ajouter(nouveau);
+
+        assertSame(enregistre, ajout.get(5, TimeUnit.SECONDS));
+        assertEquals(2.0, increment.get(5, TimeUnit.SECONDS).getHeuresAbsence());
+    }
+
+    @Test
+    void tamponPleinRefuseApresLeDelai() {
+        // Lot jamais atteint et intervalle long: la seule place reste occupée
+        demarrer(1, 100, 60_000);
+        ReflectionTestUtils.setField(buffer, "offerTimeoutMillis", 20L);
+        buffer.incrementer(new IncrementHeures("C1", 1.0));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> buffer.incrementer(new IncrementHeures("C2", 1.0)));
+        assertTrue(e.getMessage().contains("plein"), e.getMessage());
+    }
+
+    @Test
+    void arretAppliqueLesEcrituresEnAttente() throws Exception {
+        demarrer(1000, 100, 60_000);
+        when(absenceService.incrementerHeures(anyList())).thenReturn(List.of(etat("C1", 1.0)));
+
+        CompletableFuture<HeuresAbsenceResponse> depot = buffer.incrementer(new IncrementHeures("C1", 1.0));
+        buffer.arreter();
+
+        assertTrue(depot.isDone());
+        verify(absenceService).incrementerHeures(anyList());
+    }
+
+    private void demarrer(int capacity, int maxBatch, long flushIntervalMillis) {
+        ReflectionTestUtils.setField(buffer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "capacity", capacity);
+        ReflectionTestUtils.setField(buffer, "maxBatch", maxBatch);
+        ReflectionTestUtils.setField(buffer, "flushIntervalMillis", flushIntervalMillis);
+        ReflectionTestUtils.setField(buffer, "offerTimeoutMillis", 1000L);
+        ReflectionTestUtils.setField(buffer, "durableBeforeAck", true);
+        buffer.demarrer();
+    }
+
+    private static HeuresAbsenceResponse etat(String cne, Double heures) {
+        return new HeuresAbsenceResponse(1L, cne, heures, 100.0, heures / 100.0);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.gestionabsencespringboot.controller;
+
+import org.example.commons.pagination.CursorPage;
+import org.example.gestionabsencespringboot.service.AbsenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listes complètes dépréciées au profit des pages par clé
+ */
+@ExtendWith(MockitoExtension.class)
+class AbsenceControllerTest {
+
+    @Mock
+    private AbsenceService absenceService;
+
+    @InjectMocks
+    private AbsenceController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void listesCompletesAnnoncentLeurRemplacement() throws Exception {
+        when(absenceService.getAllEtudiants()).thenReturn(List.of());
+        when(absenceService.blackListCreate(0.5)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/absences/etudiants"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string(HttpHeaders.LINK, "<etudiants/page>; rel=\"successor-version\""));
+        mockMvc.perform(get("/api/absences/liste-noire"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string(HttpHeaders.LINK, "<liste-noire/page>; rel=\"successor-version\""));
+    }
+
+    @Test
+    void pageNonDepreciee() throws Exception {
+        when(absenceService.getEtudiantsPage(any(), any(), any(), any(), eq("Ala")))
+                .thenReturn(new CursorPage<>(List.of(), 0, false, null));
+
+        mockMvc.perform(get("/api/absences/etudiants/page").param("nom", "Ala"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Deprecation"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.gestionabsencespringboot.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * getTauxAbsence() doit suivre la colonne générée taux_absence:
+ * COALESCE(heures_absence / NULLIF(heures_total, 0), 0)
+ */
+class EtudiantAbsenceTest {
+
+    @Test
+    void tauxEgalAbsencesSurTotal() {
+        assertEquals(0.25, etudiant(25.0, 100.0).getTauxAbsence(), 1e-9);
+    }
+
+    @Test
+    void tauxNulSansHeuresDeCours() {
+        assertEquals(0.0, etudiant(10.0, 0.0).getTauxAbsence());
+        assertEquals(0.0, etudiant(10.0, null).getTauxAbsence());
+    }
+
+    @Test
+    void tauxNulSansHeuresAbsence() {
+        assertEquals(0.0, etudiant(null, 100.0).getTauxAbsence());
+    }
+
+    @Test
+    void listeNoireAPartirDuSeuilInclus() {
+        assertTrue(etudiant(50.0, 100.0).estListeNoire(0.5));
+        assertFalse(etudiant(49.0, 100.0).estListeNoire(0.5));
+    }
+
+    @Test
+    void copieDetachee() {
+        EtudiantAbsence original = etudiant(10.0, 100.0);
+        EtudiantAbsence copie = original.copie();
+
+        original.setHeuresAbsence(40.0);
+
+        assertNotSame(original, copie);
+        assertEquals(10.0, copie.getHeuresAbsence());
+        assertEquals(original.getCne(), copie.getCne());
+    }
+
+    private static EtudiantAbsence etudiant(Double heuresAbsence, Double heuresTotal) {
+        return new EtudiantAbsence(1L, "Nom", "Prenom", "C1", "L3", heuresAbsence, heuresTotal, "M1", null);
+    }
+}
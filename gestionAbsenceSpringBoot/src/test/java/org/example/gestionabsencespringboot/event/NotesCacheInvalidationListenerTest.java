@@ -0,0 +1,93 @@
+package org.example.gestionabsencespringboot.event;
+
+import org.example.gestionabsencespringboot.client.NotesClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Invalidation envoyée à chaque instance du service Notes, repli sur Feign sans instance connue
+ */
+@ExtendWith(MockitoExtension.class)
+class NotesCacheInvalidationListenerTest {
+
+    @Mock
+    private NotesClient notesClient;
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    @InjectMocks
+    private NotesCacheInvalidationListener listener;
+
+    private MockRestServiceServer serveur;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        serveur = MockRestServiceServer.bindTo(builder).build();
+        ReflectionTestUtils.setField(listener, "restClient", builder.build());
+    }
+
+    @Test
+    void chaqueInstanceEstInvalidee() {
+        when(discoveryClient.getInstances("gestion-notes-service")).thenReturn(List.of(
+                new DefaultServiceInstance("notes-1", "gestion-notes-service", "notes-1", 8081, false),
+                new DefaultServiceInstance("notes-2", "gestion-notes-service", "notes-2", 8081, false)));
+        serveur.expect(requestTo("http://notes-1:8081/api/notes/cache/taux-absence?id=1&cne=CNE001"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+        serveur.expect(requestTo("http://notes-2:8081/api/notes/cache/taux-absence?id=1&cne=CNE001"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        listener.invalider(1L, "CNE001");
+
+        serveur.verify();
+        verifyNoInteractions(notesClient);
+    }
+
+    @Test
+    void uneInstanceEnErreurNEmpechePasLesAutres() {
+        when(discoveryClient.getInstances("gestion-notes-service")).thenReturn(List.of(
+                new DefaultServiceInstance("notes-1", "gestion-notes-service", "notes-1", 8081, false),
+                new DefaultServiceInstance("notes-2", "gestion-notes-service", "notes-2", 8081, false)));
+        serveur.expect(requestTo("http://notes-1:8081/api/notes/cache/taux-absence?id=1&cne=CNE001"))
+                .andRespond(withServerError());
+        serveur.expect(requestTo("http://notes-2:8081/api/notes/cache/taux-absence?id=1&cne=CNE001"))
+                .andRespond(withSuccess());
+
+        listener.invalider(1L, "CNE001");
+
+        serveur.verify();
+    }
+
+    @Test
+    void sansInstanceConnueRepliSurFeign() {
+        when(discoveryClient.getInstances("gestion-notes-service")).thenReturn(List.of());
+
+        listener.invalider(1L, "CNE001");
+
+        verify(notesClient).invalidateTauxAbsence(1L, "CNE001");
+        serveur.verify();
+    }
+}
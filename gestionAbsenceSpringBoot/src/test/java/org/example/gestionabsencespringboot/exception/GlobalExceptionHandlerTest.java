@@ -0,0 +1,33 @@
+package org.example.gestionabsencespringboot.exception;
+
+import org.example.commons.pagination.CurseurInvalideException;
+import org.example.commons.seuils.SeuilsInvalidesException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    @Test
+    void curseurInvalideDonne400() {
+        ResponseEntity<Map<String, Object>> reponse = new GlobalExceptionHandler()
+                .handleCurseurInvalide(new CurseurInvalideException("xyz"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, reponse.getStatusCode());
+        assertEquals(400, reponse.getBody().get("status"));
+        assertEquals("Curseur de pagination invalide: xyz", reponse.getBody().get("message"));
+    }
+
+    @Test
+    void seuilsInvalidesDonne400() {
+        ResponseEntity<Map<String, Object>> reponse = new GlobalExceptionHandler()
+                .handleSeuilsInvalides(new SeuilsInvalidesException("Seuil manquant"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, reponse.getStatusCode());
+        assertEquals("Seuil manquant", reponse.getBody().get("message"));
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.gestionabsencespringboot.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.example.gestionabsencespringboot.service.AbsenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * API interne gRPC du service Absence, servie en mémoire
+ */
+class AbsenceGrpcServiceTest {
+
+    private final AbsenceService absenceService = mock(AbsenceService.class);
+    private Server serveur;
+    private ManagedChannel canal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AbsenceGrpcService service = new AbsenceGrpcService();
+        ReflectionTestUtils.setField(service, "absenceService", absenceService);
+        String nom = InProcessServerBuilder.generateName();
+        serveur = InProcessServerBuilder.forName(nom)
+                .directExecutor()
+                .addService(service)
+                .build()
+                .start();
+        canal = InProcessChannelBuilder.forName(nom).build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        canal.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        serveur.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void tauxParIdEtParCne() {
+        when(absenceService.read(1L)).thenReturn(0.25);
+        when(absenceService.getTauxAbsenceByCne("C1")).thenReturn(0.5);
+        AbsenceInterneGrpc.AbsenceInterneBlockingStub stub = AbsenceInterneGrpc.newBlockingStub(canal);
+
+        assertEquals(0.25, stub.tauxAbsence(EtudiantRef.newBuilder().setId(1L).build()).getValeur());
+        assertEquals(0.5, stub.tauxAbsence(EtudiantRef.newBuilder().setCne("C1").build()).getValeur());
+    }
+
+    @Test
+    void etudiantInconnuDonneNotFound() {
+        // Le mock rendrait 0.0 pour le Double: l'étudiant inconnu doit donner null
+        when(absenceService.read(9L)).thenReturn(null);
+        AbsenceInterneGrpc.AbsenceInterneBlockingStub stub = AbsenceInterneGrpc.newBlockingStub(canal);
+
+        StatusRuntimeException inconnu = assertThrows(StatusRuntimeException.class,
+                () -> stub.tauxAbsence(EtudiantRef.newBuilder().setId(9L).build()));
+        StatusRuntimeException sansCle = assertThrows(StatusRuntimeException.class,
+                () -> stub.tauxAbsence(EtudiantRef.getDefaultInstance()));
+
+        assertEquals(Status.Code.NOT_FOUND, inconnu.getStatus().getCode());
+        assertEquals(Status.Code.NOT_FOUND, sansCle.getStatus().getCode());
+    }
+
+    @Test
+    void listeNoireAvecSeuilParDefaut() {
+        when(absenceService.isListeNoire(1L, 0.5)).thenReturn(true);
+
+        assertTrue(AbsenceInterneGrpc.newBlockingStub(canal)
+                .listeNoire(ListeNoireRequete.newBuilder().setId(1L).build()).getValeur());
+        verify(absenceService).isListeNoire(1L, 0.5);
+    }
+
+    @Test
+    void fluxRepondUnLotParLotEnOmettantLesClesSansTaux() throws Exception {
+        Map<Long, Double> premier = new HashMap<>();
+        premier.put(1L, 0.1);
+        premier.put(2L, null);
+        when(absenceService.getTauxAbsenceByIds(List.of(1L, 2L))).thenReturn(premier);
+        when(absenceService.getTauxAbsenceByCnes(List.of("C3"))).thenReturn(Map.of("C3", 0.3));
+
+        List<LotValeurs> recus = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> fin = new CompletableFuture<>();
+        StreamObserver<LotRefs> envoi = AbsenceInterneGrpc.newStub(canal).fluxTauxAbsence(new StreamObserver<>() {
+            @Override
+            public void onNext(LotValeurs lot) {
+                recus.add(lot);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fin.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                fin.complete(null);
+            }
+        });
+        envoi.onNext(LotRefs.newBuilder().addAllIds(List.of(1L, 2L)).build());
+        envoi.onNext(LotRefs.newBuilder().addCnes("C3").build());
+        envoi.onCompleted();
+        fin.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, recus.size());
+        assertEquals(List.of(1L), recus.get(0).getIdsList());
+        assertEquals(List.of(0.1), recus.get(0).getValeursList());
+        assertEquals(List.of("C3"), recus.get(1).getCnesList());
+        assertEquals(List.of(0.3), recus.get(1).getValeursList());
+    }
+}
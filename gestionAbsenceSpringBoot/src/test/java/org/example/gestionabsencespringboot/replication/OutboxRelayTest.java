@@ -0,0 +1,145 @@
+package org.example.gestionabsencespringboot.replication;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.gestionabsencespringboot.entity.OutboxEvent;
+import org.example.gestionabsencespringboot.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Relais de l'outbox avec un transport local: ordre, suppression après livraison, nouvel essai
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final TransportEnMemoire transport = new TransportEnMemoire();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelay relay = new OutboxRelay();
+
+    // Contenu de la table outbox_events, trié par id
+    private final List<OutboxEvent> outbox = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(relay, "transport", transport);
+        ReflectionTestUtils.setField(relay, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        // Pas de passage automatique pendant le test: relayer() est appelé à la main
+        ReflectionTestUtils.setField(relay, "intervalMillis", 3_600_000L);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        relay.demarrer();
+
+        lenient().when(outboxEventRepository.findLot(any(Pageable.class))).thenAnswer(inv -> {
+            Pageable page = inv.getArgument(0);
+            return new ArrayList<>(outbox.subList(0, Math.min(page.getPageSize(), outbox.size())));
+        });
+        lenient().doAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            outbox.removeIf(o -> ids.contains(o.getId()));
+            return null;
+        }).when(outboxEventRepository).deleteAllByIdInBatch(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    private void ecrire(long id, String cne, Double taux) {
+        outbox.add(new OutboxEvent(id, id * 10, cne, taux, taux == null, 1000L + id));
+    }
+
+    @Test
+    void lotsLivresDansLOrdrePuisSupprimes() {
+        ecrire(1, "C1", 0.1);
+        ecrire(2, "C2", 0.2);
+        ecrire(3, "C1", 0.3);
+
+        relay.relayer();
+
+        assertEquals(List.of(1L, 2L, 3L), transport.sequences());
+        assertEquals(2, transport.lots.size());
+        assertTrue(outbox.isEmpty());
+        assertEquals(3.0, meterRegistry.counter("absence.outbox.envoyes").count());
+    }
+
+    @Test
+    void champsDeLEvenementRecopies() {
+        ecrire(7, "C7", null);
+
+        relay.relayer();
+
+        var evenement = transport.lots.get(0).get(0);
+        assertEquals("C7", evenement.getCne());
+        assertEquals(70L, evenement.getEtudiantId());
+        assertTrue(evenement.isSupprime());
+        assertEquals(1007L, evenement.getHorodatage());
+    }
+
+    @Test
+    void echecDeLivraisonConserveLeLotPourLePassageSuivant() {
+        ecrire(1, "C1", 0.1);
+        ecrire(2, "C2", 0.2);
+        transport.echecs = 1;
+
+        relay.relayer();
+
+        assertEquals(2, outbox.size());
+        assertTrue(transport.lots.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("absence.outbox.echecs").count());
+
+        relay.relayer();
+
+        // Même lot renvoyé, dans le même ordre
+        assertEquals(List.of(1L, 2L), transport.sequences());
+        assertTrue(outbox.isEmpty());
+    }
+
+    @Test
+    void echecAuMilieuNeLivrePasLesLotsSuivants() {
+        ecrire(1, "C1", 0.1);
+        ecrire(2, "C2", 0.2);
+        ecrire(3, "C3", 0.3);
+        ecrire(4, "C4", 0.4);
+
+        relay.relayer();
+        assertEquals(List.of(1L, 2L, 3L, 4L), transport.sequences());
+
+        ecrire(5, "C5", 0.5);
+        ecrire(6, "C6", 0.6);
+        ecrire(7, "C7", 0.7);
+        transport.echecs = 1;
+        relay.relayer();
+
+        // Rien n'a été livré après l'échec: le lot 5-6 reste en tête de l'outbox
+        assertEquals(List.of(1L, 2L, 3L, 4L), transport.sequences());
+        assertEquals(3, outbox.size());
+        relay.relayer();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), transport.sequences());
+    }
+
+    @Test
+    void outboxVideAucunEnvoi() {
+        relay.relayer();
+
+        assertTrue(transport.lots.isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.gestionabsencespringboot.replication;
+
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.entity.OutboxEvent;
+import org.example.gestionabsencespringboot.event.EtudiantAbsenceChangeEvent;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.example.gestionabsencespringboot.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @InjectMocks
+    private OutboxWriter outboxWriter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxWriter, "enabled", true);
+    }
+
+    private static EtudiantAbsence etudiant(String cne, double heures) {
+        return new EtudiantAbsence(1L, "Nom", "Prenom", cne, "L1", heures, 100.0, "Java", null);
+    }
+
+    @Test
+    void modificationEcritLeNouveauTaux() {
+        outboxWriter.onChange(new EtudiantAbsenceChangeEvent(EtudiantAbsenceChangeEvent.Type.MODIFICATION,
+                etudiant("C1", 10.0), etudiant("C1", 40.0)));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).flush();
+        verify(outboxEventRepository).save(captor.capture());
+        assertEquals("C1", captor.getValue().getCne());
+        assertEquals(0.4, captor.getValue().getTauxAbsence());
+        assertFalse(captor.getValue().isSupprime());
+    }
+
+    @Test
+    void suppressionEcritUnEvenementSupprime() {
+        outboxWriter.onChange(new EtudiantAbsenceChangeEvent(EtudiantAbsenceChangeEvent.Type.SUPPRESSION,
+                etudiant("C1", 10.0), null));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+        assertTrue(captor.getValue().isSupprime());
+        assertNull(captor.getValue().getTauxAbsence());
+    }
+
+    @Test
+    void changementDeCneRetireLAncienCneDAbord() {
+        outboxWriter.onChange(new EtudiantAbsenceChangeEvent(EtudiantAbsenceChangeEvent.Type.MODIFICATION,
+                etudiant("ANCIEN", 10.0), etudiant("NOUVEAU", 10.0)));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(2)).save(captor.capture());
+        assertEquals("ANCIEN", captor.getAllValues().get(0).getCne());
+        assertTrue(captor.getAllValues().get(0).isSupprime());
+        assertEquals("NOUVEAU", captor.getAllValues().get(1).getCne());
+        assertFalse(captor.getAllValues().get(1).isSupprime());
+    }
+
+    @Test
+    void desactiveNEcritRien() {
+        ReflectionTestUtils.setField(outboxWriter, "enabled", false);
+
+        outboxWriter.onChange(new EtudiantAbsenceChangeEvent(EtudiantAbsenceChangeEvent.Type.CREATION,
+                null, etudiant("C1", 0.0)));
+
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void instantaneEcritTousLesEtudiants() {
+        when(etudiantAbsenceRepository.findAll()).thenReturn(List.of(etudiant("C1", 0.0), etudiant("C2", 50.0)));
+
+        assertEquals(2, outboxWriter.ecrireInstantane());
+        verify(outboxEventRepository).saveAll(anyList());
+    }
+}
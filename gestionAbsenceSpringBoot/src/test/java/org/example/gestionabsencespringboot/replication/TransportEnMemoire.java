@@ -0,0 +1,35 @@
+package org.example.gestionabsencespringboot.replication;
+
+import org.example.gestionabsencespringboot.dto.TauxAbsenceEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport de réplication local pour les tests: garde les lots reçus au lieu de les pousser en HTTP
+ * echecs: nombre de prochains envois qui échouent (service Notes indisponible)
+ */
+class TransportEnMemoire implements ReplicationTransport {
+
+    final List<List<TauxAbsenceEvent>> lots = new ArrayList<>();
+    int echecs;
+
+    @Override
+    public void envoyer(List<TauxAbsenceEvent> evenements) {
+        if (echecs > 0) {
+            echecs--;
+            throw new RuntimeException("Service Notes indisponible");
+        }
+        lots.add(List.copyOf(evenements));
+    }
+
+    List<Long> sequences() {
+        List<Long> sequences = new ArrayList<>();
+        for (List<TauxAbsenceEvent> lot : lots) {
+            for (TauxAbsenceEvent evenement : lot) {
+                sequences.add(evenement.getSequence());
+            }
+        }
+        return sequences;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.gestionabsencespringboot.service;
+
+import org.example.gestionabsencespringboot.dto.HeuresAbsenceResponse;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.event.EtudiantAbsenceChangeEvent;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Incréments d'heures d'absence: un lot d'UPDATE atomiques puis une seule relecture, sans verrou explicite
+ */
+@ExtendWith(MockitoExtension.class)
+class AbsenceServiceIncrementTest {
+
+    @Mock
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AbsenceService absenceService;
+
+    @Test
+    void unLotDUpdateTrieParCnePuisUneRelecture() {
+        // Après l'UPDATE: C1 = 2 + 1.5 + 0.5, C2 = 0 + 3
+        when(etudiantAbsenceRepository.findByCneIn(any())).thenReturn(List.of(
+                etudiant(1L, "C1", 4.0), etudiant(2L, "C2", 3.0)));
+
+        List<HeuresAbsenceResponse> resultats = absenceService.incrementerHeures(List.of(
+                new IncrementHeures("C2", 3.0),
+                new IncrementHeures("C1", 1.5),
+                new IncrementHeures("C1", 0.5)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> lot = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), lot.capture());
+        // Regroupés par CNE et envoyés dans l'ordre des CNE: même ordre de verrouillage pour tous les lots
+        assertEquals(2, lot.getValue().size());
+        assertArrayEquals(new Object[]{2.0, "C1"}, lot.getValue().get(0));
+        assertArrayEquals(new Object[]{3.0, "C2"}, lot.getValue().get(1));
+        verifyNoMoreInteractions(jdbcTemplate);
+
+        assertEquals(2, resultats.size());
+        assertEquals(4.0, resultats.get(0).getHeuresAbsence());
+        ArgumentCaptor<EtudiantAbsenceChangeEvent> events = ArgumentCaptor.forClass(EtudiantAbsenceChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(2.0, events.getAllValues().get(0).getAvant().getHeuresAbsence());
+        assertEquals(4.0, events.getAllValues().get(0).getApres().getHeuresAbsence());
+        assertEquals(0.0, events.getAllValues().get(1).getAvant().getHeuresAbsence());
+    }
+
+    @Test
+    void resultatBorneAZeroEtatAvantInconnu() {
+        // GREATEST(2 - 5, 0) = 0: la valeur précédente ne se déduit pas du nouvel état
+        when(etudiantAbsenceRepository.findByCneIn(any())).thenReturn(List.of(etudiant(1L, "C1", 0.0)));
+
+        absenceService.incrementerHeures(List.of(new IncrementHeures("C1", -5.0)));
+
+        ArgumentCaptor<EtudiantAbsenceChangeEvent> event = ArgumentCaptor.forClass(EtudiantAbsenceChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertNull(event.getValue().getAvant().getHeuresAbsence());
+        assertEquals("C1", event.getValue().getAvant().getCne());
+        assertEquals(0.0, event.getValue().getApres().getHeuresAbsence());
+    }
+
+    @Test
+    void cneInconnuIgnore() {
+        when(etudiantAbsenceRepository.findByCneIn(any())).thenReturn(List.of());
+
+        assertNull(absenceService.incrementerHeures("C9", 1.0));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void incrementSansCneRefuse() {
+        assertThrows(RuntimeException.class,
+                () -> absenceService.incrementerHeures(List.of(new IncrementHeures(null, 1.0))));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static EtudiantAbsence etudiant(Long id, String cne, Double heuresAbsence) {
+        return new EtudiantAbsence(id, "Nom" + id, "Prenom" + id, cne, "L3", heuresAbsence, 100.0, "M1", null);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.gestionabsencespringboot.service;
+
+import org.example.gestionabsencespringboot.entity.EtudiantAbsence;
+import org.example.gestionabsencespringboot.repository.EtudiantAbsenceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Taux d'absence en lot: une seule requête, map CNE -> taux sans les CNE inconnus
+ */
+@ExtendWith(MockitoExtension.class)
+class AbsenceServiceTauxLotTest {
+
+    @Mock
+    private EtudiantAbsenceRepository etudiantAbsenceRepository;
+
+    @InjectMocks
+    private AbsenceService absenceService;
+
+    @Test
+    void uneSeuleRequetePourTousLesCne() {
+        when(etudiantAbsenceRepository.findByCneIn(List.of("C1", "C2", "INCONNU"))).thenReturn(List.of(
+                etudiant(1L, "C1", 10.0, 100.0),
+                etudiant(2L, "C2", 0.0, 0.0)));
+
+        Map<String, Double> taux = absenceService.getTauxAbsenceByCnes(List.of("C1", "C2", "INCONNU"));
+
+        verify(etudiantAbsenceRepository, times(1)).findByCneIn(anyCollection());
+        assertEquals(2, taux.size());
+        assertEquals(0.1, taux.get("C1"), 1e-9);
+        // Aucune heure de cours: taux nul plutôt qu'une division par zéro
+        assertEquals(0.0, taux.get("C2"), 1e-9);
+        assertFalse(taux.containsKey("INCONNU"));
+    }
+
+    @Test
+    void listeVideSansRequete() {
+        assertTrue(absenceService.getTauxAbsenceByCnes(List.of()).isEmpty());
+        assertTrue(absenceService.getTauxAbsenceByCnes(null).isEmpty());
+        verify(etudiantAbsenceRepository, never()).findByCneIn(anyCollection());
+    }
+
+    private static EtudiantAbsence etudiant(Long id, String cne, Double heuresAbsence, Double heuresTotal) {
+        return new EtudiantAbsence(id, "Nom" + id, "Prenom" + id, cne, "L3", heuresAbsence, heuresTotal, "M1", null);
+    }
+}
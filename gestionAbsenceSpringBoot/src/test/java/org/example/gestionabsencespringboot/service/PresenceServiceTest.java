@@ -0,0 +1,160 @@
+package org.example.gestionabsencespringboot.service;
+
+import org.example.gestionabsencespringboot.dto.BilanPresence;
+import org.example.gestionabsencespringboot.dto.IncrementHeures;
+import org.example.gestionabsencespringboot.dto.SeanceRequest;
+import org.example.gestionabsencespringboot.entity.PresenceBitmap;
+import org.example.gestionabsencespringboot.entity.Seance;
+import org.example.gestionabsencespringboot.repository.PresenceBitmapRepository;
+import org.example.gestionabsencespringboot.repository.SeanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 4);
+
+    @Mock
+    private SeanceRepository seanceRepository;
+
+    @Mock
+    private PresenceBitmapRepository presenceBitmapRepository;
+
+    @Mock
+    private AbsenceService absenceService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void positionPriseParUneSeanceConcurrenteRejouee() {
+        // Une autre séance a pris la position 4 entre la lecture du MAX et l'INSERT
+        when(seanceRepository.findProchainePosition("M1", "S1")).thenReturn(4, 5);
+        when(seanceRepository.save(any(Seance.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_seances_position'"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Seance seance = presenceService.enregistrerSeance(requete(null, null));
+
+        assertEquals(5, seance.getPosition());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void conflitsRepetesAbandonnes() {
+        when(seanceRepository.findProchainePosition("M1", "S1")).thenReturn(4);
+        when(seanceRepository.save(any(Seance.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'uk_seances_position'"));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> presenceService.enregistrerSeance(requete(List.of("C1"), null)));
+
+        assertTrue(e.getMessage().contains("3 tentatives"), e.getMessage());
+        verify(seanceRepository, times(3)).save(any(Seance.class));
+    }
+
+    @Test
+    void listesAbsentesTraiteesCommeVides() {
+        when(seanceRepository.findProchainePosition("M1", "S1")).thenReturn(0);
+        when(seanceRepository.save(any(Seance.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Seance seance = presenceService.enregistrerSeance(requete(null, null));
+
+        assertEquals(0, seance.getPosition());
+        verifyNoInteractions(presenceBitmapRepository, absenceService);
+    }
+
+    @Test
+    void justifiesSansAbsentsMarquesAbsentsEtJustifies() {
+        when(seanceRepository.findProchainePosition("M1", "S1")).thenReturn(2);
+        when(seanceRepository.save(any(Seance.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(presenceBitmapRepository.findByModuleAndSemestreAndCneIn(any(), any(), any())).thenReturn(List.of());
+
+        presenceService.enregistrerSeance(requete(null, List.of("C1")));
+
+        verify(presenceBitmapRepository).saveAllAndFlush(argThat((Iterable<PresenceBitmap> bitmaps) -> {
+            PresenceBitmap bitmap = bitmaps.iterator().next();
+            return bitmap.absencesBits().get(2) && bitmap.justifieesBits().get(2);
+        }));
+        verify(absenceService).incrementerHeures(List.of(new IncrementHeures("C1", 1.5)));
+    }
+
+    @Test
+    void seriesDAbsencesConsecutives() {
+        when(presenceBitmapRepository.findByModuleAndSemestre("M1", "S1")).thenReturn(List.of(
+                bitmap("SERIE", 0, 3, 4, 5),
+                bitmap("ECARTEES", 0, 2, 4, 6, 8),
+                bitmap("AU_BORD", 62, 63, 64),
+                bitmap("AUCUNE")));
+
+        assertEquals(List.of("SERIE", "AU_BORD"), presenceService.absencesConsecutives("M1", "S1", 3));
+        assertEquals(List.of("SERIE", "ECARTEES", "AU_BORD"), presenceService.absencesConsecutives("M1", "S1", 1));
+        assertEquals(List.of(), presenceService.absencesConsecutives("M1", "S1", 4));
+    }
+
+    @Test
+    void bilanDesHeuresJustifieesEtNonJustifiees() {
+        PresenceBitmap bitmap = bitmap("C1", 0, 1, 3);
+        bitmap.marquerJustifiee(1);
+        // Justification d'une séance où l'étudiant était présent: ignorée
+        bitmap.marquerJustifiee(2);
+        when(presenceBitmapRepository.findByCneAndModuleAndSemestre("C1", "M1", "S1")).thenReturn(Optional.of(bitmap));
+        when(seanceRepository.findByModuleAndSemestreOrderByPosition("M1", "S1")).thenReturn(List.of(
+                seance(0, 2.0), seance(1, 1.5), seance(2, 2.0), seance(3, 3.0)));
+
+        BilanPresence bilan = presenceService.bilan("C1", "M1", "S1");
+
+        assertEquals(3, bilan.getSeancesAbsentes());
+        assertEquals(1, bilan.getSeancesJustifiees());
+        assertEquals(1.5, bilan.getHeuresJustifiees());
+        assertEquals(5.0, bilan.getHeuresNonJustifiees());
+    }
+
+    private static SeanceRequest requete(List<String> absents, List<String> justifies) {
+        return new SeanceRequest("M1", "S1", DATE, 1.5, absents, justifies);
+    }
+
+    private static PresenceBitmap bitmap(String cne, int... positions) {
+        PresenceBitmap bitmap = new PresenceBitmap(cne, "M1", "S1");
+        for (int position : positions) {
+            bitmap.marquerAbsent(position);
+        }
+        return bitmap;
+    }
+
+    private static Seance seance(int position, double duree) {
+        return new Seance((long) position, "M1", "S1", DATE, duree, position);
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.gestionnotesspringboot.bulletin;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.gestionnotesspringboot.entity.Bulletin;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.entity.TauxAbsenceReplica;
+import org.example.gestionnotesspringboot.event.EtudiantsModifiesEvent;
+import org.example.gestionnotesspringboot.event.TauxAbsenceRepliqueEvent;
+import org.example.gestionnotesspringboot.repository.BulletinRepository;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.example.gestionnotesspringboot.repository.TauxAbsenceReplicaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintient la table des bulletins (modèle de lecture notes + absences)
+ *
+ * Reconstruite au démarrage, puis mise à jour par lot après chaque commit, une transaction par lot:
+ * - EtudiantsModifiesEvent: étudiants créés, modifiés ou supprimés par une écriture
+ * - TauxAbsenceRepliqueEvent: taux d'absence répliqués depuis le service Absence
+ * Les étudiants sont relus en base et les bulletins écrits par INSERT ... ON DUPLICATE KEY UPDATE
+ * (pas de lecture préalable du bulletin). Les taux viennent uniquement de la réplique locale.
+ *
+ * Un lot en échec est journalisé et ses étudiants sont marqués à réconcilier: ils sont
+ * recalculés au passage suivant du réconciliateur (notes.bulletin.reconciliation-interval-ms).
+ */
+@Component
+public class BulletinProjection {
+
+    private static final String UPSERT =
+            "INSERT INTO bulletins (etudiant_id, cne, nom, prenom, module, niveau, moyenne, taux_absence, " +
+            "note_finale, valide, liste_noire, maj_le, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE cne = VALUES(cne), nom = VALUES(nom), prenom = VALUES(prenom), " +
+            "module = VALUES(module), niveau = VALUES(niveau), moyenne = VALUES(moyenne), " +
+            "taux_absence = VALUES(taux_absence), note_finale = VALUES(note_finale), valide = VALUES(valide), " +
+            "liste_noire = VALUES(liste_noire), maj_le = VALUES(maj_le), version = version + 1";
+
+    @Autowired
+    private BulletinRepository bulletinRepository;
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private TauxAbsenceReplicaRepository replicaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Taux d'absence (0.0 à 1.0) à partir duquel le bulletin est marqué liste noire
+    @Value("${notes.bulletin.seuil-liste-noire:0.5}")
+    private double seuilListeNoire;
+
+    @Value("${notes.bulletin.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notes.bulletin.reconciliation-interval-ms:30000}")
+    private long reconciliationIntervalMillis;
+
+    // Étudiants dont le bulletin n'a pas pu être mis à jour
+    private final Set<Long> aReconcilier = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate nouvelleTransaction;
+    private ScheduledExecutorService reconciliateur;
+
+    @PostConstruct
+    public void demarrer() {
+        // Les écouteurs s'exécutent après le commit de l'écriture: chaque lot a sa propre transaction
+        nouvelleTransaction = new TransactionTemplate(transactionManager);
+        nouvelleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        reconciliateur = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulletin-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciliateur.scheduleWithFixedDelay(this::reconcilier,
+                reconciliationIntervalMillis, reconciliationIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (reconciliateur != null) {
+            reconciliateur.shutdown();
+        }
+    }
+
+    /**
+     * Reconstruit tous les bulletins (après l'initialisation des données)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruire() {
+        aReconcilier.clear();
+        Map<String, Double> taux = new HashMap<>();
+        for (TauxAbsenceReplica replica : replicaRepository.findAll()) {
+            taux.put(replica.getCne(), replica.getTauxAbsence());
+        }
+        bulletinRepository.deleteAllInBatch();
+        List<Bulletin> bulletins = new ArrayList<>();
+        for (Etudiant etudiant : etudiantRepository.findAll()) {
+            bulletins.add(calculer(etudiant, taux.get(etudiant.getCne())));
+        }
+        bulletinRepository.saveAll(bulletins);
+        System.out.println("✅ Bulletins construits pour " + bulletins.size() + " étudiants");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEtudiantsModifies(EtudiantsModifiesEvent event) {
+        projeter(event.getIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTauxRepliques(TauxAbsenceRepliqueEvent event) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (Etudiant etudiant : etudiantRepository.findByCneIn(event.getCnes())) {
+                ids.add(etudiant.getId());
+            }
+        } catch (RuntimeException e) {
+            // Étudiants non identifiés: seule une reconstruction rattrapera ces bulletins
+            System.err.println("Bulletins non mis à jour pour " + event.getCnes().size()
+                    + " taux répliqués: " + e.getMessage());
+            return;
+        }
+        projeter(ids);
+    }
+
+    /**
+     * Recalcule les bulletins marqués à réconcilier après un échec
+     */
+    public void reconcilier() {
+        if (aReconcilier.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(aReconcilier);
+        aReconcilier.removeAll(ids);
+        if (projeter(ids)) {
+            System.out.println("✅ " + ids.size() + " bulletins réconciliés");
+        }
+    }
+
+    public int getNombreAReconcilier() {
+        return aReconcilier.size();
+    }
+
+    /**
+     * Recalcule les bulletins des étudiants donnés en une transaction (suppression si l'étudiant n'existe plus)
+     * @return false si le lot a échoué (étudiants marqués à réconcilier)
+     */
+    boolean projeter(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        try {
+            nouvelleTransaction.executeWithoutResult(status -> ecrire(ids));
+            return true;
+        } catch (RuntimeException e) {
+            aReconcilier.addAll(ids);
+            System.err.println("Bulletins non mis à jour pour " + ids.size()
+                    + " étudiants (marqués à réconcilier): " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void ecrire(Collection<Long> ids) {
+        List<Etudiant> etudiants = etudiantRepository.findAllById(ids);
+        List<String> cnes = new ArrayList<>(etudiants.size());
+        for (Etudiant etudiant : etudiants) {
+            if (etudiant.getCne() != null) {
+                cnes.add(etudiant.getCne());
+            }
+        }
+        Map<String, Double> taux = new HashMap<>();
+        for (TauxAbsenceReplica replica : replicaRepository.findAllById(cnes)) {
+            taux.put(replica.getCne(), replica.getTauxAbsence());
+        }
+
+        Set<Long> supprimes = new HashSet<>(ids);
+        List<Bulletin> bulletins = new ArrayList<>(etudiants.size());
+        for (Etudiant etudiant : etudiants) {
+            supprimes.remove(etudiant.getId());
+            // CNE inconnu ou supprimé de la réplique: taux null
+            bulletins.add(calculer(etudiant, taux.get(etudiant.getCne())));
+        }
+        if (!supprimes.isEmpty()) {
+            bulletinRepository.deleteAllByIdInBatch(supprimes);
+        }
+        jdbcTemplate.batchUpdate(UPSERT, bulletins, batchSize, (ps, b) -> {
+            ps.setLong(1, b.getEtudiantId());
+            ps.setString(2, b.getCne());
+            ps.setString(3, b.getNom());
+            ps.setString(4, b.getPrenom());
+            ps.setString(5, b.getModule());
+            ps.setString(6, b.getNiveau());
+            ps.setObject(7, b.getMoyenne(), Types.DOUBLE);
+            ps.setObject(8, b.getTauxAbsence(), Types.DOUBLE);
+            ps.setObject(9, b.getNoteFinale(), Types.DOUBLE);
+            ps.setBoolean(10, b.isValide());
+            ps.setBoolean(11, b.isListeNoire());
+            ps.setLong(12, b.getMajLe());
+        });
+    }
+
+    // Même règle que NoteService: note finale = moyenne si le taux est inconnu, validé si >= 12
+    private Bulletin calculer(Etudiant etudiant, Double tauxAbsence) {
+        Bulletin bulletin = new Bulletin();
+        double moyenne = etudiant.getMoyenne();
+        double noteFinale = tauxAbsence != null ? etudiant.getNoteFinale(tauxAbsence) : moyenne;
+        bulletin.setEtudiantId(etudiant.getId());
+        bulletin.setCne(etudiant.getCne());
+        bulletin.setNom(etudiant.getNom());
+        bulletin.setPrenom(etudiant.getPrenom());
+        bulletin.setModule(etudiant.getModule());
+        bulletin.setNiveau(etudiant.getNiveau());
+        bulletin.setMoyenne(moyenne);
+        bulletin.setTauxAbsence(tauxAbsence);
+        bulletin.setNoteFinale(noteFinale);
+        bulletin.setValide(noteFinale >= 12.0);
+        bulletin.setListeNoire(tauxAbsence != null && tauxAbsence >= seuilListeNoire);
+        bulletin.setMajLe(System.currentTimeMillis());
+        return bulletin;
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.gestionnotesspringboot.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache local borné avec rafraîchissement en arrière-plan
+ *
+ * - refreshAfter: au-delà, la valeur est encore servie mais rechargée en arrière-plan
+ * - expireAfter: au-delà, la valeur est rechargée de façon synchrone
+ * - maxEntries: au-delà, éviction approximative LRU (on échantillonne quelques entrées
+ *   à des positions aléatoires et on retire la moins récemment utilisée, comme Redis)
+ *
+ * Les valeurs null sont mises en cache (étudiant inconnu), l'invalidation les retire.
+ * Une valeur chargée n'est mise en cache que si la clé n'a pas été invalidée pendant le
+ * chargement (génération par tranche de clés, relevée avant l'appel au loader).
+ * Les lectures sont sans verrou; les écritures (put, invalidation, éviction) passent par un verrou.
+ * Métriques (tag cache): cache.gets{result=hit|miss}, cache.evictions, cache.size
+ */
+public class LocalCache<K, V> {
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+    private static final int GENERATION_STRIPES = 1024;
+    private static final long SANS_JETON = -1;
+
+    private final long refreshAfterNanos;
+    private final long expireAfterNanos;
+    private final int maxEntries;
+    private final Executor refreshExecutor;
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    // Clés indexées par position pour l'échantillonnage (Entry.position), protégées par verrou
+    private final Object verrou = new Object();
+    private final ArrayList<K> positions = new ArrayList<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong generationGlobale = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public LocalCache(String name, Duration refreshAfter, Duration expireAfter, int maxEntries,
+                      Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.expireAfterNanos = Math.max(expireAfter.toNanos(), refreshAfterNanos);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.refreshExecutor = refreshExecutor;
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", name).register(meterRegistry);
+    }
+
+    /**
+     * Retourne la valeur en cache, ou la charge avec loader si absente ou expirée
+     */
+    public V get(K key, Function<K, V> loader) {
+        long maintenant = System.nanoTime();
+        Entry<K, V> entry = entries.get(key);
+
+        if (entry != null && maintenant - entry.loadedAt < expireAfterNanos) {
+            hits.increment();
+            entry.lastAccess = maintenant;
+            if (maintenant - entry.loadedAt >= refreshAfterNanos) {
+                rafraichir(key, entry, loader);
+            }
+            return entry.value;
+        }
+
+        misses.increment();
+        long jeton = generation(key);
+        V value = loader.apply(key);
+        inserer(key, value, jeton);
+        return value;
+    }
+
+    /**
+     * Retourne les valeurs de plusieurs clés; les clés absentes ou expirées
+     * sont chargées en un seul appel à batchLoader
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> batchLoader) {
+        long maintenant = System.nanoTime();
+        Map<K, V> resultats = new HashMap<>();
+        List<K> manquants = new ArrayList<>();
+        List<Long> jetons = new ArrayList<>();
+
+        for (K key : keys) {
+            Entry<K, V> entry = entries.get(key);
+            if (entry != null && maintenant - entry.loadedAt < expireAfterNanos) {
+                hits.increment();
+                entry.lastAccess = maintenant;
+                resultats.put(key, entry.value);
+            } else {
+                misses.increment();
+                manquants.add(key);
+                jetons.add(generation(key));
+            }
+        }
+
+        if (!manquants.isEmpty()) {
+            Map<K, V> charges = batchLoader.apply(manquants);
+            for (int i = 0; i < manquants.size(); i++) {
+                K key = manquants.get(i);
+                V value = charges != null ? charges.get(key) : null;
+                inserer(key, value, jetons.get(i));
+                resultats.put(key, value);
+            }
+        }
+        return resultats;
+    }
+
+    public void put(K key, V value) {
+        inserer(key, value, SANS_JETON);
+    }
+
+    public void invalidate(K key) {
+        synchronized (verrou) {
+            generations.incrementAndGet(tranche(key));
+            retirer(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (verrou) {
+            generationGlobale.incrementAndGet();
+            entries.clear();
+            positions.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Les deux compteurs ne font que croître: leur somme change dès qu'une invalidation touche la clé
+    private long generation(K key) {
+        return generationGlobale.get() + generations.get(tranche(key));
+    }
+
+    private static int tranche(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private void inserer(K key, V value, long jeton) {
+        synchronized (verrou) {
+            if (jeton != SANS_JETON && jeton != generation(key)) {
+                // Invalidée pendant le chargement: la valeur est rendue à l'appelant sans être gardée
+                return;
+            }
+            Entry<K, V> nouvelle = new Entry<>(key, value, System.nanoTime());
+            Entry<K, V> ancienne = entries.put(key, nouvelle);
+            if (ancienne != null) {
+                nouvelle.position = ancienne.position;
+            } else {
+                nouvelle.position = positions.size();
+                positions.add(key);
+            }
+            while (entries.size() > maxEntries) {
+                evict();
+            }
+        }
+    }
+
+    private void rafraichir(K key, Entry<K, V> entry, Function<K, V> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    V value = loader.apply(key);
+                    synchronized (verrou) {
+                        // Ne remplace que si l'entrée n'a été ni invalidée ni remplacée entre-temps
+                        if (entries.get(key) == entry) {
+                            Entry<K, V> nouvelle = new Entry<>(key, value, System.nanoTime());
+                            nouvelle.position = entry.position;
+                            entries.put(key, nouvelle);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // On garde la valeur actuelle, une prochaine lecture retentera
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    // Sous verrou
+    private void evict() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        K victime = null;
+        long plusAncien = Long.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE; i++) {
+            Entry<K, V> candidat = entries.get(positions.get(random.nextInt(positions.size())));
+            if (candidat.lastAccess < plusAncien) {
+                plusAncien = candidat.lastAccess;
+                victime = candidat.key;
+            }
+        }
+        if (retirer(victime)) {
+            evictions.increment();
+        }
+    }
+
+    // Sous verrou: la dernière clé prend la position libérée
+    private boolean retirer(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        K derniere = positions.remove(positions.size() - 1);
+        if (entry.position < positions.size()) {
+            positions.set(entry.position, derniere);
+            entries.get(derniere).position = entry.position;
+        }
+        return true;
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long loadedAt;
+        private volatile long lastAccess;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        // Index dans positions, modifié sous verrou
+        private int position;
+
+        private Entry(K key, V value, long loadedAt) {
+            this.key = key;
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.gestionnotesspringboot.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.gestionnotesspringboot.client.AbsenceClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache des taux d'absence devant AbsenceClient
+ *
+ * Deux index: par ID (getTauxAbsence) et par CNE (calcul en masse).
+ * Le service Absence appelle /api/notes/cache/taux-absence sur chaque instance à chaque
+ * add/update/delete pour invalider les entrées concernées.
+ */
+@Component
+public class TauxAbsenceCache {
+
+    private final AbsenceClient absenceClient;
+    private final ExecutorService refreshExecutor;
+    private final LocalCache<Long, Double> parId;
+    private final LocalCache<String, Double> parCne;
+
+    public TauxAbsenceCache(AbsenceClient absenceClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${notes.cache.taux-absence.refresh-after-seconds:60}") long refreshAfterSeconds,
+                            @Value("${notes.cache.taux-absence.expire-after-seconds:600}") long expireAfterSeconds,
+                            @Value("${notes.cache.taux-absence.max-entries:10000}") int maxEntries) {
+        this.absenceClient = absenceClient;
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "taux-absence-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration refreshAfter = Duration.ofSeconds(refreshAfterSeconds);
+        Duration expireAfter = Duration.ofSeconds(expireAfterSeconds);
+        this.parId = new LocalCache<>("taux-absence-id", refreshAfter, expireAfter, maxEntries,
+                refreshExecutor, meterRegistry);
+        this.parCne = new LocalCache<>("taux-absence-cne", refreshAfter, expireAfter, maxEntries,
+                refreshExecutor, meterRegistry);
+    }
+
+    /**
+     * Taux d'absence par ID étudiant (service Absence)
+     */
+    public Double getTauxAbsence(Long etudiantId) {
+        return parId.get(etudiantId, absenceClient::getTauxAbsence);
+    }
+
+    /**
+     * Taux d'absence par CNE, les CNE manquants sont chargés en un seul appel
+     */
+    public Map<String, Double> getTauxAbsenceByCnes(List<String> cnes) {
+        return parCne.getAll(cnes, absenceClient::getTauxAbsenceByCnes);
+    }
+
+    /**
+     * Invalide les entrées d'un étudiant modifié dans le service Absence
+     */
+    public void invalidate(Long etudiantId, String cne) {
+        if (etudiantId != null) {
+            parId.invalidate(etudiantId);
+        }
+        if (cne != null) {
+            parCne.invalidate(cne);
+        }
+    }
+
+    public void invalidateAll() {
+        parId.invalidateAll();
+        parCne.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+}
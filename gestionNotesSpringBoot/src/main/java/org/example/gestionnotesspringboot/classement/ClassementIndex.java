@@ -0,0 +1,241 @@
+package org.example.gestionnotesspringboot.classement;
+
+import org.example.gestionnotesspringboot.dto.ClassementResponse;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.event.EtudiantChangeEvent;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de classement en mémoire des étudiants par moyenne
+ *
+ * Un arbre d'ordre statistique global et un par module, reconstruits depuis la base
+ * au démarrage puis mis à jour à chaque EtudiantChangeEvent (après commit).
+ * L'index ne garde que (moyenne, id) et le module de chaque étudiant: rang, percentile et
+ * majorants sont servis sans requête SQL; les noms du top K sont chargés par clé primaire.
+ * La liste triée complète est servie par la pagination par clé (NoteService), pas par l'index.
+ */
+@Component
+public class ClassementIndex {
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private OrderStatisticTree<Entree> global = new OrderStatisticTree<>();
+    private final Map<String, OrderStatisticTree<Entree>> parModule = new HashMap<>();
+    private final Map<Long, Entree> parId = new HashMap<>();
+
+    /**
+     * Reconstruit l'index depuis la base (après l'initialisation des données)
+     *
+     * La lecture est faite sous le verrou d'écriture: un événement publié pendant la lecture
+     * attend la fin de la reconstruction puis s'applique, au lieu d'être écrasé par la lecture.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        List<Object[]> lignes;
+        lock.writeLock().lock();
+        try {
+            lignes = etudiantRepository.findClassement();
+            parId.clear();
+            parModule.clear();
+            global = new OrderStatisticTree<>();
+            for (Object[] ligne : lignes) {
+                Double moyenne = (Double) ligne[1];
+                ajouter(((Number) ligne[0]).longValue(), moyenne != null ? moyenne : 0.0, (String) ligne[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("✅ Index de classement construit avec " + lignes.size() + " étudiants");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEtudiantChange(EtudiantChangeEvent event) {
+        if (event.getType() == EtudiantChangeEvent.Type.SUPPRESSION) {
+            supprimer(event.getId());
+        } else if (event.getEtudiant() != null) {
+            mettreAJour(event.getEtudiant());
+        }
+    }
+
+    public void mettreAJour(Etudiant etudiant) {
+        lock.writeLock().lock();
+        try {
+            retirer(etudiant.getId());
+            ajouter(etudiant.getId(), etudiant.getMoyenne(), etudiant.getModule());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void supprimer(Long id) {
+        lock.writeLock().lock();
+        try {
+            retirer(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Les k meilleurs étudiants, globalement (module null) ou dans un module
+     * Rangs calculés sous le verrou, noms chargés ensuite en une requête par clé primaire;
+     * un étudiant supprimé entre les deux est omis.
+     */
+    public List<ClassementResponse> top(String module, int k) {
+        List<ClassementResponse> positions = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Entree> arbre = arbre(module);
+            if (arbre == null) {
+                return positions;
+            }
+            for (Entree entree : arbre.top(k)) {
+                positions.add(versReponse(entree, arbre));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (positions.isEmpty()) {
+            return positions;
+        }
+        Map<Long, Etudiant> parCle = etudiantRepository.findAllById(
+                        positions.stream().map(ClassementResponse::getEtudiantId).toList()).stream()
+                .collect(Collectors.toMap(Etudiant::getId, Function.identity()));
+        List<ClassementResponse> resultat = new ArrayList<>(positions.size());
+        for (ClassementResponse position : positions) {
+            Etudiant etudiant = parCle.get(position.getEtudiantId());
+            if (etudiant != null) {
+                resultat.add(completer(position, etudiant));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Les étudiants ayant la meilleure moyenne (majorants)
+     */
+    public List<Long> majorants(String module) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Entree> arbre = arbre(module);
+            List<Long> ids = new ArrayList<>();
+            if (arbre == null || arbre.size() == 0) {
+                return ids;
+            }
+            double max = arbre.maxScore();
+            for (Entree entree : arbre.top(arbre.size() - arbre.countLess(max))) {
+                ids.add(entree.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rang d'un étudiant dans son module (dansSonModule = true) ou globalement
+     * @return null si l'étudiant n'est pas indexé
+     */
+    public ClassementResponse rang(Long id, boolean dansSonModule) {
+        ClassementResponse position;
+        lock.readLock().lock();
+        try {
+            Entree entree = parId.get(id);
+            if (entree == null) {
+                return null;
+            }
+            OrderStatisticTree<Entree> arbre = dansSonModule ? arbre(entree.module) : global;
+            position = versReponse(entree, arbre != null ? arbre : global);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return etudiantRepository.findById(id)
+                .map(etudiant -> completer(position, etudiant))
+                .orElse(null);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return global.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private OrderStatisticTree<Entree> arbre(String module) {
+        return module == null ? global : parModule.get(module);
+    }
+
+    private void ajouter(long id, double moyenne, String module) {
+        // Une seule chaîne par module, partagée par toutes les entrées
+        Entree entree = new Entree(id, moyenne, module != null ? module.intern() : null);
+        parId.put(id, entree);
+        global.insert(moyenne, id, entree);
+        if (entree.module != null) {
+            parModule.computeIfAbsent(entree.module, m -> new OrderStatisticTree<>())
+                    .insert(moyenne, id, entree);
+        }
+    }
+
+    private void retirer(Long id) {
+        Entree ancienne = parId.remove(id);
+        if (ancienne == null) {
+            return;
+        }
+        global.remove(ancienne.moyenne, ancienne.id);
+        if (ancienne.module != null) {
+            OrderStatisticTree<Entree> arbre = parModule.get(ancienne.module);
+            arbre.remove(ancienne.moyenne, ancienne.id);
+            if (arbre.size() == 0) {
+                parModule.remove(ancienne.module);
+            }
+        }
+    }
+
+    private ClassementResponse versReponse(Entree entree, OrderStatisticTree<Entree> arbre) {
+        int total = arbre.size();
+        int superieurs = arbre.countGreater(entree.moyenne);
+        int inferieurs = arbre.countLess(entree.moyenne);
+        int exAequo = total - superieurs - inferieurs;
+        double percentile = total == 0 ? 0.0 : (inferieurs + 0.5 * exAequo) * 100.0 / total;
+        return new ClassementResponse(entree.id, null, null, null, entree.module,
+                entree.moyenne, superieurs + 1, total, percentile);
+    }
+
+    private static ClassementResponse completer(ClassementResponse position, Etudiant etudiant) {
+        position.setCne(etudiant.getCne());
+        position.setNom(etudiant.getNom());
+        position.setPrenom(etudiant.getPrenom());
+        return position;
+    }
+
+    // Clé de classement d'un étudiant: le reste est lu en base à la demande
+    private static final class Entree {
+        private final long id;
+        private final double moyenne;
+        private final String module;
+
+        private Entree(long id, double moyenne, String module) {
+            this.id = id;
+            this.moyenne = moyenne;
+            this.module = module;
+        }
+    }
+}
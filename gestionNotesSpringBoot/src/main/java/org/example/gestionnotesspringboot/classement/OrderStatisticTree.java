@@ -0,0 +1,201 @@
+package org.example.gestionnotesspringboot.classement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Arbre d'ordre statistique (treap avec tailles de sous-arbres)
+ *
+ * Ordre: score décroissant, puis id croissant (le premier élément est le meilleur).
+ * Insertion, suppression, rang et comptages en O(log n) en moyenne,
+ * top K en O(log n + K). Non thread-safe: la synchronisation est faite par l'appelant.
+ */
+public class OrderStatisticTree<V> {
+
+    private Node<V> root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public void insert(double score, long id, V value) {
+        root = insert(root, new Node<>(score, id, value));
+    }
+
+    public boolean remove(double score, long id) {
+        int avant = size();
+        root = remove(root, score, id);
+        return size() < avant;
+    }
+
+    /**
+     * Nombre d'éléments dont le score est strictement supérieur à score
+     */
+    public int countGreater(double score) {
+        int count = 0;
+        Node<V> node = root;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Nombre d'éléments dont le score est strictement inférieur à score
+     */
+    public int countLess(double score) {
+        int count = 0;
+        Node<V> node = root;
+        while (node != null) {
+            if (node.score < score) {
+                count += size(node.right) + 1;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Les k premiers éléments dans l'ordre du classement
+     */
+    public List<V> top(int k) {
+        List<V> resultat = new ArrayList<>(Math.max(0, Math.min(k, size())));
+        collect(root, k, resultat);
+        return resultat;
+    }
+
+    /**
+     * Score du premier élément (NaN si l'arbre est vide)
+     */
+    public double maxScore() {
+        Node<V> node = root;
+        if (node == null) {
+            return Double.NaN;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.score;
+    }
+
+    private void collect(Node<V> node, int k, List<V> resultat) {
+        if (node == null || resultat.size() >= k) {
+            return;
+        }
+        collect(node.left, k, resultat);
+        if (resultat.size() < k) {
+            resultat.add(node.value);
+            collect(node.right, k, resultat);
+        }
+    }
+
+    // Négatif si (s1, id1) est classé avant (s2, id2)
+    private static int compare(double s1, long id1, double s2, long id2) {
+        int parScore = Double.compare(s2, s1);
+        return parScore != 0 ? parScore : Long.compare(id1, id2);
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> nouveau) {
+        if (node == null) {
+            return nouveau;
+        }
+        if (compare(nouveau.score, nouveau.id, node.score, node.id) < 0) {
+            node.left = insert(node.left, nouveau);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, nouveau);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<V> remove(Node<V> node, double score, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, id, node.score, node.id);
+        if (cmp < 0) {
+            node.left = remove(node.left, score, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, score, id);
+        } else {
+            node = merge(node.left, node.right);
+        }
+        if (node != null) {
+            update(node);
+        }
+        return node;
+    }
+
+    private Node<V> merge(Node<V> left, Node<V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static final class Node<V> {
+        private final double score;
+        private final long id;
+        private final V value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<V> left;
+        private Node<V> right;
+
+        private Node(double score, long id, V value) {
+            this.score = score;
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
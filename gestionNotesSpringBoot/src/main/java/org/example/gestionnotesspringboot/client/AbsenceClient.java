@@ -4,8 +4,11 @@ import org.example.gestionnotesspringboot.dto.AbsenceDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Client Feign pour communiquer avec le service Gestion Absence
@@ -13,8 +16,9 @@ import java.util.List;
  * @FeignClient specifie:
  * - name: le nom du service dans Eureka (gestion-absence-service)
  * - Le client utilisera Eureka pour découvrir l'adresse du service
+ * - primary = false: les services injectent CollapsingAbsenceClient qui délègue à ce proxy
  */
-@FeignClient(name = "gestion-absence-service")
+@FeignClient(name = "gestion-absence-service", qualifiers = "absenceFeignClient", primary = false)
 public interface AbsenceClient {
     
     /**
@@ -44,5 +48,20 @@ public interface AbsenceClient {
      */
     @GetMapping("/api/absences/etudiant/{etudiantId}/taux")
     Double getTauxAbsence(@PathVariable("etudiantId") Long etudiantId);
-}
 
+    /**
+     * Récupère les taux d'absence d'un lot d'étudiants identifiés par leur CNE
+     * Appelle: POST http://gestion-absence-service/api/absences/taux/batch
+     * Un seul aller-retour par lot, les CNE inconnus sont absents de la map
+     */
+    @PostMapping("/api/absences/taux/batch")
+    Map<String, Double> getTauxAbsenceByCnes(@RequestBody List<String> cnes);
+
+    /**
+     * Récupère les taux d'absence d'un lot d'étudiants identifiés par leur ID
+     * Appelle: POST http://gestion-absence-service/api/absences/taux/batch/ids
+     * Utilisé par CollapsingAbsenceClient pour regrouper les appels getTauxAbsence
+     */
+    @PostMapping("/api/absences/taux/batch/ids")
+    Map<Long, Double> getTauxAbsenceByIds(@RequestBody List<Long> etudiantIds);
+}
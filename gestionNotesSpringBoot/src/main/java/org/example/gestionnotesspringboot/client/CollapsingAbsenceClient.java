@@ -0,0 +1,92 @@
+package org.example.gestionnotesspringboot.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.commons.client.RequestCollapser;
+import org.example.commons.resilience.ClientResilience;
+import org.example.gestionnotesspringboot.dto.AbsenceDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AbsenceClient injecté par défaut dans les services
+ *
+ * Les appels concurrents à getTauxAbsence sont regroupés pendant une courte fenêtre
+ * et envoyés en un seul POST /api/absences/taux/batch/ids (ou un flux gRPC).
+ * Les autres méthodes sont déléguées au proxy Feign, ou au client gRPC interne
+ * si interne.grpc.client.enabled=true.
+ *
+ * Chaque appel réseau passe par ClientResilience (disjoncteur, cloison) et les lectures
+ * sont servies depuis la dernière valeur connue quand le service Absence est en échec.
+ */
+@Component
+@Primary
+public class CollapsingAbsenceClient implements AbsenceClient {
+
+    private final AbsenceClient delegate;
+    private final boolean enabled;
+    private final RequestCollapser<Long, Double> tauxCollapser;
+    private final ClientResilience resilience;
+
+    public CollapsingAbsenceClient(@Qualifier("absenceFeignClient") AbsenceClient feign,
+                                   GrpcAbsenceClient grpc,
+                                   MeterRegistry meterRegistry,
+                                   Environment env,
+                                   @Value("${interne.grpc.client.enabled:false}") boolean grpcEnabled,
+                                   @Value("${feign.collapsing.enabled:true}") boolean enabled,
+                                   @Value("${feign.collapsing.window-ms:5}") long windowMillis,
+                                   @Value("${feign.collapsing.max-batch-size:200}") int maxBatchSize,
+                                   @Value("${feign.collapsing.threads:2}") int threads) {
+        this.delegate = grpcEnabled ? grpc : feign;
+        this.enabled = enabled;
+        this.resilience = new ClientResilience("gestion-absence-service", env, meterRegistry);
+        this.tauxCollapser = new RequestCollapser<>("absence-taux",
+                ids -> resilience.proteger(() -> delegate.getTauxAbsenceByIds(ids)),
+                windowMillis, maxBatchSize, threads, meterRegistry);
+    }
+
+    @Override
+    public List<AbsenceDTO> getAbsencesByEtudiantId(Long etudiantId) {
+        return resilience.appeler("absences:" + etudiantId, () -> delegate.getAbsencesByEtudiantId(etudiantId));
+    }
+
+    @Override
+    public Long countAbsencesEtudiant(Long etudiantId) {
+        return resilience.appeler("count:" + etudiantId, () -> delegate.countAbsencesEtudiant(etudiantId));
+    }
+
+    @Override
+    public Boolean isEtudiantListeNoire(Long etudiantId) {
+        return resilience.appeler("liste-noire:" + etudiantId, () -> delegate.isEtudiantListeNoire(etudiantId));
+    }
+
+    @Override
+    public Double getTauxAbsence(Long etudiantId) {
+        // Même clé que getTauxAbsenceByIds: un taux lu en lot sert de repli à la lecture unitaire
+        if (!enabled) {
+            return resilience.appeler("taux-id:" + etudiantId, () -> delegate.getTauxAbsence(etudiantId));
+        }
+        return resilience.avecRepli("taux-id:" + etudiantId, () -> tauxCollapser.get(etudiantId));
+    }
+
+    @Override
+    public Map<String, Double> getTauxAbsenceByCnes(List<String> cnes) {
+        return resilience.appelerLot("taux-cne", cnes, () -> delegate.getTauxAbsenceByCnes(cnes));
+    }
+
+    @Override
+    public Map<Long, Double> getTauxAbsenceByIds(List<Long> etudiantIds) {
+        return resilience.appelerLot("taux-id", etudiantIds, () -> delegate.getTauxAbsenceByIds(etudiantIds));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tauxCollapser.shutdown();
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.gestionnotesspringboot.client;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.example.gestionnotesspringboot.dto.AbsenceDTO;
+import org.example.gestionnotesspringboot.grpc.AbsenceInterneGrpc;
+import org.example.gestionnotesspringboot.grpc.EtudiantRef;
+import org.example.gestionnotesspringboot.grpc.ListeNoireRequete;
+import org.example.gestionnotesspringboot.grpc.LotRefs;
+import org.example.gestionnotesspringboot.grpc.LotValeurs;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * AbsenceClient sur l'API interne gRPC du service Absence (adresse découverte via Eureka)
+ *
+ * Quand interne.grpc.client.enabled=true, CollapsingAbsenceClient délègue à ce client
+ * au lieu du proxy Feign. Les recherches en masse passent par un seul flux bidirectionnel,
+ * découpé en lots de interne.grpc.lot-size clés. Les méthodes sans équivalent gRPC
+ * (liste et nombre d'absences) restent sur Feign.
+ */
+@Component
+public class GrpcAbsenceClient implements AbsenceClient {
+
+    @GrpcClient("gestion-absence-service")
+    private AbsenceInterneGrpc.AbsenceInterneBlockingStub bloquant;
+
+    @GrpcClient("gestion-absence-service")
+    private AbsenceInterneGrpc.AbsenceInterneStub asynchrone;
+
+    @Autowired
+    @Qualifier("absenceFeignClient")
+    private AbsenceClient feign;
+
+    @Value("${interne.grpc.lot-size:500}")
+    private int tailleLot;
+
+    @Value("${interne.grpc.deadline-ms:3000}")
+    private long deadlineMillis;
+
+    @Override
+    public List<AbsenceDTO> getAbsencesByEtudiantId(Long etudiantId) {
+        return feign.getAbsencesByEtudiantId(etudiantId);
+    }
+
+    @Override
+    public Long countAbsencesEtudiant(Long etudiantId) {
+        return feign.countAbsencesEtudiant(etudiantId);
+    }
+
+    @Override
+    public Boolean isEtudiantListeNoire(Long etudiantId) {
+        return bloquant.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .listeNoire(ListeNoireRequete.newBuilder().setId(etudiantId).build())
+                .getValeur();
+    }
+
+    @Override
+    public Double getTauxAbsence(Long etudiantId) {
+        return bloquant.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .tauxAbsence(EtudiantRef.newBuilder().setId(etudiantId).build())
+                .getValeur();
+    }
+
+    @Override
+    public Map<String, Double> getTauxAbsenceByCnes(List<String> cnes) {
+        return rechercherEnFlux(cnes, LotRefs.Builder::addAllCnes, LotValeurs::getCnesList);
+    }
+
+    @Override
+    public Map<Long, Double> getTauxAbsenceByIds(List<Long> etudiantIds) {
+        return rechercherEnFlux(etudiantIds, LotRefs.Builder::addAllIds, LotValeurs::getIdsList);
+    }
+
+    /**
+     * Envoie les clés par lots sur un flux FluxTauxAbsence et réunit les lots de réponse
+     * @return Map clé -> taux (les clés inconnues sont absentes de la map)
+     */
+    private <K> Map<K, Double> rechercherEnFlux(List<K> cles, BiConsumer<LotRefs.Builder, List<K>> remplir,
+                                                Function<LotValeurs, List<K>> clesRecues) {
+        Map<K, Double> resultats = new HashMap<>();
+        if (cles == null || cles.isEmpty()) {
+            return resultats;
+        }
+        // Les réponses d'un appel gRPC sont livrées une à une: pas d'accès concurrent à resultats
+        CompletableFuture<Map<K, Double>> fin = new CompletableFuture<>();
+        StreamObserver<LotRefs> envoi = asynchrone.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .fluxTauxAbsence(new StreamObserver<>() {
+                    @Override
+                    public void onNext(LotValeurs lot) {
+                        List<K> recues = clesRecues.apply(lot);
+                        for (int i = 0; i < recues.size(); i++) {
+                            resultats.put(recues.get(i), lot.getValeurs(i));
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        fin.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        fin.complete(resultats);
+                    }
+                });
+
+        int taille = Math.max(1, tailleLot);
+        for (int debut = 0; debut < cles.size(); debut += taille) {
+            LotRefs.Builder lot = LotRefs.newBuilder();
+            remplir.accept(lot, cles.subList(debut, Math.min(cles.size(), debut + taille)));
+            envoi.onNext(lot.build());
+        }
+        envoi.onCompleted();
+
+        try {
+            return fin.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ((ClientCallStreamObserver<LotRefs>) envoi).cancel("Recherche interrompue", e);
+            throw new RuntimeException("Recherche gRPC interrompue", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.gestionnotesspringboot.config;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Serveur gRPC interne: les appels sont traités sur des threads virtuels,
+ * comme les requêtes HTTP (spring.threads.virtual.enabled)
+ */
+@Configuration
+public class GrpcConfig {
+
+    @Bean
+    public GrpcServerConfigurer grpcVirtualThreads() {
+        return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
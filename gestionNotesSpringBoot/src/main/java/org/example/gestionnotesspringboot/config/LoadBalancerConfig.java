@@ -0,0 +1,17 @@
+package org.example.gestionnotesspringboot.config;
+
+import org.example.commons.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.example.commons.loadbalancer.LatencyStats;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Équilibrage sensible à la latence pour tous les services appelés en lb://
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+// Mesures partagées (gestion-commons) hors du package scanné
+@Import(LatencyStats.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,60 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.commons.pagination.CursorPage;
+import org.example.gestionnotesspringboot.entity.Bulletin;
+import org.example.gestionnotesspringboot.service.BulletinService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur des bulletins: moyenne, taux d'absence, note finale, validation et liste noire
+ * en une seule lecture, sans appel au service Absence
+ */
+@RestController
+@RequestMapping("/api/notes/bulletins")
+public class BulletinController {
+
+    @Autowired
+    private BulletinService bulletinService;
+
+    /**
+     * Liste paginée des bulletins
+     * GET /api/notes/bulletins?cursor=...&size=50&module=...&niveau=...&listeNoire=true
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<Bulletin>> getBulletinsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) Boolean listeNoire) {
+        return ResponseEntity.ok(bulletinService.getBulletinsPage(cursor, size, module, niveau, listeNoire));
+    }
+
+    /**
+     * Bulletin d'un étudiant par CNE
+     * GET /api/notes/bulletins/cne/{cne}
+     */
+    @GetMapping("/cne/{cne}")
+    public ResponseEntity<Bulletin> getBulletinByCne(@PathVariable String cne) {
+        return bulletinService.getBulletinByCne(cne)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Bulletin d'un étudiant par ID
+     * GET /api/notes/bulletins/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Bulletin> getBulletinById(@PathVariable Long id) {
+        return bulletinService.getBulletinById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.gestionnotesspringboot.cache.TauxAbsenceCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contrôleur d'invalidation du cache local des taux d'absence
+ * Appelé par le service Gestion Absence, sur chaque instance, à chaque modification d'un étudiant
+ * Le Gateway ne route pas /notes/api/notes/cache/**: accès de service à service uniquement.
+ */
+@RestController
+@RequestMapping("/api/notes/cache")
+public class CacheController {
+
+    @Autowired
+    private TauxAbsenceCache tauxAbsenceCache;
+
+    /**
+     * Invalide le taux d'absence d'un étudiant
+     * DELETE /api/notes/cache/taux-absence?id=1&cne=CNE001
+     */
+    @DeleteMapping("/taux-absence")
+    public ResponseEntity<Map<String, Object>> invalidate(@RequestParam(required = false) Long id,
+                                                          @RequestParam(required = false) String cne) {
+        tauxAbsenceCache.invalidate(id, cne);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("id", id);
+        response.put("cne", cne);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Vide entièrement le cache des taux d'absence
+     * DELETE /api/notes/cache/taux-absence/all
+     */
+    @DeleteMapping("/taux-absence/all")
+    public ResponseEntity<Map<String, Object>> invalidateAll() {
+        tauxAbsenceCache.invalidateAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+}
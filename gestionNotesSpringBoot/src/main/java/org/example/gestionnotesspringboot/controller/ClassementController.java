@@ -0,0 +1,47 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.gestionnotesspringboot.classement.ClassementIndex;
+import org.example.gestionnotesspringboot.dto.ClassementResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST du classement des étudiants
+ * Servi par l'index de classement en mémoire, sans requête SQL
+ */
+@RestController
+@RequestMapping("/api/notes/classement")
+public class ClassementController {
+
+    private static final int K_MAX = 1000;
+
+    @Autowired
+    private ClassementIndex classementIndex;
+
+    /**
+     * Les k meilleurs étudiants, globalement ou dans un module
+     * GET /api/notes/classement/top?k=10&module=...
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<ClassementResponse>> top(@RequestParam(defaultValue = "10") int k,
+                                                        @RequestParam(required = false) String module) {
+        return ResponseEntity.ok(classementIndex.top(module, Math.max(0, Math.min(k, K_MAX))));
+    }
+
+    /**
+     * Rang et percentile d'un étudiant, dans son module ou globalement
+     * GET /api/notes/classement/etudiant/{id}?parModule=true
+     */
+    @GetMapping("/etudiant/{id}")
+    public ResponseEntity<ClassementResponse> rang(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "true") boolean parModule) {
+        ClassementResponse rang = classementIndex.rang(id, parModule);
+        if (rang == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(rang);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.gestionnotesspringboot.controller;
 
+import org.example.commons.seuils.SeuilResultat;
 import org.example.gestionnotesspringboot.dto.EtudiantRequest;
 import org.example.gestionnotesspringboot.dto.EtudiantResponse;
 import org.example.gestionnotesspringboot.dto.TauxAbsenceResponse;
@@ -57,6 +58,15 @@ public class EtudiantController {
     }
 
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<EtudiantResponse> patchEtudiant(
+            @PathVariable Long id,
+            @RequestBody EtudiantRequest request) {
+        EtudiantResponse response = etudiantService.patchEtudiant(id, request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEtudiant(@PathVariable Long id) {
         etudiantService.deleteEtudiant(id);
@@ -70,5 +80,18 @@ public class EtudiantController {
         List<EtudiantResponse> blackList = etudiantService.createBlackList(tauxSeuil);
         return new ResponseEntity<>(blackList, HttpStatus.OK);
     }
-}
 
+
+    @GetMapping("/blacklist/balayage")
+    public ResponseEntity<List<SeuilResultat>> balayerSeuils(
+            @RequestParam(required = false) List<Double> seuils,
+            @RequestParam(required = false) Double min,
+            @RequestParam(required = false) Double max,
+            @RequestParam(required = false) Double pas,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) String module,
+            @RequestParam(defaultValue = "false") boolean membres) {
+        List<SeuilResultat> resultats = etudiantService.balayerSeuils(seuils, min, max, pas, niveau, module, membres);
+        return new ResponseEntity<>(resultats, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.gestionnotesspringboot.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Contrôleur d'export en flux (NDJSON ou tableau JSON transmis par morceaux)
+ */
+@RestController
+@RequestMapping("/api/notes/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * Exporte tous les étudiants sans les charger en mémoire
+     * GET /api/notes/export/etudiants?format=ndjson|json
+     */
+    @GetMapping("/etudiants")
+    public ResponseEntity<StreamingResponseBody> exporterEtudiants(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean ndjson = !"json".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> exportService.exporterEtudiants(out, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.gestionnotesspringboot.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.gestionnotesspringboot.dto.ImportResponse;
+import org.example.gestionnotesspringboot.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Contrôleur d'import en masse (le corps de la requête est lu en flux)
+ */
+@RestController
+@RequestMapping("/api/notes/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    /**
+     * Importe des étudiants depuis un fichier CSV ou un tableau JSON
+     * POST /api/notes/import/etudiants (Content-Type: text/csv ou application/json)
+     */
+    @PostMapping(value = "/etudiants", consumes = {"text/csv", "application/json"})
+    public ResponseEntity<ImportResponse> importerEtudiants(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        ImportResponse bilan = contentType != null && contentType.startsWith("text/csv")
+                ? importService.importerCsv(request.getInputStream())
+                : importService.importerJson(request.getInputStream());
+        return ResponseEntity.ok(bilan);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.gestionnotesspringboot.dto.ComparaisonTransport;
+import org.example.gestionnotesspringboot.grpc.ComparaisonTransports;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Outils de l'API interne entre services
+ *
+ * Désactivé par défaut (interne.benchmark.enabled): le banc lance des milliers d'appels vers le
+ * service Absence. Le Gateway ne route pas /notes/api/notes/interne/**: accès direct au service uniquement.
+ */
+@RestController
+@ConditionalOnProperty(value = "interne.benchmark.enabled", havingValue = "true")
+@RequestMapping("/api/notes/interne")
+public class InterneController {
+
+    @Autowired
+    private ComparaisonTransports comparaisonTransports;
+
+    /**
+     * Compare Feign/JSON et gRPC/protobuf sur une recherche en masse de taux d'absence
+     * GET /api/notes/interne/benchmark?taille=1000&iterations=20
+     */
+    @GetMapping("/benchmark")
+    public ResponseEntity<List<ComparaisonTransport>> comparerTransports(
+            @RequestParam(defaultValue = "1000") int taille,
+            @RequestParam(defaultValue = "20") int iterations) {
+        return ResponseEntity.ok(comparaisonTransports.comparer(taille, iterations));
+    }
+}
@@ -1,8 +1,15 @@
 package org.example.gestionnotesspringboot.controller;
 
+import org.example.commons.pagination.CursorPage;
+import org.example.gestionnotesspringboot.dto.EtudiantPatchRequest;
+import org.example.gestionnotesspringboot.dto.NoteFinaleResponse;
+import org.example.gestionnotesspringboot.dto.SaisieNote;
+import org.example.gestionnotesspringboot.dto.SaisieNotesResponse;
+import org.example.gestionnotesspringboot.dto.StatistiquesNotes;
 import org.example.gestionnotesspringboot.entity.Etudiant;
 import org.example.gestionnotesspringboot.service.NoteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -66,6 +73,15 @@ public class NoteController {
         return ResponseEntity.ok(etudiants);
     }
 
+    /**
+     * Statistiques de la promotion (effectifs, validants, moyenne, distribution), agrégées en base
+     * GET /api/notes/statistiques
+     */
+    @GetMapping("/statistiques")
+    public ResponseEntity<StatistiquesNotes> getStatistiques() {
+        return ResponseEntity.ok(noteService.getStatistiques());
+    }
+
     /**
      * Récupère les étudiants qui ont la première note (majorants)
      * GET /api/notes/majorants
@@ -77,23 +93,65 @@ public class NoteController {
     }
 
     /**
-     * Récupère tous les étudiants triés par note
-     * GET /api/notes/tries
+     * Récupère les étudiants triés par note, une page à la fois
+     * GET /api/notes/tries?size=50&cursor=...
+     * Même corps (tableau) qu'avant la pagination: sans curseur, première page de la taille
+     * par défaut; la page suivante est annoncée par un lien rel="next".
+     *
+     * @deprecated remplacée par GET /api/notes/tries/page
      */
+    @Deprecated
     @GetMapping("/tries")
-    public ResponseEntity<List<Etudiant>> getEtudiantsTries() {
-        List<Etudiant> etudiants = noteService.getEtudiantsTries();
-        return ResponseEntity.ok(etudiants);
+    public ResponseEntity<List<Etudiant>> getEtudiantsTries(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        CursorPage<Etudiant> page = noteService.getEtudiantsTriesPage(cursor, size, null, null, null);
+        ResponseEntity.BodyBuilder reponse = deprecie("tries/page");
+        if (page.isHasMore()) {
+            String suivante = "tries?cursor=" + page.getNextCursor() + (size != null ? "&size=" + size : "");
+            reponse.header(HttpHeaders.LINK, "<" + suivante + ">; rel=\"next\"");
+        }
+        return reponse.body(page.getItems());
     }
 
     /**
      * Récupère tous les étudiants
      * GET /api/notes/etudiants
+     *
+     * @deprecated liste non bornée, remplacée par GET /api/notes/etudiants/page
      */
+    @Deprecated
     @GetMapping("/etudiants")
     public ResponseEntity<List<Etudiant>> getAllEtudiants() {
         List<Etudiant> etudiants = noteService.getAllEtudiants();
-        return ResponseEntity.ok(etudiants);
+        return deprecie("etudiants/page").body(etudiants);
+    }
+
+    /**
+     * Récupère une page d'étudiants triés par ID
+     * GET /api/notes/etudiants/page?size=50&cursor=...&module=...&niveau=...&nom=...
+     */
+    @GetMapping("/etudiants/page")
+    public ResponseEntity<CursorPage<Etudiant>> getEtudiantsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) String nom) {
+        return ResponseEntity.ok(noteService.getEtudiantsPage(cursor, size, module, niveau, nom));
+    }
+
+    /**
+     * Récupère une page d'étudiants triés par moyenne décroissante
+     * GET /api/notes/tries/page?size=50&cursor=...&module=...&niveau=...&nom=...
+     */
+    @GetMapping("/tries/page")
+    public ResponseEntity<CursorPage<Etudiant>> getEtudiantsTriesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) String nom) {
+        return ResponseEntity.ok(noteService.getEtudiantsTriesPage(cursor, size, module, niveau, nom));
     }
 
     /**
@@ -129,6 +187,16 @@ public class NoteController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Récupère les moyennes d'une liste d'étudiants en un seul appel
+     * POST /api/notes/moyennes/batch  (body: [1, 2, ...])
+     * Utilisé par le regroupement des appels Feign du service Absence
+     */
+    @PostMapping("/moyennes/batch")
+    public ResponseEntity<Map<Long, Double>> getMoyennesEtudiants(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(noteService.getMoyennesByIds(ids));
+    }
+
     /**
      * Calcule la note finale avec prise en compte de l'absence
      * GET /api/notes/etudiant/{id}/note-finale
@@ -172,6 +240,24 @@ public class NoteController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Calcule les notes finales de tous les étudiants d'un module
+     * GET /api/notes/module/{module}/notes-finales
+     */
+    @GetMapping("/module/{module}/notes-finales")
+    public ResponseEntity<List<NoteFinaleResponse>> getNotesFinalesByModule(@PathVariable String module) {
+        return ResponseEntity.ok(noteService.getNotesFinalesByModule(module));
+    }
+
+    /**
+     * Calcule les notes finales d'une liste d'étudiants
+     * POST /api/notes/notes-finales  (body: ["CNE001", "CNE002", ...])
+     */
+    @PostMapping("/notes-finales")
+    public ResponseEntity<List<NoteFinaleResponse>> getNotesFinalesByCnes(@RequestBody List<String> cnes) {
+        return ResponseEntity.ok(noteService.getNotesFinalesByCnes(cnes));
+    }
+
     /**
      * Met à jour un étudiant
      * PUT /api/notes/etudiant/{id}
@@ -185,6 +271,29 @@ public class NoteController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Met à jour partiellement un étudiant (seuls les champs fournis)
+     * PATCH /api/notes/etudiant/{id}
+     */
+    @PatchMapping("/etudiant/{id}")
+    public ResponseEntity<Etudiant> patchEtudiant(@PathVariable Long id, @RequestBody EtudiantPatchRequest patch) {
+        Etudiant updated = noteService.patchEtudiant(id, patch);
+        if (updated != null) {
+            return ResponseEntity.ok(updated);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Saisie des notes d'un module en masse
+     * PUT /api/notes/module/{module}/notes  (body: [{"cne": "CNE001", "note1": 14, "note2": 12}, ...])
+     */
+    @PutMapping("/module/{module}/notes")
+    public ResponseEntity<SaisieNotesResponse> saisirNotesModule(@PathVariable String module,
+                                                                 @RequestBody List<SaisieNote> saisies) {
+        return ResponseEntity.ok(noteService.saisirNotesModule(module, saisies));
+    }
+
     /**
      * Supprime un étudiant
      * DELETE /api/notes/etudiant/{id}
@@ -197,5 +306,14 @@ public class NoteController {
         response.put("message", success ? "Étudiant supprimé" : "Étudiant non trouvé");
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * Réponse d'une liste complète dépréciée: en-tête Deprecation et lien vers la version paginée
+     * Le lien est relatif au chemin de la requête: il reste valable derrière le préfixe du Gateway.
+     */
+    private static ResponseEntity.BodyBuilder deprecie(String successeur) {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "<" + successeur + ">; rel=\"successor-version\"");
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.gestionnotesspringboot.dto.TauxAbsenceEvent;
+import org.example.gestionnotesspringboot.replica.TauxAbsenceReplicaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Point d'entrée de la réplication des taux d'absence (poussés par l'outbox du service Absence)
+ */
+@RestController
+@RequestMapping("/api/notes/replication")
+public class ReplicationController {
+
+    @Autowired
+    private TauxAbsenceReplicaService replicaService;
+
+    /**
+     * Applique un lot de changements de taux d'absence
+     * POST /api/notes/replication/taux-absence
+     */
+    @PostMapping("/taux-absence")
+    public ResponseEntity<Void> appliquerTauxAbsence(@RequestBody List<TauxAbsenceEvent> evenements) {
+        replicaService.appliquer(evenements);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position d'un étudiant dans un classement (global ou par module)
+ * rang: rang "olympique" (les ex aequo partagent le même rang)
+ * percentile: part des étudiants classés en dessous (ex aequo comptés pour moitié)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassementResponse {
+    private Long etudiantId;
+    private String cne;
+    private String nom;
+    private String prenom;
+    private String module;
+    private Double moyenne;
+    private Integer rang;
+    private Integer total;
+    private Double percentile;
+}
@@ -0,0 +1,22 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mesure d'un transport interne (Feign/JSON ou gRPC/protobuf) sur une recherche en masse de taux d'absence
+ * Les octets sont ceux de la charge utile (hors en-têtes HTTP); le temps CPU est celui du processus.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparaisonTransport {
+    private String transport;
+    private int taille;
+    private int iterations;
+    private double dureeMoyenneMs;
+    private double cpuMoyenMs;
+    private int octetsRequete;
+    private int octetsReponse;
+}
@@ -0,0 +1,21 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mise à jour partielle d'un étudiant: seuls les champs non nuls sont modifiés
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtudiantPatchRequest {
+    private String nom;
+    private String prenom;
+    private String module;
+    private String niveau;
+    private Double note1;
+    private Double note2;
+    private Integer heuresAbsence;
+}
@@ -0,0 +1,30 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse d'étudiants
+ * Seules les premières erreurs sont détaillées (voir ImportService.MAX_ERREURS_DETAILLEES)
+ */
+@Data
+@NoArgsConstructor
+public class ImportResponse {
+    private long acceptes;
+    private long rejetes;
+    private long dureeMs;
+    private List<Erreur> erreurs = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erreur {
+        private long ligne;
+        private String cne;
+        private String motif;
+    }
+}
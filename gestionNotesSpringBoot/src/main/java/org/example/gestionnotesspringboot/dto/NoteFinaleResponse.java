@@ -0,0 +1,24 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Note finale d'un étudiant (calcul en masse)
+ * tauxAbsence est null si le service Absence ne connaît pas le CNE ou est indisponible
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteFinaleResponse {
+    private Long etudiantId;
+    private String cne;
+    private String nom;
+    private String prenom;
+    private String module;
+    private Double moyenne;
+    private Double tauxAbsence;
+    private Double noteFinale;
+    private Boolean valide;
+}
@@ -0,0 +1,17 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Une ligne de saisie de notes: une note nulle laisse la valeur existante inchangée
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaisieNote {
+    private String cne;
+    private Double note1;
+    private Double note2;
+}
@@ -0,0 +1,19 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bilan d'une saisie de notes en masse pour un module
+ */
+@Data
+@NoArgsConstructor
+public class SaisieNotesResponse {
+    private String module;
+    private int misAJour;
+    // CNE absents du module ou lignes invalides
+    private List<String> ignores = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistiques de la promotion pour le tableau de bord, calculées en base
+ * Validant: moyenne >= 12, même règle que GET /api/notes/validant.
+ */
+@Data
+@NoArgsConstructor
+public class StatistiquesNotes {
+    private long total;
+    private long validants;
+    private long nonValidants;
+    // Moyenne des moyennes, arrondie au dixième
+    private double moyenne;
+    private List<TrancheEffectif> distribution = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package org.example.gestionnotesspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre d'étudiants dont la moyenne tombe dans une tranche ("0-5", "6-9", "10-11", "12-15", "16-20")
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrancheEffectif {
+    private String tranche;
+    private long effectif;
+}
@@ -0,0 +1,65 @@
+package org.example.gestionnotesspringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bulletin d'un étudiant: vue dénormalisée notes + absences (modèle de lecture)
+ *
+ * Une ligne par étudiant, tenue à jour par BulletinProjection à partir des
+ * changements d'étudiants et de la réplique des taux d'absence. Ne jamais modifier directement.
+ */
+@Entity
+@Table(name = "bulletins", indexes = {
+        @Index(name = "idx_bulletins_cne", columnList = "cne", unique = true),
+        @Index(name = "idx_bulletins_module", columnList = "module"),
+        @Index(name = "idx_bulletins_niveau", columnList = "niveau"),
+        @Index(name = "idx_bulletins_liste_noire", columnList = "liste_noire")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Bulletin {
+
+    @Id
+    private Long etudiantId; // Même ID que l'Etudiant
+
+    @Column
+    private String cne;
+
+    @Column
+    private String nom;
+
+    @Column
+    private String prenom;
+
+    @Column
+    private String module;
+
+    @Column
+    private String niveau;
+
+    @Column
+    private Double moyenne;
+
+    @Column
+    private Double tauxAbsence; // null si inconnu de la réplique
+
+    @Column
+    private Double noteFinale;
+
+    @Column
+    private boolean valide;
+
+    @Column(name = "liste_noire")
+    private boolean listeNoire;
+
+    @Column
+    private Long majLe; // Dernier recalcul (epoch ms)
+
+    // Null pour un bulletin pas encore enregistré: save() fait alors un persist sans SELECT préalable
+    @Version
+    private Long version;
+}
@@ -4,16 +4,25 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Entité Etudiant pour la gestion des notes
  * Représente un étudiant avec ses notes dans un module
  */
 @Entity
-@Table(name = "etudiants")
+@Table(name = "etudiants", indexes = {
+        @Index(name = "idx_etudiants_module", columnList = "module"),
+        @Index(name = "idx_etudiants_niveau", columnList = "niveau"),
+        @Index(name = "idx_etudiants_nom", columnList = "nom"),
+        @Index(name = "idx_etudiants_moyenne", columnList = "moyenne DESC, id"),
+        @Index(name = "idx_etudiants_module_moyenne", columnList = "module, moyenne DESC, id"),
+        @Index(name = "idx_etudiants_taux_absence", columnList = "taux_absence")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate // l'UPDATE ne contient que les colonnes modifiées
 public class Etudiant {
 
     @Id
@@ -46,6 +55,29 @@ public class Etudiant {
     @Column
     private Integer heuresAbsence = 0; // Nombre d'heures d'absentéisme
 
+    // Colonnes générées par MySQL (STORED) et indexées, utilisées par les requêtes
+    // de classement, validation et liste noire. Même formule que getMoyenne()/getTauxAbsence().
+    @Column(name = "moyenne", insertable = false, updatable = false,
+            columnDefinition = "DOUBLE GENERATED ALWAYS AS (COALESCE((note1 + note2) / 2.0, 0)) STORED")
+    private Double moyenne;
+
+    @Column(name = "taux_absence", insertable = false, updatable = false,
+            columnDefinition = "DOUBLE GENERATED ALWAYS AS (COALESCE(heures_absence, 0) / 500.0 * 100) STORED")
+    private Double tauxAbsence;
+
+    public Etudiant(Long id, String nom, String prenom, String cne, Double note1, Double note2,
+                    String module, String niveau, Integer heuresAbsence) {
+        this.id = id;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.cne = cne;
+        this.note1 = note1;
+        this.note2 = note2;
+        this.module = module;
+        this.niveau = niveau;
+        this.heuresAbsence = heuresAbsence;
+    }
+
     /**
      * Calcule le taux d'absence (supposant 500 heures totales par année)
      */
@@ -0,0 +1,33 @@
+package org.example.gestionnotesspringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Réplique locale du taux d'absence d'un étudiant, alimentée par l'outbox du service Absence
+ * Permet de calculer les notes finales sans appel distant.
+ */
+@Entity
+@Table(name = "taux_absence_replica")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TauxAbsenceReplica {
+
+    @Id
+    private String cne;
+
+    @Column
+    private Long etudiantId; // ID dans le service Absence
+
+    @Column
+    private Double tauxAbsence; // 0.0 à 1.0, null si l'étudiant a été supprimé
+
+    @Column(nullable = false)
+    private Long sequence; // Dernier événement appliqué
+
+    @Column(nullable = false)
+    private Long horodatage; // Instant du changement dans le service Absence (epoch ms)
+}
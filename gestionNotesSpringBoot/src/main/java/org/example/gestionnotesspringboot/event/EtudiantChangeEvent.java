@@ -0,0 +1,25 @@
+package org.example.gestionnotesspringboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+
+/**
+ * Événement publié à chaque modification d'un Etudiant (NoteService, EtudiantService)
+ *
+ * etudiant: nouvel état (null pour une suppression)
+ */
+@Getter
+@AllArgsConstructor
+public class EtudiantChangeEvent {
+
+    public enum Type {
+        CREATION,
+        MODIFICATION,
+        SUPPRESSION
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Etudiant etudiant;
+}
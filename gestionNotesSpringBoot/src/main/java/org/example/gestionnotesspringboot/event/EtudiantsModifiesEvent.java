@@ -0,0 +1,17 @@
+package org.example.gestionnotesspringboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Événement publié une fois par écriture (unitaire ou en lot) après les EtudiantChangeEvent:
+ * ID des étudiants créés, modifiés ou supprimés
+ * Permet aux modèles de lecture (BulletinProjection) de traiter tout le lot en une transaction.
+ */
+@Getter
+@AllArgsConstructor
+public class EtudiantsModifiesEvent {
+    private final List<Long> ids;
+}
@@ -0,0 +1,16 @@
+package org.example.gestionnotesspringboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Événement publié par TauxAbsenceReplicaService après application d'un lot:
+ * CNE dont le taux d'absence répliqué a changé
+ */
+@Getter
+@AllArgsConstructor
+public class TauxAbsenceRepliqueEvent {
+    private final List<String> cnes;
+}
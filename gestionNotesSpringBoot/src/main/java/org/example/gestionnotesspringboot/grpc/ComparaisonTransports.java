@@ -0,0 +1,94 @@
+package org.example.gestionnotesspringboot.grpc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.gestionnotesspringboot.client.AbsenceClient;
+import org.example.gestionnotesspringboot.client.GrpcAbsenceClient;
+import org.example.gestionnotesspringboot.dto.ComparaisonTransport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Banc de comparaison des transports internes vers le service Absence
+ *
+ * Même recherche en masse (taux d'absence des ID 1..taille), répétée iterations fois
+ * après un appel de chauffe, par le proxy Feign (JSON) puis par le client gRPC (protobuf en flux).
+ * Les deux clients sont appelés directement, sans regroupement ni disjoncteur.
+ */
+@Service
+@ConditionalOnProperty(value = "interne.benchmark.enabled", havingValue = "true")
+public class ComparaisonTransports {
+
+    private static final int TAILLE_MAX = 10000;
+    private static final int ITERATIONS_MAX = 1000;
+
+    @Autowired
+    @Qualifier("absenceFeignClient")
+    private AbsenceClient feign;
+
+    @Autowired
+    private GrpcAbsenceClient grpc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public List<ComparaisonTransport> comparer(int taille, int iterations) {
+        int n = Math.max(1, Math.min(taille, TAILLE_MAX));
+        int repetitions = Math.max(1, Math.min(iterations, ITERATIONS_MAX));
+        List<Long> ids = LongStream.rangeClosed(1, n).boxed().toList();
+
+        ComparaisonTransport json = mesurer("feign-json", ids, repetitions,
+                () -> feign.getTauxAbsenceByIds(ids), this::tailleJson);
+        ComparaisonTransport protobuf = mesurer("grpc-protobuf", ids, repetitions,
+                () -> grpc.getTauxAbsenceByIds(ids), ComparaisonTransports::tailleProtobuf);
+        return List.of(json, protobuf);
+    }
+
+    private ComparaisonTransport mesurer(String transport, List<Long> ids, int repetitions,
+                                         Supplier<Map<Long, Double>> appel,
+                                         Function<Object, Integer> taillePayload) {
+        Map<Long, Double> resultat = appel.get();
+
+        long cpuDebut = cpuProcessusNanos();
+        long debut = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            resultat = appel.get();
+        }
+        double dureeMs = (System.nanoTime() - debut) / 1e6 / repetitions;
+        double cpuMs = (cpuProcessusNanos() - cpuDebut) / 1e6 / repetitions;
+        return new ComparaisonTransport(transport, ids.size(), repetitions, dureeMs, cpuMs,
+                taillePayload.apply(ids), taillePayload.apply(resultat));
+    }
+
+    private int tailleJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload).length;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Sérialisation JSON impossible", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int tailleProtobuf(Object payload) {
+        if (payload instanceof List<?> ids) {
+            return LotRefs.newBuilder().addAllIds((List<Long>) ids).build().getSerializedSize();
+        }
+        LotValeurs.Builder lot = LotValeurs.newBuilder();
+        ((Map<Long, Double>) payload).forEach((id, taux) -> lot.addIds(id).addValeurs(taux));
+        return lot.build().getSerializedSize();
+    }
+
+    private static long cpuProcessusNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.gestionnotesspringboot.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.service.NoteService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * API interne gRPC du service Notes (voir src/main/proto/interne.proto)
+ *
+ * Mêmes lectures que GET /api/notes/etudiant/{id}/moyenne et POST /api/notes/moyennes/batch,
+ * en protobuf: pas de JSON ni de réflexion, et un seul flux HTTP/2 pour tous les lots
+ * d'une recherche en masse.
+ */
+@GrpcService
+public class NotesGrpcService extends NotesInterneGrpc.NotesInterneImplBase {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Override
+    public void moyenne(EtudiantRef request, StreamObserver<Valeur> responseObserver) {
+        Optional<Etudiant> etudiant = switch (request.getCleCase()) {
+            case ID -> noteService.getEtudiantById(request.getId());
+            case CNE -> noteService.getEtudiantByCne(request.getCne());
+            case CLE_NOT_SET -> Optional.empty();
+        };
+        if (etudiant.isEmpty() || etudiant.get().getMoyenne() == null) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Étudiant non trouvé: " + request).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(Valeur.newBuilder().setValeur(etudiant.get().getMoyenne()).build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Recherche en masse: chaque lot de clés reçu est résolu en une requête SQL et renvoyé aussitôt
+     */
+    @Override
+    public StreamObserver<LotRefs> fluxMoyennes(StreamObserver<LotValeurs> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(LotRefs lot) {
+                LotValeurs.Builder reponse = LotValeurs.newBuilder();
+                if (lot.getIdsCount() > 0) {
+                    for (Map.Entry<Long, Double> moyenne : noteService.getMoyennesByIds(lot.getIdsList()).entrySet()) {
+                        if (moyenne.getValue() != null) {
+                            reponse.addIds(moyenne.getKey()).addValeurs(moyenne.getValue());
+                        }
+                    }
+                } else {
+                    for (Map.Entry<String, Double> moyenne : noteService.getMoyennesByCnes(lot.getCnesList()).entrySet()) {
+                        if (moyenne.getValue() != null) {
+                            reponse.addCnes(moyenne.getKey()).addValeurs(moyenne.getValue());
+                        }
+                    }
+                }
+                responseObserver.onNext(reponse.build());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                System.err.println("Flux gRPC des moyennes interrompu: " + t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+}
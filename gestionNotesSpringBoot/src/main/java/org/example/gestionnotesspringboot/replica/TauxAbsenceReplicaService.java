@@ -0,0 +1,126 @@
+package org.example.gestionnotesspringboot.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.gestionnotesspringboot.dto.TauxAbsenceEvent;
+import org.example.gestionnotesspringboot.entity.TauxAbsenceReplica;
+import org.example.gestionnotesspringboot.event.TauxAbsenceRepliqueEvent;
+import org.example.gestionnotesspringboot.repository.TauxAbsenceReplicaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Réplique locale (par CNE) des taux d'absence du service Absence
+ *
+ * Alimentée par lots depuis l'outbox du service Absence. Les lots peuvent être rejoués:
+ * un événement dont la séquence n'est pas plus récente que la réplique est ignoré.
+ * Une suppression est conservée comme ligne sans taux (tombe): un événement plus ancien rejoué
+ * ensuite ne recrée pas l'étudiant.
+ *
+ * Métriques:
+ * - notes.replica.taux-absence.delai : délai entre le changement côté Absence et son application
+ * - notes.replica.taux-absence.lag   : délai (ms) du dernier événement appliqué
+ */
+@Service
+public class TauxAbsenceReplicaService {
+
+    @Autowired
+    private TauxAbsenceReplicaRepository replicaRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${notes.replica.taux-absence.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicLong dernierLag = new AtomicLong();
+    private final Timer delai;
+
+    public TauxAbsenceReplicaService(MeterRegistry meterRegistry) {
+        this.delai = Timer.builder("notes.replica.taux-absence.delai")
+                .description("Délai de réplication des taux d'absence")
+                .register(meterRegistry);
+        meterRegistry.gauge("notes.replica.taux-absence.lag", dernierLag);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applique un lot d'événements (idempotent)
+     * @return nombre d'événements effectivement appliqués
+     */
+    @Transactional
+    public int appliquer(List<TauxAbsenceEvent> evenements) {
+        // Dernier événement de chaque CNE dans le lot
+        Map<String, TauxAbsenceEvent> derniers = new HashMap<>();
+        for (TauxAbsenceEvent evenement : evenements) {
+            derniers.merge(evenement.getCne(), evenement,
+                    (a, b) -> a.getSequence() >= b.getSequence() ? a : b);
+        }
+
+        Map<String, TauxAbsenceReplica> existants = new HashMap<>();
+        for (TauxAbsenceReplica replica : replicaRepository.findAllById(derniers.keySet())) {
+            existants.put(replica.getCne(), replica);
+        }
+
+        List<TauxAbsenceReplica> aEnregistrer = new ArrayList<>();
+        long maintenant = System.currentTimeMillis();
+        List<String> modifies = new ArrayList<>();
+        for (TauxAbsenceEvent evenement : derniers.values()) {
+            TauxAbsenceReplica existant = existants.get(evenement.getCne());
+            if (existant != null && existant.getSequence() >= evenement.getSequence()) {
+                continue;
+            }
+            Double taux = evenement.isSupprime() ? null : evenement.getTauxAbsence();
+            if (existant != null) {
+                // Entité gérée: mise à jour au commit
+                existant.setEtudiantId(evenement.getEtudiantId());
+                existant.setTauxAbsence(taux);
+                existant.setSequence(evenement.getSequence());
+                existant.setHorodatage(evenement.getHorodatage());
+            } else {
+                aEnregistrer.add(new TauxAbsenceReplica(evenement.getCne(), evenement.getEtudiantId(),
+                        taux, evenement.getSequence(), evenement.getHorodatage()));
+            }
+            long lag = Math.max(0, maintenant - evenement.getHorodatage());
+            delai.record(Duration.ofMillis(lag));
+            dernierLag.set(lag);
+            modifies.add(evenement.getCne());
+        }
+        replicaRepository.saveAll(aEnregistrer);
+        if (!modifies.isEmpty()) {
+            eventPublisher.publishEvent(new TauxAbsenceRepliqueEvent(modifies));
+        }
+        return modifies.size();
+    }
+
+    /**
+     * Taux répliqués des CNE demandés (les CNE absents de la réplique ou supprimés sont absents de la map)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Double> getTauxAbsence(Collection<String> cnes) {
+        Map<String, Double> taux = new HashMap<>();
+        if (!enabled || cnes.isEmpty()) {
+            return taux;
+        }
+        for (TauxAbsenceReplica replica : replicaRepository.findAllById(cnes)) {
+            if (replica.getTauxAbsence() != null) {
+                taux.put(replica.getCne(), replica.getTauxAbsence());
+            }
+        }
+        return taux;
+    }
+}
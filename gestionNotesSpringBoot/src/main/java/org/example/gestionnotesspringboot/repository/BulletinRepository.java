@@ -0,0 +1,32 @@
+package org.example.gestionnotesspringboot.repository;
+
+import org.example.gestionnotesspringboot.entity.Bulletin;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BulletinRepository extends JpaRepository<Bulletin, Long> {
+
+    Optional<Bulletin> findByCne(String cne);
+
+    /**
+     * Page de bulletins triés par ID étudiant, à partir de afterId (exclu)
+     * Les filtres null sont ignorés
+     */
+    @Query("SELECT b FROM Bulletin b WHERE b.etudiantId > :afterId " +
+           "AND (:module IS NULL OR b.module = :module) " +
+           "AND (:niveau IS NULL OR b.niveau = :niveau) " +
+           "AND (:listeNoire IS NULL OR b.listeNoire = :listeNoire) " +
+           "ORDER BY b.etudiantId ASC")
+    List<Bulletin> findPage(@Param("afterId") Long afterId,
+                            @Param("module") String module,
+                            @Param("niveau") String niveau,
+                            @Param("listeNoire") Boolean listeNoire,
+                            Pageable pageable);
+}
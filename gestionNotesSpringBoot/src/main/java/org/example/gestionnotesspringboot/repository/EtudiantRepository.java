@@ -1,12 +1,19 @@
 package org.example.gestionnotesspringboot.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EtudiantRepository extends JpaRepository<Etudiant, Long> {
@@ -26,23 +33,50 @@ public interface EtudiantRepository extends JpaRepository<Etudiant, Long> {
      */
     List<Etudiant> findByModule(String module);
 
+    /**
+     * Trouve les étudiants correspondant à une liste de CNE
+     */
+    List<Etudiant> findByCneIn(Collection<String> cnes);
+
+    /**
+     * Parmi une liste de CNE, retourne ceux déjà présents en base (une seule requête)
+     */
+    @Query("SELECT e.cne FROM Etudiant e WHERE e.cne IN :cnes")
+    List<String> findCnesExistants(@Param("cnes") Collection<String> cnes);
+
     /**
      * Trouve les étudiants qui ont validé (moyenne >= 12)
      */
-    @Query("SELECT e FROM Etudiant e WHERE (e.note1 + e.note2) / 2.0 >= 12.0")
+    @Query("SELECT e FROM Etudiant e WHERE e.moyenne >= 12.0")
     List<Etudiant> findEtudiantsValidant();
 
+    /**
+     * Statistiques de la promotion en une seule requête agrégée, une ligne:
+     * effectif, validants (moyenne >= 12, comme findEtudiantsValidant), somme des moyennes,
+     * puis effectifs des tranches [0, 6[, [6, 10[, [10, 12[, [12, 16[, [16, 20]
+     * Les sommes sont null si la table est vide.
+     */
+    @Query("SELECT COUNT(e), " +
+            "SUM(CASE WHEN e.moyenne >= 12.0 THEN 1 ELSE 0 END), " +
+            "SUM(e.moyenne), " +
+            "SUM(CASE WHEN e.moyenne < 6.0 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.moyenne >= 6.0 AND e.moyenne < 10.0 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.moyenne >= 10.0 AND e.moyenne < 12.0 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.moyenne >= 12.0 AND e.moyenne < 16.0 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.moyenne >= 16.0 THEN 1 ELSE 0 END) " +
+            "FROM Etudiant e")
+    List<Object[]> findStatistiques();
+
     /**
      * Trouve les étudiants avec la note maximale
      */
-    @Query("SELECT e FROM Etudiant e WHERE (e.note1 + e.note2) / 2.0 = " +
-           "(SELECT MAX((e2.note1 + e2.note2) / 2.0) FROM Etudiant e2)")
+    @Query("SELECT e FROM Etudiant e WHERE e.moyenne = (SELECT MAX(e2.moyenne) FROM Etudiant e2)")
     List<Etudiant> findMajorants();
 
     /**
      * Trouve tous les étudiants triés par moyenne décroissante
      */
-    @Query("SELECT e FROM Etudiant e ORDER BY (e.note1 + e.note2) / 2.0 DESC")
+    @Query("SELECT e FROM Etudiant e ORDER BY e.moyenne DESC, e.id ASC")
     List<Etudiant> findAllOrderByMoyenneDesc();
 
     /**
@@ -53,7 +87,61 @@ public interface EtudiantRepository extends JpaRepository<Etudiant, Long> {
     /**
      * Trouve les étudiants dont le taux d'absence dépasse un seuil
      */
-    @Query("SELECT e FROM Etudiant e WHERE (e.heuresAbsence / 500.0) * 100 >= :tauxSeuil")
-    List<Etudiant> findBlackListByTauxAbsence(@org.springframework.data.repository.query.Param("tauxSeuil") Double tauxSeuil);
-}
+    @Query("SELECT e FROM Etudiant e WHERE e.tauxAbsence >= :tauxSeuil")
+    List<Etudiant> findBlackListByTauxAbsence(@Param("tauxSeuil") Double tauxSeuil);
+
+    /**
+     * Triplets [id, moyenne, module] de tous les étudiants, pour reconstruire l'index de classement
+     */
+    @Query("SELECT e.id, e.moyenne, e.module FROM Etudiant e")
+    List<Object[]> findClassement();
 
+    /**
+     * Couples [cne, taux d'absence] triés par taux croissant, avec filtres optionnels
+     * Utilisé pour balayer de nombreux seuils en une seule requête
+     */
+    @Query("SELECT e.cne, e.tauxAbsence FROM Etudiant e " +
+           "WHERE (:niveau IS NULL OR e.niveau = :niveau) AND (:module IS NULL OR e.module = :module) " +
+           "ORDER BY e.tauxAbsence ASC")
+    List<Object[]> findTauxTries(@Param("niveau") String niveau, @Param("module") String module);
+
+    /**
+     * Page d'étudiants triés par ID, à partir de l'ID afterId (exclu)
+     * Les filtres null sont ignorés, prefixe filtre sur le début du nom
+     */
+    @Query("SELECT e FROM Etudiant e WHERE e.id > :afterId " +
+           "AND (:module IS NULL OR e.module = :module) " +
+           "AND (:niveau IS NULL OR e.niveau = :niveau) " +
+           "AND (:prefixe IS NULL OR e.nom LIKE CONCAT(:prefixe, '%')) " +
+           "ORDER BY e.id ASC")
+    List<Etudiant> findPageOrderById(@Param("afterId") Long afterId,
+                                     @Param("module") String module,
+                                     @Param("niveau") String niveau,
+                                     @Param("prefixe") String prefixe,
+                                     Pageable pageable);
+
+    /**
+     * Page d'étudiants triés par moyenne décroissante puis ID,
+     * à partir du couple (afterMoyenne, afterId) exclu
+     */
+    @Query("SELECT e FROM Etudiant e WHERE (e.moyenne < :afterMoyenne " +
+           "OR (e.moyenne = :afterMoyenne AND e.id > :afterId)) " +
+           "AND (:module IS NULL OR e.module = :module) " +
+           "AND (:niveau IS NULL OR e.niveau = :niveau) " +
+           "AND (:prefixe IS NULL OR e.nom LIKE CONCAT(:prefixe, '%')) " +
+           "ORDER BY e.moyenne DESC, e.id ASC")
+    List<Etudiant> findPageOrderByMoyenneDesc(@Param("afterMoyenne") Double afterMoyenne,
+                                              @Param("afterId") Long afterId,
+                                              @Param("module") String module,
+                                              @Param("niveau") String niveau,
+                                              @Param("prefixe") String prefixe,
+                                              Pageable pageable);
+
+    /**
+     * Parcourt tous les étudiants par ID via un curseur serveur (useCursorFetch)
+     * À consommer dans une transaction et à fermer après usage
+     */
+    @Query("SELECT e FROM Etudiant e ORDER BY e.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Etudiant> streamAllOrderById();
+}
@@ -0,0 +1,9 @@
+package org.example.gestionnotesspringboot.repository;
+
+import org.example.gestionnotesspringboot.entity.TauxAbsenceReplica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TauxAbsenceReplicaRepository extends JpaRepository<TauxAbsenceReplica, String> {
+}
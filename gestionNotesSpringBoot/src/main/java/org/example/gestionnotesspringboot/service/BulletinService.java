@@ -0,0 +1,57 @@
+package org.example.gestionnotesspringboot.service;
+
+import org.example.commons.pagination.CursorPage;
+import org.example.commons.pagination.KeysetCursor;
+import org.example.gestionnotesspringboot.entity.Bulletin;
+import org.example.gestionnotesspringboot.repository.BulletinRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lecture des bulletins (modèle de lecture maintenu par BulletinProjection)
+ * Chaque vue composite notes + absences est une seule lecture indexée.
+ */
+@Service
+public class BulletinService {
+
+    @Autowired
+    private BulletinRepository bulletinRepository;
+
+    @Value("${notes.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${notes.pagination.max-size:200}")
+    private int maxPageSize;
+
+    public Optional<Bulletin> getBulletinByCne(String cne) {
+        return bulletinRepository.findByCne(cne);
+    }
+
+    public Optional<Bulletin> getBulletinById(Long etudiantId) {
+        return bulletinRepository.findById(etudiantId);
+    }
+
+    /**
+     * Page de bulletins triés par ID étudiant, avec filtres optionnels
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     */
+    public CursorPage<Bulletin> getBulletinsPage(String cursor, Integer size,
+                                                 String module, String niveau, Boolean listeNoire) {
+        int taille = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        Long afterId = cursor != null ? KeysetCursor.decode(cursor).getId() : 0L;
+
+        List<Bulletin> bulletins = bulletinRepository.findPage(
+                afterId, module, niveau, listeNoire, PageRequest.of(0, taille + 1));
+
+        // Une ligne de plus que la taille demandée est lue pour savoir s'il reste des résultats
+        boolean hasMore = bulletins.size() > taille;
+        List<Bulletin> items = hasMore ? bulletins.subList(0, taille) : bulletins;
+        String nextCursor = hasMore ? new KeysetCursor(null, items.get(items.size() - 1).getEtudiantId()).encode() : null;
+        return new CursorPage<>(items, items.size(), hasMore, nextCursor);
+    }
+}
@@ -1,13 +1,17 @@
 package org.example.gestionnotesspringboot.service;
 
 import org.example.gestionnotesspringboot.client.AbsenceClient;
+import org.example.commons.client.AppelsParalleles;
 import org.example.gestionnotesspringboot.dto.AbsenceDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Service exemple pour démontrer l'utilisation du client Feign
@@ -19,17 +23,26 @@ public class EtudiantAbsenceService {
     @Autowired
     private AbsenceClient absenceClient;
 
+    // Échéance commune des appels Feign lancés en parallèle par une vue composite
+    @Value("${feign.parallel.deadline-ms:3000}")
+    private long deadlineMillis;
+
     /**
      * Récupère les informations d'absences d'un étudiant
      */
     public Map<String, Object> getEtudiantAbsenceInfo(Long etudiantId) {
         Map<String, Object> info = new HashMap<>();
 
-        try {
-            // Récupérer les absences depuis le service Gestion Absence via Feign
-            List<AbsenceDTO> absences = absenceClient.getAbsencesByEtudiantId(etudiantId);
-            Long nombreAbsences = absenceClient.countAbsencesEtudiant(etudiantId);
-            Boolean listeNoire = absenceClient.isEtudiantListeNoire(etudiantId);
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofMillis(deadlineMillis))) {
+            // Les trois appels au service Gestion Absence partent en parallèle (threads virtuels)
+            Supplier<List<AbsenceDTO>> absencesAppel = appels.lancer(() -> absenceClient.getAbsencesByEtudiantId(etudiantId));
+            Supplier<Long> nombreAppel = appels.lancer(() -> absenceClient.countAbsencesEtudiant(etudiantId));
+            Supplier<Boolean> listeNoireAppel = appels.lancer(() -> absenceClient.isEtudiantListeNoire(etudiantId));
+            appels.attendre();
+
+            List<AbsenceDTO> absences = absencesAppel.get();
+            Long nombreAbsences = nombreAppel.get();
+            Boolean listeNoire = listeNoireAppel.get();
 
             info.put("etudiantId", etudiantId);
             info.put("absences", absences);
@@ -48,19 +61,29 @@ public class EtudiantAbsenceService {
     /**
      * Détermine si un étudiant peut recevoir son relevé de notes
      * basé sur son taux d'absentéisme
+     * Statut liste noire inconnu (étudiant absent du service Absence, réponse dégradée):
+     * relevé non autorisé, signalé par "statutInconnu"
      */
     public Map<String, Object> verifierAutorisationReleve(Long etudiantId) {
         Map<String, Object> result = new HashMap<>();
 
-        try {
-            Boolean listeNoire = absenceClient.isEtudiantListeNoire(etudiantId);
-            Long nombreAbsences = absenceClient.countAbsencesEtudiant(etudiantId);
+        try (AppelsParalleles appels = new AppelsParalleles(Duration.ofMillis(deadlineMillis))) {
+            Supplier<Boolean> listeNoireAppel = appels.lancer(() -> absenceClient.isEtudiantListeNoire(etudiantId));
+            Supplier<Long> nombreAppel = appels.lancer(() -> absenceClient.countAbsencesEtudiant(etudiantId));
+            appels.attendre();
+
+            Boolean listeNoire = listeNoireAppel.get();
+            Long nombreAbsences = nombreAppel.get();
 
             result.put("etudiantId", etudiantId);
             result.put("nombreAbsences", nombreAbsences);
             result.put("listeNoire", listeNoire);
 
-            if (!listeNoire) {
+            if (listeNoire == null) {
+                result.put("autoriseReleve", false);
+                result.put("statutInconnu", true);
+                result.put("message", "Statut d'absentéisme inconnu - Relevé suspendu");
+            } else if (!listeNoire) {
                 result.put("autoriseReleve", true);
                 result.put("message", "Etudiant autorisé à recevoir son relevé de notes");
             } else {
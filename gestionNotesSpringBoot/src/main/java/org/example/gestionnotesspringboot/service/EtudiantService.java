@@ -1,11 +1,16 @@
 package org.example.gestionnotesspringboot.service;
 
+import org.example.commons.seuils.BalayageSeuils;
+import org.example.commons.seuils.SeuilResultat;
 import org.example.gestionnotesspringboot.dto.EtudiantRequest;
 import org.example.gestionnotesspringboot.dto.EtudiantResponse;
 import org.example.gestionnotesspringboot.dto.TauxAbsenceResponse;
 import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.event.EtudiantChangeEvent;
+import org.example.gestionnotesspringboot.event.EtudiantsModifiesEvent;
 import org.example.gestionnotesspringboot.repository.EtudiantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +24,9 @@ public class EtudiantService {
     @Autowired
     private EtudiantRepository etudiantRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ADD - Ajouter un étudiant
     public EtudiantResponse addEtudiant(EtudiantRequest request) {
         if (etudiantRepository.existsByCne(request.getCne())) {
@@ -33,6 +41,9 @@ public class EtudiantService {
         etudiant.setHeuresAbsence(request.getHeuresAbsence());
 
         Etudiant saved = etudiantRepository.save(etudiant);
+        eventPublisher.publishEvent(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.CREATION, saved.getId(), saved));
+        eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(saved.getId())));
         return toResponse(saved);
     }
 
@@ -76,15 +87,43 @@ public class EtudiantService {
         etudiant.setHeuresAbsence(request.getHeuresAbsence());
 
         Etudiant updated = etudiantRepository.save(etudiant);
+        eventPublisher.publishEvent(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.MODIFICATION, id, updated));
+        eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(id)));
         return toResponse(updated);
     }
 
+    // PATCH - Mise à jour partielle: seuls les champs non nuls sont modifiés (UPDATE ciblé)
+    public EtudiantResponse patchEtudiant(Long id, EtudiantRequest request) {
+        Etudiant etudiant = etudiantRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Étudiant non trouvé avec l'ID: " + id));
+
+        if (request.getCne() != null && !request.getCne().equals(etudiant.getCne())) {
+            if (etudiantRepository.existsByCne(request.getCne())) {
+                throw new RuntimeException("Un autre étudiant avec ce CNE existe déjà");
+            }
+            etudiant.setCne(request.getCne());
+        }
+        if (request.getNom() != null) etudiant.setNom(request.getNom());
+        if (request.getPrenom() != null) etudiant.setPrenom(request.getPrenom());
+        if (request.getNiveau() != null) etudiant.setNiveau(request.getNiveau());
+        if (request.getHeuresAbsence() != null) etudiant.setHeuresAbsence(request.getHeuresAbsence());
+
+        eventPublisher.publishEvent(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.MODIFICATION, id, etudiant));
+        eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(id)));
+        return toResponse(etudiant);
+    }
+
     // DELETE - Supprimer un étudiant
     public void deleteEtudiant(Long id) {
         if (!etudiantRepository.existsById(id)) {
             throw new RuntimeException("Étudiant non trouvé avec l'ID: " + id);
         }
         etudiantRepository.deleteById(id);
+        eventPublisher.publishEvent(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.SUPPRESSION, id, null));
+        eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(id)));
     }
 
     // BLACKLIST CREATE - Créer une liste noire des étudiants
@@ -95,6 +134,14 @@ public class EtudiantService {
                 .collect(Collectors.toList());
     }
 
+    // SWEEP - Taille (et membres) de la blacklist pour de nombreux seuils (en %), en une seule requête
+    @Transactional(readOnly = true)
+    public List<SeuilResultat> balayerSeuils(List<Double> seuils, Double min, Double max, Double pas,
+                                             String niveau, String module, boolean avecMembres) {
+        List<Double> valeurs = BalayageSeuils.seuils(seuils, min, max, pas);
+        return BalayageSeuils.balayer(etudiantRepository.findTauxTries(niveau, module), valeurs, avecMembres);
+    }
+
     // Méthodes de conversion
     private EtudiantResponse toResponse(Etudiant etudiant) {
         EtudiantResponse response = new EtudiantResponse();
@@ -119,4 +166,3 @@ public class EtudiantService {
         return response;
     }
 }
-
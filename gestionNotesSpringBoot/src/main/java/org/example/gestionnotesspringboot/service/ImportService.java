@@ -0,0 +1,356 @@
+package org.example.gestionnotesspringboot.service;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.gestionnotesspringboot.dto.ImportResponse;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.event.EtudiantChangeEvent;
+import org.example.gestionnotesspringboot.event.EtudiantsModifiesEvent;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import en masse d'étudiants (CSV ou tableau JSON lu en flux)
+ *
+ * Les lignes sont traitées par lots: un seul SELECT pour détecter les CNE déjà présents,
+ * puis un INSERT JDBC en lot (réécrit en INSERT multi-valeurs par rewriteBatchedStatements),
+ * une transaction par lot. L'insertion passe par JDBC car l'ID IDENTITY empêche
+ * Hibernate de regrouper les INSERT.
+ *
+ * Un lot refusé par la base est repris ligne par ligne (une transaction par ligne) pour isoler
+ * les lignes fautives: elles sont rejetées dans le bilan, les autres sont importées.
+ * Le bilan compte donc toujours les lots déjà validés.
+ */
+@Service
+public class ImportService {
+
+    private static final int MAX_ERREURS_DETAILLEES = 100;
+
+    private static final String INSERT_ETUDIANT =
+            "INSERT INTO etudiants (nom, prenom, cne, note1, note2, module, niveau, heures_absence) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${notes.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Importe un fichier CSV (en-tête obligatoire, séparateur ',' ou ';')
+     * Colonnes reconnues: nom, prenom, cne, note1, note2, module, niveau, heuresAbsence
+     */
+    public ImportResponse importerCsv(InputStream in) throws IOException {
+        long debut = System.currentTimeMillis();
+        ImportResponse bilan = new ImportResponse();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String entete = reader.readLine();
+        if (entete == null) {
+            return terminer(bilan, debut);
+        }
+        char separateur = entete.indexOf(';') >= 0 ? ';' : ',';
+        Map<String, Integer> colonnes = new HashMap<>();
+        String[] noms = decouper(entete.replace("﻿", ""), separateur);
+        for (int i = 0; i < noms.length; i++) {
+            colonnes.put(noms[i].toLowerCase(), i);
+        }
+
+        List<Ligne> lot = new ArrayList<>(chunkSize);
+        long numero = 1;
+        String texte;
+        while ((texte = reader.readLine()) != null) {
+            numero++;
+            if (texte.isBlank()) {
+                continue;
+            }
+            try {
+                lot.add(new Ligne(numero, lireCsv(decouper(texte, separateur), colonnes)));
+            } catch (RuntimeException e) {
+                rejeter(bilan, numero, null, "Ligne illisible: " + e.getMessage());
+            }
+            if (lot.size() >= chunkSize) {
+                traiterLot(lot, bilan);
+                lot.clear();
+            }
+        }
+        traiterLot(lot, bilan);
+        return terminer(bilan, debut);
+    }
+
+    /**
+     * Importe un tableau JSON d'étudiants, lu élément par élément
+     */
+    public ImportResponse importerJson(InputStream in) throws IOException {
+        long debut = System.currentTimeMillis();
+        ImportResponse bilan = new ImportResponse();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Le corps doit être un tableau JSON d'étudiants");
+            }
+            List<Ligne> lot = new ArrayList<>(chunkSize);
+            long numero = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    numero++;
+                    if (token == null) {
+                        rejeter(bilan, numero, null, "Tableau JSON non terminé " + position(parser.currentLocation()));
+                        break;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        rejeter(bilan, numero, null, "L'élément n'est pas un objet étudiant "
+                                + position(parser.currentTokenLocation()));
+                        parser.skipChildren();
+                        continue;
+                    }
+                    // Lu en arbre d'abord: une erreur de conversion laisse le parseur après l'élément
+                    JsonLocation debutElement = parser.currentTokenLocation();
+                    JsonNode element = objectMapper.readTree(parser);
+                    try {
+                        lot.add(new Ligne(numero, objectMapper.treeToValue(element, Etudiant.class)));
+                    } catch (JsonProcessingException e) {
+                        rejeter(bilan, numero, null, "Élément illisible " + position(debutElement)
+                                + ": " + e.getOriginalMessage());
+                    }
+                    if (lot.size() >= chunkSize) {
+                        traiterLot(lot, bilan);
+                        lot.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // JSON mal formé: la suite du flux est illisible, les éléments déjà lus sont importés
+                rejeter(bilan, numero, null, "JSON invalide " + position(e.getLocation()) + ": " + e.getOriginalMessage());
+            }
+            traiterLot(lot, bilan);
+        }
+        return terminer(bilan, debut);
+    }
+
+    private void traiterLot(List<Ligne> lot, ImportResponse bilan) {
+        if (lot.isEmpty()) {
+            return;
+        }
+
+        // Validation et doublons à l'intérieur du lot
+        List<Ligne> valides = new ArrayList<>(lot.size());
+        Set<String> cnesDuLot = new HashSet<>();
+        for (Ligne ligne : lot) {
+            Etudiant e = ligne.etudiant;
+            if (estVide(e.getNom()) || estVide(e.getPrenom()) || estVide(e.getCne())) {
+                rejeter(bilan, ligne.numero, e.getCne(), "nom, prenom et cne sont obligatoires");
+            } else if (!cnesDuLot.add(e.getCne())) {
+                rejeter(bilan, ligne.numero, e.getCne(), "CNE en double dans le fichier");
+            } else {
+                valides.add(ligne);
+            }
+        }
+        if (valides.isEmpty()) {
+            return;
+        }
+
+        List<Ligne> existants;
+        try {
+            existants = transactionTemplate.execute(status -> inserer(valides));
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Lot de " + valides.size() + " lignes refusé par la base (" + message(e)
+                    + "), reprise ligne par ligne");
+            insererUneParUne(valides, bilan);
+            return;
+        }
+        comptabiliser(bilan, valides.size(), existants);
+    }
+
+    // Une transaction par ligne: seules les lignes refusées par la base sont rejetées
+    private void insererUneParUne(List<Ligne> valides, ImportResponse bilan) {
+        for (Ligne ligne : valides) {
+            try {
+                comptabiliser(bilan, 1, transactionTemplate.execute(status -> inserer(List.of(ligne))));
+            } catch (RuntimeException e) {
+                rejeter(bilan, ligne.numero, ligne.etudiant.getCne(), "Refusée par la base: " + message(e));
+            }
+        }
+    }
+
+    /**
+     * Insère les lignes dont le CNE n'est pas déjà en base (dans la transaction de l'appelant)
+     * @return les lignes écartées car leur CNE existe déjà
+     */
+    private List<Ligne> inserer(List<Ligne> lignes) {
+        // Un seul SELECT pour les CNE déjà en base
+        List<String> cnesDuLot = new ArrayList<>(lignes.size());
+        for (Ligne ligne : lignes) {
+            cnesDuLot.add(ligne.etudiant.getCne());
+        }
+        Set<String> existants = new HashSet<>(etudiantRepository.findCnesExistants(cnesDuLot));
+        List<Ligne> ecartees = new ArrayList<>();
+        List<Etudiant> aInserer = new ArrayList<>(lignes.size());
+        for (Ligne ligne : lignes) {
+            if (existants.contains(ligne.etudiant.getCne())) {
+                ecartees.add(ligne);
+            } else {
+                aInserer.add(ligne.etudiant);
+            }
+        }
+        if (aInserer.isEmpty()) {
+            return ecartees;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ETUDIANT, aInserer, aInserer.size(), (ps, e) -> {
+            ps.setString(1, e.getNom());
+            ps.setString(2, e.getPrenom());
+            ps.setString(3, e.getCne());
+            ps.setObject(4, e.getNote1(), Types.DOUBLE);
+            ps.setObject(5, e.getNote2(), Types.DOUBLE);
+            ps.setString(6, e.getModule());
+            ps.setString(7, e.getNiveau());
+            ps.setObject(8, e.getHeuresAbsence() != null ? e.getHeuresAbsence() : 0, Types.INTEGER);
+        });
+
+        // Relecture des ID générés pour tenir à jour l'index de classement (après commit)
+        List<String> cnes = new ArrayList<>(aInserer.size());
+        for (Etudiant e : aInserer) {
+            cnes.add(e.getCne());
+        }
+        List<Long> ids = new ArrayList<>(cnes.size());
+        for (Etudiant saved : etudiantRepository.findByCneIn(cnes)) {
+            eventPublisher.publishEvent(new EtudiantChangeEvent(
+                    EtudiantChangeEvent.Type.CREATION, saved.getId(), saved));
+            ids.add(saved.getId());
+        }
+        eventPublisher.publishEvent(new EtudiantsModifiesEvent(ids));
+        return ecartees;
+    }
+
+    // Appelé après commit: le bilan ne compte que ce qui est réellement en base
+    private void comptabiliser(ImportResponse bilan, int lignes, List<Ligne> existants) {
+        bilan.setAcceptes(bilan.getAcceptes() + lignes - existants.size());
+        for (Ligne ligne : existants) {
+            rejeter(bilan, ligne.numero, ligne.etudiant.getCne(), "Un étudiant avec ce CNE existe déjà");
+        }
+    }
+
+    private Etudiant lireCsv(String[] valeurs, Map<String, Integer> colonnes) {
+        Etudiant etudiant = new Etudiant();
+        etudiant.setNom(valeur(valeurs, colonnes, "nom"));
+        etudiant.setPrenom(valeur(valeurs, colonnes, "prenom"));
+        etudiant.setCne(valeur(valeurs, colonnes, "cne"));
+        etudiant.setNote1(nombre(valeur(valeurs, colonnes, "note1")));
+        etudiant.setNote2(nombre(valeur(valeurs, colonnes, "note2")));
+        etudiant.setModule(valeur(valeurs, colonnes, "module"));
+        etudiant.setNiveau(valeur(valeurs, colonnes, "niveau"));
+        String heures = valeur(valeurs, colonnes, "heuresabsence");
+        etudiant.setHeuresAbsence(heures != null ? Integer.valueOf(heures) : 0);
+        return etudiant;
+    }
+
+    private String valeur(String[] valeurs, Map<String, Integer> colonnes, String colonne) {
+        Integer index = colonnes.get(colonne);
+        if (index == null || index >= valeurs.length || valeurs[index].isEmpty()) {
+            return null;
+        }
+        return valeurs[index];
+    }
+
+    private Double nombre(String texte) {
+        return texte != null ? Double.valueOf(texte.replace(',', '.')) : null;
+    }
+
+    // Découpe une ligne CSV; les champs entre guillemets peuvent contenir le séparateur
+    private String[] decouper(String ligne, char separateur) {
+        List<String> champs = new ArrayList<>();
+        StringBuilder courant = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (c == '"') {
+                if (entreGuillemets && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                    courant.append('"');
+                    i++;
+                } else {
+                    entreGuillemets = !entreGuillemets;
+                }
+            } else if (c == separateur && !entreGuillemets) {
+                champs.add(courant.toString().trim());
+                courant.setLength(0);
+            } else {
+                courant.append(c);
+            }
+        }
+        champs.add(courant.toString().trim());
+        return champs.toArray(new String[0]);
+    }
+
+    private boolean estVide(String texte) {
+        return texte == null || texte.isBlank();
+    }
+
+    private void rejeter(ImportResponse bilan, long ligne, String cne, String motif) {
+        bilan.setRejetes(bilan.getRejetes() + 1);
+        if (bilan.getErreurs().size() < MAX_ERREURS_DETAILLEES) {
+            bilan.getErreurs().add(new ImportResponse.Erreur(ligne, cne, motif));
+        }
+    }
+
+    private static String position(JsonLocation location) {
+        if (location == null) {
+            return "(position inconnue)";
+        }
+        return "(ligne " + location.getLineNr() + ", colonne " + location.getColumnNr() + ")";
+    }
+
+    private static String message(Exception e) {
+        return NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    private ImportResponse terminer(ImportResponse bilan, long debut) {
+        bilan.setDureeMs(System.currentTimeMillis() - debut);
+        return bilan;
+    }
+
+    private static final class Ligne {
+        private final long numero;
+        private final Etudiant etudiant;
+
+        private Ligne(long numero, Etudiant etudiant) {
+            this.numero = numero;
+            this.etudiant = etudiant;
+        }
+    }
+}
@@ -1,13 +1,37 @@
 package org.example.gestionnotesspringboot.service;
 
-import org.example.gestionnotesspringboot.client.AbsenceClient;
+import org.example.commons.pagination.CursorPage;
+import org.example.commons.pagination.KeysetCursor;
+import org.example.gestionnotesspringboot.cache.TauxAbsenceCache;
+import org.example.gestionnotesspringboot.classement.ClassementIndex;
+import org.example.gestionnotesspringboot.dto.EtudiantPatchRequest;
+import org.example.gestionnotesspringboot.dto.NoteFinaleResponse;
+import org.example.gestionnotesspringboot.dto.SaisieNote;
+import org.example.gestionnotesspringboot.dto.SaisieNotesResponse;
+import org.example.gestionnotesspringboot.dto.StatistiquesNotes;
+import org.example.gestionnotesspringboot.dto.TrancheEffectif;
 import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.event.EtudiantChangeEvent;
+import org.example.gestionnotesspringboot.event.EtudiantsModifiesEvent;
+import org.example.gestionnotesspringboot.replica.TauxAbsenceReplicaService;
 import org.example.gestionnotesspringboot.repository.EtudiantRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Service de gestion des notes des étudiants
@@ -16,11 +40,46 @@ import java.util.Optional;
 @Service
 public class NoteService {
 
+    // Tranches de moyenne des statistiques, dans l'ordre des colonnes de findStatistiques()
+    private static final String[] TRANCHES = {"0-5", "6-9", "10-11", "12-15", "16-20"};
+
+    // Mise à jour ciblée des notes: une note nulle conserve la valeur existante
+    private static final String UPDATE_NOTES =
+            "UPDATE etudiants SET note1 = COALESCE(?, note1), note2 = COALESCE(?, note2) " +
+            "WHERE cne = ? AND module = ?";
+
     @Autowired
     private EtudiantRepository etudiantRepository;
 
     @Autowired
-    private AbsenceClient absenceClient;
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TauxAbsenceCache tauxAbsenceCache;
+
+    @Autowired
+    private TauxAbsenceReplicaService tauxAbsenceReplica;
+
+    @Autowired
+    private ClassementIndex classementIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Nombre maximum de CNE envoyés au service Absence par appel
+    @Value("${notes.note-finale.batch-size:500}")
+    private int noteFinaleBatchSize;
+
+    // Taille de page par défaut et maximale des listes paginées
+    @Value("${notes.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${notes.pagination.max-size:200}")
+    private int maxPageSize;
+
+    // Nombre d'UPDATE envoyés par lot JDBC lors de la saisie des notes d'un module
+    @Value("${notes.saisie.batch-size:500}")
+    private int saisieBatchSize;
 
     /**
      * Ajoute un nouvel étudiant
@@ -28,7 +87,10 @@ public class NoteService {
      */
     public boolean ajouterEtudiant(Etudiant etudiant) {
         try {
-            etudiantRepository.save(etudiant);
+            Etudiant saved = etudiantRepository.save(etudiant);
+            eventPublisher.publishEvent(new EtudiantChangeEvent(
+                    EtudiantChangeEvent.Type.CREATION, saved.getId(), saved));
+            eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(saved.getId())));
             return true;
         } catch (Exception e) {
             return false;
@@ -51,17 +113,40 @@ public class NoteService {
     }
 
     /**
-     * Récupère les étudiants qui ont obtenu la première note (majorants)
+     * Statistiques de la promotion (tableau de bord de la gateway), agrégées en base:
+     * aucune ligne d'étudiant n'est chargée ni transmise
      */
-    public List<Etudiant> getMajorants() {
-        return etudiantRepository.findMajorants();
+    public StatistiquesNotes getStatistiques() {
+        List<Object[]> lignes = etudiantRepository.findStatistiques();
+        Object[] ligne = lignes.isEmpty() ? new Object[3 + TRANCHES.length] : lignes.get(0);
+        long total = nombre(ligne[0]);
+        long validants = nombre(ligne[1]);
+        double somme = ligne[2] != null ? ((Number) ligne[2]).doubleValue() : 0.0;
+
+        StatistiquesNotes statistiques = new StatistiquesNotes();
+        statistiques.setTotal(total);
+        statistiques.setValidants(validants);
+        statistiques.setNonValidants(total - validants);
+        statistiques.setMoyenne(total == 0 ? 0.0 : Math.round(somme / total * 10) / 10.0);
+        for (int i = 0; i < TRANCHES.length; i++) {
+            statistiques.getDistribution().add(new TrancheEffectif(TRANCHES[i], nombre(ligne[3 + i])));
+        }
+        return statistiques;
+    }
+
+    private static long nombre(Object valeur) {
+        return valeur != null ? ((Number) valeur).longValue() : 0L;
     }
 
     /**
-     * Récupère tous les étudiants triés par note (décroissant)
+     * Récupère les étudiants qui ont obtenu la première note (majorants)
+     * Les ID sont lus dans l'index de classement, puis chargés par clé primaire
      */
-    public List<Etudiant> getEtudiantsTries() {
-        return etudiantRepository.findAllOrderByMoyenneDesc();
+    public List<Etudiant> getMajorants() {
+        if (classementIndex.size() == 0) {
+            return etudiantRepository.findMajorants();
+        }
+        return etudiantRepository.findAllById(classementIndex.majorants(null));
     }
 
     /**
@@ -71,6 +156,66 @@ public class NoteService {
         return etudiantRepository.findAll();
     }
 
+    /**
+     * Récupère une page d'étudiants triés par ID, avec filtres optionnels
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     */
+    public CursorPage<Etudiant> getEtudiantsPage(String cursor, Integer size,
+                                                 String module, String niveau, String prefixeNom) {
+        int taille = tailleDePage(size);
+        Long afterId = cursor != null ? KeysetCursor.decode(cursor).getId() : 0L;
+
+        List<Etudiant> etudiants = etudiantRepository.findPageOrderById(
+                afterId, module, niveau, echapperPrefixe(prefixeNom), PageRequest.of(0, taille + 1));
+
+        return versPage(etudiants, taille, e -> new KeysetCursor(null, e.getId()));
+    }
+
+    /**
+     * Récupère une page d'étudiants triés par moyenne décroissante, avec filtres optionnels
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     */
+    public CursorPage<Etudiant> getEtudiantsTriesPage(String cursor, Integer size,
+                                                      String module, String niveau, String prefixeNom) {
+        int taille = tailleDePage(size);
+        Double afterMoyenne = Double.MAX_VALUE;
+        Long afterId = 0L;
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            afterMoyenne = position.getSortKeyAsDouble();
+            afterId = position.getId();
+        }
+
+        List<Etudiant> etudiants = etudiantRepository.findPageOrderByMoyenneDesc(
+                afterMoyenne, afterId, module, niveau, echapperPrefixe(prefixeNom), PageRequest.of(0, taille + 1));
+
+        return versPage(etudiants, taille, e -> new KeysetCursor(String.valueOf(e.getMoyenne()), e.getId()));
+    }
+
+    private int tailleDePage(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Échappe les jokers LIKE pour que le préfixe soit pris littéralement
+    private String echapperPrefixe(String prefixe) {
+        if (prefixe == null || prefixe.isBlank()) {
+            return null;
+        }
+        return prefixe.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Une ligne de plus que la taille demandée est lue pour savoir s'il reste des résultats
+    private CursorPage<Etudiant> versPage(List<Etudiant> etudiants, int taille,
+                                          Function<Etudiant, KeysetCursor> curseur) {
+        boolean hasMore = etudiants.size() > taille;
+        List<Etudiant> items = hasMore ? etudiants.subList(0, taille) : etudiants;
+        String nextCursor = hasMore ? curseur.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, items.size(), hasMore, nextCursor);
+    }
+
     /**
      * Récupère un étudiant par ID
      */
@@ -85,23 +230,152 @@ public class NoteService {
         return etudiantRepository.findByCne(cne);
     }
 
+    /**
+     * Récupère les moyennes de plusieurs étudiants en une seule requête
+     * @return Map ID -> moyenne (les ID inconnus sont absents de la map)
+     */
+    public Map<Long, Double> getMoyennesByIds(List<Long> ids) {
+        Map<Long, Double> moyennes = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return moyennes;
+        }
+        for (Etudiant etudiant : etudiantRepository.findAllById(ids)) {
+            moyennes.put(etudiant.getId(), etudiant.getMoyenne());
+        }
+        return moyennes;
+    }
+
+    /**
+     * Récupère les moyennes de plusieurs étudiants par CNE en une seule requête
+     * @return Map CNE -> moyenne (les CNE inconnus sont absents de la map)
+     */
+    public Map<String, Double> getMoyennesByCnes(List<String> cnes) {
+        Map<String, Double> moyennes = new HashMap<>();
+        if (cnes == null || cnes.isEmpty()) {
+            return moyennes;
+        }
+        for (Etudiant etudiant : etudiantRepository.findByCneIn(cnes)) {
+            moyennes.put(etudiant.getCne(), etudiant.getMoyenne());
+        }
+        return moyennes;
+    }
+
     /**
      * Met à jour un étudiant
      */
     public Etudiant updateEtudiant(Long id, Etudiant etudiant) {
         if (etudiantRepository.existsById(id)) {
             etudiant.setId(id);
-            return etudiantRepository.save(etudiant);
+            Etudiant saved = etudiantRepository.save(etudiant);
+            eventPublisher.publishEvent(new EtudiantChangeEvent(
+                    EtudiantChangeEvent.Type.MODIFICATION, id, saved));
+            eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(id)));
+            return saved;
         }
         return null;
     }
 
+    /**
+     * Met à jour partiellement un étudiant (seuls les champs fournis)
+     * Grâce à @DynamicUpdate, l'UPDATE ne porte que sur les colonnes modifiées
+     */
+    @Transactional
+    public Etudiant patchEtudiant(Long id, EtudiantPatchRequest patch) {
+        Etudiant etudiant = etudiantRepository.findById(id).orElse(null);
+        if (etudiant == null) {
+            return null;
+        }
+        if (patch.getNom() != null) etudiant.setNom(patch.getNom());
+        if (patch.getPrenom() != null) etudiant.setPrenom(patch.getPrenom());
+        if (patch.getModule() != null) etudiant.setModule(patch.getModule());
+        if (patch.getNiveau() != null) etudiant.setNiveau(patch.getNiveau());
+        if (patch.getNote1() != null) etudiant.setNote1(verifierNote(patch.getNote1()));
+        if (patch.getNote2() != null) etudiant.setNote2(verifierNote(patch.getNote2()));
+        if (patch.getHeuresAbsence() != null) etudiant.setHeuresAbsence(patch.getHeuresAbsence());
+
+        eventPublisher.publishEvent(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.MODIFICATION, id, etudiant));
+        eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(id)));
+        return etudiant;
+    }
+
+    /**
+     * Saisie des notes d'un module en masse à partir de tuples (CNE, note1, note2)
+     * Les UPDATE ne touchent que note1/note2 et sont envoyés par lots JDBC;
+     * la moyenne (colonne générée) suit automatiquement et le classement est notifié.
+     */
+    @Transactional
+    public SaisieNotesResponse saisirNotesModule(String module, List<SaisieNote> saisies) {
+        SaisieNotesResponse bilan = new SaisieNotesResponse();
+        bilan.setModule(module);
+
+        List<SaisieNote> valides = new ArrayList<>(saisies.size());
+        for (SaisieNote saisie : saisies) {
+            if (saisie.getCne() == null || !noteValide(saisie.getNote1()) || !noteValide(saisie.getNote2())) {
+                bilan.getIgnores().add(saisie.getCne());
+            } else {
+                valides.add(saisie);
+            }
+        }
+        if (valides.isEmpty()) {
+            return bilan;
+        }
+
+        int[][] resultats = jdbcTemplate.batchUpdate(UPDATE_NOTES, valides, saisieBatchSize, (ps, saisie) -> {
+            ps.setObject(1, saisie.getNote1(), Types.DOUBLE);
+            ps.setObject(2, saisie.getNote2(), Types.DOUBLE);
+            ps.setString(3, saisie.getCne());
+            ps.setString(4, module);
+        });
+
+        // Les comptes sont renvoyés dans l'ordre des lignes envoyées
+        List<String> cnesModifies = new ArrayList<>(valides.size());
+        int index = 0;
+        for (int[] lot : resultats) {
+            for (int compte : lot) {
+                String cne = valides.get(index++).getCne();
+                if (compte > 0 || compte == Statement.SUCCESS_NO_INFO) {
+                    cnesModifies.add(cne);
+                } else {
+                    bilan.getIgnores().add(cne);
+                }
+            }
+        }
+        bilan.setMisAJour(cnesModifies.size());
+
+        // Une seule relecture pour tenir à jour l'index de classement (après commit)
+        if (!cnesModifies.isEmpty()) {
+            List<Long> ids = new ArrayList<>(cnesModifies.size());
+            for (Etudiant etudiant : etudiantRepository.findByCneIn(cnesModifies)) {
+                eventPublisher.publishEvent(new EtudiantChangeEvent(
+                        EtudiantChangeEvent.Type.MODIFICATION, etudiant.getId(), etudiant));
+                ids.add(etudiant.getId());
+            }
+            eventPublisher.publishEvent(new EtudiantsModifiesEvent(ids));
+        }
+        return bilan;
+    }
+
+    private boolean noteValide(Double note) {
+        return note == null || (note >= 0 && note <= 20);
+    }
+
+    private Double verifierNote(Double note) {
+        if (!noteValide(note)) {
+            throw new RuntimeException("Note invalide (doit être entre 0 et 20): " + note);
+        }
+        return note;
+    }
+
     /**
      * Supprime un étudiant
      */
     public boolean deleteEtudiant(Long id) {
         if (etudiantRepository.existsById(id)) {
             etudiantRepository.deleteById(id);
+            eventPublisher.publishEvent(new EtudiantChangeEvent(
+                    EtudiantChangeEvent.Type.SUPPRESSION, id, null));
+            eventPublisher.publishEvent(new EtudiantsModifiesEvent(List.of(id)));
             return true;
         }
         return false;
@@ -121,9 +395,18 @@ public class NoteService {
         Etudiant etudiant = etudiantOpt.get();
         Double moyenne = etudiant.getMoyenne();
 
+        // Réplique locale d'abord: aucun appel distant si le CNE y figure
+        if (etudiant.getCne() != null) {
+            Map<String, Double> replique = tauxAbsenceReplica.getTauxAbsence(List.of(etudiant.getCne()));
+            if (replique.containsKey(etudiant.getCne())) {
+                Double taux = replique.get(etudiant.getCne());
+                return taux != null ? etudiant.getNoteFinale(taux) : moyenne;
+            }
+        }
+
         try {
-            // Appel au service Absence pour récupérer le taux d'absence
-            Double tauxAbsence = absenceClient.getTauxAbsence(etudiantId);
+            // Taux d'absence depuis le cache local (appel au service Absence si absent ou expiré)
+            Double tauxAbsence = tauxAbsenceCache.getTauxAbsence(etudiantId);
 
             if (tauxAbsence == null) {
                 // Si pas d'absences enregistrées, retourner la moyenne
@@ -150,5 +433,85 @@ public class NoteService {
         }
         return getNoteFinaleAvecAbsence(etudiantOpt.get().getId());
     }
-}
 
+    /**
+     * Calcule les notes finales de tous les étudiants d'un module
+     * Un seul appel au service Absence par lot de CNE
+     */
+    public List<NoteFinaleResponse> getNotesFinalesByModule(String module) {
+        return calculerNotesFinales(etudiantRepository.findByModule(module));
+    }
+
+    /**
+     * Calcule les notes finales d'une liste d'étudiants identifiés par leur CNE
+     * Les CNE inconnus du service Notes sont ignorés
+     */
+    public List<NoteFinaleResponse> getNotesFinalesByCnes(List<String> cnes) {
+        if (cnes == null || cnes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return calculerNotesFinales(etudiantRepository.findByCneIn(cnes));
+    }
+
+    /**
+     * Jointure sur le CNE entre les étudiants locaux et les taux d'absence
+     * récupérés par lots auprès du service Absence
+     */
+    private List<NoteFinaleResponse> calculerNotesFinales(List<Etudiant> etudiants) {
+        List<NoteFinaleResponse> resultats = new ArrayList<>(etudiants.size());
+
+        for (int debut = 0; debut < etudiants.size(); debut += noteFinaleBatchSize) {
+            List<Etudiant> lot = etudiants.subList(debut, Math.min(debut + noteFinaleBatchSize, etudiants.size()));
+            Map<String, Double> tauxParCne = getTauxAbsenceLot(lot);
+
+            for (Etudiant etudiant : lot) {
+                Double tauxAbsence = tauxParCne.get(etudiant.getCne());
+                Double noteFinale = etudiant.getNoteFinale(tauxAbsence);
+                resultats.add(new NoteFinaleResponse(
+                        etudiant.getId(),
+                        etudiant.getCne(),
+                        etudiant.getNom(),
+                        etudiant.getPrenom(),
+                        etudiant.getModule(),
+                        etudiant.getMoyenne(),
+                        tauxAbsence,
+                        noteFinale,
+                        noteFinale >= 12.0
+                ));
+            }
+        }
+        return resultats;
+    }
+
+    private Map<String, Double> getTauxAbsenceLot(List<Etudiant> lot) {
+        List<String> cnes = new ArrayList<>(lot.size());
+        for (Etudiant etudiant : lot) {
+            if (etudiant.getCne() != null) {
+                cnes.add(etudiant.getCne());
+            }
+        }
+        if (cnes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // Réplique locale d'abord; seuls les CNE qu'elle ne connaît pas passent par le service Absence
+        Map<String, Double> taux = new HashMap<>(tauxAbsenceReplica.getTauxAbsence(cnes));
+        if (taux.size() == cnes.size()) {
+            return taux;
+        }
+        List<String> manquants = new ArrayList<>();
+        for (String cne : cnes) {
+            if (!taux.containsKey(cne)) {
+                manquants.add(cne);
+            }
+        }
+
+        try {
+            taux.putAll(tauxAbsenceCache.getTauxAbsenceByCnes(manquants));
+        } catch (Exception e) {
+            // Service Absence indisponible: les notes finales retombent sur la moyenne
+            System.err.println("Erreur lors de la récupération des taux d'absence en lot: " + e.getMessage());
+        }
+        return taux;
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.gestionnotesspringboot.bulletin;
+
+import org.example.gestionnotesspringboot.entity.Bulletin;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.entity.TauxAbsenceReplica;
+import org.example.gestionnotesspringboot.event.EtudiantsModifiesEvent;
+import org.example.gestionnotesspringboot.event.TauxAbsenceRepliqueEvent;
+import org.example.gestionnotesspringboot.repository.BulletinRepository;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.example.gestionnotesspringboot.repository.TauxAbsenceReplicaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Projection des bulletins: un lot = une transaction et un upsert JDBC, échecs marqués à réconcilier
+ */
+@ExtendWith(MockitoExtension.class)
+class BulletinProjectionTest {
+
+    @Mock
+    private BulletinRepository bulletinRepository;
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private TauxAbsenceReplicaRepository replicaRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BulletinProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projection, "seuilListeNoire", 0.5);
+        ReflectionTestUtils.setField(projection, "batchSize", 500);
+        // Pas de passage automatique du réconciliateur pendant le test
+        ReflectionTestUtils.setField(projection, "reconciliationIntervalMillis", 3_600_000L);
+        projection.demarrer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        projection.arreter();
+    }
+
+    private static Etudiant etudiant(Long id, String cne, double note1, double note2) {
+        return new Etudiant(id, "Nom" + id, "Prenom", cne, note1, note2, "MOD", "L3", 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Bulletin> bulletinsEcrits() {
+        ArgumentCaptor<Collection<Bulletin>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        return List.copyOf(captor.getValue());
+    }
+
+    @Test
+    void lotEcritEnUnSeulUpsertDansUneTransaction() {
+        when(etudiantRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(etudiant(1L, "C1", 14.0, 14.0), etudiant(2L, "C2", 10.0, 10.0)));
+        when(replicaRepository.findAllById(List.of("C1", "C2")))
+                .thenReturn(List.of(new TauxAbsenceReplica("C1", 1L, 0.6, 1L, 0L)));
+
+        projection.onEtudiantsModifies(new EtudiantsModifiesEvent(List.of(1L, 2L)));
+
+        List<Bulletin> bulletins = bulletinsEcrits();
+        assertEquals(2, bulletins.size());
+        Bulletin c1 = bulletins.get(0);
+        assertEquals(0.6, c1.getTauxAbsence());
+        assertEquals(14.0 - 0.6 * 14.0, c1.getNoteFinale(), 1e-9);
+        assertFalse(c1.isValide());
+        assertTrue(c1.isListeNoire());
+        Bulletin c2 = bulletins.get(1);
+        assertNull(c2.getTauxAbsence());
+        assertEquals(10.0, c2.getNoteFinale());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        // Pas de lecture préalable des bulletins
+        verify(bulletinRepository, never()).findById(any());
+        verify(bulletinRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void etudiantDisparuSupprimeSonBulletin() {
+        when(etudiantRepository.findAllById(List.of(1L, 9L))).thenReturn(List.of(etudiant(1L, "C1", 12.0, 12.0)));
+
+        projection.onEtudiantsModifies(new EtudiantsModifiesEvent(List.of(1L, 9L)));
+
+        verify(bulletinRepository).deleteAllByIdInBatch(Set.of(9L));
+        assertEquals(1, bulletinsEcrits().size());
+    }
+
+    @Test
+    void tauxRepliquesProjetesParIdEtudiant() {
+        when(etudiantRepository.findByCneIn(List.of("C1"))).thenReturn(List.of(etudiant(1L, "C1", 12.0, 12.0)));
+        when(etudiantRepository.findAllById(List.of(1L))).thenReturn(List.of(etudiant(1L, "C1", 12.0, 12.0)));
+
+        projection.onTauxRepliques(new TauxAbsenceRepliqueEvent(List.of("C1")));
+
+        assertEquals(1L, bulletinsEcrits().get(0).getEtudiantId());
+    }
+
+    @Test
+    void echecJournaliseEtMarqueAReconcilierPuisRattrape() {
+        when(etudiantRepository.findAllById(List.of(1L, 2L)))
+                .thenThrow(new RuntimeException("base indisponible"));
+
+        // L'exception ne remonte pas jusqu'à l'écriture déjà validée
+        projection.onEtudiantsModifies(new EtudiantsModifiesEvent(List.of(1L, 2L)));
+
+        assertEquals(2, projection.getNombreAReconcilier());
+        verify(transactionManager).rollback(any());
+
+        when(etudiantRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(etudiant(1L, "C1", 12.0, 12.0), etudiant(2L, "C2", 12.0, 12.0)));
+        projection.reconcilier();
+
+        assertEquals(0, projection.getNombreAReconcilier());
+        assertEquals(2, bulletinsEcrits().size());
+    }
+
+    @Test
+    void lotVideSansTransaction() {
+        projection.onEtudiantsModifies(new EtudiantsModifiesEvent(List.of()));
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+}
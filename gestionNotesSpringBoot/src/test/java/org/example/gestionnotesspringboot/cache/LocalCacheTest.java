@@ -0,0 +1,124 @@
+package org.example.gestionnotesspringboot.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void valeurChargeeUneSeuleFois() {
+        LocalCache<Long, String> cache = cache(10);
+        AtomicInteger appels = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1L, cle -> {
+            appels.incrementAndGet();
+            return "v" + cle;
+        }));
+        assertEquals("v1", cache.get(1L, cle -> "autre"));
+        assertEquals(1, appels.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void invalidationPendantLeChargementNEstPasEcrasee() {
+        LocalCache<Long, String> cache = cache(10);
+
+        // Le service Absence invalide la clé pendant que l'ancienne valeur est en route
+        String valeur = cache.get(1L, cle -> {
+            cache.invalidate(cle);
+            return "perimee";
+        });
+
+        assertEquals("perimee", valeur);
+        assertEquals(0, cache.size());
+        assertEquals("fraiche", cache.get(1L, cle -> "fraiche"));
+    }
+
+    @Test
+    void invalidateAllPendantUnChargementEnLot() {
+        LocalCache<String, Double> cache = cache(10);
+
+        Map<String, Double> valeurs = cache.getAll(List.of("C1", "C2"), cles -> {
+            cache.invalidateAll();
+            Map<String, Double> charges = new HashMap<>();
+            cles.forEach(cle -> charges.put(cle, 0.1));
+            return charges;
+        });
+
+        assertEquals(2, valeurs.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void tailleBorneeParEviction() {
+        LocalCache<Long, String> cache = cache(100);
+
+        for (long i = 0; i < 1000; i++) {
+            cache.put(i, "v" + i);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(900.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void evictionEchantillonneToutLeCacheEtGardeLesEntreesRecentes() {
+        LocalCache<Long, String> cache = cache(1000);
+        for (long i = 0; i < 1000; i++) {
+            cache.put(i, "v" + i);
+        }
+        // Les clés chaudes sont en tête d'itération de la map: un échantillon pris au début les viderait
+        for (long i = 0; i < 500; i++) {
+            cache.get(i, cle -> "rechargee");
+        }
+
+        for (long i = 1000; i < 1250; i++) {
+            cache.put(i, "v" + i);
+        }
+
+        int chaudesGardees = 0;
+        for (long i = 0; i < 500; i++) {
+            if (!"rechargee".equals(cache.get(i, cle -> "rechargee"))) {
+                chaudesGardees++;
+            }
+        }
+        assertTrue(chaudesGardees >= 450, "clés chaudes gardées: " + chaudesGardees);
+    }
+
+    @Test
+    void invalidationRetireLaCleEtGardeLesAutres() {
+        LocalCache<Long, String> cache = cache(10);
+        for (long i = 0; i < 5; i++) {
+            cache.put(i, "v" + i);
+        }
+
+        cache.invalidate(0L);
+        cache.invalidate(4L);
+
+        assertEquals(3, cache.size());
+        for (long i = 1; i < 4; i++) {
+            assertEquals("v" + i, cache.get(i, cle -> "rechargee"));
+        }
+        // Les positions libérées restent cohérentes pour l'éviction
+        for (long i = 10; i < 30; i++) {
+            cache.put(i, "v" + i);
+        }
+        assertEquals(10, cache.size());
+    }
+
+    private <K, V> LocalCache<K, V> cache(int maxEntries) {
+        return new LocalCache<>("test", Duration.ofMinutes(5), Duration.ofMinutes(10), maxEntries,
+                Runnable::run, meterRegistry);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.gestionnotesspringboot.classement;
+
+import org.example.gestionnotesspringboot.dto.ClassementResponse;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.event.EtudiantChangeEvent;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClassementIndexTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @InjectMocks
+    private ClassementIndex classementIndex;
+
+    @Test
+    void topClasseDepuisLIndexEtChargeLesNomsParCle() {
+        enBase(etudiant(1L, 10.0, 12.0, "M1"), etudiant(2L, 16.0, 14.0, "M1"), etudiant(3L, 10.0, 12.0, "M2"));
+        classementIndex.reconstruire();
+
+        List<ClassementResponse> top = classementIndex.top(null, 3);
+
+        assertEquals(List.of(2L, 1L, 3L), top.stream().map(ClassementResponse::getEtudiantId).toList());
+        ClassementResponse premier = top.get(0);
+        assertEquals("C2", premier.getCne());
+        assertEquals("Nom2", premier.getNom());
+        assertEquals("M1", premier.getModule());
+        assertEquals(15.0, premier.getMoyenne());
+        assertEquals(1, premier.getRang());
+        // 1 et 3 ex aequo
+        assertEquals(2, top.get(2).getRang());
+    }
+
+    @Test
+    void etudiantSupprimeEntreLeClassementEtLaLectureOmis() {
+        enBase(etudiant(1L, 10.0, 12.0, "M1"), etudiant(2L, 16.0, 14.0, "M1"));
+        classementIndex.reconstruire();
+        doReturn(List.of(etudiant(1L, 10.0, 12.0, "M1"))).when(etudiantRepository).findAllById(any());
+
+        assertEquals(List.of(1L), classementIndex.top("M1", 2).stream().map(ClassementResponse::getEtudiantId).toList());
+    }
+
+    @Test
+    void evenementsAppliquesApresCommit() {
+        enBase(etudiant(1L, 10.0, 12.0, "M1"), etudiant(2L, 16.0, 14.0, "M1"));
+        classementIndex.reconstruire();
+        lenient().when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant(1L, 18.0, 18.0, "M1")));
+
+        classementIndex.onEtudiantChange(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.MODIFICATION, 1L, etudiant(1L, 18.0, 18.0, "M1")));
+        classementIndex.onEtudiantChange(new EtudiantChangeEvent(
+                EtudiantChangeEvent.Type.SUPPRESSION, 2L, null));
+
+        assertEquals(1, classementIndex.size());
+        assertEquals(1, classementIndex.rang(1L, true).getRang());
+        assertNull(classementIndex.rang(2L, false));
+        assertEquals(List.of(1L), classementIndex.majorants("M1"));
+    }
+
+    @Test
+    void evenementPendantLaReconstructionNEstPasEcrase() throws Exception {
+        AtomicReference<Thread> ecrivain = new AtomicReference<>();
+        when(etudiantRepository.findClassement()).thenAnswer(invocation -> {
+            // Une modification validée pendant la lecture de la base attend la fin de la reconstruction
+            Thread thread = new Thread(() -> classementIndex.mettreAJour(etudiant(1L, 20.0, 20.0, "M1")));
+            thread.start();
+            thread.join(200);
+            assertTrue(thread.isAlive());
+            ecrivain.set(thread);
+            return List.<Object[]>of(new Object[]{1L, 10.0, "M1"});
+        });
+        when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant(1L, 20.0, 20.0, "M1")));
+
+        classementIndex.reconstruire();
+        ecrivain.get().join(5000);
+
+        assertEquals(20.0, classementIndex.rang(1L, false).getMoyenne());
+    }
+
+    // Lignes [id, moyenne, module] lues à la reconstruction, étudiants complets lus par clé
+    private void enBase(Etudiant... etudiants) {
+        List<Object[]> lignes = new ArrayList<>();
+        for (Etudiant etudiant : etudiants) {
+            lignes.add(new Object[]{etudiant.getId(), etudiant.getMoyenne(), etudiant.getModule()});
+        }
+        when(etudiantRepository.findClassement()).thenReturn(lignes);
+        lenient().when(etudiantRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return List.of(etudiants).stream().filter(e -> ids.contains(e.getId())).toList();
+        });
+    }
+
+    private static Etudiant etudiant(Long id, Double note1, Double note2, String module) {
+        return new Etudiant(id, "Nom" + id, "Prenom" + id, "C" + id, note1, note2, module, "L3", 0);
+    }
+}
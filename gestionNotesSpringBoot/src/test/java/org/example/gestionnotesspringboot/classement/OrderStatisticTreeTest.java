@@ -0,0 +1,126 @@
+package org.example.gestionnotesspringboot.classement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatisticTreeTest {
+
+    // Même ordre que l'arbre: score décroissant puis id croissant
+    private static final Comparator<double[]> ORDRE = Comparator
+            .comparingDouble((double[] e) -> -e[0])
+            .thenComparingDouble(e -> e[1]);
+
+    @Test
+    void topDansLOrdreDuClassement() {
+        OrderStatisticTree<Long> arbre = new OrderStatisticTree<>();
+        arbre.insert(12.0, 3, 3L);
+        arbre.insert(15.0, 1, 1L);
+        arbre.insert(12.0, 2, 2L);
+        arbre.insert(9.5, 4, 4L);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), arbre.top(10));
+        assertEquals(List.of(1L, 2L), arbre.top(2));
+        assertEquals(List.of(), arbre.top(0));
+        assertEquals(15.0, arbre.maxScore());
+    }
+
+    @Test
+    void rangParComptages() {
+        OrderStatisticTree<Long> arbre = new OrderStatisticTree<>();
+        arbre.insert(15.0, 1, 1L);
+        arbre.insert(12.0, 2, 2L);
+        arbre.insert(12.0, 3, 3L);
+        arbre.insert(9.5, 4, 4L);
+
+        // Ex aequo à 12: même rang 2, un au-dessus, un en dessous
+        assertEquals(1, arbre.countGreater(12.0));
+        assertEquals(1, arbre.countLess(12.0));
+        assertEquals(0, arbre.countGreater(15.0));
+        assertEquals(4, arbre.countLess(20.0));
+        assertEquals(0, arbre.countLess(9.5));
+    }
+
+    @Test
+    void suppressionDUnElementPrecis() {
+        OrderStatisticTree<Long> arbre = new OrderStatisticTree<>();
+        arbre.insert(12.0, 2, 2L);
+        arbre.insert(12.0, 3, 3L);
+
+        assertFalse(arbre.remove(12.0, 99));
+        assertFalse(arbre.remove(11.0, 2));
+        assertTrue(arbre.remove(12.0, 2));
+
+        assertEquals(1, arbre.size());
+        assertEquals(List.of(3L), arbre.top(5));
+    }
+
+    @Test
+    void arbreVide() {
+        OrderStatisticTree<Long> arbre = new OrderStatisticTree<>();
+
+        assertEquals(0, arbre.size());
+        assertTrue(Double.isNaN(arbre.maxScore()));
+        assertEquals(0, arbre.countGreater(0.0));
+        assertFalse(arbre.remove(1.0, 1));
+    }
+
+    @Test
+    void tailleEtOrdreConservesApresInsertionsEtSuppressionsAleatoires() {
+        Random random = new Random(42);
+        OrderStatisticTree<Long> arbre = new OrderStatisticTree<>();
+        TreeSet<double[]> reference = new TreeSet<>(ORDRE);
+        List<double[]> presents = new ArrayList<>();
+
+        for (int i = 0; i < 20000; i++) {
+            if (presents.isEmpty() || random.nextInt(3) > 0) {
+                double[] element = {random.nextInt(41) / 2.0, i};
+                arbre.insert(element[0], i, (long) i);
+                reference.add(element);
+                presents.add(element);
+            } else {
+                double[] element = presents.remove(random.nextInt(presents.size()));
+                assertTrue(arbre.remove(element[0], (long) element[1]));
+                reference.remove(element);
+            }
+            if (i % 1000 == 0) {
+                verifier(arbre, reference);
+            }
+        }
+        verifier(arbre, reference);
+
+        // Tout vider: les tailles des sous-arbres restent justes jusqu'au bout
+        while (!presents.isEmpty()) {
+            double[] element = presents.remove(presents.size() - 1);
+            assertTrue(arbre.remove(element[0], (long) element[1]));
+            reference.remove(element);
+            assertEquals(reference.size(), arbre.size());
+        }
+    }
+
+    private static void verifier(OrderStatisticTree<Long> arbre, TreeSet<double[]> reference) {
+        assertEquals(reference.size(), arbre.size());
+
+        List<Long> attendus = new ArrayList<>();
+        for (double[] element : reference) {
+            attendus.add((long) element[1]);
+        }
+        assertEquals(attendus, arbre.top(reference.size()));
+
+        for (double score = 0; score <= 20; score += 2.5) {
+            double s = score;
+            long superieurs = reference.stream().filter(e -> e[0] > s).count();
+            long inferieurs = reference.stream().filter(e -> e[0] < s).count();
+            assertEquals(superieurs, arbre.countGreater(s));
+            assertEquals(inferieurs, arbre.countLess(s));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.gestionnotesspringboot.client;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.example.gestionnotesspringboot.grpc.AbsenceInterneGrpc;
+import org.example.gestionnotesspringboot.grpc.Booleen;
+import org.example.gestionnotesspringboot.grpc.EtudiantRef;
+import org.example.gestionnotesspringboot.grpc.ListeNoireRequete;
+import org.example.gestionnotesspringboot.grpc.LotRefs;
+import org.example.gestionnotesspringboot.grpc.LotValeurs;
+import org.example.gestionnotesspringboot.grpc.Valeur;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Client gRPC interne contre un service Absence en mémoire
+ */
+class GrpcAbsenceClientTest {
+
+    private final List<LotRefs> lotsRecus = new CopyOnWriteArrayList<>();
+    private final AbsenceClient feign = mock(AbsenceClient.class);
+    private Server serveur;
+    private ManagedChannel canal;
+    private GrpcAbsenceClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String nom = InProcessServerBuilder.generateName();
+        serveur = InProcessServerBuilder.forName(nom)
+                .directExecutor()
+                .addService(new ServiceAbsence())
+                .build()
+                .start();
+        canal = InProcessChannelBuilder.forName(nom).build();
+
+        client = new GrpcAbsenceClient();
+        ReflectionTestUtils.setField(client, "bloquant", AbsenceInterneGrpc.newBlockingStub(canal));
+        ReflectionTestUtils.setField(client, "asynchrone", AbsenceInterneGrpc.newStub(canal));
+        ReflectionTestUtils.setField(client, "feign", feign);
+        ReflectionTestUtils.setField(client, "tailleLot", 2);
+        ReflectionTestUtils.setField(client, "deadlineMillis", 3000L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        canal.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        serveur.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rechercheEnMasseDecoupeeEnLotsSurUnSeulFlux() {
+        Map<Long, Double> taux = client.getTauxAbsenceByIds(List.of(1L, 2L, 3L, 4L, 5L));
+
+        // ID 4 et 5 inconnus: absents de la map
+        assertEquals(Map.of(1L, 0.1, 2L, 0.2, 3L, 0.3), taux);
+        assertEquals(List.of(2, 2, 1), lotsRecus.stream().map(LotRefs::getIdsCount).toList());
+    }
+
+    @Test
+    void rechercheParCne() {
+        assertEquals(Map.of("C1", 0.25), client.getTauxAbsenceByCnes(List.of("C1", "C9")));
+    }
+
+    @Test
+    void rechercheVideSansAppel() {
+        assertTrue(client.getTauxAbsenceByIds(List.of()).isEmpty());
+        assertTrue(lotsRecus.isEmpty());
+    }
+
+    @Test
+    void erreurDuFluxPropagee() {
+        StatusRuntimeException erreur = assertThrows(StatusRuntimeException.class,
+                () -> client.getTauxAbsenceByIds(List.of(1L, 99L)));
+
+        assertEquals(Status.Code.UNAVAILABLE, erreur.getStatus().getCode());
+    }
+
+    @Test
+    void tauxUnitaireEtListeNoire() {
+        assertEquals(0.2, client.getTauxAbsence(2L));
+        assertEquals(Boolean.TRUE, client.isEtudiantListeNoire(1L));
+        assertEquals(Boolean.FALSE, client.isEtudiantListeNoire(2L));
+    }
+
+    @Test
+    void etudiantInconnuDonneNotFound() {
+        // NOT_FOUND est traité comme une erreur 4xx par ClientResilience
+        StatusRuntimeException erreur = assertThrows(StatusRuntimeException.class,
+                () -> client.getTauxAbsence(9L));
+
+        assertEquals(Status.Code.NOT_FOUND, erreur.getStatus().getCode());
+    }
+
+    @Test
+    void methodesSansEquivalentGrpcRestentSurFeign() {
+        when(feign.countAbsencesEtudiant(1L)).thenReturn(4L);
+
+        assertEquals(Long.valueOf(4L), client.countAbsencesEtudiant(1L));
+    }
+
+    /**
+     * Taux connus: ID 1 à 3 (id / 10) et CNE C1; ID 99 dans un lot fait échouer le flux
+     */
+    private class ServiceAbsence extends AbsenceInterneGrpc.AbsenceInterneImplBase {
+
+        @Override
+        public void tauxAbsence(EtudiantRef request, StreamObserver<Valeur> responseObserver) {
+            if (request.getId() > 3) {
+                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(Valeur.newBuilder().setValeur(request.getId() / 10.0).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void listeNoire(ListeNoireRequete request, StreamObserver<Booleen> responseObserver) {
+            responseObserver.onNext(Booleen.newBuilder().setValeur(request.getId() == 1L).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public StreamObserver<LotRefs> fluxTauxAbsence(StreamObserver<LotValeurs> responseObserver) {
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(LotRefs lot) {
+                    lotsRecus.add(lot);
+                    if (lot.getIdsList().contains(99L)) {
+                        responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                        return;
+                    }
+                    LotValeurs.Builder reponse = LotValeurs.newBuilder();
+                    for (Long id : lot.getIdsList()) {
+                        if (id <= 3) {
+                            reponse.addIds(id).addValeurs(id / 10.0);
+                        }
+                    }
+                    for (String cne : lot.getCnesList()) {
+                        if (cne.equals("C1")) {
+                            reponse.addCnes(cne).addValeurs(0.25);
+                        }
+                    }
+                    responseObserver.onNext(reponse.build());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.gestionnotesspringboot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.gestionnotesspringboot.client.AbsenceClient;
+import org.example.gestionnotesspringboot.client.GrpcAbsenceClient;
+import org.example.gestionnotesspringboot.grpc.ComparaisonTransports;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Le banc de comparaison des transports n'est exposé que sur demande
+ */
+class InterneControllerTest {
+
+    // Le mock passe quand même par l'injection des champs @Autowired: ses dépendances sont fournies
+    private final ApplicationContextRunner contexte = new ApplicationContextRunner()
+            .withBean("absenceFeignClient", AbsenceClient.class, () -> mock(AbsenceClient.class))
+            .withBean(GrpcAbsenceClient.class, () -> mock(GrpcAbsenceClient.class))
+            .withBean(ObjectMapper.class, ObjectMapper::new)
+            .withBean(ComparaisonTransports.class, () -> mock(ComparaisonTransports.class))
+            .withUserConfiguration(InterneController.class);
+
+    @Test
+    void desactiveParDefaut() {
+        contexte.run(ctx -> assertThat(ctx).doesNotHaveBean(InterneController.class));
+    }
+
+    @Test
+    void activeParPropriete() {
+        contexte.withPropertyValues("interne.benchmark.enabled=true")
+                .run(ctx -> assertThat(ctx).hasSingleBean(InterneController.class));
+    }
+}
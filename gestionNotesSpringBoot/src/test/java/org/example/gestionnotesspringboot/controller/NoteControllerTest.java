@@ -0,0 +1,89 @@
+package org.example.gestionnotesspringboot.controller;
+
+import org.example.commons.pagination.CursorPage;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.service.NoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listes complètes dépréciées au profit des pages par clé
+ */
+@ExtendWith(MockitoExtension.class)
+class NoteControllerTest {
+
+    @Mock
+    private NoteService noteService;
+
+    @InjectMocks
+    private NoteController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void listesCompletesAnnoncentLeurRemplacement() throws Exception {
+        when(noteService.getAllEtudiants()).thenReturn(List.of());
+        when(noteService.getEtudiantsTriesPage(null, null, null, null, null))
+                .thenReturn(new CursorPage<>(List.of(), 0, false, null));
+
+        mockMvc.perform(get("/api/notes/etudiants"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string(HttpHeaders.LINK, "<etudiants/page>; rel=\"successor-version\""));
+        mockMvc.perform(get("/api/notes/tries"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string(HttpHeaders.LINK, "<tries/page>; rel=\"successor-version\""));
+    }
+
+    @Test
+    void triesServiesParPageAvecLienVersLaSuivante() throws Exception {
+        when(noteService.getEtudiantsTriesPage(null, 2, null, null, null)).thenReturn(new CursorPage<>(
+                List.of(etudiant(2L, 16.0), etudiant(1L, 11.0)), 2, true, "curseur"));
+
+        mockMvc.perform(get("/api/notes/tries").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(header().stringValues(HttpHeaders.LINK,
+                        "<tries/page>; rel=\"successor-version\"",
+                        "<tries?cursor=curseur&size=2>; rel=\"next\""));
+    }
+
+    @Test
+    void pageNonDepreciee() throws Exception {
+        when(noteService.getEtudiantsPage(any(), any(), any(), any(), eq("Ala")))
+                .thenReturn(new CursorPage<>(List.of(), 0, false, null));
+
+        mockMvc.perform(get("/api/notes/etudiants/page").param("nom", "Ala"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Deprecation"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    private static Etudiant etudiant(Long id, Double note) {
+        return new Etudiant(id, "Nom" + id, "Prenom" + id, "C" + id, note, note, "M1", "L3", 0);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.gestionnotesspringboot.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Les getters doivent suivre les colonnes générées moyenne et taux_absence
+ * sur lesquelles filtrent et trient les requêtes du repository
+ */
+class EtudiantTest {
+
+    @Test
+    void moyenneDesDeuxNotes() {
+        assertEquals(13.0, etudiant(12.0, 14.0, 0).getMoyenne());
+    }
+
+    @Test
+    void moyenneNulleSiUneNoteManque() {
+        // COALESCE((note1 + note2) / 2.0, 0)
+        assertEquals(0.0, etudiant(null, 14.0, 0).getMoyenne());
+        assertEquals(0.0, etudiant(12.0, null, 0).getMoyenne());
+    }
+
+    @Test
+    void tauxAbsenceSur500Heures() {
+        assertEquals(10.0, etudiant(10.0, 10.0, 50).getTauxAbsence(), 1e-9);
+        assertEquals(0.0, etudiant(10.0, 10.0, null).getTauxAbsence());
+    }
+
+    @Test
+    void validationAPartirDe12Inclus() {
+        assertTrue(etudiant(12.0, 12.0, 0).aValide());
+        assertFalse(etudiant(11.0, 12.9, 0).aValide());
+    }
+
+    @Test
+    void noteFinaleBorneeParLeTaux() {
+        Etudiant etudiant = etudiant(14.0, 16.0, 0);
+
+        assertEquals(12.0, etudiant.getNoteFinale(0.2), 1e-9);
+        assertEquals(15.0, etudiant.getNoteFinale(null));
+        assertEquals(15.0, etudiant.getNoteFinale(-0.5));
+        assertEquals(0.0, etudiant.getNoteFinale(3.0));
+    }
+
+    private static Etudiant etudiant(Double note1, Double note2, Integer heuresAbsence) {
+        return new Etudiant(1L, "Nom", "Prenom", "C1", note1, note2, "M1", "L3", heuresAbsence);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.gestionnotesspringboot.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.gestionnotesspringboot.dto.TauxAbsenceEvent;
+import org.example.gestionnotesspringboot.entity.TauxAbsenceReplica;
+import org.example.gestionnotesspringboot.event.TauxAbsenceRepliqueEvent;
+import org.example.gestionnotesspringboot.repository.TauxAbsenceReplicaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Réplique des taux d'absence: application idempotente et ordonnée par séquence, quel que soit
+ * l'ordre d'arrivée des lots
+ */
+@ExtendWith(MockitoExtension.class)
+class TauxAbsenceReplicaServiceTest {
+
+    @Mock
+    private TauxAbsenceReplicaRepository replicaRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TauxAbsenceReplicaService service;
+
+    // Contenu de la table taux_absence_replica; les entités renvoyées sont "gérées" (modifiées en place)
+    private final Map<String, TauxAbsenceReplica> table = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new TauxAbsenceReplicaService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "replicaRepository", replicaRepository);
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "enabled", true);
+
+        lenient().when(replicaRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<TauxAbsenceReplica> trouves = new ArrayList<>();
+            for (Object cne : inv.<Iterable<?>>getArgument(0)) {
+                if (table.containsKey(cne)) {
+                    trouves.add(table.get(cne));
+                }
+            }
+            return trouves;
+        });
+        lenient().when(replicaRepository.saveAll(anyIterable())).thenAnswer(inv -> {
+            for (Object o : inv.<Iterable<?>>getArgument(0)) {
+                TauxAbsenceReplica replica = (TauxAbsenceReplica) o;
+                table.put(replica.getCne(), replica);
+            }
+            return null;
+        });
+    }
+
+    private static TauxAbsenceEvent evenement(long sequence, String cne, Double taux) {
+        return new TauxAbsenceEvent(sequence, sequence, cne, taux, taux == null, System.currentTimeMillis());
+    }
+
+    @Test
+    void dernierEvenementDuLotRetenuParCne() {
+        assertEquals(1, service.appliquer(List.of(evenement(2, "C1", 0.2), evenement(5, "C1", 0.5), evenement(3, "C1", 0.3))));
+
+        assertEquals(0.5, table.get("C1").getTauxAbsence());
+        assertEquals(5L, table.get("C1").getSequence());
+    }
+
+    @Test
+    void lotPlusAncienArriveApresIgnore() {
+        service.appliquer(List.of(evenement(10, "C1", 0.4)));
+
+        assertEquals(0, service.appliquer(List.of(evenement(7, "C1", 0.1))));
+
+        assertEquals(0.4, table.get("C1").getTauxAbsence());
+    }
+
+    @Test
+    void lotRejoueSansEffet() {
+        List<TauxAbsenceEvent> lot = List.of(evenement(1, "C1", 0.1), evenement(2, "C2", 0.2));
+        service.appliquer(lot);
+
+        assertEquals(0, service.appliquer(lot));
+        verify(eventPublisher).publishEvent(any(TauxAbsenceRepliqueEvent.class));
+    }
+
+    @Test
+    void suppressionPasEcraseeParUnEvenementPlusAncien() {
+        service.appliquer(List.of(evenement(1, "C1", 0.1)));
+
+        service.appliquer(List.of(evenement(3, "C1", null)));
+        assertTrue(service.getTauxAbsence(List.of("C1")).isEmpty());
+
+        // Un état antérieur à la suppression, rejoué, ne recrée pas l'étudiant
+        assertEquals(0, service.appliquer(List.of(evenement(2, "C1", 0.2))));
+        assertTrue(service.getTauxAbsence(List.of("C1")).isEmpty());
+
+        assertEquals(1, service.appliquer(List.of(evenement(4, "C1", 0.4))));
+        assertEquals(Map.of("C1", 0.4), service.getTauxAbsence(List.of("C1")));
+    }
+
+    @Test
+    void tauxLusDepuisLaReplique() {
+        service.appliquer(List.of(evenement(1, "C1", 0.1)));
+
+        assertEquals(Map.of("C1", 0.1), service.getTauxAbsence(List.of("C1", "C2")));
+    }
+
+    @Test
+    void repliqueDesactiveeNeRenvoieRien() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        assertTrue(service.getTauxAbsence(List.of("C1")).isEmpty());
+        verify(replicaRepository, never()).findAllById(anyIterable());
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.gestionnotesspringboot.service;
+
+import org.example.gestionnotesspringboot.client.AbsenceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Autorisation du relevé: seul un statut liste noire explicitement false autorise
+ */
+@ExtendWith(MockitoExtension.class)
+class EtudiantAbsenceServiceTest {
+
+    @Mock
+    private AbsenceClient absenceClient;
+
+    @InjectMocks
+    private EtudiantAbsenceService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "deadlineMillis", 5000L);
+        lenient().when(absenceClient.countAbsencesEtudiant(1L)).thenReturn(4L);
+    }
+
+    @Test
+    void horsListeNoireAutorise() {
+        when(absenceClient.isEtudiantListeNoire(1L)).thenReturn(false);
+
+        Map<String, Object> resultat = service.verifierAutorisationReleve(1L);
+
+        assertEquals(true, resultat.get("autoriseReleve"));
+        assertEquals(4L, resultat.get("nombreAbsences"));
+        assertNull(resultat.get("statutInconnu"));
+    }
+
+    @Test
+    void enListeNoireBloque() {
+        when(absenceClient.isEtudiantListeNoire(1L)).thenReturn(true);
+
+        Map<String, Object> resultat = service.verifierAutorisationReleve(1L);
+
+        assertEquals(false, resultat.get("autoriseReleve"));
+        assertEquals("Trop d'absences - Relevé bloqué", resultat.get("message"));
+    }
+
+    @Test
+    void statutInconnuNAutorisePas() {
+        when(absenceClient.isEtudiantListeNoire(1L)).thenReturn(null);
+
+        Map<String, Object> resultat = service.verifierAutorisationReleve(1L);
+
+        assertEquals(false, resultat.get("autoriseReleve"));
+        assertEquals(true, resultat.get("statutInconnu"));
+    }
+
+    @Test
+    void appelEnErreurNAutorisePas() {
+        when(absenceClient.isEtudiantListeNoire(1L)).thenThrow(new RuntimeException("service indisponible"));
+
+        Map<String, Object> resultat = service.verifierAutorisationReleve(1L);
+
+        assertEquals(false, resultat.get("autoriseReleve"));
+        assertTrue(((String) resultat.get("error")).contains("service indisponible"));
+    }
+
+    @Test
+    void infoAbsencesRegroupeLesTroisAppels() {
+        when(absenceClient.getAbsencesByEtudiantId(1L)).thenReturn(List.of());
+        when(absenceClient.isEtudiantListeNoire(1L)).thenReturn(false);
+
+        Map<String, Object> info = service.getEtudiantAbsenceInfo(1L);
+
+        assertEquals(4L, info.get("nombreAbsences"));
+        assertFalse((Boolean) info.get("listeNoire"));
+        assertNull(info.get("error"));
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.gestionnotesspringboot.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Test
+    void ndjsonUnObjetParLigne() throws Exception {
+        Etudiant e1 = etudiant(1L);
+        Etudiant e2 = etudiant(2L);
+        AtomicBoolean ferme = new AtomicBoolean();
+        when(etudiantRepository.streamAllOrderById()).thenReturn(Stream.of(e1, e2).onClose(() -> ferme.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exporterEtudiants(out, true);
+
+        String[] lignes = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(2, count);
+        assertEquals(3, lignes.length);
+        assertEquals("", lignes[2]);
+        assertEquals(1L, objectMapper.readTree(lignes[0]).get("id").asLong());
+        assertEquals("C2", objectMapper.readTree(lignes[1]).get("cne").asText());
+        // Chaque ligne est détachée une fois écrite, le curseur est fermé à la fin
+        verify(entityManager).detach(e1);
+        verify(entityManager).detach(e2);
+        assertTrue(ferme.get());
+    }
+
+    @Test
+    void jsonTableauComplet() throws Exception {
+        when(etudiantRepository.streamAllOrderById()).thenReturn(Stream.of(etudiant(1L), etudiant(2L), etudiant(3L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exporterEtudiants(out, false);
+
+        JsonNode tableau = objectMapper.readTree(out.toByteArray());
+        assertTrue(tableau.isArray());
+        assertEquals(3, tableau.size());
+        assertEquals(3L, tableau.get(2).get("id").asLong());
+    }
+
+    @Test
+    void exportVide() throws Exception {
+        when(etudiantRepository.streamAllOrderById()).thenReturn(Stream.empty(), Stream.empty());
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exporterEtudiants(ndjson, true));
+        assertEquals(0, exportService.exporterEtudiants(json, false));
+        assertEquals("", ndjson.toString(StandardCharsets.UTF_8));
+        assertEquals("[]", json.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Etudiant etudiant(Long id) {
+        return new Etudiant(id, "Nom" + id, "Prenom" + id, "C" + id, 12.0, 14.0, "M1", "L3", 0);
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.gestionnotesspringboot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.gestionnotesspringboot.dto.ImportResponse;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ImportService importService;
+
+    // CNE insérés, dans l'ordre des lots
+    private final List<List<String>> lotsInseres = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(etudiantRepository.findCnesExistants(anyCollection())).thenReturn(List.of());
+        lenient().when(etudiantRepository.findByCneIn(anyCollection())).thenReturn(List.of());
+        // La base refuse tout lot contenant le CNE "TROP-LONG"
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Etudiant> lot = invocation.getArgument(1);
+            List<String> cnes = lot.stream().map(Etudiant::getCne).toList();
+            if (cnes.contains("TROP-LONG")) {
+                throw new DataIntegrityViolationException("Data too long for column 'cne'");
+            }
+            lotsInseres.add(cnes);
+            return new int[0][];
+        });
+    }
+
+    @Test
+    void ligneRefuseeParLaBaseIsoleeSansPerdreLeLot() throws Exception {
+        ImportResponse bilan = importService.importerCsv(csv(
+                "nom,prenom,cne",
+                "A,a,C1",
+                "B,b,C2",
+                "C,c,TROP-LONG",
+                "D,d,C4",
+                "E,e,C5"));
+
+        assertEquals(4, bilan.getAcceptes());
+        assertEquals(1, bilan.getRejetes());
+        ImportResponse.Erreur erreur = bilan.getErreurs().get(0);
+        assertEquals(4, erreur.getLigne());
+        assertEquals("TROP-LONG", erreur.getCne());
+        assertTrue(erreur.getMotif().startsWith("Refusée par la base"), erreur.getMotif());
+        // Le lot fautif est repris ligne par ligne, les autres lots restent groupés
+        assertEquals(List.of(List.of("C1", "C2"), List.of("C4"), List.of("C5")), lotsInseres);
+    }
+
+    @Test
+    void cneDejaEnBaseRejete() throws Exception {
+        lenient().when(etudiantRepository.findCnesExistants(anyCollection())).thenReturn(List.of("C1"));
+
+        ImportResponse bilan = importService.importerJson(json(
+                "[{\"nom\":\"A\",\"prenom\":\"a\",\"cne\":\"C1\"},{\"nom\":\"B\",\"prenom\":\"b\",\"cne\":\"C2\"}]"));
+
+        assertEquals(1, bilan.getAcceptes());
+        assertEquals("Un étudiant avec ce CNE existe déjà", bilan.getErreurs().get(0).getMotif());
+    }
+
+    @Test
+    void elementNonObjetRejeteAvecSaPosition() throws Exception {
+        ImportResponse bilan = importService.importerJson(json(
+                "[{\"nom\":\"A\",\"prenom\":\"a\",\"cne\":\"C1\"},\n 42,\n{\"nom\":\"B\",\"prenom\":\"b\",\"cne\":\"C2\"}]"));
+
+        assertEquals(2, bilan.getAcceptes());
+        assertEquals(1, bilan.getRejetes());
+        ImportResponse.Erreur erreur = bilan.getErreurs().get(0);
+        assertEquals(2, erreur.getLigne());
+        assertTrue(erreur.getMotif().contains("(ligne 2, colonne 2)"), erreur.getMotif());
+    }
+
+    @Test
+    void jsonTronqueGardeLesElementsLus() throws Exception {
+        ImportResponse bilan = importService.importerJson(json(
+                "[{\"nom\":\"A\",\"prenom\":\"a\",\"cne\":\"C1\"}, {\"nom\": "));
+
+        assertEquals(1, bilan.getAcceptes());
+        assertEquals(1, bilan.getRejetes());
+        assertTrue(bilan.getErreurs().get(0).getMotif().contains("ligne 1"), bilan.getErreurs().get(0).getMotif());
+    }
+
+    @Test
+    void corpsQuiNEstPasUnTableauRefuse() {
+        assertThrows(RuntimeException.class, () -> importService.importerJson(json("{\"nom\":\"A\"}")));
+    }
+
+    private static InputStream csv(String... lignes) {
+        return new ByteArrayInputStream(String.join("\n", lignes).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream json(String texte) {
+        return new ByteArrayInputStream(texte.getBytes(StandardCharsets.UTF_8));
+    }
+}
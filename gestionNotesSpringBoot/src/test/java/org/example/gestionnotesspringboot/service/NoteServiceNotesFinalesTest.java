@@ -0,0 +1,133 @@
+package org.example.gestionnotesspringboot.service;
+
+import org.example.gestionnotesspringboot.cache.TauxAbsenceCache;
+import org.example.gestionnotesspringboot.dto.NoteFinaleResponse;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.replica.TauxAbsenceReplicaService;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Notes finales en masse: un appel au service Absence par lot, jointure sur le CNE
+ */
+@ExtendWith(MockitoExtension.class)
+class NoteServiceNotesFinalesTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private TauxAbsenceCache tauxAbsenceCache;
+
+    @Mock
+    private TauxAbsenceReplicaService tauxAbsenceReplica;
+
+    @InjectMocks
+    private NoteService noteService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(noteService, "noteFinaleBatchSize", 2);
+    }
+
+    @Test
+    void unAppelParLotEtJointureSurLeCne() {
+        when(etudiantRepository.findByModule("M1")).thenReturn(List.of(
+                etudiant(1L, "C1", 14.0, 16.0),
+                etudiant(2L, "C2", 10.0, 10.0),
+                etudiant(3L, "C3", 12.0, 12.0),
+                etudiant(4L, "C4", 8.0, 12.0),
+                etudiant(5L, "C5", 20.0, 20.0)));
+        when(tauxAbsenceReplica.getTauxAbsence(anyCollection())).thenReturn(Map.of());
+        when(tauxAbsenceCache.getTauxAbsenceByCnes(anyList())).thenAnswer(invocation -> {
+            List<String> cnes = invocation.getArgument(0);
+            Map<String, Double> taux = new HashMap<>();
+            for (String cne : cnes) {
+                if (!cne.equals("C3")) {
+                    taux.put(cne, 0.5);
+                }
+            }
+            return taux;
+        });
+
+        List<NoteFinaleResponse> resultats = noteService.getNotesFinalesByModule("M1");
+
+        // 5 étudiants, lots de 2: 3 appels, chacun avec au plus 2 CNE
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> lots = ArgumentCaptor.forClass(List.class);
+        verify(tauxAbsenceCache, times(3)).getTauxAbsenceByCnes(lots.capture());
+        assertEquals(List.of(List.of("C1", "C2"), List.of("C3", "C4"), List.of("C5")), lots.getAllValues());
+
+        assertEquals(5, resultats.size());
+        NoteFinaleResponse premier = resultats.get(0);
+        assertEquals("C1", premier.getCne());
+        assertEquals(15.0, premier.getMoyenne(), 1e-9);
+        assertEquals(7.5, premier.getNoteFinale(), 1e-9);
+        assertFalse(premier.getValide());
+
+        // CNE inconnu du service Absence: taux absent, note finale = moyenne
+        NoteFinaleResponse sansTaux = resultats.get(2);
+        assertNull(sansTaux.getTauxAbsence());
+        assertEquals(12.0, sansTaux.getNoteFinale(), 1e-9);
+        assertTrue(sansTaux.getValide());
+    }
+
+    @Test
+    void laRepliqueLocaleEviteLAppelDistant() {
+        when(etudiantRepository.findByCneIn(List.of("C1", "C2"))).thenReturn(List.of(
+                etudiant(1L, "C1", 10.0, 10.0),
+                etudiant(2L, "C2", 16.0, 16.0)));
+        when(tauxAbsenceReplica.getTauxAbsence(anyCollection())).thenReturn(Map.of("C1", 0.1, "C2", 0.0));
+
+        List<NoteFinaleResponse> resultats = noteService.getNotesFinalesByCnes(List.of("C1", "C2"));
+
+        verify(tauxAbsenceCache, never()).getTauxAbsenceByCnes(anyList());
+        assertEquals(9.0, resultats.get(0).getNoteFinale(), 1e-9);
+        assertEquals(16.0, resultats.get(1).getNoteFinale(), 1e-9);
+    }
+
+    @Test
+    void serviceAbsenceIndisponibleRetombeSurLaMoyenne() {
+        when(etudiantRepository.findByModule("M1")).thenReturn(List.of(etudiant(1L, "C1", 13.0, 13.0)));
+        when(tauxAbsenceReplica.getTauxAbsence(anyCollection())).thenReturn(Map.of());
+        when(tauxAbsenceCache.getTauxAbsenceByCnes(anyList())).thenThrow(new RuntimeException("indisponible"));
+
+        List<NoteFinaleResponse> resultats = noteService.getNotesFinalesByModule("M1");
+
+        assertEquals(1, resultats.size());
+        assertEquals(13.0, resultats.get(0).getNoteFinale(), 1e-9);
+        assertTrue(resultats.get(0).getValide());
+    }
+
+    @Test
+    void listeDeCneVideNeFaitAucuneRequete() {
+        assertTrue(noteService.getNotesFinalesByCnes(List.of()).isEmpty());
+        verify(etudiantRepository, never()).findByCneIn(anyList());
+    }
+
+    private static Etudiant etudiant(Long id, String cne, Double note1, Double note2) {
+        return new Etudiant(id, "Nom" + id, "Prenom" + id, cne, note1, note2, "M1", "L3", 0);
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.gestionnotesspringboot.service;
+
+import org.example.gestionnotesspringboot.dto.EtudiantPatchRequest;
+import org.example.gestionnotesspringboot.dto.SaisieNote;
+import org.example.gestionnotesspringboot.dto.SaisieNotesResponse;
+import org.example.gestionnotesspringboot.entity.Etudiant;
+import org.example.gestionnotesspringboot.event.EtudiantChangeEvent;
+import org.example.gestionnotesspringboot.event.EtudiantsModifiesEvent;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mise à jour partielle (PATCH) et saisie des notes d'un module en masse
+ */
+@ExtendWith(MockitoExtension.class)
+class NoteServiceSaisieTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NoteService noteService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(noteService, "saisieBatchSize", 500);
+    }
+
+    @Test
+    void saisieIgnoreLesLignesInvalidesEtLesCneHorsModule() {
+        // C2: note hors bornes, jamais envoyée; C3: aucune ligne modifiée dans le module
+        when(jdbcTemplate.batchUpdate(any(String.class), anyCollection(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Collection<SaisieNote> lot = invocation.getArgument(1);
+                    assertEquals(List.of("C1", "C3"), lot.stream().map(SaisieNote::getCne).toList());
+                    return new int[][]{{1, 0}};
+                });
+        Etudiant c1 = etudiant(1L, "C1");
+        when(etudiantRepository.findByCneIn(List.of("C1"))).thenReturn(List.of(c1));
+
+        SaisieNotesResponse bilan = noteService.saisirNotesModule("M1", List.of(
+                new SaisieNote("C1", 15.0, null),
+                new SaisieNote("C2", 25.0, 10.0),
+                new SaisieNote("C3", 12.0, 12.0)));
+
+        assertEquals("M1", bilan.getModule());
+        assertEquals(1, bilan.getMisAJour());
+        assertEquals(List.of("C2", "C3"), bilan.getIgnores());
+        ArgumentCaptor<EtudiantChangeEvent> event = ArgumentCaptor.forClass(EtudiantChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertSame(c1, event.getValue().getEtudiant());
+        // Un seul événement pour tout le lot (projection des bulletins)
+        ArgumentCaptor<EtudiantsModifiesEvent> modifies = ArgumentCaptor.forClass(EtudiantsModifiesEvent.class);
+        verify(eventPublisher).publishEvent(modifies.capture());
+        assertEquals(List.of(1L), modifies.getValue().getIds());
+    }
+
+    @Test
+    void saisieSansLigneValideNeTouchePasLaBase() {
+        SaisieNotesResponse bilan = noteService.saisirNotesModule("M1", List.of(new SaisieNote(null, 10.0, 10.0)));
+
+        assertEquals(0, bilan.getMisAJour());
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    @Test
+    void patchNeModifieQueLesChampsFournis() {
+        Etudiant etudiant = etudiant(1L, "C1");
+        when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant));
+
+        EtudiantPatchRequest patch = new EtudiantPatchRequest();
+        patch.setNote2(18.0);
+        patch.setNiveau("M1");
+        Etudiant resultat = noteService.patchEtudiant(1L, patch);
+
+        assertEquals(10.0, resultat.getNote1());
+        assertEquals(18.0, resultat.getNote2());
+        assertEquals("M1", resultat.getNiveau());
+        assertEquals("Nom1", resultat.getNom());
+        assertEquals("MOD", resultat.getModule());
+        verify(eventPublisher).publishEvent(any(EtudiantChangeEvent.class));
+    }
+
+    @Test
+    void patchRefuseUneNoteHorsBornes() {
+        when(etudiantRepository.findById(1L)).thenReturn(Optional.of(etudiant(1L, "C1")));
+        EtudiantPatchRequest patch = new EtudiantPatchRequest();
+        patch.setNote1(-1.0);
+
+        assertThrows(RuntimeException.class, () -> noteService.patchEtudiant(1L, patch));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void patchEtudiantInconnu() {
+        when(etudiantRepository.findById(eq(9L))).thenReturn(Optional.empty());
+
+        assertEquals(null, noteService.patchEtudiant(9L, new EtudiantPatchRequest()));
+    }
+
+    private static Etudiant etudiant(Long id, String cne) {
+        return new Etudiant(id, "Nom" + id, "Prenom" + id, cne, 10.0, 12.0, "MOD", "L3", 0);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.gestionnotesspringboot.service;
+
+import org.example.gestionnotesspringboot.dto.StatistiquesNotes;
+import org.example.gestionnotesspringboot.dto.TrancheEffectif;
+import org.example.gestionnotesspringboot.repository.EtudiantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statistiques du tableau de bord, calculées par une seule requête agrégée
+ */
+@ExtendWith(MockitoExtension.class)
+class NoteServiceStatistiquesTest {
+
+    @Mock
+    private EtudiantRepository etudiantRepository;
+
+    @InjectMocks
+    private NoteService noteService;
+
+    @Test
+    void ligneAgregeeConvertieEnStatistiques() {
+        // 4 étudiants: 5.0, 11.0, 12.0, 17.25 -> somme 45.25
+        when(etudiantRepository.findStatistiques()).thenReturn(Collections.singletonList(
+                new Object[]{4L, 2L, 45.25, 1L, 0L, 1L, 1L, 1L}));
+
+        StatistiquesNotes statistiques = noteService.getStatistiques();
+
+        assertEquals(4, statistiques.getTotal());
+        assertEquals(2, statistiques.getValidants());
+        assertEquals(2, statistiques.getNonValidants());
+        // 11.3125 arrondi au dixième
+        assertEquals(11.3, statistiques.getMoyenne());
+        assertEquals(List.of(
+                new TrancheEffectif("0-5", 1),
+                new TrancheEffectif("6-9", 0),
+                new TrancheEffectif("10-11", 1),
+                new TrancheEffectif("12-15", 1),
+                new TrancheEffectif("16-20", 1)), statistiques.getDistribution());
+    }
+
+    @Test
+    void tableVideSommesNulles() {
+        when(etudiantRepository.findStatistiques()).thenReturn(Collections.singletonList(
+                new Object[]{0L, null, null, null, null, null, null, null}));
+
+        StatistiquesNotes statistiques = noteService.getStatistiques();
+
+        assertEquals(0, statistiques.getTotal());
+        assertEquals(0, statistiques.getValidants());
+        assertEquals(0, statistiques.getNonValidants());
+        assertEquals(0.0, statistiques.getMoyenne());
+        assertEquals(5, statistiques.getDistribution().size());
+        statistiques.getDistribution().forEach(t -> assertEquals(0, t.getEffectif()));
+    }
+}